@@ -0,0 +1,70 @@
+package common.deadline;
+
+import common.exception.gen.TimeoutException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time by which the work of a request has to be done.
+ *
+ * <p>Based on {@link System#nanoTime()}, so it is not affected by changes of the wall clock.</p>
+ */
+public final class Deadline {
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * @param millis the budget, in milliseconds from now
+     */
+    public static Deadline after(long millis) {
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * @return the time left, in milliseconds. 0 once the deadline has passed
+     */
+    public long remainingMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @throws TimeoutException if the deadline has passed
+     */
+    public void check() throws TimeoutException {
+        if (isExpired()) throw new TimeoutException("Request deadline exceeded");
+    }
+
+    /**
+     * Limits a future to this deadline. When the deadline passes first, the returned future fails with a
+     * TimeoutException and the given future is cancelled, so the work behind it can stop.
+     *
+     * @param future the future to limit
+     * @return a future completed like the given one, or failed when the deadline passes
+     */
+    public <T> CompletableFuture<T> bound(CompletableFuture<T> future) {
+        if (future.isDone()) return future;
+
+        CompletableFuture<T> bounded = new CompletableFuture<>();
+        future.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                bounded.completeExceptionally(throwable);
+            } else {
+                bounded.complete(value);
+            }
+        });
+
+        CompletableFuture.delayedExecutor(remainingMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            if (bounded.completeExceptionally(new TimeoutException("Request deadline exceeded"))) future.cancel(true);
+        });
+        return bounded;
+    }
+}
@@ -0,0 +1,88 @@
+package common.deadline;
+
+import common.exception.gen.TimeoutException;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Holds the deadline of the request handled by the current thread.
+ *
+ * <p>The DeadlineInterceptor opens a scope for every request. Work handed to other threads has to carry
+ * the deadline over explicitly, like the request priority:</p>
+ * <pre>
+ * Deadline deadline = DeadlineContext.current();
+ * executor.execute(() -> {
+ *     try (DeadlineContext.Scope ignored = DeadlineContext.open(deadline)) {
+ *         ...
+ *     }
+ * });
+ * </pre>
+ */
+public final class DeadlineContext {
+
+    private static final ThreadLocal<Deadline> current = new ThreadLocal<>();
+
+    private DeadlineContext() {
+    }
+
+    /**
+     * @return the deadline of the current thread, or null outside of a request
+     */
+    @Nullable
+    public static Deadline current() {
+        return current.get();
+    }
+
+    /**
+     * Sets the deadline of the current thread until the returned scope is closed.
+     *
+     * @param deadline the deadline to use, or null for none
+     * @return the scope to close
+     */
+    public static Scope open(@Nullable Deadline deadline) {
+        Deadline previous = current.get();
+        current.set(deadline);
+        return () -> current.set(previous);
+    }
+
+    /**
+     * Lifts the deadline until the returned scope is closed, for work that must finish once started.
+     *
+     * @return the scope to close
+     */
+    public static Scope suspend() {
+        return open(null);
+    }
+
+    /**
+     * @throws TimeoutException if the deadline of the current thread has passed
+     */
+    public static void check() throws TimeoutException {
+        Deadline deadline = current.get();
+        if (deadline != null) deadline.check();
+    }
+
+    /**
+     * @param timeoutMillis the timeout used without a deadline
+     * @return the given timeout, shortened to the time left before the deadline of the current thread
+     */
+    public static long remainingMillis(long timeoutMillis) {
+        Deadline deadline = current.get();
+        return deadline == null ? timeoutMillis : Math.min(timeoutMillis, deadline.remainingMillis());
+    }
+
+    /**
+     * Limits a future to the deadline of the current thread, see {@link Deadline#bound(CompletableFuture)}.
+     */
+    public static <T> CompletableFuture<T> bound(CompletableFuture<T> future) {
+        Deadline deadline = current.get();
+        return deadline == null ? future : deadline.bound(future);
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,52 @@
+package common.deadline;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Starts the deadline of every request handled by a controller, and clears it once the request thread is released.
+ */
+@Component
+public class DeadlineInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String SCOPE_ATTRIBUTE = DeadlineInterceptor.class.getName() + ".scope";
+
+    @Value("${request.deadline.default-ms:10000}")
+    private long defaultMillis;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long millis = defaultMillis;
+        if (handler instanceof HandlerMethod handlerMethod) {
+            RequestDeadline requestDeadline = handlerMethod.getMethodAnnotation(RequestDeadline.class);
+            if (requestDeadline != null) millis = requestDeadline.millis();
+        }
+
+        if (millis > 0) request.setAttribute(SCOPE_ATTRIBUTE, DeadlineContext.open(Deadline.after(millis)));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        close(request);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // the thread goes back to the pool while the async result is pending
+        close(request);
+    }
+
+    private static void close(HttpServletRequest request) {
+        Object scope = request.getAttribute(SCOPE_ATTRIBUTE);
+        if (scope instanceof DeadlineContext.Scope deadlineScope) {
+            request.removeAttribute(SCOPE_ATTRIBUTE);
+            deadlineScope.close();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package common.deadline;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sets the time budget of a controller route. Routes without it get request.deadline.default-ms.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestDeadline {
+
+    /**
+     * @return the budget in milliseconds, 0 for no deadline
+     */
+    long millis();
+}
@@ -0,0 +1,30 @@
+package common.exception;
+
+import common.exception.gen.RateLimitException;
+import common.exception.gen.TimeoutException;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * Exceptions with an answer of their own in the controller advice, which must not be turned into a 500 on the way up.
+ */
+public final class AdvisedExceptions {
+
+    private AdvisedExceptions() {
+    }
+
+    /**
+     * Rethrows the exception if it is, or was caused by, a RateLimitException, answered with 429,
+     * or a TimeoutException, answered with 504. The cause is kept, the advice matches it there.
+     * Returns normally otherwise, leaving the exception to the caller.
+     *
+     * @param e the exception caught
+     */
+    public static void rethrow(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RateLimitException || cause instanceof TimeoutException) {
+                throw e instanceof RuntimeException runtimeException ? runtimeException : new CompletionException(cause);
+            }
+        }
+    }
+}
@@ -5,14 +5,34 @@ package common.exception.gen;
  * Exception for when the rate limit is exceeded. Can be used by all functions that have rate limits.
  */
 public class RateLimitException extends Exception {
+
+    private final long retryAfterSeconds;
+
     public RateLimitException() {
-        super("Too many requests");
+        this("Too many requests");
     }
 
     public RateLimitException(String message) {
+        this(message, -1);
+    }
+
+    /**
+     * @param retryAfterSeconds how long until the call may be made again, or -1 if unknown
+     */
+    public RateLimitException(String message, long retryAfterSeconds) {
         super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
     }
+
     public RateLimitException(String message, Throwable cause) {
         super(message, cause);
+        this.retryAfterSeconds = -1;
+    }
+
+    /**
+     * @return how long until the call may be made again, or -1 if unknown
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
     }
 }
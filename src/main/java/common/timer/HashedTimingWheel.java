@@ -0,0 +1,200 @@
+package common.timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Timer for large numbers of tasks that only need to run to within one tick.
+ *
+ * <p>Tasks are hashed into a fixed ring of buckets by their deadline. Each tick the worker thread visits a single
+ * bucket, so the cost of a tick depends on the size of that bucket and not on the number of scheduled tasks.
+ * Scheduling and cancelling are O(1): new tasks are queued for the worker, cancelled ones are dropped when their
+ * bucket is next visited. Tasks due more than one rotation ahead wait in their bucket for the remaining rounds.</p>
+ *
+ * <p>Expired tasks are handed to the given executor, so a slow task does not delay the ticks. Based on
+ * {@link System#nanoTime()}, so changes of the wall clock do not move the deadlines.</p>
+ */
+public final class HashedTimingWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(HashedTimingWheel.class);
+
+    // bounds the work of one tick when a burst of tasks is scheduled
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final List<Timeout>[] wheel;
+    private final int mask;
+    private final Executor executor;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final long startNanos;
+    private final Thread worker;
+
+    private volatile boolean stopped;
+
+    // only used by the worker thread
+    private long tick;
+
+    /**
+     * Creates the wheel and starts its worker thread.
+     *
+     * @param name       the name of the worker thread
+     * @param tickMillis the length of a tick, the precision of the timer
+     * @param wheelSize  the number of buckets, rounded up to a power of two
+     * @param executor   runs the expired tasks
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(String name, long tickMillis, int wheelSize, Executor executor) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be positive, got " + tickMillis);
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) throw new IllegalArgumentException("wheelSize out of range: " + wheelSize);
+
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        if (size == 0) size = 1;
+
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.wheel = new List[size];
+        for (int i = 0; i < size; i++) wheel[i] = new ArrayList<>();
+        this.mask = size - 1;
+        this.executor = executor;
+        this.startNanos = System.nanoTime();
+
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedules a task.
+     *
+     * @param task        the task to run
+     * @param delayMillis the time until the task is due, a task due in the past runs on the next tick
+     * @return the handle to cancel the task with
+     */
+    public Timeout schedule(Runnable task, long delayMillis) {
+        if (stopped) throw new RejectedExecutionException("Timing wheel is stopped");
+
+        long deadline = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+        Timeout timeout = new Timeout(task, deadline);
+        pending.incrementAndGet();
+        added.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * @return the number of tasks that are scheduled and not yet run or cancelled
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * Stops the worker thread. Tasks that have not run yet are dropped.
+     */
+    public void stop() {
+        stopped = true;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (!stopped) {
+            long tickDeadline = (tick + 1) * tickNanos;
+            long sleepNanos = tickDeadline - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (stopped) return;
+                    continue;
+                }
+            }
+
+            transferAdded();
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferAdded() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = added.poll();
+            if (timeout == null) return;
+            if (timeout.state.get() != Timeout.WAITING) continue;
+
+            long dueTick = timeout.deadlineNanos / tickNanos;
+            timeout.remainingRounds = (dueTick - tick) / wheel.length;
+            // a task that is already due goes into the current bucket
+            wheel[(int) (Math.max(dueTick, tick) & mask)].add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout> bucket) {
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            Timeout timeout = bucket.get(i);
+            if (timeout.state.get() != Timeout.WAITING) continue;
+
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                bucket.set(kept++, timeout);
+            } else {
+                timeout.expire();
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    /**
+     * A scheduled task
+     */
+    public final class Timeout {
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        // only used by the worker thread
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Cancels the task, unless it has already run.
+         *
+         * @return true if the task was cancelled by this call
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(WAITING, CANCELLED)) return false;
+            pending.decrementAndGet();
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(WAITING, EXPIRED)) return;
+            pending.decrementAndGet();
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Timer task rejected: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -3,19 +3,31 @@ package controller.fixture;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
+import common.deadline.RequestDeadline;
+import common.exception.AdvisedExceptions;
 import common.exception.InternalServerError;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import service.app.fixture.FixtureService;
 import service.app.fixture.common.exception.FootballApiException;
 import service.app.fixture.common.model.Fixture;
+import service.app.fixture.snapshot.ResponseSnapshot;
+import service.app.fixture.snapshot.ResponseSnapshotCache;
 
-
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
@@ -24,10 +36,17 @@ import java.util.Map;
 @Api(tags = "Fixtures and Odds")
 public class FixtureBetsController {
 
+    private static final Gson PRETTY_GSON = new GsonBuilder().setPrettyPrinting().create();
+
     private final FixtureService fixtureService;
+    private final ResponseSnapshotCache responseSnapshots;
+
+    @Value("${fixtures.window.max-days:14}")
+    private long maxWindowDays;
 
-    public FixtureBetsController(FixtureService fixtureService) {
+    public FixtureBetsController(FixtureService fixtureService, ResponseSnapshotCache responseSnapshots) {
         this.fixtureService = fixtureService;
+        this.responseSnapshots = responseSnapshots;
     }
 
     @ApiOperation(value = "Get bet types", notes = "This endpoint allows you to get bet types.", tags = "Fixtures and Odds")
@@ -40,93 +59,169 @@ public class FixtureBetsController {
         }
     }
 
-    @ApiOperation(value = "Get odds for a specific fixture", notes = "This endpoint allows you to get odds for a specific fixture given an ID.", tags = "Fixtures and Odds")
+    @ApiOperation(value = "Get odds for a specific fixture", notes = "This endpoint allows you to get odds for a specific fixture given an ID. Answers If-None-Match with 304 Not Modified.", tags = "Fixtures and Odds")
     @GetMapping("/football/v2/odds/for-fixture")
-    public ResponseEntity<String> getOddsForFixture(
+    @RequestDeadline(millis = 4000)
+    public ResponseEntity<?> getOddsForFixture(
             @ApiParam(value = "Fixture ID", required = true) @RequestParam("fixtureID") int fixtureID,
-            @ApiParam(value = "Odd ID", required = true) @RequestParam("oddID") int oddID
+            @ApiParam(value = "Odd ID", required = true) @RequestParam("oddID") int oddID,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) throws Exception {
-        try {
-            Map<String, Double> odds = fixtureService.getOddsForFixture(fixtureID, oddID);
-
-            GsonBuilder gsonBuilder = new GsonBuilder().setPrettyPrinting();
-            Gson gson = gsonBuilder.create();
-            String prettyJson = gson.toJson(odds);
-
-            return ResponseEntity.status(200).body(prettyJson);
-
-        } catch (Exception e) {
-            return ResponseEntity.status(404).body("[]");
+        String key = ResponseSnapshotCache.oddsKey(fixtureID, oddID);
+        ResponseSnapshot snapshot = responseSnapshots.get(key);
+
+        if (snapshot == null) {
+            try {
+                Map<String, Double> odds = fixtureService.getOddsForFixture(fixtureID, oddID);
+                snapshot = responseSnapshots.put(key, PRETTY_GSON.toJson(odds));
+            } catch (Exception e) {
+                AdvisedExceptions.rethrow(e);
+                return ResponseEntity.status(404).body("[]");
+            }
         }
+
+        return fromSnapshot(snapshot, ifNoneMatch, acceptEncoding);
     }
 
-    @ApiOperation(value = "Get odds for a a given league and season", notes = "This endpoint allows you to get odds for a given league and season.", tags = "Fixtures and Odds")
+    @ApiOperation(value = "Get odds for a a given league and season", notes = "This endpoint allows you to get odds for a given league and season. Answers If-None-Match with 304 Not Modified.", tags = "Fixtures and Odds")
     @GetMapping("/football/v2/odds/for-league-and-season")
-    public ResponseEntity<String> getOddsForLeagueAndSeason(
+    @RequestDeadline(millis = 15000)
+    public ResponseEntity<?> getOddsForLeagueAndSeason(
             @ApiParam(value = "League ID", required = true) @RequestParam("leagueID") int leagueID,
             @ApiParam(value = "Season ID", required = true) @RequestParam("seasonID") int seasonID,
-            @ApiParam(value = "Odd ID", required = true) @RequestParam("oddID") int oddID
+            @ApiParam(value = "Odd ID", required = true) @RequestParam("oddID") int oddID,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) throws Exception {
-        try {
-            Map<Integer, Map<String, Double>> odds = fixtureService.getOddsForLeagueAndSeason(leagueID, seasonID, oddID);
-
-            GsonBuilder gsonBuilder = new GsonBuilder().setPrettyPrinting();
-            Gson gson = gsonBuilder.create();
-            String prettyJson = gson.toJson(odds);
-
-            return ResponseEntity.status(200).body(prettyJson);
-
-        } catch (InternalServerError e) {
-            return ResponseEntity.status(500).body("No odds found");
+        String key = ResponseSnapshotCache.leagueOddsKey(leagueID, seasonID, oddID);
+        ResponseSnapshot snapshot = responseSnapshots.get(key);
+
+        if (snapshot == null) {
+            try {
+                Map<Integer, Map<String, Double>> odds = fixtureService.getOddsForLeagueAndSeason(leagueID, seasonID, oddID);
+                snapshot = responseSnapshots.put(key, PRETTY_GSON.toJson(odds));
+            } catch (InternalServerError e) {
+                return ResponseEntity.status(500).body("No odds found");
+            }
         }
+
+        return fromSnapshot(snapshot, ifNoneMatch, acceptEncoding);
     }
 
-    @ApiOperation(value = "Get fixture by ID", notes = "This endpoint allows you to get a fixture by its ID.", tags = "Fixtures and Odds")
+    @ApiOperation(value = "Get fixture by ID", notes = "This endpoint allows you to get a fixture by its ID. Answers If-None-Match with 304 Not Modified.", tags = "Fixtures and Odds")
     @GetMapping("/football/v2/fixtures/by-id")
-    public ResponseEntity<String> getFixturesById(
-            @ApiParam(value = "Fixture ID", required = true) @RequestParam("fixtureID") int fixtureID
+    @RequestDeadline(millis = 4000)
+    public ResponseEntity<?> getFixturesById(
+            @ApiParam(value = "Fixture ID", required = true) @RequestParam("fixtureID") int fixtureID,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
-        try {
-            Fixture fixture = fixtureService.getFixtureByID(fixtureID);
-            return ResponseEntity.status(200).body(fixture.toJson());
-        } catch (InternalServerError e) {
-            return ResponseEntity.status(500).body("Fixture not found");
-        } catch (FootballApiException e) {
-            throw new RuntimeException(e);
+        String key = ResponseSnapshotCache.fixtureKey(fixtureID);
+        ResponseSnapshot snapshot = responseSnapshots.get(key);
+
+        if (snapshot == null) {
+            try {
+                Fixture fixture = fixtureService.getFixtureByID(fixtureID);
+                snapshot = responseSnapshots.put(key, fixture.toJson());
+            } catch (InternalServerError e) {
+                return ResponseEntity.status(500).body("Fixture not found");
+            } catch (FootballApiException e) {
+                throw new RuntimeException(e);
+            }
         }
+
+        return fromSnapshot(snapshot, ifNoneMatch, acceptEncoding);
     }
 
-    @ApiOperation(value = "Get fixtures by league and season", notes = "This endpoint allows you to get fixtures by league and season.", tags = "Fixtures and Odds")
+    @ApiOperation(value = "Get fixtures by league and season", notes = "This endpoint allows you to get fixtures by league and season. Answers If-None-Match with 304 Not Modified.", tags = "Fixtures and Odds")
     @GetMapping("/football/v2/fixtures/by-league-and-season")
-    public ResponseEntity<String> getFixturesByLeagueAndSeason(
+    @RequestDeadline(millis = 15000)
+    public ResponseEntity<?> getFixturesByLeagueAndSeason(
             @ApiParam(value = "League ID", required = true) @RequestParam("leagueID") int leagueID,
-            @ApiParam(value = "Season ID", required = true) @RequestParam("seasonID") int seasonID
+            @ApiParam(value = "Season ID", required = true) @RequestParam("seasonID") int seasonID,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
-        try {
+        String key = ResponseSnapshotCache.leagueSeasonKey(leagueID, seasonID);
+        ResponseSnapshot snapshot = responseSnapshots.get(key);
+
+        if (snapshot == null) {
+            try {
+                List<Fixture> fixtures = fixtureService.getFixturesByLeagueAndSeason(leagueID, seasonID);
+
+                if (fixtures.isEmpty()) {
+                    return ResponseEntity.status(404).body("No fixtures found");
+                }
+
+                JsonArray jsonArray = new JsonArray();
+                for (Fixture fixture : fixtures) {
+                    jsonArray.add(fixture.toJsonElement());
+                }
+                snapshot = responseSnapshots.put(key, PRETTY_GSON.toJson(jsonArray));
+
+            } catch (FootballApiException e) {
+                throw new RuntimeException(e);
+            } catch (InternalServerError e) {
+                return ResponseEntity.status(500).body("No fixtures found");
+            }
+        }
 
-            List<Fixture> fixtures = fixtureService.getFixturesByLeagueAndSeason(leagueID, seasonID);
+        return fromSnapshot(snapshot, ifNoneMatch, acceptEncoding);
+    }
 
-            JsonArray jsonArray = new JsonArray();
+    @ApiOperation(value = "Get fixtures by kickoff window", notes = "This endpoint allows you to get the fixtures kicking off in a time window, optionally filtered by league and status. Served from the fixture index, without calling the football API.", tags = "Fixtures and Odds")
+    @GetMapping("/football/v2/fixtures/by-window")
+    public ResponseEntity<String> getFixturesByWindow(
+            @ApiParam(value = "Earliest kickoff, ISO-8601 with offset (e.g. 2024-04-13T00:00:00Z). Defaults to now") @RequestParam(value = "from", required = false) String from,
+            @ApiParam(value = "Latest kickoff, exclusive. Defaults to 48 hours after from") @RequestParam(value = "to", required = false) String to,
+            @ApiParam(value = "League IDs. Defaults to the supported leagues") @RequestParam(value = "leagueID", required = false) List<Integer> leagueIDs,
+            @ApiParam(value = "Short status, e.g. NS for not started") @RequestParam(value = "status", required = false) String status
+    ) {
+        Instant start;
+        Instant end;
+        try {
+            start = from != null ? OffsetDateTime.parse(from).toInstant() : Instant.now();
+            end = to != null ? OffsetDateTime.parse(to).toInstant() : start.plus(Duration.ofHours(48));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.status(400).body("Invalid date, expected ISO-8601 with an offset");
+        }
 
-            for (Fixture fixture : fixtures) {
-                jsonArray.add(fixture.toJsonElement());
-            }
+        if (!start.isBefore(end) || Duration.between(start, end).compareTo(Duration.ofDays(maxWindowDays)) > 0) {
+            return ResponseEntity.status(400).body("The window must end after it starts and span at most " + maxWindowDays + " days");
+        }
 
-            GsonBuilder gsonBuilder = new GsonBuilder().setPrettyPrinting();
-            Gson gson = gsonBuilder.create();
-            String prettyJson = gson.toJson(jsonArray);
+        List<Fixture> fixtures = fixtureService.getFixturesInWindow(start, end, leagueIDs, status);
 
-            if (fixtures.isEmpty()) {
-                return ResponseEntity.status(404).body("No fixtures found");
-            } else {
-                return ResponseEntity.status(200).body(prettyJson);
-            }
+        JsonArray jsonArray = new JsonArray();
+        for (Fixture fixture : fixtures) {
+            jsonArray.add(fixture.toJsonElement());
+        }
 
-        } catch (FootballApiException e) {
-            throw new RuntimeException(e);
-        } catch (InternalServerError e) {
-            return ResponseEntity.status(500).body("No fixtures found");
+        return ResponseEntity.status(200).body(PRETTY_GSON.toJson(jsonArray));
+    }
+
+    /**
+     * Answers from a snapshot, with 304 Not Modified if the client already has it, and gzipped if the client accepts it
+     */
+    private ResponseEntity<byte[]> fromSnapshot(ResponseSnapshot snapshot, @Nullable String ifNoneMatch, @Nullable String acceptEncoding) {
+        boolean gzip = snapshot.gzipped() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        // caches key the stored response on the encoding, the 304 included
+        if (snapshot.matches(ifNoneMatch, gzip)) {
+            responseSnapshots.notModified();
+            return ResponseEntity.status(304)
+                    .eTag(snapshot.etag(gzip))
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
         }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(200)
+                .eTag(snapshot.etag(gzip))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        return response.body(gzip ? snapshot.gzipped() : snapshot.body());
     }
 
-}
\ No newline at end of file
+}
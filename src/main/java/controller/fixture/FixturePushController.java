@@ -0,0 +1,56 @@
+package controller.fixture;
+
+import common.deadline.RequestDeadline;
+import common.exception.gen.RateLimitException;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import service.app.fixture.push.FixturePush;
+
+import java.util.List;
+
+
+@RestController
+@Api(tags = "Fixtures and Odds")
+public class FixturePushController {
+
+    private static final int MAX_SUBSCRIPTIONS = 100;
+
+    private final FixturePush fixturePush;
+
+    @Autowired
+    public FixturePushController(FixturePush fixturePush) {
+        this.fixturePush = fixturePush;
+    }
+
+    @ApiOperation(value = "Stream fixture changes", notes = "This endpoint streams score and odds changes of the given fixtures and leagues as server-sent events. A fixture event carries the full fixture first, then only the fields that changed. An odds event carries the changed odds of a bet type.", tags = "Fixtures and Odds")
+    @GetMapping(value = "/football/v2/fixtures/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequestDeadline(millis = 0)
+    public ResponseEntity<SseEmitter> streamFixtures(
+            @ApiParam(value = "Fixture IDs") @RequestParam(value = "fixtureID", required = false) List<Integer> fixtureIDs,
+            @ApiParam(value = "League IDs, all their fixtures included") @RequestParam(value = "leagueID", required = false) List<Integer> leagueIDs
+    ) {
+        List<Integer> fixtures = fixtureIDs == null ? List.of() : fixtureIDs;
+        List<Integer> leagues = leagueIDs == null ? List.of() : leagueIDs;
+
+        if (fixtures.isEmpty() && leagues.isEmpty()) {
+            return ResponseEntity.status(400).build();
+        }
+        if (fixtures.size() + leagues.size() > MAX_SUBSCRIPTIONS) {
+            return ResponseEntity.status(400).build();
+        }
+
+        try {
+            return ResponseEntity.status(200).body(fixturePush.subscribe(fixtures, leagues));
+        } catch (RateLimitException e) {
+            return ResponseEntity.status(503).build();
+        }
+    }
+}
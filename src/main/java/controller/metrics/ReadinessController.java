@@ -0,0 +1,31 @@
+package controller.metrics;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import service.app.fixture.warmup.CacheWarmup;
+
+@RestController
+@Api(tags = "Metrics")
+public class ReadinessController {
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    private final CacheWarmup cacheWarmup;
+
+    @Autowired
+    public ReadinessController(CacheWarmup cacheWarmup) {
+        this.cacheWarmup = cacheWarmup;
+    }
+
+    @ApiOperation(value = "Get readiness", notes = "503 while the caches are being warmed up after startup, 200 once the warm-up has completed or timed out. Meant for the load balancer health check.", tags = "Metrics")
+    @GetMapping("/health/ready")
+    public ResponseEntity<String> getReadiness() {
+        return ResponseEntity.status(cacheWarmup.ready() ? 200 : 503).body(gson.toJson(cacheWarmup.progress()));
+    }
+}
@@ -0,0 +1,87 @@
+package controller.metrics;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import service.app.fixture.lifecycle.FixtureLifecycle;
+import service.app.fixture.odds.cache.OddsCache;
+import service.app.fixture.provider.ProviderFailover;
+import service.app.fixture.push.FixturePush;
+import service.app.fixture.snapshot.ResponseSnapshotCache;
+import service.app.fixture.warmup.CacheWarmup;
+import service.general.external.apiService.cache.ApiResponseCache;
+import service.general.external.apiService.cache.PersistentResponseStore;
+import service.general.external.apiService.coalesce.RequestCoalescer;
+import service.general.external.apiService.metrics.UpstreamMetrics;
+import service.general.external.apiService.quota.QuotaGovernor;
+import service.general.external.apiService.resilience.ResiliencePolicy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@Api(tags = "Metrics")
+public class UpstreamMetricsController {
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().serializeNulls().create();
+
+    private final UpstreamMetrics upstreamMetrics;
+    private final ApiResponseCache responseCache;
+    private final PersistentResponseStore persistentStore;
+    private final RequestCoalescer requestCoalescer;
+    private final QuotaGovernor quotaGovernor;
+    private final ResiliencePolicy resiliencePolicy;
+    private final ProviderFailover providerFailover;
+    private final FixtureLifecycle fixtureLifecycle;
+    private final FixturePush fixturePush;
+    private final ResponseSnapshotCache responseSnapshots;
+    private final CacheWarmup cacheWarmup;
+    private final OddsCache oddsCache;
+
+    @Autowired
+    public UpstreamMetricsController(UpstreamMetrics upstreamMetrics, ApiResponseCache responseCache,
+                                     PersistentResponseStore persistentStore, RequestCoalescer requestCoalescer,
+                                     QuotaGovernor quotaGovernor, ResiliencePolicy resiliencePolicy,
+                                     ProviderFailover providerFailover, FixtureLifecycle fixtureLifecycle,
+                                     FixturePush fixturePush, ResponseSnapshotCache responseSnapshots,
+                                     CacheWarmup cacheWarmup, OddsCache oddsCache) {
+        this.upstreamMetrics = upstreamMetrics;
+        this.responseCache = responseCache;
+        this.persistentStore = persistentStore;
+        this.requestCoalescer = requestCoalescer;
+        this.quotaGovernor = quotaGovernor;
+        this.resiliencePolicy = resiliencePolicy;
+        this.providerFailover = providerFailover;
+        this.fixtureLifecycle = fixtureLifecycle;
+        this.fixturePush = fixturePush;
+        this.responseSnapshots = responseSnapshots;
+        this.cacheWarmup = cacheWarmup;
+        this.oddsCache = oddsCache;
+    }
+
+    @ApiOperation(value = "Get football API metrics", notes = "Latency per endpoint and phase, connection reuse, cache, quota and circuit breaker state of the football API client, which provider served the requests, the fixtures tracked by the lifecycle, the push subscriptions, the response snapshots, the startup warm-up and the odds cache.", tags = "Metrics")
+    @GetMapping("/metrics/upstream")
+    public ResponseEntity<String> getUpstreamMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("endpoints", upstreamMetrics.stats());
+        metrics.put("connectionPool", upstreamMetrics.connectionPool());
+        metrics.put("cache", responseCache.stats());
+        metrics.put("persistentCache", persistentStore.stats());
+        metrics.put("coalescer", requestCoalescer.stats());
+        metrics.put("quota", quotaGovernor.stats());
+        metrics.put("resilience", resiliencePolicy.stats());
+        metrics.put("providers", providerFailover.stats());
+        metrics.put("lifecycle", fixtureLifecycle.stats());
+        metrics.put("push", fixturePush.stats());
+        metrics.put("snapshots", responseSnapshots.stats());
+        metrics.put("warmup", cacheWarmup.progress());
+        metrics.put("odds", oddsCache.stats());
+
+        return ResponseEntity.status(200).body(gson.toJson(metrics));
+    }
+}
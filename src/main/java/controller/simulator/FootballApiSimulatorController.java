@@ -0,0 +1,50 @@
+package controller.simulator;
+
+import common.deadline.RequestDeadline;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import service.general.external.apiService.simulator.FootballApiSimulator;
+import springfox.documentation.annotations.ApiIgnore;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Serves the football API simulator. Point api.base-url at http://host:port/simulator/ to use it.
+ */
+@RestController
+@Profile("simulator")
+@ApiIgnore
+@RequestMapping("/simulator")
+public class FootballApiSimulatorController {
+
+    private final FootballApiSimulator simulator;
+
+    @Autowired
+    public FootballApiSimulatorController(FootballApiSimulator simulator) {
+        this.simulator = simulator;
+    }
+
+    @GetMapping("/{endpoint}")
+    // the simulated latency and timeouts are the point of the simulator
+    @RequestDeadline(millis = 0)
+    public CompletableFuture<ResponseEntity<String>> handle(@PathVariable String endpoint,
+                                                            @RequestParam Map<String, String> params) {
+        return simulator.handle(endpoint, params).thenApply(response -> {
+            HttpHeaders headers = new HttpHeaders();
+            response.headers().forEach(headers::add);
+            return ResponseEntity.status(response.status())
+                    .headers(headers)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(response.body());
+        });
+    }
+}
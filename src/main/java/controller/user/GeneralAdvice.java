@@ -1,8 +1,11 @@
 package controller.user;
 
 import common.exception.NotAuthorizedException;
+import common.exception.gen.RateLimitException;
+import common.exception.gen.TimeoutException;
 import controller.ResponseFormer;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -16,4 +19,20 @@ public class GeneralAdvice {
         return ResponseEntity.status(401).body(ResponseFormer.formErrorResponse("Not authorized"));
     }
 
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<String> handleTimeoutException(TimeoutException e) {
+        return ResponseEntity.status(504).body(ResponseFormer.formErrorResponse("The request took too long to process"));
+    }
+
+    /**
+     * Also matches a RateLimitException wrapped by the layers it passed through
+     */
+    @ExceptionHandler(RateLimitException.class)
+    public ResponseEntity<String> handleRateLimitException(RateLimitException e) {
+        long retryAfter = e.getRetryAfterSeconds() > 0 ? e.getRetryAfterSeconds() : 60;
+        return ResponseEntity.status(429)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(ResponseFormer.formErrorResponse("Too many requests, try again later"));
+    }
+
 }
@@ -1,6 +1,7 @@
 package controller.user.bet;
 
 import com.google.gson.GsonBuilder;
+import common.deadline.RequestDeadline;
 import common.exception.InternalServerError;
 import common.exception.NotAuthorizedException;
 import common.exception.UnhandledErrorException;
@@ -40,6 +41,7 @@ public class BetController {
     }
 
     @PostMapping("betting/v2/place")
+    @RequestDeadline(millis = 5000)
     @ApiOperation(value = "Place a bet", notes = "This endpoint allows you to place a bet.", tags = "Betting")
     public ResponseEntity<String> placeBet(
             @ApiParam(value = "The user's JWT token", required = true) @RequestParam String jwtToken,
@@ -94,6 +96,7 @@ public class BetController {
     }
 
     @PutMapping("betting/v2/claim")
+    @RequestDeadline(millis = 20000)
     @ApiOperation(value = "Claim bets", notes = "This endpoint allows you to claim bets.", tags = "Betting")
     public ResponseEntity<String> claimBets(
             @ApiParam(value = "The user's JWT token", required = true) @RequestParam String jwtToken,
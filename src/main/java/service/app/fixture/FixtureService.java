@@ -1,9 +1,12 @@
 package service.app.fixture;
 
 import common.exception.InternalServerError;
+import org.jetbrains.annotations.Nullable;
 import service.app.fixture.common.exception.FootballApiException;
 import service.app.fixture.common.model.Fixture;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -17,6 +20,15 @@ public interface FixtureService {
      */
     Fixture getFixtureByID(int fixture) throws FootballApiException, InternalServerError;
 
+    /**
+     * Gets several fixtures, merging the lookups into as few requests as possible
+     *
+     * @param fixtures The IDs of the fixtures
+     * @return The fixtures found, by ID. Fixtures that do not exist are left out
+     * @throws InternalServerError If an error occurs while processing the request
+     */
+    Map<Integer, Fixture> getFixturesByIDs(Collection<Integer> fixtures) throws InternalServerError;
+
     /**
      * Gets all fixtures for a given league and season
      *
@@ -27,6 +39,17 @@ public interface FixtureService {
 
     List<Fixture> getFixturesByLeagueAndSeason(int league, int season) throws FootballApiException, InternalServerError;
 
+    /**
+     * Gets the fixtures kicking off in a time window, from the fixture index
+     *
+     * @param from    The earliest kickoff, inclusive
+     * @param to      The latest kickoff, exclusive
+     * @param leagues The league IDs to include, or null for the supported leagues
+     * @param status  The short status to include, e.g. "NS", or null for all
+     * @return The fixtures, by kickoff
+     */
+    List<Fixture> getFixturesInWindow(Instant from, Instant to, @Nullable Collection<Integer> leagues, @Nullable String status);
+
     /**
      * Gets the odds for a fixture
      * @param fixtureId The ID of the fixture
@@ -1,6 +1,8 @@
 package service.app.fixture;
 
+import common.exception.AdvisedExceptions;
 import common.exception.InternalServerError;
+import org.jetbrains.annotations.Nullable;
 import org.json.JSONException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -11,7 +13,8 @@ import service.app.fixture.leagues.GetLeaguesService;
 import service.app.fixture.odds.GetBetTypesService;
 import service.app.fixture.odds.GetOddsService;
 
-
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -43,10 +46,28 @@ public class FixtureServiceImpl implements FixtureService {
         try {
             return getFixtureService.getFixtureById(fixture);
         } catch (Exception e) {
+            AdvisedExceptions.rethrow(e);
             throw new InternalServerError("Error while getting fixture" + e.getMessage());
         }
     }
 
+    /**
+     * Gets several fixtures, merging the lookups into as few requests as possible
+     *
+     * @param fixtures The IDs of the fixtures
+     * @return The fixtures found, by ID. Fixtures that do not exist are left out
+     * @throws InternalServerError If an error occurs while processing the request
+     */
+    @Override
+    public Map<Integer, Fixture> getFixturesByIDs(Collection<Integer> fixtures) throws InternalServerError {
+        try {
+            return getFixtureService.getFixturesByIds(fixtures);
+        } catch (Exception e) {
+            AdvisedExceptions.rethrow(e);
+            throw new InternalServerError("Error while getting fixtures");
+        }
+    }
+
     /**
      * Gets all fixtures for a given league and season
      *
@@ -59,10 +80,24 @@ public class FixtureServiceImpl implements FixtureService {
         try {
             return getFixtureService.getFixturesByLeagueAndSeason(league, season);
         } catch (Exception e) {
+            AdvisedExceptions.rethrow(e);
             throw new InternalServerError("Error while getting fixtures");
         }
     }
 
+    /**
+     * Gets the fixtures kicking off in a time window, from the fixture index
+     *
+     * @param from    The earliest kickoff, inclusive
+     * @param to      The latest kickoff, exclusive
+     * @param leagues The league IDs to include, or null for the supported leagues
+     * @param status  The short status to include, or null for all
+     */
+    @Override
+    public List<Fixture> getFixturesInWindow(Instant from, Instant to, @Nullable Collection<Integer> leagues, @Nullable String status) {
+        return getFixtureService.getFixturesInWindow(from, to, leagues, status);
+    }
+
     /**
      * Gets the odds for a fixture
      *
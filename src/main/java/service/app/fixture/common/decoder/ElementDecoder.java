@@ -0,0 +1,23 @@
+package service.app.fixture.common.decoder;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+
+/**
+ * Decodes one element of the "response" array of an API response.
+ *
+ * @param <T> the decoded type
+ */
+@FunctionalInterface
+public interface ElementDecoder<T> {
+
+    /**
+     * Reads exactly one element from the reader.
+     *
+     * @param reader the reader, positioned at the start of the element
+     * @return the decoded element
+     * @throws IOException if the element is malformed
+     */
+    T decode(JsonReader reader) throws IOException;
+}
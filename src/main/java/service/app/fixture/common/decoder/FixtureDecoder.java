@@ -0,0 +1,182 @@
+package service.app.fixture.common.decoder;
+
+import com.google.gson.stream.JsonReader;
+import service.app.fixture.common.model.Fixture;
+
+import java.io.IOException;
+
+import static service.app.fixture.common.decoder.JsonReaders.beginObjectOrSkip;
+import static service.app.fixture.common.decoder.JsonReaders.nextIntOr;
+import static service.app.fixture.common.decoder.JsonReaders.nextStringOrNull;
+
+/**
+ * Decodes a fixture element straight into a Fixture, skipping the fields the record does not hold.
+ * Missing values default to null for text, 0 for goals and -1 for ids, penalties and elapsed minutes.
+ *
+ * <p>Sample element:</p>
+ * <pre>
+ * {<br>
+ *    "fixture": { "id": 1035034, "date": "2024-04-13T21:30:00+00:00", "status": { "short": "FT", "elapsed": 90 }, ... },<br>
+ *    "league": { "id": 71, "name": "Serie A", "season": 2024, ... },<br>
+ *    "teams": { "home": { "name": "...", "logo": "..." }, "away": { "name": "...", "logo": "..." } },<br>
+ *    "goals": { "home": 2, "away": 1 },<br>
+ *    "score": { "penalty": { "home": null, "away": null }, ... }<br>
+ * }<br>
+ * </pre>
+ */
+public final class FixtureDecoder implements ElementDecoder<Fixture> {
+
+    public static final FixtureDecoder INSTANCE = new FixtureDecoder();
+
+    private FixtureDecoder() {
+    }
+
+    @Override
+    public Fixture decode(JsonReader reader) throws IOException {
+        FixtureFields f = new FixtureFields();
+
+        if (beginObjectOrSkip(reader)) {
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "fixture" -> readFixture(reader, f);
+                    case "league" -> readLeague(reader, f);
+                    case "teams" -> readTeams(reader, f);
+                    case "goals" -> readGoals(reader, f);
+                    case "score" -> readScore(reader, f);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+
+        return new Fixture(f.league, f.leagueId, f.season, f.fixtureId, f.fixtureDate,
+                f.homeTeam, f.homeTeamIcon, f.awayTeam, f.awayTeamIcon, f.status,
+                f.homeGoals, f.awayGoals, f.homePenalties, f.awayPenalties, f.minutesElapsed);
+    }
+
+    private void readFixture(JsonReader reader, FixtureFields f) throws IOException {
+        if (!beginObjectOrSkip(reader)) return;
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id" -> f.fixtureId = nextIntOr(reader, -1);
+                case "date" -> f.fixtureDate = nextStringOrNull(reader);
+                case "status" -> readStatus(reader, f);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readStatus(JsonReader reader, FixtureFields f) throws IOException {
+        if (!beginObjectOrSkip(reader)) return;
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "short" -> f.status = nextStringOrNull(reader);
+                case "elapsed" -> f.minutesElapsed = nextIntOr(reader, -1);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readLeague(JsonReader reader, FixtureFields f) throws IOException {
+        if (!beginObjectOrSkip(reader)) return;
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id" -> f.leagueId = nextIntOr(reader, -1);
+                case "name" -> f.league = nextStringOrNull(reader);
+                case "season" -> f.season = nextIntOr(reader, -1);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readTeams(JsonReader reader, FixtureFields f) throws IOException {
+        if (!beginObjectOrSkip(reader)) return;
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "home" -> {
+                    String[] team = readTeam(reader);
+                    f.homeTeam = team[0];
+                    f.homeTeamIcon = team[1];
+                }
+                case "away" -> {
+                    String[] team = readTeam(reader);
+                    f.awayTeam = team[0];
+                    f.awayTeamIcon = team[1];
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    /**
+     * @return the team's name and logo
+     */
+    private String[] readTeam(JsonReader reader) throws IOException {
+        String[] team = new String[2];
+        if (!beginObjectOrSkip(reader)) return team;
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name" -> team[0] = nextStringOrNull(reader);
+                case "logo" -> team[1] = nextStringOrNull(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return team;
+    }
+
+    private void readGoals(JsonReader reader, FixtureFields f) throws IOException {
+        if (!beginObjectOrSkip(reader)) return;
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "home" -> f.homeGoals = nextIntOr(reader, 0);
+                case "away" -> f.awayGoals = nextIntOr(reader, 0);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readScore(JsonReader reader, FixtureFields f) throws IOException {
+        if (!beginObjectOrSkip(reader)) return;
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("penalty")) {
+                reader.skipValue();
+                continue;
+            }
+            // penalty is null until a shootout happens
+            if (!beginObjectOrSkip(reader)) continue;
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "home" -> f.homePenalties = nextIntOr(reader, -1);
+                    case "away" -> f.awayPenalties = nextIntOr(reader, -1);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+    }
+
+    private static final class FixtureFields {
+        private String league;
+        private int leagueId = -1;
+        private int season = -1;
+        private int fixtureId = -1;
+        private String fixtureDate;
+        private String homeTeam;
+        private String homeTeamIcon;
+        private String awayTeam;
+        private String awayTeamIcon;
+        private String status;
+        private int homeGoals;
+        private int awayGoals;
+        private int homePenalties = -1;
+        private int awayPenalties = -1;
+        private int minutesElapsed = -1;
+    }
+}
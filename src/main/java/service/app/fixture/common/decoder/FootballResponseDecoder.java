@@ -0,0 +1,130 @@
+package service.app.fixture.common.decoder;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import service.app.fixture.common.model.FootballError;
+import service.app.fixture.common.model.FootballResponse;
+import service.app.fixture.common.model.Paging;
+import service.general.external.apiService.ApiResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static service.app.fixture.common.decoder.JsonReaders.beginArrayOrSkip;
+import static service.app.fixture.common.decoder.JsonReaders.beginObjectOrSkip;
+import static service.app.fixture.common.decoder.JsonReaders.nextIntOr;
+
+/**
+ * Decodes a football API response envelope in a single streaming pass.
+ * Each element of the "response" array is handed to an {@link ElementDecoder}, so no tree of the body is built.
+ *
+ * <p>Sample envelope:</p>
+ * <pre>
+ * {<br>
+ *    "get": "fixtures",<br>
+ *    "parameters": { "league": "71", "season": "2024" },<br>
+ *    "errors": [],<br>
+ *    "results": 380,<br>
+ *    "paging": { "current": 1, "total": 1 },<br>
+ *    "response": [ ... ]<br>
+ * }<br>
+ * </pre>
+ */
+public final class FootballResponseDecoder {
+
+    private FootballResponseDecoder() {
+    }
+
+    /**
+     * Decodes the envelope and every element of its "response" array.
+     *
+     * @param apiResponse the response to decode
+     * @param decoder     the decoder for a single element
+     * @return the decoded response
+     * @throws JsonParseException if the body is not a valid response
+     */
+    public static <T> FootballResponse<T> decode(ApiResponse apiResponse, ElementDecoder<T> decoder) throws JsonParseException {
+        List<T> response = new ArrayList<>();
+        List<FootballError> errors = List.of();
+        int results = 0;
+        Paging paging = Paging.SINGLE_PAGE;
+
+        try (JsonReader reader = apiResponse.reader()) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "response" -> {
+                        if (!beginArrayOrSkip(reader)) break;
+                        while (reader.hasNext()) {
+                            T element = decoder.decode(reader);
+                            if (element != null) response.add(element);
+                        }
+                        reader.endArray();
+                    }
+                    case "errors" -> errors = readErrors(reader);
+                    case "results" -> results = nextIntOr(reader, 0);
+                    case "paging" -> paging = readPaging(reader);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new JsonParseException("Malformed football API response: " + e.getMessage(), e);
+        }
+
+        return new FootballResponse<>(response, errors, results, paging, apiResponse.fetchedAtMillis());
+    }
+
+    private static Paging readPaging(JsonReader reader) throws IOException {
+        int current = 1;
+        int total = 1;
+        if (!beginObjectOrSkip(reader)) return Paging.SINGLE_PAGE;
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "current" -> current = nextIntOr(reader, 1);
+                case "total" -> total = nextIntOr(reader, 1);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new Paging(current, Math.max(total, current));
+    }
+
+    /**
+     * Reads errors sent as an object keyed by field, or as an array of messages or such objects.
+     */
+    private static List<FootballError> readErrors(JsonReader reader) throws IOException {
+        List<FootballError> errors = new ArrayList<>();
+        switch (reader.peek()) {
+            case BEGIN_OBJECT -> readErrorObject(reader, errors);
+            case BEGIN_ARRAY -> {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    switch (reader.peek()) {
+                        case BEGIN_OBJECT -> readErrorObject(reader, errors);
+                        case STRING, NUMBER -> errors.add(new FootballError(null, reader.nextString()));
+                        default -> reader.skipValue();
+                    }
+                }
+                reader.endArray();
+            }
+            default -> reader.skipValue();
+        }
+        return errors.isEmpty() ? List.of() : errors;
+    }
+
+    private static void readErrorObject(JsonReader reader, List<FootballError> errors) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            String message = switch (reader.peek()) {
+                case STRING, NUMBER -> reader.nextString();
+                default -> JsonParser.parseReader(reader).toString();
+            };
+            errors.add(new FootballError(field, message));
+        }
+        reader.endObject();
+    }
+}
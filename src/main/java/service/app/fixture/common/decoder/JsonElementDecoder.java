@@ -0,0 +1,21 @@
+package service.app.fixture.common.decoder;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * Decodes an element into a JsonElement, for responses that have no domain object yet.
+ */
+public final class JsonElementDecoder implements ElementDecoder<JsonElement> {
+
+    public static final JsonElementDecoder INSTANCE = new JsonElementDecoder();
+
+    private JsonElementDecoder() {
+    }
+
+    @Override
+    public JsonElement decode(JsonReader reader) {
+        return JsonParser.parseReader(reader);
+    }
+}
@@ -0,0 +1,68 @@
+package service.app.fixture.common.decoder;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Null-tolerant helpers for reading values with a JsonReader.
+ * The API sends null for values that are not known yet, such as goals before kickoff.
+ */
+final class JsonReaders {
+
+    private JsonReaders() {
+    }
+
+    static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    static int nextIntOr(JsonReader reader, int defaultValue) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return defaultValue;
+        }
+        return reader.nextInt();
+    }
+
+    static double nextDoubleOr(JsonReader reader, double defaultValue) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return defaultValue;
+        }
+        return reader.nextDouble();
+    }
+
+    /**
+     * Enters an object, or consumes the value if it is not an object.
+     *
+     * @return true if an object was entered and must be closed with endObject
+     */
+    static boolean beginObjectOrSkip(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return false;
+        }
+        reader.beginObject();
+        return true;
+    }
+
+    /**
+     * Enters an array, or consumes the value if it is not an array.
+     *
+     * @return true if an array was entered and must be closed with endArray
+     */
+    static boolean beginArrayOrSkip(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return false;
+        }
+        reader.beginArray();
+        return true;
+    }
+}
@@ -0,0 +1,126 @@
+package service.app.fixture.common.decoder;
+
+import com.google.gson.stream.JsonReader;
+import service.app.fixture.common.model.FixtureMarkets;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static service.app.fixture.common.decoder.JsonReaders.beginArrayOrSkip;
+import static service.app.fixture.common.decoder.JsonReaders.beginObjectOrSkip;
+import static service.app.fixture.common.decoder.JsonReaders.nextIntOr;
+
+/**
+ * Decodes an odds element into the odds of all its bets, read from the first bookmaker.
+ * Unlike the OddsDecoder, every bet block is kept, so one response holds all markets of a fixture.
+ *
+ * <p>Sample element:</p>
+ * <pre>
+ * {<br>
+ *    "fixture": { "id": 1035034, ... },<br>
+ *    "bookmakers": [ { "id": 27, "bets": [ { "id": 1, "values": [...] }, { "id": 8, "values": [...] } ] } ]<br>
+ * }<br>
+ * </pre>
+ */
+public final class MarketsDecoder implements ElementDecoder<FixtureMarkets> {
+
+    private final Set<Integer> betIds;
+
+    /**
+     * @param betIds the ids of the bets to keep, the others are skipped without being parsed
+     */
+    public MarketsDecoder(Set<Integer> betIds) {
+        this.betIds = Set.copyOf(betIds);
+    }
+
+    @Override
+    public FixtureMarkets decode(JsonReader reader) throws IOException {
+        int fixtureId = -1;
+        Bookmaker bookmaker = null;
+
+        if (beginObjectOrSkip(reader)) {
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "fixture" -> fixtureId = readFixtureId(reader);
+                    case "bookmakers" -> bookmaker = readBookmakers(reader);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+
+        return bookmaker == null
+                ? new FixtureMarkets(fixtureId, -1, Map.of())
+                : new FixtureMarkets(fixtureId, bookmaker.id, bookmaker.bets);
+    }
+
+    private int readFixtureId(JsonReader reader) throws IOException {
+        int fixtureId = -1;
+        if (!beginObjectOrSkip(reader)) return fixtureId;
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("id")) {
+                fixtureId = nextIntOr(reader, -1);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return fixtureId;
+    }
+
+    private Bookmaker readBookmakers(JsonReader reader) throws IOException {
+        Bookmaker first = null;
+        if (!beginArrayOrSkip(reader)) return null;
+        while (reader.hasNext()) {
+            if (first != null) {
+                // only the first bookmaker is used
+                reader.skipValue();
+                continue;
+            }
+            if (!beginObjectOrSkip(reader)) continue;
+            int id = -1;
+            Map<Integer, Map<String, Double>> bets = null;
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "id" -> id = nextIntOr(reader, -1);
+                    case "bets" -> bets = readBets(reader);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+            first = new Bookmaker(id, bets == null ? Map.of() : bets);
+        }
+        reader.endArray();
+        return first;
+    }
+
+    private Map<Integer, Map<String, Double>> readBets(JsonReader reader) throws IOException {
+        Map<Integer, Map<String, Double>> bets = new HashMap<>();
+        if (!beginArrayOrSkip(reader)) return bets;
+        while (reader.hasNext()) {
+            if (!beginObjectOrSkip(reader)) continue;
+            int id = -1;
+            Map<String, Double> values = null;
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("id")) {
+                    id = nextIntOr(reader, -1);
+                } else if (name.equals("values") && (id == -1 || betIds.contains(id))) {
+                    // the id comes first in api-sports responses, so unwanted bets are skipped unparsed
+                    values = OddsDecoder.readValues(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (values != null && betIds.contains(id)) bets.put(id, values);
+        }
+        reader.endArray();
+        return bets;
+    }
+
+    private record Bookmaker(int id, Map<Integer, Map<String, Double>> bets) {
+    }
+}
@@ -0,0 +1,149 @@
+package service.app.fixture.common.decoder;
+
+import com.google.gson.stream.JsonReader;
+import service.app.fixture.common.model.FixtureOdds;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static service.app.fixture.common.decoder.JsonReaders.beginArrayOrSkip;
+import static service.app.fixture.common.decoder.JsonReaders.beginObjectOrSkip;
+import static service.app.fixture.common.decoder.JsonReaders.nextDoubleOr;
+import static service.app.fixture.common.decoder.JsonReaders.nextIntOr;
+import static service.app.fixture.common.decoder.JsonReaders.nextStringOrNull;
+
+/**
+ * Decodes an odds element into the odds of one bet, read from the first bookmaker.
+ * Uses the bet with the requested id, or the first bet if the element has no such bet.
+ *
+ * <p>Sample element:</p>
+ * <pre>
+ * {<br>
+ *    "fixture": { "id": 1035034, ... },<br>
+ *    "bookmakers": [ { "id": 27, "bets": [ { "id": 1, "values": [ { "value": "Home", "odd": "1.85" }, ... ] } ] } ]<br>
+ * }<br>
+ * </pre>
+ */
+public final class OddsDecoder implements ElementDecoder<FixtureOdds> {
+
+    private final int betId;
+
+    /**
+     * @param betId the id of the bet to read. Example: 1 for match winner
+     */
+    public OddsDecoder(int betId) {
+        this.betId = betId;
+    }
+
+    @Override
+    public FixtureOdds decode(JsonReader reader) throws IOException {
+        int fixtureId = -1;
+        Map<String, Double> odds = null;
+
+        if (beginObjectOrSkip(reader)) {
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "fixture" -> fixtureId = readFixtureId(reader);
+                    case "bookmakers" -> odds = readBookmakers(reader);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+
+        return new FixtureOdds(fixtureId, odds == null ? Map.of() : odds);
+    }
+
+    private int readFixtureId(JsonReader reader) throws IOException {
+        int fixtureId = -1;
+        if (!beginObjectOrSkip(reader)) return fixtureId;
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("id")) {
+                fixtureId = nextIntOr(reader, -1);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return fixtureId;
+    }
+
+    private Map<String, Double> readBookmakers(JsonReader reader) throws IOException {
+        Map<String, Double> odds = null;
+        if (!beginArrayOrSkip(reader)) return null;
+        while (reader.hasNext()) {
+            if (odds != null) {
+                // only the first bookmaker is used
+                reader.skipValue();
+                continue;
+            }
+            if (!beginObjectOrSkip(reader)) continue;
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("bets")) {
+                    odds = readBets(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (odds == null) odds = Map.of();
+        }
+        reader.endArray();
+        return odds;
+    }
+
+    private Map<String, Double> readBets(JsonReader reader) throws IOException {
+        Map<String, Double> first = null;
+        Map<String, Double> matching = null;
+        if (!beginArrayOrSkip(reader)) return null;
+        while (reader.hasNext()) {
+            if (matching != null) {
+                reader.skipValue();
+                continue;
+            }
+            if (!beginObjectOrSkip(reader)) continue;
+            int id = -1;
+            Map<String, Double> values = null;
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "id" -> id = nextIntOr(reader, -1);
+                    case "values" -> values = readValues(reader);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (values == null) values = Map.of();
+            if (first == null) first = values;
+            if (id == betId) matching = values;
+        }
+        reader.endArray();
+        return matching != null ? matching : first;
+    }
+
+    /**
+     * Reads the values of a bet into odds keyed by outcome, skipping values without a usable odd
+     */
+    static Map<String, Double> readValues(JsonReader reader) throws IOException {
+        Map<String, Double> values = new HashMap<>();
+        if (!beginArrayOrSkip(reader)) return values;
+        while (reader.hasNext()) {
+            if (!beginObjectOrSkip(reader)) continue;
+            String value = null;
+            double odd = Double.NaN;
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "value" -> value = nextStringOrNull(reader);
+                    // odds are sent as strings, nextDouble parses both forms
+                    case "odd" -> odd = nextDoubleOr(reader, Double.NaN);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (value != null && !Double.isNaN(odd)) values.put(value, odd);
+        }
+        reader.endArray();
+        return values;
+    }
+}
@@ -4,4 +4,8 @@ public class FootballApiException extends Exception {
     public FootballApiException(String message) {
         super(message);
     }
+
+    public FootballApiException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
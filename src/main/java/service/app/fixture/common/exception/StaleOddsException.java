@@ -0,0 +1,10 @@
+package service.app.fixture.common.exception;
+
+/**
+ * Thrown when the only odds known for a fixture that has kicked off are older than the staleness bound.
+ */
+public class StaleOddsException extends Exception {
+    public StaleOddsException(String message) {
+        super(message);
+    }
+}
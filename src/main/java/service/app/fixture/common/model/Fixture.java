@@ -1,14 +1,21 @@
 package service.app.fixture.common.model;
 
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
+import org.jetbrains.annotations.Nullable;
+import service.app.fixture.lifecycle.FixtureState;
 
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.Map;
 
 public record Fixture(
         String league,
         int leagueId,
+        int season,
         int fixtureId,
         String fixtureDate,
         String homeTeam,
@@ -20,15 +27,30 @@ public record Fixture(
         int awayGoals,
         int homePenalties,
         int awayPenalties,
-        int minutesElapsed
+        int minutesElapsed,
+        FixtureSource source
 ) {
 
+    /**
+     * A fixture read from api-sports
+     */
+    public Fixture(String league, int leagueId, int season, int fixtureId, String fixtureDate, String homeTeam, String homeTeamIcon,
+                   String awayTeam, String awayTeamIcon, String status, int homeGoals, int awayGoals, int homePenalties,
+                   int awayPenalties, int minutesElapsed) {
+        this(league, leagueId, season, fixtureId, fixtureDate, homeTeam, homeTeamIcon, awayTeam, awayTeamIcon, status,
+                homeGoals, awayGoals, homePenalties, awayPenalties, minutesElapsed, FixtureSource.PRIMARY);
+    }
+
+    // Gson is thread-safe, and building one per call cost more than the serialization itself
+    private static final Gson PRETTY_GSON = new GsonBuilder().setPrettyPrinting().create();
+
     public Map<String, Object> toMap() {
 
         Map<String, Object> o = new HashMap<>();
 
         o.put("league", league);
         o.put("league_id", leagueId);
+        o.put("season", season);
         o.put("fixture_id", fixtureId);
         o.put("fixture_date", fixtureDate);
         o.put("home_team", homeTeam);
@@ -47,11 +69,24 @@ public record Fixture(
     }
 
     public String toJson() {
-        return new GsonBuilder().setPrettyPrinting().create().toJson(toMap());
+        return PRETTY_GSON.toJson(toMap());
     }
 
     public JsonElement toJsonElement() {
-        return new GsonBuilder().setPrettyPrinting().create().toJsonTree(toMap());
+        return PRETTY_GSON.toJsonTree(toMap());
+    }
+
+    /**
+     * @return the kickoff time, or null if the fixture date is missing or malformed
+     */
+    @Nullable
+    public Instant kickoff() {
+        if (fixtureDate == null) return null;
+        try {
+            return OffsetDateTime.parse(fixtureDate).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
     }
 
     /**
@@ -69,4 +104,12 @@ public record Fixture(
         return status.equals("FT");
     }
 
+    /**
+     * Finished if its result is final, see {@link FixtureState#FINISHED}. A finished fixture no longer changes.
+     * Cancelled and abandoned fixtures are not finished, they may still be rescheduled or awarded
+     */
+    public boolean finished() {
+        return FixtureState.of(status) == FixtureState.FINISHED;
+    }
+
 }
\ No newline at end of file
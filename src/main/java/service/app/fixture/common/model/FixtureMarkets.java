@@ -0,0 +1,25 @@
+package service.app.fixture.common.model;
+
+import java.util.Map;
+
+/**
+ * Odds of every bet of a fixture at one bookmaker.
+ *
+ * @param fixtureId the fixture the odds belong to
+ * @param bookmaker the bookmaker the odds are from, -1 if the element had none
+ * @param bets      the odds of every outcome keyed by outcome, keyed by bet id. Example: {1: {"Home": 1.85, "Draw": 3.4, "Away": 4.1}}
+ */
+public record FixtureMarkets(
+        int fixtureId,
+        int bookmaker,
+        Map<Integer, Map<String, Double>> bets
+) {
+
+    /**
+     * @param betId the id of the bet
+     * @return the odds of the bet, empty if the bookmaker does not offer it
+     */
+    public Map<String, Double> odds(int betId) {
+        return bets.getOrDefault(betId, Map.of());
+    }
+}
@@ -0,0 +1,15 @@
+package service.app.fixture.common.model;
+
+import java.util.Map;
+
+/**
+ * Odds of a single bet for a fixture.
+ *
+ * @param fixtureId the fixture the odds belong to
+ * @param odds      the odd of every outcome, keyed by outcome. Example: {"Home": 1.85, "Draw": 3.4, "Away": 4.1}
+ */
+public record FixtureOdds(
+        int fixtureId,
+        Map<String, Double> odds
+) {
+}
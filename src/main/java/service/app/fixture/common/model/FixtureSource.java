@@ -0,0 +1,21 @@
+package service.app.fixture.common.model;
+
+/**
+ * The provider a fixture was read from.
+ */
+public enum FixtureSource {
+
+    /** api-sports, whose fixture IDs are used throughout */
+    PRIMARY,
+    /** The secondary provider, matched to the api-sports fixture with the same league, kickoff and team names */
+    SECONDARY_EXACT,
+    /** The secondary provider, matched to an api-sports fixture by similar team names, or not matched at all */
+    SECONDARY;
+
+    /**
+     * @return true if a final result read from this source can settle bets
+     */
+    public boolean trustedForResults() {
+        return this != SECONDARY;
+    }
+}
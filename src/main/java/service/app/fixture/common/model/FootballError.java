@@ -0,0 +1,19 @@
+package service.app.fixture.common.model;
+
+/**
+ * An error reported in the "errors" field of a football API response.
+ * The API sends errors either as an object keyed by field or as an array of messages.
+ *
+ * @param field   the field the error refers to, or null if the API did not name one. Example: "token", "season"
+ * @param message the error message
+ */
+public record FootballError(
+        String field,
+        String message
+) {
+
+    @Override
+    public String toString() {
+        return field == null ? message : field + ": " + message;
+    }
+}
@@ -1,10 +1,41 @@
 package service.app.fixture.common.model;
 
-import com.google.gson.JsonArray;
+import java.util.List;
+import java.util.stream.Collectors;
 
-public record FootballResponse(
-        JsonArray response,
-        JsonArray errors,
-        int results
+/**
+ * A decoded football API response.
+ *
+ * @param response the decoded elements of the "response" array
+ * @param errors   the errors reported by the API, empty if the request succeeded
+ * @param results  the number of results reported by the API
+ * @param paging          the paging metadata, a single page if the response is not paged
+ * @param fetchedAtMillis when upstream answered, which is earlier for a cached response. 0 if not known
+ * @param <T>             the type each response element is decoded into
+ */
+public record FootballResponse<T>(
+        List<T> response,
+        List<FootballError> errors,
+        int results,
+        Paging paging,
+        long fetchedAtMillis
 ) {
+
+    /**
+     * A response whose fetch time is not known
+     */
+    public FootballResponse(List<T> response, List<FootballError> errors, int results, Paging paging) {
+        this(response, errors, results, paging, 0);
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    /**
+     * @return the errors joined into one message. Example: "season: The Season field must contain 4 characters."
+     */
+    public String errorMessage() {
+        return errors.stream().map(FootballError::toString).collect(Collectors.joining("; "));
+    }
 }
@@ -0,0 +1,19 @@
+package service.app.fixture.common.model;
+
+/**
+ * Paging metadata of a football API response. Responses that are not paged report a single page.
+ *
+ * @param current the page this response holds, starting at 1
+ * @param total   the number of pages available
+ */
+public record Paging(
+        int current,
+        int total
+) {
+
+    public static final Paging SINGLE_PAGE = new Paging(1, 1);
+
+    public boolean hasMorePages() {
+        return current < total;
+    }
+}
@@ -0,0 +1,15 @@
+package service.app.fixture.common.model;
+
+/**
+ * A league offered for betting, as listed in supportedLeagues.json.
+ *
+ * @param id            the api-sports league ID
+ * @param name          the league name
+ * @param currentSeason the season currently played. Example: 2024
+ */
+public record SupportedLeague(
+        int id,
+        String name,
+        int currentSeason
+) {
+}
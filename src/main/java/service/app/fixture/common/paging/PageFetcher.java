@@ -0,0 +1,29 @@
+package service.app.fixture.common.paging;
+
+import service.app.fixture.common.decoder.ElementDecoder;
+import service.app.fixture.common.model.FootballResponse;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Fetches every page of a paged football API request.
+ */
+public interface PageFetcher {
+
+    /**
+     * Fetches the first page, then the remaining pages concurrently.
+     * Each page is decoded and handed to the consumer as soon as it arrives, so only the pages in flight are held in memory.
+     * The raw body of every page is still kept by the ApiResponseCache, like any other GET, so a repeated bulk fetch within
+     * the TTL costs no quota. That memory is bounded by api.cache.max-weight-bytes, not by this fetcher.
+     *
+     * @param endpoint the endpoint to request. Example: "odds"
+     * @param params   the request parameters, without "page"
+     * @param decoder  the decoder for a single response element
+     * @param onPage   receives each decoded page. Called concurrently, in no particular page order.
+     * @return a future completed once every page was consumed, or completed exceptionally with the first failure
+     */
+    <T> CompletableFuture<Void> fetchAll(String endpoint, Map<String, String> params,
+                                         ElementDecoder<T> decoder, Consumer<FootballResponse<T>> onPage);
+}
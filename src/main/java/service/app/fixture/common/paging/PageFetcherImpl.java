@@ -0,0 +1,125 @@
+package service.app.fixture.common.paging;
+
+import common.deadline.Deadline;
+import common.deadline.DeadlineContext;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import service.app.fixture.common.decoder.ElementDecoder;
+import service.app.fixture.common.decoder.FootballResponseDecoder;
+import service.app.fixture.common.exception.FootballApiException;
+import service.app.fixture.common.model.FootballResponse;
+import service.general.external.apiService.ApiRequest;
+import service.general.external.apiService.metrics.UpstreamMetrics;
+import service.general.external.apiService.quota.PriorityContext;
+import service.general.external.apiService.quota.QuotaGovernor;
+import service.general.external.apiService.quota.RequestPriority;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Fetches pages 2..N with a fixed number of workers. Each worker requests its next page only once its previous page was consumed,
+ * so at most {@code parallelism} pages are in flight or being decoded at a time.
+ */
+@Component
+public class PageFetcherImpl implements PageFetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageFetcherImpl.class);
+
+    private final ApiRequest apiRequest;
+    private final QuotaGovernor quotaGovernor;
+    private final UpstreamMetrics upstreamMetrics;
+
+    @Value("${api.paging.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Autowired
+    public PageFetcherImpl(ApiRequest apiRequest, QuotaGovernor quotaGovernor, UpstreamMetrics upstreamMetrics) {
+        this.apiRequest = apiRequest;
+        this.quotaGovernor = quotaGovernor;
+        this.upstreamMetrics = upstreamMetrics;
+    }
+
+    @Override
+    public <T> CompletableFuture<Void> fetchAll(String endpoint, Map<String, String> params,
+                                                ElementDecoder<T> decoder, Consumer<FootballResponse<T>> onPage) {
+        // workers run on OkHttp's threads, so the caller's priority and deadline are carried over explicitly
+        RequestPriority priority = PriorityContext.current();
+        Deadline deadline = DeadlineContext.current();
+
+        return fetchPage(endpoint, params, 1, decoder, priority, deadline).thenCompose(first -> {
+            onPage.accept(first);
+
+            int totalPages = first.paging().total();
+            if (totalPages <= 1) return CompletableFuture.completedFuture(null);
+
+            int parallelism = parallelism(totalPages - 1);
+            logger.debug("Fetching {} more pages of {} with {} workers", totalPages - 1, endpoint, parallelism);
+
+            AtomicInteger nextPage = new AtomicInteger(2);
+            AtomicBoolean failed = new AtomicBoolean();
+            CompletableFuture<?>[] workers = new CompletableFuture<?>[parallelism];
+            for (int i = 0; i < parallelism; i++) {
+                workers[i] = runWorker(endpoint, params, decoder, onPage, priority, deadline, totalPages, nextPage, failed);
+            }
+            return CompletableFuture.allOf(workers);
+        });
+    }
+
+    /**
+     * Caps the workers by the configured limit and by what the per-minute quota still admits.
+     */
+    private int parallelism(int remainingPages) {
+        long minuteAvailable = quotaGovernor.stats().minuteAvailable();
+        long cap = Math.min(maxConcurrency, Math.max(1, minuteAvailable));
+        return (int) Math.max(1, Math.min(cap, remainingPages));
+    }
+
+    private <T> CompletableFuture<Void> runWorker(String endpoint, Map<String, String> params, ElementDecoder<T> decoder,
+                                                  Consumer<FootballResponse<T>> onPage, RequestPriority priority, @Nullable Deadline deadline,
+                                                  int totalPages, AtomicInteger nextPage, AtomicBoolean failed) {
+        int page = nextPage.getAndIncrement();
+        if (page > totalPages || failed.get()) return CompletableFuture.completedFuture(null);
+
+        return fetchPage(endpoint, params, page, decoder, priority, deadline)
+                .thenCompose(response -> {
+                    onPage.accept(response);
+                    return runWorker(endpoint, params, decoder, onPage, priority, deadline, totalPages, nextPage, failed);
+                })
+                .whenComplete((ignored, throwable) -> {
+                    if (throwable != null) failed.set(true);
+                });
+    }
+
+    private <T> CompletableFuture<FootballResponse<T>> fetchPage(String endpoint, Map<String, String> params, int page,
+                                                                 ElementDecoder<T> decoder, RequestPriority priority,
+                                                                 @Nullable Deadline deadline) {
+        Map<String, String> pageParams = params;
+        if (page > 1) {
+            pageParams = new HashMap<>(params);
+            pageParams.put("page", String.valueOf(page));
+        }
+
+        try (PriorityContext.Scope ignored = PriorityContext.open(priority);
+             DeadlineContext.Scope ignoredDeadline = DeadlineContext.open(deadline)) {
+            return apiRequest.sendRequestAsync(endpoint, "GET", pageParams).thenApply(apiResponse -> {
+                FootballResponse<T> response = upstreamMetrics.timeParse(endpoint,
+                        () -> FootballResponseDecoder.decode(apiResponse, decoder));
+                if (response.hasErrors()) {
+                    throw new CompletionException(new FootballApiException(
+                            "Football API rejected page " + page + " of " + endpoint + ": " + response.errorMessage()));
+                }
+                return response;
+            });
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package service.app.fixture.fixture;
+
+import service.app.fixture.common.model.Fixture;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Merges fixture lookups made close together into a single "ids" request.
+ *
+ * <p>Lookups are collected for a short window, or until a batch is full, and then sent as one call.
+ * Each caller gets a future completed with its own fixture.</p>
+ */
+public interface FixtureBatchLoader {
+
+    /**
+     * Queues a fixture lookup for the next batch.
+     *
+     * @param fixtureId the ID of the fixture
+     * @return a future completed with the fixture, or completed exceptionally with a
+     * FixtureNotFoundException if the API did not return it, or a FootballApiException if the request failed
+     */
+    CompletableFuture<Fixture> load(int fixtureId);
+}
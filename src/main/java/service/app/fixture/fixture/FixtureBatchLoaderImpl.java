@@ -0,0 +1,156 @@
+package service.app.fixture.fixture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import service.app.fixture.common.exception.FixtureNotFoundException;
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.fixture.request.GetFixture;
+import service.general.external.apiService.quota.PriorityContext;
+import service.general.external.apiService.quota.RequestPriority;
+
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Window-based implementation of the FixtureBatchLoader.
+ *
+ * <p>The first lookup of a batch starts its window. The batch is sent when the window ends,
+ * or straight away once it holds the maximum number of IDs. Lookups of an ID that is already
+ * in the batch share its result, and the batch is sent with the highest priority of its callers.</p>
+ */
+@Component
+public class FixtureBatchLoaderImpl implements FixtureBatchLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(FixtureBatchLoaderImpl.class);
+
+    private final GetFixture getFixture;
+
+    @Value("${api.batch.fixtures.window-ms:5}")
+    private long windowMillis;
+
+    @Value("${api.batch.fixtures.max-batch-size:20}")
+    private int maxBatchSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Batch pending;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fixture-batch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public FixtureBatchLoaderImpl(GetFixture getFixture) {
+        this.getFixture = getFixture;
+    }
+
+    @Override
+    public CompletableFuture<Fixture> load(int fixtureId) {
+        RequestPriority priority = PriorityContext.current();
+        CompletableFuture<Fixture> result;
+        Batch full = null;
+
+        lock.lock();
+        try {
+            if (pending == null) {
+                Batch batch = new Batch(priority);
+                batch.timer = scheduler.schedule(() -> flush(batch), windowMillis, TimeUnit.MILLISECONDS);
+                pending = batch;
+            }
+
+            result = pending.futures.computeIfAbsent(fixtureId, id -> new CompletableFuture<>());
+            // lower ordinal is the higher priority
+            if (priority.ordinal() < pending.priority.ordinal()) pending.priority = priority;
+
+            if (pending.futures.size() >= Math.min(maxBatchSize, GetFixture.MAX_IDS_PER_REQUEST)) {
+                full = pending;
+                full.timer.cancel(false);
+                pending = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (full != null) dispatch(full);
+
+        // each caller gets its own copy, so cancelling one does not affect the others
+        return result.copy();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void flush(Batch batch) {
+        lock.lock();
+        try {
+            // the batch may already have been sent because it filled up
+            if (pending != batch) return;
+            pending = null;
+        } finally {
+            lock.unlock();
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch batch) {
+        try (PriorityContext.Scope ignored = PriorityContext.open(batch.priority)) {
+            getFixture.getFixturesByIds(batch.futures.keySet())
+                    .whenComplete((response, throwable) -> {
+                        if (throwable != null) {
+                            failAll(batch, throwable);
+                            return;
+                        }
+
+                        Map<Integer, Fixture> byId = new HashMap<>();
+                        response.response().forEach(fixture -> byId.put(fixture.fixtureId(), fixture));
+
+                        batch.futures.forEach((id, future) -> {
+                            Fixture fixture = byId.get(id);
+                            if (fixture != null) {
+                                future.complete(fixture);
+                            } else {
+                                future.completeExceptionally(new FixtureNotFoundException("Fixture not found"));
+                            }
+                        });
+                    });
+        } catch (RuntimeException e) {
+            failAll(batch, e);
+        }
+    }
+
+    private void failAll(Batch batch, Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause()
+                : throwable;
+        logger.warn("Fixture batch of {} IDs failed: {}", batch.futures.size(), cause.getMessage());
+        batch.futures.values().forEach(future -> future.completeExceptionally(cause));
+    }
+
+    /**
+     * The lookups collected during one window. Only modified while holding the lock, and only read once sent.
+     */
+    private static final class Batch {
+        private final Map<Integer, CompletableFuture<Fixture>> futures = new LinkedHashMap<>();
+        private RequestPriority priority;
+        private ScheduledFuture<?> timer;
+
+        private Batch(RequestPriority priority) {
+            this.priority = priority;
+        }
+    }
+}
@@ -1,12 +1,26 @@
 package service.app.fixture.fixture;
 
 import common.exception.InternalServerError;
+import org.jetbrains.annotations.Nullable;
 import service.app.fixture.common.exception.FixtureNotFoundException;
 import service.app.fixture.common.model.Fixture;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface GetFixtureService {
     Fixture getFixtureById(int fixture) throws InternalServerError, FixtureNotFoundException;
+    /**
+     * @return the fixtures found, by ID. IDs the API does not know are left out
+     */
+    Map<Integer, Fixture> getFixturesByIds(Collection<Integer> fixtureIds) throws InternalServerError;
     List<Fixture> getFixturesByLeagueAndSeason(int leagueId, int season) throws InternalServerError;
+    /**
+     * @param leagueIds the leagues to include, or null for the supported leagues
+     * @param status    the short status to include, or null for all
+     * @return the known fixtures kicking off from {@code from} until {@code to}, by kickoff
+     */
+    List<Fixture> getFixturesInWindow(Instant from, Instant to, @Nullable Collection<Integer> leagueIds, @Nullable String status);
 }
@@ -1,8 +1,11 @@
 package service.app.fixture.fixture;
 
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
+import common.deadline.DeadlineContext;
+import common.exception.AdvisedExceptions;
 import common.exception.InternalServerError;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import service.app.fixture.common.exception.FixtureNotFoundException;
@@ -10,93 +13,155 @@ import service.app.fixture.common.model.Fixture;
 import service.app.fixture.common.model.FootballResponse;
 import service.app.fixture.fixture.GetFixtureService;
 import service.app.fixture.fixture.request.GetFixture;
+import service.app.fixture.index.FixtureIndex;
+import service.app.fixture.leagues.SupportedLeaguesRegistry;
+import service.app.fixture.live.LiveFixtureTable;
+import service.app.fixture.refresh.RefreshedFixtureCache;
+import service.app.fixture.store.FixtureStore;
 
+import java.sql.SQLException;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class GetFixtureServiceImpl implements GetFixtureService {
 
+    private static final Logger logger = LoggerFactory.getLogger(GetFixtureServiceImpl.class);
+
     GetFixture getFixture;
+    FixtureBatchLoader fixtureBatchLoader;
+    LiveFixtureTable liveFixtureTable;
+    RefreshedFixtureCache refreshedFixtureCache;
+    FixtureStore fixtureStore;
+    FixtureIndex fixtureIndex;
+    SupportedLeaguesRegistry supportedLeaguesRegistry;
 
     @Autowired
-    public GetFixtureServiceImpl(GetFixture getFixture) {
+    public GetFixtureServiceImpl(GetFixture getFixture, FixtureBatchLoader fixtureBatchLoader, LiveFixtureTable liveFixtureTable,
+                                 RefreshedFixtureCache refreshedFixtureCache, FixtureStore fixtureStore, FixtureIndex fixtureIndex,
+                                 SupportedLeaguesRegistry supportedLeaguesRegistry) {
         this.getFixture = getFixture;
+        this.fixtureBatchLoader = fixtureBatchLoader;
+        this.liveFixtureTable = liveFixtureTable;
+        this.refreshedFixtureCache = refreshedFixtureCache;
+        this.fixtureStore = fixtureStore;
+        this.fixtureIndex = fixtureIndex;
+        this.supportedLeaguesRegistry = supportedLeaguesRegistry;
     }
 
     @Override
     public Fixture getFixtureById(int fixture) throws InternalServerError, FixtureNotFoundException {
+        // fixtures being played are kept current by the live poller
+        Fixture live = liveFixtureTable.get(fixture);
+        if (live != null) return live;
+        // fixtures with pending bets are refreshed in the background
+        Fixture refreshed = refreshedFixtureCache.get(fixture);
+        if (refreshed != null) return refreshed;
+        Fixture stored = findStored(List.of(fixture)).get(fixture);
+        if (stored != null) return stored;
+
         try {
-            FootballResponse footballResponse = getFixture.getFixtureById(fixture);
-            if (footballResponse.results() == 0) throw new FixtureNotFoundException("Fixture not found");
-            JsonElement f =  footballResponse.response().get(0);
-            return toFixtureObject(f);
+            // merged with lookups made around the same time into a single request
+            return DeadlineContext.bound(fixtureBatchLoader.load(fixture)).join();
         } catch (Exception e) {
+            AdvisedExceptions.rethrow(e);
             throw new InternalServerError("Error while getting fixture");
         }
     }
 
+    @Override
+    public Map<Integer, Fixture> getFixturesByIds(Collection<Integer> fixtureIds) throws InternalServerError {
+        Map<Integer, Fixture> fixtures = new LinkedHashMap<>();
+        List<Integer> unknown = new ArrayList<>();
+        for (int id : fixtureIds) {
+            Fixture known = liveFixtureTable.get(id);
+            if (known == null) known = refreshedFixtureCache.get(id);
+            if (known != null) {
+                fixtures.put(id, known);
+            } else {
+                unknown.add(id);
+            }
+        }
+
+        Map<Integer, Fixture> stored = findStored(unknown);
+        Map<Integer, CompletableFuture<Fixture>> futures = new LinkedHashMap<>();
+        for (int id : unknown) {
+            Fixture fixture = stored.get(id);
+            if (fixture != null) {
+                fixtures.put(id, fixture);
+            } else {
+                futures.computeIfAbsent(id, fixtureBatchLoader::load);
+            }
+        }
+
+        for (Map.Entry<Integer, CompletableFuture<Fixture>> entry : futures.entrySet()) {
+            try {
+                fixtures.put(entry.getKey(), DeadlineContext.bound(entry.getValue()).join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof FixtureNotFoundException) continue;
+                AdvisedExceptions.rethrow(e);
+                throw new InternalServerError("Error while getting fixtures");
+            }
+        }
+        return fixtures;
+    }
+
     @Override
     public List<Fixture> getFixturesByLeagueAndSeason(int leagueId, int season) throws InternalServerError {
+        // the sync job keeps the current seasons of the supported leagues in the store, and so in the index
+        if (fixtureStore.isSeasonSynced(leagueId, season)) {
+            List<Fixture> indexed = fixtureIndex.leagueSeason(leagueId, season);
+            if (!indexed.isEmpty()) return indexed;
+            try {
+                List<Fixture> stored = fixtureStore.findByLeagueAndSeason(leagueId, season);
+                if (!stored.isEmpty()) return stored;
+            } catch (SQLException e) {
+                logger.warn("Failed to read fixtures of league {} season {} from the store: {}", leagueId, season, e.getMessage());
+            }
+        }
+
         try {
-            FootballResponse footballResponse = getFixture.getFixturesByLeagueAndSeason(leagueId, season);
+            FootballResponse<Fixture> footballResponse = getFixture.getFixturesByLeagueAndSeason(leagueId, season);
 
             if (footballResponse.results() == 0) throw new FixtureNotFoundException("No fixtures found for this league and season");
-            List<Fixture> fixtures = new ArrayList<>();
-            for (JsonElement f : footballResponse.response().getAsJsonArray()) {
-                fixtures.add(toFixtureObject(f));
-            }
-            return fixtures;
+            return footballResponse.response();
         } catch (Exception e) {
+            AdvisedExceptions.rethrow(e);
             throw new InternalServerError("Error while getting fixtures");
         }
     }
 
-    private Fixture toFixtureObject(JsonElement f) throws InternalServerError {
+    @Override
+    public List<Fixture> getFixturesInWindow(Instant from, Instant to, @Nullable Collection<Integer> leagueIds, @Nullable String status) {
+        return fixtureIndex.between(from, to, leagueIds != null ? leagueIds : supportedLeaguesRegistry.leagueIds(), status);
+    }
 
-        JsonObject fixtureObj = f.getAsJsonObject().get("fixture").getAsJsonObject();
-        JsonObject leagueObj = f.getAsJsonObject().get("league").getAsJsonObject();
-        JsonObject teamsObj = f.getAsJsonObject().get("teams").getAsJsonObject();
-        JsonObject goalsObj = f.getAsJsonObject().get("goals").getAsJsonObject();
-        JsonObject scoreObj = f.getAsJsonObject().get("score").getAsJsonObject();
-        JsonObject penaltyObj = scoreObj.has("penalty") && !scoreObj.get("penalty").isJsonNull() ? scoreObj.getAsJsonObject("penalty") : null;
+    /**
+     * Reads fixtures from the store, keeping only those whose stored version can be served: finished fixtures,
+     * which no longer change, and fixtures that have not reached their kickoff yet. Fixtures around or past
+     * kickoff change by the minute, those are fetched instead.
+     */
+    private Map<Integer, Fixture> findStored(Collection<Integer> fixtureIds) {
+        if (fixtureIds.isEmpty()) return Map.of();
 
+        Map<Integer, Fixture> servable = new LinkedHashMap<>();
         try {
-            return new Fixture(
-                    Optional.ofNullable(leagueObj.get("name")).map(JsonElement::getAsString).orElse(null),
-                    leagueObj.has("id") && !leagueObj.get("id").isJsonNull() ? leagueObj.get("id").getAsInt() : -1,
-                    fixtureObj.has("id") && !fixtureObj.get("id").isJsonNull() ? fixtureObj.get("id").getAsInt() : -1,
-                    Optional.ofNullable(fixtureObj.get("date")).map(JsonElement::getAsString).orElse(null),
-                    Optional.ofNullable(teamsObj.getAsJsonObject("home"))
-                            .map(o -> o.getAsJsonObject().get("name"))
-                            .map(JsonElement::getAsString)
-                            .orElse(null),
-                    Optional.ofNullable(teamsObj.getAsJsonObject("home"))
-                            .map(o -> o.getAsJsonObject().get("logo"))
-                            .map(JsonElement::getAsString)
-                            .orElse(null),
-                    Optional.ofNullable(teamsObj.getAsJsonObject("away"))
-                            .map(o -> o.getAsJsonObject().get("name"))
-                            .map(JsonElement::getAsString)
-                            .orElse(null),
-                    Optional.ofNullable(teamsObj.getAsJsonObject("away"))
-                            .map(o -> o.getAsJsonObject().get("logo"))
-                            .map(JsonElement::getAsString)
-                            .orElse(null),
-                    Optional.ofNullable(fixtureObj.getAsJsonObject("status"))
-                            .map(o -> o.getAsJsonObject().get("short"))
-                            .map(JsonElement::getAsString)
-                            .orElse(null),
-                    goalsObj.has("home") && !goalsObj.get("home").isJsonNull() ? goalsObj.get("home").getAsInt() : 0,
-                    goalsObj.has("away") && !goalsObj.get("away").isJsonNull() ? goalsObj.get("away").getAsInt() : 0,
-                    penaltyObj != null && penaltyObj.has("home") && !penaltyObj.get("home").isJsonNull() ? penaltyObj.get("home").getAsInt() : -1,
-                    penaltyObj != null && penaltyObj.has("away") && !penaltyObj.get("away").isJsonNull() ? penaltyObj.get("away").getAsInt() : -1,
-                    fixtureObj.getAsJsonObject("status").has("elapsed") && !fixtureObj.getAsJsonObject("status").get("elapsed").isJsonNull() ? fixtureObj.getAsJsonObject("status").get("elapsed").getAsInt() : -1
-            );
-
-        } catch (Exception e) {
-            return null;
+            Instant now = Instant.now();
+            fixtureStore.findByIds(fixtureIds).forEach((id, fixture) -> {
+                Instant kickoff = fixture.kickoff();
+                if (fixture.finished() || (fixture.bettingAllowed() && kickoff != null && kickoff.isAfter(now))) {
+                    servable.put(id, fixture);
+                }
+            });
+        } catch (SQLException e) {
+            logger.warn("Failed to read fixtures from the store: {}", e.getMessage());
         }
+        return servable;
     }
 }
@@ -2,8 +2,12 @@ package service.app.fixture.fixture.request;
 
 import service.app.fixture.common.exception.FixtureNotFoundException;
 import service.app.fixture.common.exception.FootballApiException;
+import service.app.fixture.common.model.Fixture;
 import service.app.fixture.common.model.FootballResponse;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 public interface GetFixture {
 
     /**
@@ -12,9 +16,36 @@ public interface GetFixture {
      * @return FootballResponse
      * @throws Exception if the request fails
      */
-    FootballResponse getFixtureById(int fixtureId) throws FootballApiException, FixtureNotFoundException;
+    FootballResponse<Fixture> getFixtureById(int fixtureId) throws FootballApiException, FixtureNotFoundException;
+
+
+    FootballResponse<Fixture> getFixturesByLeagueAndSeason(int leagueId, int season) throws FootballApiException, FixtureNotFoundException;
+
+    /**
+     * Retrieve the fixtures currently being played. Always sent upstream, never served from the response cache.
+     * @param leagueIds The IDs of the leagues to include
+     * @return FootballResponse
+     * @throws FootballApiException if the request fails
+     */
+    FootballResponse<Fixture> getLiveFixtures(Collection<Integer> leagueIds) throws FootballApiException;
 
+    /**
+     * Retrieve several fixtures in a single request
+     * @param fixtureIds The IDs of the fixtures to get, at most {@link #MAX_IDS_PER_REQUEST}
+     * @return a future completed with the fixtures that were found, or completed exceptionally with a FootballApiException
+     */
+    CompletableFuture<FootballResponse<Fixture>> getFixturesByIds(Collection<Integer> fixtureIds);
 
-    FootballResponse getFixturesByLeagueAndSeason(int leagueId, int season) throws FootballApiException, FixtureNotFoundException;
+    /**
+     * Same as {@link #getFixturesByIds(Collection)}, but always sent upstream instead of served from the response cache
+     * @param fixtureIds The IDs of the fixtures to get, at most {@link #MAX_IDS_PER_REQUEST}
+     * @return a future completed with the fixtures that were found, or completed exceptionally with a FootballApiException
+     */
+    CompletableFuture<FootballResponse<Fixture>> refreshFixturesByIds(Collection<Integer> fixtureIds);
+
+    /**
+     * The most fixture IDs api-sports accepts in one "ids" request
+     */
+    int MAX_IDS_PER_REQUEST = 20;
 
 }
@@ -1,23 +1,73 @@
 package service.app.fixture.fixture.request;
 
+import common.deadline.DeadlineContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import service.app.fixture.common.decoder.FixtureDecoder;
+import service.app.fixture.common.decoder.FootballResponseDecoder;
 import service.app.fixture.common.exception.FootballApiException;
+import service.app.fixture.common.model.Fixture;
 import service.app.fixture.common.model.FootballResponse;
 import service.app.fixture.fixture.request.GetFixture;
+import service.app.fixture.index.FixtureIndex;
+import service.app.fixture.lifecycle.FixtureLifecycle;
+import service.app.fixture.provider.FixtureIdMapper;
+import service.app.fixture.provider.FixtureProvider;
+import service.app.fixture.provider.ProviderFailover;
+import service.app.fixture.push.FixturePush;
+import service.app.fixture.snapshot.ResponseSnapshotCache;
+import service.app.fixture.store.FixtureStore;
 import service.general.external.apiService.ApiRequest;
+import service.general.external.apiService.ApiResponse;
+import service.general.external.apiService.metrics.UpstreamMetrics;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 @Service
 public class GetFixtureImpl implements GetFixture {
 
+    // responses fetched longer ago are served, but no longer applied to the fixture state
+    private static final long APPLY_HORIZON_MILLIS = TimeUnit.MINUTES.toMillis(15);
 
     ApiRequest apiRequest;
+    UpstreamMetrics upstreamMetrics;
+    ProviderFailover providerFailover;
+    FixtureProvider secondaryProvider;
+    FixtureIdMapper fixtureIdMapper;
+    FixtureLifecycle fixtureLifecycle;
+    FixtureStore fixtureStore;
+    FixtureIndex fixtureIndex;
+    FixturePush fixturePush;
+    ResponseSnapshotCache responseSnapshots;
+
+    // fixture ID to the upstream fetch time of the response it was last applied from, within the horizon
+    private final Map<Integer, Long> appliedAt = new ConcurrentHashMap<>();
+    private final AtomicLong prunedAtMillis = new AtomicLong();
 
     @Autowired
-    public GetFixtureImpl(ApiRequest apiRequest) {
+    public GetFixtureImpl(ApiRequest apiRequest, UpstreamMetrics upstreamMetrics,
+                          ProviderFailover providerFailover, FixtureProvider secondaryProvider, FixtureIdMapper fixtureIdMapper,
+                          FixtureLifecycle fixtureLifecycle, FixtureStore fixtureStore, FixtureIndex fixtureIndex,
+                          FixturePush fixturePush, ResponseSnapshotCache responseSnapshots) {
         this.apiRequest = apiRequest;
+        this.upstreamMetrics = upstreamMetrics;
+        this.providerFailover = providerFailover;
+        this.secondaryProvider = secondaryProvider;
+        this.fixtureIdMapper = fixtureIdMapper;
+        this.fixtureLifecycle = fixtureLifecycle;
+        this.fixtureStore = fixtureStore;
+        this.fixtureIndex = fixtureIndex;
+        this.fixturePush = fixturePush;
+        this.responseSnapshots = responseSnapshots;
     }
 
     /**
@@ -28,12 +78,10 @@ public class GetFixtureImpl implements GetFixture {
      * @throws FootballApiException if the request fails
      */
     @Override
-    public FootballResponse getFixtureById(int fixtureId) throws FootballApiException {
+    public FootballResponse<Fixture> getFixtureById(int fixtureId) throws FootballApiException {
         Map<String, String> params = Map.of("id", String.valueOf(fixtureId));
 
-        return new FootballResponse(apiRequest.sendRequest("fixtures", "GET", params).getAsJsonObject().get("response").getAsJsonArray(),
-                apiRequest.sendRequest("fixtures", "GET", params).getAsJsonObject().get("errors").getAsJsonArray(),
-                apiRequest.sendRequest("fixtures", "GET", params).getAsJsonObject().get("results").getAsInt());
+        return fetchFixtures(params, () -> secondaryProvider.getFixturesByIds(List.of(fixtureId)));
     }
 
     /**
@@ -43,11 +91,134 @@ public class GetFixtureImpl implements GetFixture {
      * @param season The season to get fixtures for
      */
     @Override
-    public FootballResponse getFixturesByLeagueAndSeason(int leagueId, int season) throws FootballApiException {
+    public FootballResponse<Fixture> getFixturesByLeagueAndSeason(int leagueId, int season) throws FootballApiException {
         Map<String, String> params = Map.of("league", String.valueOf(leagueId), "season", String.valueOf(season));
 
-        return new FootballResponse(apiRequest.sendRequest("fixtures", "GET", params).getAsJsonObject().get("response").getAsJsonArray(),
-                apiRequest.sendRequest("fixtures", "GET", params).getAsJsonObject().get("errors").getAsJsonArray(),
-                apiRequest.sendRequest("fixtures", "GET", params).getAsJsonObject().get("results").getAsInt());
+        return fetchFixtures(params, () -> secondaryProvider.getFixturesByLeagueAndSeason(leagueId, season));
+    }
+
+    /**
+     * Retrieve the fixtures currently being played in the given leagues
+     *
+     * @param leagueIds The IDs of the leagues to include
+     * @throws FootballApiException if the request fails
+     */
+    @Override
+    public FootballResponse<Fixture> getLiveFixtures(Collection<Integer> leagueIds) throws FootballApiException {
+        String leagues = leagueIds.stream().sorted().map(String::valueOf).collect(Collectors.joining("-"));
+        Map<String, String> params = Map.of("live", leagues.isEmpty() ? "all" : leagues);
+
+        // callers poll this to stay current, a cached copy would only add lag
+        return fetchFixtures(params, true, () -> secondaryProvider.getLiveFixtures(leagueIds));
+    }
+
+    /**
+     * Retrieve several fixtures in a single request. The IDs are sorted, so the same set of fixtures always makes the same request.
+     *
+     * @param fixtureIds The IDs of the fixtures to get, at most 20
+     */
+    @Override
+    public CompletableFuture<FootballResponse<Fixture>> getFixturesByIds(Collection<Integer> fixtureIds) {
+        return fetchFixturesByIds(fixtureIds, false);
+    }
+
+    /**
+     * Retrieve several fixtures in a single request, skipping the response cache
+     *
+     * @param fixtureIds The IDs of the fixtures to get, at most 20
+     */
+    @Override
+    public CompletableFuture<FootballResponse<Fixture>> refreshFixturesByIds(Collection<Integer> fixtureIds) {
+        return fetchFixturesByIds(fixtureIds, true);
+    }
+
+    /**
+     * @param refresh whether a cached response is skipped, and replaced by the new one
+     */
+    private CompletableFuture<FootballResponse<Fixture>> fetchFixturesByIds(Collection<Integer> fixtureIds, boolean refresh) {
+        if (fixtureIds.isEmpty() || fixtureIds.size() > MAX_IDS_PER_REQUEST) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_IDS_PER_REQUEST + " fixture IDs are allowed, got " + fixtureIds.size());
+        }
+
+        String ids = fixtureIds.stream().sorted().map(String::valueOf).collect(Collectors.joining("-"));
+        Map<String, String> params = Map.of("ids", ids);
+        List<Integer> requested = List.copyOf(fixtureIds);
+
+        return providerFailover.execute("fixtures", () -> fetchFixturesAsync(params, refresh),
+                () -> secondaryProvider.getFixturesByIds(requested));
+    }
+
+    /**
+     * Sends the request to api-sports, and to the secondary provider if api-sports fails or is slow
+     */
+    private FootballResponse<Fixture> fetchFixtures(Map<String, String> params,
+                                                    ProviderFailover.SecondaryCall<FootballResponse<Fixture>> secondary) throws FootballApiException {
+        return fetchFixtures(params, false, secondary);
+    }
+
+    /**
+     * @param refresh whether a cached response is skipped, and replaced by the new one
+     */
+    private FootballResponse<Fixture> fetchFixtures(Map<String, String> params, boolean refresh,
+                                                    ProviderFailover.SecondaryCall<FootballResponse<Fixture>> secondary) throws FootballApiException {
+        try {
+            return DeadlineContext.bound(providerFailover.execute("fixtures", () -> fetchFixturesAsync(params, refresh), secondary)).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof FootballApiException footballApiException) throw footballApiException;
+            throw new FootballApiException("Error while getting fixtures: " + cause.getMessage(), cause);
+        }
+    }
+
+    private CompletableFuture<FootballResponse<Fixture>> fetchFixturesAsync(Map<String, String> params, boolean refresh) {
+        return (refresh ? apiRequest.refreshRequestAsync("fixtures", params) : apiRequest.sendRequestAsync("fixtures", "GET", params))
+                .thenApply(apiResponse -> {
+                    FootballResponse<Fixture> response = upstreamMetrics.timeParse("fixtures",
+                            () -> FootballResponseDecoder.decode(apiResponse, FixtureDecoder.INSTANCE));
+                    if (response.hasErrors()) {
+                        throw new CompletionException(new FootballApiException(
+                                "Football API rejected the fixtures request: " + response.errorMessage()));
+                    }
+                    apply(newerThanApplied(response.response(), apiResponse));
+                    return response;
+                });
+    }
+
+    private void apply(List<Fixture> fixtures) {
+        if (fixtures.isEmpty()) return;
+        // lets the secondary provider match its fixtures to these IDs later
+        fixtureIdMapper.learn(fixtures);
+        fixtureLifecycle.observe(fixtures);
+        fixtureStore.save(fixtures);
+        responseSnapshots.fixturesChanged(fixtureIndex.update(fixtures));
+        fixturePush.publishFixtures(fixtures);
+    }
+
+    /**
+     * Keeps the fixtures this response is the newest upstream version of. Cached copies of a response that was
+     * already applied, and stale responses served while revalidating or after a rejected call, would otherwise
+     * take fixtures back to an older state.
+     */
+    private List<Fixture> newerThanApplied(List<Fixture> fixtures, ApiResponse apiResponse) {
+        long fetchedAt = apiResponse.fetchedAtMillis();
+        long now = System.currentTimeMillis();
+        if (fetchedAt < now - APPLY_HORIZON_MILLIS) return List.of();
+
+        List<Fixture> newer = new ArrayList<>(fixtures.size());
+        for (Fixture fixture : fixtures) {
+            boolean[] isNewer = {false};
+            appliedAt.compute(fixture.fixtureId(), (id, applied) -> {
+                if (applied != null && applied >= fetchedAt) return applied;
+                isNewer[0] = true;
+                return fetchedAt;
+            });
+            if (isNewer[0]) newer.add(fixture);
+        }
+
+        long pruned = prunedAtMillis.get();
+        if (now - pruned > TimeUnit.MINUTES.toMillis(1) && prunedAtMillis.compareAndSet(pruned, now)) {
+            appliedAt.values().removeIf(applied -> applied < now - APPLY_HORIZON_MILLIS);
+        }
+        return newer;
     }
 }
@@ -0,0 +1,53 @@
+package service.app.fixture.index;
+
+import org.jetbrains.annotations.Nullable;
+import service.app.fixture.common.model.Fixture;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * In-memory index of the known fixtures by kickoff time, league, season and status.
+ *
+ * <p>Every fixture returned upstream is added or updated, so the index follows the football API without
+ * requests of its own. Window queries cost O(log n + k) for n indexed and k returned fixtures.</p>
+ */
+public interface FixtureIndex {
+
+    /**
+     * Adds new fixtures and replaces changed ones.
+     *
+     * @param fixtures fixtures as returned upstream
+     * @return the fixtures that were added or changed
+     */
+    List<Fixture> update(Collection<Fixture> fixtures);
+
+    /**
+     * @param from      the earliest kickoff, inclusive
+     * @param to        the latest kickoff, exclusive
+     * @param leagueIds the leagues to include, or null for all
+     * @param status    the short status to include, e.g. "NS", or null for all
+     * @return the fixtures kicking off in the window, by kickoff
+     */
+    List<Fixture> between(Instant from, Instant to, @Nullable Collection<Integer> leagueIds, @Nullable String status);
+
+    /**
+     * @param leagueId the ID of the league
+     * @param season   the season
+     * @return the indexed fixtures of the league and season, by kickoff
+     */
+    List<Fixture> leagueSeason(int leagueId, int season);
+
+    /**
+     * @param fixtureId the ID of the fixture
+     * @return the indexed fixture, or null if it is not indexed
+     */
+    @Nullable
+    Fixture get(int fixtureId);
+
+    /**
+     * @return the number of indexed fixtures
+     */
+    int size();
+}
@@ -0,0 +1,167 @@
+package service.app.fixture.index;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.common.model.SupportedLeague;
+import service.app.fixture.leagues.SupportedLeaguesRegistry;
+import service.app.fixture.store.FixtureStore;
+
+import javax.annotation.PostConstruct;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Skip list implementation of the FixtureIndex.
+ *
+ * <p>Every fixture is held in one map ordered by kickoff, and in the maps of its status, league and league season.
+ * Reads never block. Updates are serialised, and a changed fixture is removed from its old maps before it is
+ * added to its new ones. The index is loaded from the FixtureStore on startup, for the supported leagues.</p>
+ */
+@Component
+public class FixtureIndexImpl implements FixtureIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FixtureIndexImpl.class);
+
+    private static final Comparator<Fixture> BY_KICKOFF = Comparator.comparing(FixtureIndexImpl::key);
+
+    private final FixtureStore fixtureStore;
+    private final SupportedLeaguesRegistry supportedLeaguesRegistry;
+
+    private final Map<Integer, Fixture> byId = new ConcurrentHashMap<>();
+    private final NavigableMap<Key, Fixture> byKickoff = new ConcurrentSkipListMap<>();
+    private final Map<String, NavigableMap<Key, Fixture>> byStatus = new ConcurrentHashMap<>();
+    private final Map<Integer, NavigableMap<Key, Fixture>> byLeague = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableMap<Key, Fixture>> byLeagueSeason = new ConcurrentHashMap<>();
+
+    private final Object updateLock = new Object();
+
+    @Autowired
+    public FixtureIndexImpl(FixtureStore fixtureStore, SupportedLeaguesRegistry supportedLeaguesRegistry) {
+        this.fixtureStore = fixtureStore;
+        this.supportedLeaguesRegistry = supportedLeaguesRegistry;
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!fixtureStore.isAvailable()) return;
+        for (SupportedLeague league : supportedLeaguesRegistry.leagues()) {
+            try {
+                update(fixtureStore.findByLeagueAndSeason(league.id(), league.currentSeason()));
+            } catch (SQLException e) {
+                logger.warn("Failed to load the fixtures of {} {} into the index: {}", league.name(), league.currentSeason(), e.getMessage());
+            }
+        }
+        logger.info("Fixture index loaded with {} fixtures", byId.size());
+    }
+
+    @Override
+    public List<Fixture> update(Collection<Fixture> fixtures) {
+        List<Fixture> changed = new ArrayList<>();
+        synchronized (updateLock) {
+            for (Fixture fixture : fixtures) {
+                // without an ID or a kickoff a fixture cannot be placed
+                if (fixture.fixtureId() <= 0 || fixture.kickoff() == null || fixture.status() == null) continue;
+
+                Fixture previous = byId.put(fixture.fixtureId(), fixture);
+                if (fixture.equals(previous)) continue;
+                if (previous != null) remove(previous);
+                add(fixture);
+                changed.add(fixture);
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public List<Fixture> between(Instant from, Instant to, @Nullable Collection<Integer> leagueIds, @Nullable String status) {
+        if (!from.isBefore(to)) return List.of();
+        Key fromKey = new Key(from.toEpochMilli(), Integer.MIN_VALUE);
+        Key toKey = new Key(to.toEpochMilli(), Integer.MIN_VALUE);
+
+        if (leagueIds == null) {
+            NavigableMap<Key, Fixture> source = status == null ? byKickoff : byStatus.get(status);
+            return source == null ? List.of() : List.copyOf(source.subMap(fromKey, toKey).values());
+        }
+
+        List<Fixture> fixtures = new ArrayList<>();
+        for (int leagueId : leagueIds) {
+            NavigableMap<Key, Fixture> league = byLeague.get(leagueId);
+            if (league == null) continue;
+            for (Fixture fixture : league.subMap(fromKey, toKey).values()) {
+                if (status == null || status.equals(fixture.status())) fixtures.add(fixture);
+            }
+        }
+        // each league is in kickoff order already, this only interleaves them
+        if (leagueIds.size() > 1) fixtures.sort(BY_KICKOFF);
+        return fixtures;
+    }
+
+    @Override
+    public List<Fixture> leagueSeason(int leagueId, int season) {
+        NavigableMap<Key, Fixture> fixtures = byLeagueSeason.get(leagueSeasonKey(leagueId, season));
+        return fixtures == null ? List.of() : List.copyOf(fixtures.values());
+    }
+
+    @Nullable
+    @Override
+    public Fixture get(int fixtureId) {
+        return byId.get(fixtureId);
+    }
+
+    @Override
+    public int size() {
+        return byId.size();
+    }
+
+    private void add(Fixture fixture) {
+        Key key = key(fixture);
+        byKickoff.put(key, fixture);
+        byStatus.computeIfAbsent(fixture.status(), s -> new ConcurrentSkipListMap<>()).put(key, fixture);
+        byLeague.computeIfAbsent(fixture.leagueId(), l -> new ConcurrentSkipListMap<>()).put(key, fixture);
+        byLeagueSeason.computeIfAbsent(leagueSeasonKey(fixture.leagueId(), fixture.season()), l -> new ConcurrentSkipListMap<>())
+                .put(key, fixture);
+    }
+
+    private void remove(Fixture fixture) {
+        Key key = key(fixture);
+        byKickoff.remove(key);
+        removeFrom(byStatus.get(fixture.status()), key);
+        removeFrom(byLeague.get(fixture.leagueId()), key);
+        removeFrom(byLeagueSeason.get(leagueSeasonKey(fixture.leagueId(), fixture.season())), key);
+    }
+
+    private static void removeFrom(@Nullable NavigableMap<Key, Fixture> map, Key key) {
+        if (map != null) map.remove(key);
+    }
+
+    private static Key key(Fixture fixture) {
+        return new Key(fixture.kickoff().toEpochMilli(), fixture.fixtureId());
+    }
+
+    private static long leagueSeasonKey(int leagueId, int season) {
+        return ((long) leagueId << 32) | (season & 0xffffffffL);
+    }
+
+    /**
+     * Orders fixtures by kickoff, and by ID when they kick off together
+     */
+    private record Key(long kickoffMillis, int fixtureId) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byKickoff = Long.compare(kickoffMillis, other.kickoffMillis);
+            return byKickoff != 0 ? byKickoff : Integer.compare(fixtureId, other.fixtureId);
+        }
+    }
+}
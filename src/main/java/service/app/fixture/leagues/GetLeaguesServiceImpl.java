@@ -29,13 +29,10 @@ public class GetLeaguesServiceImpl implements GetLeaguesService {
         List<Map<String, Object>> leaguesOutput = new ArrayList<>();
 
         try {
-            FootballResponse leagues = getLeaguesDao.getLeagues(country, current);
+            FootballResponse<JsonElement> leagues = getLeaguesDao.getLeagues(country, current);
 
-            JsonArray leaguesArray = leagues.response().getAsJsonArray();
-
-
-            for (int i = 0; i < leaguesArray.size(); i++) {
-                JsonObject leagueObject = leaguesArray.get(i).getAsJsonObject();
+            for (JsonElement leagueElement : leagues.response()) {
+                JsonObject leagueObject = leagueElement.getAsJsonObject();
                 JsonObject league = leagueObject.get("league").getAsJsonObject();
                 JsonObject countryObj = leagueObject.get("country").getAsJsonObject();
 
@@ -0,0 +1,21 @@
+package service.app.fixture.leagues;
+
+import service.app.fixture.common.model.SupportedLeague;
+
+import java.util.List;
+
+/**
+ * The leagues offered for betting. Background jobs use it to decide which leagues to keep up to date.
+ */
+public interface SupportedLeaguesRegistry {
+
+    /**
+     * @return the supported leagues, in the order they are listed
+     */
+    List<SupportedLeague> leagues();
+
+    /**
+     * @return the IDs of the supported leagues
+     */
+    List<Integer> leagueIds();
+}
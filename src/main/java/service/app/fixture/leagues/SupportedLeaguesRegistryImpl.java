@@ -0,0 +1,62 @@
+package service.app.fixture.leagues;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import service.app.fixture.common.model.SupportedLeague;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads the supported leagues from supportedLeagues.json on the classpath, once at startup.
+ */
+@Component
+public class SupportedLeaguesRegistryImpl implements SupportedLeaguesRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(SupportedLeaguesRegistryImpl.class);
+
+    private static final String RESOURCE = "/supportedLeagues.json";
+
+    private final List<SupportedLeague> leagues = readLeagues();
+
+    @Override
+    public List<SupportedLeague> leagues() {
+        return leagues;
+    }
+
+    @Override
+    public List<Integer> leagueIds() {
+        return leagues.stream().map(SupportedLeague::id).toList();
+    }
+
+    private static List<SupportedLeague> readLeagues() {
+        try (InputStream in = SupportedLeaguesRegistryImpl.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                logger.warn("{} not found, no leagues are supported", RESOURCE);
+                return List.of();
+            }
+
+            List<SupportedLeague> leagues = new ArrayList<>();
+            for (JsonElement element : JsonParser.parseReader(new InputStreamReader(in, StandardCharsets.UTF_8)).getAsJsonArray()) {
+                JsonObject league = element.getAsJsonObject();
+                leagues.add(new SupportedLeague(
+                        league.get("id").getAsInt(),
+                        league.get("name").getAsString(),
+                        league.has("current_season") ? league.get("current_season").getAsInt() : -1));
+            }
+            return Collections.unmodifiableList(leagues);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to read {}: {}", RESOURCE, e.getMessage(), e);
+            return List.of();
+        }
+    }
+}
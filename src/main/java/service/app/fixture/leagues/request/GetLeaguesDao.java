@@ -1,6 +1,7 @@
 package service.app.fixture.leagues.request;
 
 
+import com.google.gson.JsonElement;
 import service.app.fixture.common.exception.FootballApiException;
 import service.app.fixture.common.model.FootballResponse;
 
@@ -30,12 +31,12 @@ public interface GetLeaguesDao {
      * ]<br>
      *
      */
-    FootballResponse getLeagues(String countryCode, boolean activeOnly) throws FootballApiException;
+    FootballResponse<JsonElement> getLeagues(String countryCode, boolean activeOnly) throws FootballApiException;
 
 
     /**
      * Get league by league ID
      */
-    FootballResponse getLeagueById(int leagueId) throws FootballApiException;
+    FootballResponse<JsonElement> getLeagueById(int leagueId) throws FootballApiException;
 
 }
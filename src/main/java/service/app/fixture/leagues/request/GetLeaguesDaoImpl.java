@@ -1,13 +1,21 @@
 package service.app.fixture.leagues.request;
 
+import common.deadline.DeadlineContext;
 import com.google.gson.JsonElement;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import service.app.fixture.common.decoder.FootballResponseDecoder;
+import service.app.fixture.common.decoder.JsonElementDecoder;
 import service.app.fixture.common.exception.FootballApiException;
 import service.app.fixture.common.model.FootballResponse;
+import service.app.fixture.provider.FixtureProvider;
+import service.app.fixture.provider.ProviderFailover;
 import service.general.external.apiService.ApiRequest;
+import service.general.external.apiService.metrics.UpstreamMetrics;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 
 @Service
@@ -15,10 +23,17 @@ public class GetLeaguesDaoImpl implements GetLeaguesDao {
 
 
     ApiRequest apiRequest;
+    UpstreamMetrics upstreamMetrics;
+    ProviderFailover providerFailover;
+    FixtureProvider secondaryProvider;
 
     @Autowired
-    public GetLeaguesDaoImpl(ApiRequest apiRequest) {
+    public GetLeaguesDaoImpl(ApiRequest apiRequest, UpstreamMetrics upstreamMetrics,
+                             ProviderFailover providerFailover, FixtureProvider secondaryProvider) {
         this.apiRequest = apiRequest;
+        this.upstreamMetrics = upstreamMetrics;
+        this.providerFailover = providerFailover;
+        this.secondaryProvider = secondaryProvider;
     }
 
 
@@ -45,17 +60,14 @@ public class GetLeaguesDaoImpl implements GetLeaguesDao {
      *
      */
     @Override
-    public FootballResponse getLeagues(String countryCode, boolean activeOnly) throws FootballApiException {
+    public FootballResponse<JsonElement> getLeagues(String countryCode, boolean activeOnly) throws FootballApiException {
 
         String active = activeOnly ? "true" : "false";
 
         Map<String, String> params = Map.of("country", countryCode, "current", active);
 
-        JsonElement response = apiRequest.sendRequest("leagues", "GET", params);
-
-        return new FootballResponse(response.getAsJsonObject().get("response").getAsJsonArray(),
-                response.getAsJsonObject().get("errors").getAsJsonArray(),
-                response.getAsJsonObject().get("results").getAsInt());
+        return fetchLeagues(providerFailover.execute("leagues", () -> fetchLeaguesAsync(params),
+                () -> secondaryProvider.getLeagues(countryCode, activeOnly)));
     }
 
     /**
@@ -64,13 +76,33 @@ public class GetLeaguesDaoImpl implements GetLeaguesDao {
      * @param leagueId
      */
     @Override
-    public FootballResponse getLeagueById(int leagueId) throws FootballApiException {
+    public FootballResponse<JsonElement> getLeagueById(int leagueId) throws FootballApiException {
         Map<String, String> params = Map.of("id", String.valueOf(leagueId));
 
-        JsonElement response = apiRequest.sendRequest("leagues", "GET", params);
+        // league IDs are api-sports IDs, the secondary provider cannot look them up
+        return fetchLeagues(fetchLeaguesAsync(params));
+    }
+
+    private FootballResponse<JsonElement> fetchLeagues(CompletableFuture<FootballResponse<JsonElement>> request) throws FootballApiException {
+        try {
+            return DeadlineContext.bound(request).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof FootballApiException footballApiException) throw footballApiException;
+            throw new FootballApiException("Error getting leagues: " + cause.getMessage(), cause);
+        }
+    }
 
-        return new FootballResponse(response.getAsJsonObject().get("response").getAsJsonArray(),
-                response.getAsJsonObject().get("errors").getAsJsonArray(),
-                response.getAsJsonObject().get("results").getAsInt());
+    private CompletableFuture<FootballResponse<JsonElement>> fetchLeaguesAsync(Map<String, String> params) {
+        return apiRequest.sendRequestAsync("leagues", "GET", params)
+                .thenApply(apiResponse -> {
+                    FootballResponse<JsonElement> response = upstreamMetrics.timeParse("leagues",
+                            () -> FootballResponseDecoder.decode(apiResponse, JsonElementDecoder.INSTANCE));
+                    if (response.hasErrors()) {
+                        throw new CompletionException(new FootballApiException(
+                                "Football API rejected the leagues request: " + response.errorMessage()));
+                    }
+                    return response;
+                });
     }
 }
@@ -0,0 +1,35 @@
+package service.app.fixture.lifecycle;
+
+import org.jetbrains.annotations.Nullable;
+import service.app.fixture.common.model.Fixture;
+
+import java.util.Collection;
+
+/**
+ * Tracks fixtures through scheduled, kickoff, live and their final state, and publishes every transition
+ * as a {@link FixtureLifecycleEvent}.
+ *
+ * <p>Betting closes at kickoff on a timer, without a request. Around the expected end of a fixture its result
+ * is polled until it reaches a final state.</p>
+ */
+public interface FixtureLifecycle {
+
+    /**
+     * Updates the tracked fixtures with fixtures returned upstream. Unknown fixtures start being tracked.
+     *
+     * @param fixtures the fixtures as returned upstream
+     */
+    void observe(Collection<Fixture> fixtures);
+
+    /**
+     * @param fixtureId the ID of the fixture
+     * @return the state of the fixture, or null if it is not tracked
+     */
+    @Nullable
+    FixtureState state(int fixtureId);
+
+    /**
+     * @return the current counters
+     */
+    LifecycleStats stats();
+}
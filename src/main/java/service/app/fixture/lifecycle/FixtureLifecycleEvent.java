@@ -0,0 +1,18 @@
+package service.app.fixture.lifecycle;
+
+import org.jetbrains.annotations.Nullable;
+import service.app.fixture.common.model.Fixture;
+
+/**
+ * Published when a fixture moves to another state, and when a fixture is seen for the first time.
+ *
+ * @param fixture the fixture as last seen
+ * @param from    the previous state, null if the fixture was not tracked before
+ * @param to      the new state
+ */
+public record FixtureLifecycleEvent(
+        Fixture fixture,
+        @Nullable FixtureState from,
+        FixtureState to
+) {
+}
@@ -0,0 +1,264 @@
+package service.app.fixture.lifecycle;
+
+import common.timer.HashedTimingWheel;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.fixture.FixtureBatchLoader;
+import service.app.fixture.live.LiveFixtureTable;
+import service.general.external.apiService.quota.PriorityContext;
+import service.general.external.apiService.quota.RequestPriority;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timing wheel implementation of the FixtureLifecycle.
+ *
+ * <p>Each tracked fixture holds at most one timer: its kickoff while scheduled, its next result poll once
+ * kicked off, and its eviction once final. Timers run on a single thread, so the transitions of a fixture
+ * are applied in order. Events are published after the fixture's lock is released.</p>
+ */
+@Component
+public class FixtureLifecycleImpl implements FixtureLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(FixtureLifecycleImpl.class);
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final FixtureBatchLoader fixtureBatchLoader;
+    private final LiveFixtureTable liveFixtureTable;
+
+    @Value("${api.lifecycle.tick-ms:1000}")
+    private long tickMillis;
+
+    @Value("${api.lifecycle.wheel-size:4096}")
+    private int wheelSize;
+
+    @Value("${api.lifecycle.result-poll-after-minutes:110}")
+    private long resultPollAfterMinutes;
+
+    @Value("${api.lifecycle.result-poll-retry-minutes:5}")
+    private long resultPollRetryMinutes;
+
+    @Value("${api.lifecycle.result-poll-max-attempts:12}")
+    private int resultPollMaxAttempts;
+
+    @Value("${api.lifecycle.retain-final-hours:24}")
+    private long retainFinalHours;
+
+    private final Map<Integer, Tracked> fixtures = new ConcurrentHashMap<>();
+    private final LongAdder transitions = new LongAdder();
+    private final LongAdder resultPolls = new LongAdder();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fixture-lifecycle");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private HashedTimingWheel wheel;
+
+    /**
+     * @param fixtureBatchLoader lazy, it loads through the fixture requests, which report back to this lifecycle
+     */
+    @Autowired
+    public FixtureLifecycleImpl(ApplicationEventPublisher eventPublisher, @Lazy FixtureBatchLoader fixtureBatchLoader,
+                                LiveFixtureTable liveFixtureTable) {
+        this.eventPublisher = eventPublisher;
+        this.fixtureBatchLoader = fixtureBatchLoader;
+        this.liveFixtureTable = liveFixtureTable;
+    }
+
+    @PostConstruct
+    public void start() {
+        wheel = new HashedTimingWheel("fixture-lifecycle-wheel", tickMillis, wheelSize, executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.stop();
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void observe(Collection<Fixture> observed) {
+        List<FixtureLifecycleEvent> events = new ArrayList<>();
+        for (Fixture fixture : observed) {
+            // nothing to derive a state from
+            if (fixture.status() == null) continue;
+            Tracked tracked = fixtures.computeIfAbsent(fixture.fixtureId(), Tracked::new);
+            FixtureLifecycleEvent event;
+            synchronized (tracked) {
+                event = update(tracked, fixture);
+            }
+            if (event != null) events.add(event);
+        }
+        events.forEach(this::publish);
+    }
+
+    @Nullable
+    @Override
+    public FixtureState state(int fixtureId) {
+        Tracked tracked = fixtures.get(fixtureId);
+        return tracked != null ? tracked.state : null;
+    }
+
+    @Override
+    public LifecycleStats stats() {
+        return new LifecycleStats(fixtures.size(), wheel.pending(), transitions.sum(), resultPolls.sum());
+    }
+
+    /**
+     * Applies an observed fixture. Called with the lock of the tracked fixture held.
+     */
+    @Nullable
+    private FixtureLifecycleEvent update(Tracked tracked, Fixture fixture) {
+        long now = System.currentTimeMillis();
+        long previousKickoff = tracked.kickoffMillis;
+        tracked.fixture = fixture;
+        tracked.kickoffMillis = kickoffMillis(fixture);
+
+        FixtureState next = FixtureState.of(fixture.status());
+        // api-sports reports NS until the first live update, but betting closes at kickoff
+        if (next == FixtureState.SCHEDULED && tracked.kickoffMillis <= now) next = FixtureState.KICKOFF;
+        // a final result does not change
+        if (tracked.state == FixtureState.FINISHED) next = FixtureState.FINISHED;
+
+        FixtureLifecycleEvent event = transition(tracked, next);
+        if (event == null && tracked.kickoffMillis == previousKickoff) return null;
+
+        // the state or the kickoff changed, the pending timer no longer applies
+        schedule(tracked, now);
+        return event;
+    }
+
+    @Nullable
+    private FixtureLifecycleEvent transition(Tracked tracked, FixtureState next) {
+        FixtureState previous = tracked.state;
+        if (previous == next) return null;
+
+        tracked.state = next;
+        tracked.resultPolls = 0;
+        transitions.increment();
+        logger.debug("Fixture {} moved from {} to {}", tracked.fixtureId, previous, next);
+        return new FixtureLifecycleEvent(tracked.fixture, previous, next);
+    }
+
+    private void schedule(Tracked tracked, long now) {
+        if (tracked.timer != null) tracked.timer.cancel();
+        tracked.timer = null;
+
+        switch (tracked.state) {
+            case SCHEDULED -> tracked.timer = wheel.schedule(() -> onKickoff(tracked), tracked.kickoffMillis - now);
+            case KICKOFF, LIVE -> {
+                long expectedEnd = tracked.kickoffMillis + TimeUnit.MINUTES.toMillis(resultPollAfterMinutes);
+                long retry = TimeUnit.MINUTES.toMillis(resultPollRetryMinutes);
+                tracked.timer = wheel.schedule(() -> onResultDue(tracked), Math.max(expectedEnd - now, retry));
+            }
+            case FINISHED, CANCELLED -> tracked.timer = wheel.schedule(() -> evict(tracked), TimeUnit.HOURS.toMillis(retainFinalHours));
+            // a postponed fixture waits until it is seen with a new date
+            case POSTPONED -> { }
+        }
+    }
+
+    private void onKickoff(Tracked tracked) {
+        FixtureLifecycleEvent event;
+        synchronized (tracked) {
+            if (tracked.state != FixtureState.SCHEDULED) return;
+            event = transition(tracked, FixtureState.KICKOFF);
+            schedule(tracked, System.currentTimeMillis());
+        }
+        publish(event);
+    }
+
+    private void onResultDue(Tracked tracked) {
+        synchronized (tracked) {
+            if (tracked.state != FixtureState.KICKOFF && tracked.state != FixtureState.LIVE) return;
+            tracked.timer = null;
+            if (++tracked.resultPolls > resultPollMaxAttempts) {
+                // it still moves on when a fixture request returns it
+                logger.warn("No result for fixture {} after {} polls, polling stopped", tracked.fixtureId, resultPollMaxAttempts);
+                return;
+            }
+        }
+
+        // the live poller already keeps fixtures in play current
+        Fixture live = liveFixtureTable.get(tracked.fixtureId);
+        if (live != null) {
+            afterResultPoll(tracked, live);
+            return;
+        }
+
+        resultPolls.increment();
+        try (PriorityContext.Scope ignored = PriorityContext.open(RequestPriority.SETTLEMENT)) {
+            fixtureBatchLoader.load(tracked.fixtureId).whenComplete((fixture, throwable) -> {
+                if (throwable != null) {
+                    logger.debug("Result poll of fixture {} failed: {}", tracked.fixtureId, throwable.getMessage());
+                }
+                afterResultPoll(tracked, fixture);
+            });
+        }
+    }
+
+    private void afterResultPoll(Tracked tracked, @Nullable Fixture fixture) {
+        if (fixture != null) observe(List.of(fixture));
+
+        synchronized (tracked) {
+            // observing a state change has scheduled the next timer already
+            if (tracked.timer == null && !tracked.state.terminal()) schedule(tracked, System.currentTimeMillis());
+        }
+    }
+
+    private void evict(Tracked tracked) {
+        synchronized (tracked) {
+            if (!tracked.state.terminal()) return;
+            fixtures.remove(tracked.fixtureId, tracked);
+        }
+    }
+
+    private void publish(FixtureLifecycleEvent event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            logger.warn("Listener failed on {} of fixture {}: {}", event.to(), event.fixture().fixtureId(), e.getMessage());
+        }
+    }
+
+    private static long kickoffMillis(Fixture fixture) {
+        Instant kickoff = fixture.kickoff();
+        // without a kickoff time the fixture is treated as kicked off, so betting is never opened by mistake
+        return kickoff != null ? kickoff.toEpochMilli() : 0;
+    }
+
+    /**
+     * A fixture being tracked. Guarded by its own lock.
+     */
+    private static final class Tracked {
+        private final int fixtureId;
+        private Fixture fixture;
+        private FixtureState state;
+        private long kickoffMillis;
+        private HashedTimingWheel.Timeout timer;
+        private int resultPolls;
+
+        private Tracked(int fixtureId) {
+            this.fixtureId = fixtureId;
+        }
+    }
+}
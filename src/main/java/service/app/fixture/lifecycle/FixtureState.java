@@ -0,0 +1,51 @@
+package service.app.fixture.lifecycle;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The stage of a fixture, derived from its api-sports status and its kickoff time.
+ */
+public enum FixtureState {
+
+    /** Not started, open for betting */
+    SCHEDULED,
+    /** Kickoff time has passed, no live data seen yet. Closed for betting */
+    KICKOFF,
+    /** Being played, or interrupted */
+    LIVE,
+    /** Final result known. Does not change anymore */
+    FINISHED,
+    /** Postponed, may be scheduled again */
+    POSTPONED,
+    /** Cancelled or abandoned */
+    CANCELLED;
+
+    /**
+     * Maps an api-sports status to a state. Not started fixtures map to SCHEDULED, whatever their kickoff time.
+     *
+     * @param status the short status of the fixture, e.g. "NS" or "FT"
+     * @return the state, or null if the status is missing
+     */
+    @Nullable
+    public static FixtureState of(@Nullable String status) {
+        if (status == null) return null;
+        return switch (status) {
+            case "NS", "TBD" -> SCHEDULED;
+            case "FT", "AET", "PEN", "AWD", "WO" -> FINISHED;
+            case "PST" -> POSTPONED;
+            case "CANC", "ABD" -> CANCELLED;
+            default -> LIVE;
+        };
+    }
+
+    public boolean bettingOpen() {
+        return this == SCHEDULED;
+    }
+
+    /**
+     * @return true if the fixture is not expected to be played anymore, for now
+     */
+    public boolean terminal() {
+        return this == FINISHED || this == CANCELLED;
+    }
+}
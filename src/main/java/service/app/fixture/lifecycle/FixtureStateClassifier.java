@@ -0,0 +1,17 @@
+package service.app.fixture.lifecycle;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Component;
+import service.general.external.apiService.cache.FixtureStatusClassifier;
+
+/**
+ * Classifies fixture statuses for the response cache by their {@link FixtureState}.
+ */
+@Component
+public class FixtureStateClassifier implements FixtureStatusClassifier {
+
+    @Override
+    public boolean finished(@Nullable String status) {
+        return FixtureState.of(status) == FixtureState.FINISHED;
+    }
+}
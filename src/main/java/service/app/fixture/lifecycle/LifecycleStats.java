@@ -0,0 +1,17 @@
+package service.app.fixture.lifecycle;
+
+/**
+ * Snapshot of the fixture lifecycle.
+ *
+ * @param tracked       fixtures being tracked
+ * @param pendingTimers kickoff, result and eviction timers waiting on the timing wheel
+ * @param transitions   state changes since startup
+ * @param resultPolls   requests made to find the result of a fixture
+ */
+public record LifecycleStats(
+        int tracked,
+        int pendingTimers,
+        long transitions,
+        long resultPolls
+) {
+}
@@ -0,0 +1,125 @@
+package service.app.fixture.live;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.common.model.FootballResponse;
+import service.app.fixture.fixture.request.GetFixture;
+import service.app.fixture.index.FixtureIndex;
+import service.app.fixture.leagues.SupportedLeaguesRegistry;
+import service.app.fixture.lifecycle.FixtureState;
+import service.general.external.apiService.quota.PriorityContext;
+import service.general.external.apiService.quota.RequestPriority;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the live fixtures of the supported leagues on a fixed cadence and stores them in the LiveFixtureTable.
+ *
+ * <p>One request per interval replaces the per-request lookups of bets and fixture views during matches.
+ * The poll interval only applies while the FixtureIndex has fixtures being played or about to kick off,
+ * or the last poll returned fixtures in play. Otherwise the live fixtures are only polled at the idle interval,
+ * which catches fixtures the index does not know.</p>
+ */
+@Component
+public class LiveFixturePoller {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveFixturePoller.class);
+
+    private final GetFixture getFixture;
+    private final LiveFixtureTable liveFixtureTable;
+    private final SupportedLeaguesRegistry supportedLeaguesRegistry;
+    private final FixtureIndex fixtureIndex;
+
+    @Value("${api.live.enabled:true}")
+    private boolean enabled;
+
+    @Value("${api.live.poll-interval-seconds:15}")
+    private long pollIntervalSeconds;
+
+    @Value("${api.live.idle-poll-interval-minutes:15}")
+    private long idlePollIntervalMinutes;
+
+    @Value("${api.live.kickoff-lead-minutes:10}")
+    private long kickoffLeadMinutes;
+
+    @Value("${api.live.match-duration-minutes:150}")
+    private long matchDurationMinutes;
+
+    // only touched by the scheduler thread
+    private long lastPollMillis;
+    private boolean fixturesInPlay;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "live-fixtures");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public LiveFixturePoller(GetFixture getFixture, LiveFixtureTable liveFixtureTable, SupportedLeaguesRegistry supportedLeaguesRegistry,
+                             FixtureIndex fixtureIndex) {
+        this.getFixture = getFixture;
+        this.liveFixtureTable = liveFixtureTable;
+        this.supportedLeaguesRegistry = supportedLeaguesRegistry;
+        this.fixtureIndex = fixtureIndex;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("Live fixture polling is disabled");
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::poll, 0, pollIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void poll() {
+        List<Integer> leagueIds = supportedLeaguesRegistry.leagueIds();
+        if (leagueIds.isEmpty()) return;
+
+        long now = System.currentTimeMillis();
+        boolean idle = !fixturesInPlay && !matchesUnderway(leagueIds, Instant.ofEpochMilli(now));
+        if (idle && lastPollMillis != 0 && now - lastPollMillis < TimeUnit.MINUTES.toMillis(idlePollIntervalMinutes)) return;
+        lastPollMillis = now;
+
+        // a background refresh, bet validation falls back to requesting the fixture when the table is out of date
+        try (PriorityContext.Scope ignored = PriorityContext.open(RequestPriority.BROWSE)) {
+            FootballResponse<Fixture> response = getFixture.getLiveFixtures(leagueIds);
+            liveFixtureTable.replaceAll(response.response());
+            fixturesInPlay = !response.response().isEmpty();
+            logger.debug("Live fixtures refreshed, {} in play", response.response().size());
+        } catch (Exception e) {
+            // the table goes out of date on its own if polls keep failing
+            logger.warn("Failed to poll live fixtures: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return whether an indexed fixture is being played, or kicks off within the lead
+     */
+    private boolean matchesUnderway(List<Integer> leagueIds, Instant now) {
+        Instant from = now.minus(Duration.ofMinutes(matchDurationMinutes));
+        Instant to = now.plus(Duration.ofMinutes(kickoffLeadMinutes));
+        for (Fixture fixture : fixtureIndex.between(from, to, leagueIds, null)) {
+            FixtureState state = FixtureState.of(fixture.status());
+            if (state == FixtureState.LIVE || state == FixtureState.SCHEDULED) return true;
+        }
+        return false;
+    }
+}
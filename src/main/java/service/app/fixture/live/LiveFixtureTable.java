@@ -0,0 +1,39 @@
+package service.app.fixture.live;
+
+import org.jetbrains.annotations.Nullable;
+import service.app.fixture.common.model.Fixture;
+
+import java.util.Collection;
+
+/**
+ * In-memory state of the fixtures currently being played, refreshed by the LiveFixturePoller.
+ *
+ * <p>The table only answers while its last refresh is recent. Once refreshes stop succeeding it
+ * reports nothing, and callers fall back to requesting the fixture.</p>
+ */
+public interface LiveFixtureTable {
+
+    /**
+     * @param fixtureId the ID of the fixture
+     * @return the live state of the fixture, or null if it is not being played or the table is out of date
+     */
+    @Nullable
+    Fixture get(int fixtureId);
+
+    /**
+     * @return the live fixtures, or an empty collection if the table is out of date
+     */
+    Collection<Fixture> all();
+
+    /**
+     * Replaces the content of the table with the result of a poll.
+     *
+     * @param fixtures every fixture currently being played
+     */
+    void replaceAll(Collection<Fixture> fixtures);
+
+    /**
+     * @return whether the last refresh is recent enough to be trusted
+     */
+    boolean isFresh();
+}
@@ -0,0 +1,56 @@
+package service.app.fixture.live;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import service.app.fixture.common.model.Fixture;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent map implementation of the LiveFixtureTable. Reads never block, a refresh updates entries in place.
+ */
+@Component
+public class LiveFixtureTableImpl implements LiveFixtureTable {
+
+    @Value("${api.live.max-age-seconds:45}")
+    private long maxAgeSeconds;
+
+    private final Map<Integer, Fixture> fixtures = new ConcurrentHashMap<>();
+
+    // 0 until the first successful poll
+    private volatile long refreshedAtMillis;
+
+    @Nullable
+    @Override
+    public Fixture get(int fixtureId) {
+        if (!isFresh()) return null;
+        return fixtures.get(fixtureId);
+    }
+
+    @Override
+    public Collection<Fixture> all() {
+        if (!isFresh()) return List.of();
+        return List.copyOf(fixtures.values());
+    }
+
+    @Override
+    public void replaceAll(Collection<Fixture> polled) {
+        Map<Integer, Fixture> byId = new ConcurrentHashMap<>();
+        polled.forEach(fixture -> byId.put(fixture.fixtureId(), fixture));
+
+        // fixtures that are no longer live are removed, readers then fall back to a request
+        fixtures.keySet().retainAll(byId.keySet());
+        fixtures.putAll(byId);
+        refreshedAtMillis = System.currentTimeMillis();
+    }
+
+    @Override
+    public boolean isFresh() {
+        long refreshedAt = refreshedAtMillis;
+        return refreshedAt != 0 && System.currentTimeMillis() - refreshedAt <= maxAgeSeconds * 1000;
+    }
+}
@@ -0,0 +1,19 @@
+package service.app.fixture.odds;
+
+import java.util.List;
+
+/**
+ * The bookmakers odds are taken from. The default bookmaker, used for bets, comes first.
+ */
+public interface BookmakerRegistry {
+
+    /**
+     * @return the bookmaker IDs, the default bookmaker first
+     */
+    List<Integer> bookmakerIds();
+
+    /**
+     * @return the ID of the bookmaker whose odds bets are placed at
+     */
+    int defaultBookmaker();
+}
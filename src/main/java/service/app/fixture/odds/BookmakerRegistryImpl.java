@@ -0,0 +1,74 @@
+package service.app.fixture.odds;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads the bookmakers from bookmakers.json on the classpath, once at startup.
+ *
+ * <p>The file holds an array of bookmakers, either as IDs or as objects with an "id". The bookmaker
+ * property is always included, so an empty or missing file leaves just the default bookmaker.</p>
+ */
+@Component
+public class BookmakerRegistryImpl implements BookmakerRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookmakerRegistryImpl.class);
+
+    private static final String RESOURCE = "/bookmakers.json";
+
+    @Value("${bookmaker}")
+    private int defaultBookmaker;
+
+    private List<Integer> bookmakerIds = List.of();
+
+    @PostConstruct
+    public void load() {
+        Set<Integer> ids = new LinkedHashSet<>();
+        ids.add(defaultBookmaker);
+        ids.addAll(readBookmakers());
+        bookmakerIds = Collections.unmodifiableList(new ArrayList<>(ids));
+    }
+
+    @Override
+    public List<Integer> bookmakerIds() {
+        return bookmakerIds;
+    }
+
+    @Override
+    public int defaultBookmaker() {
+        return defaultBookmaker;
+    }
+
+    private static List<Integer> readBookmakers() {
+        try (InputStream in = BookmakerRegistryImpl.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) return List.of();
+
+            JsonElement root = JsonParser.parseReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            if (!root.isJsonArray()) return List.of();
+
+            List<Integer> ids = new ArrayList<>();
+            for (JsonElement element : root.getAsJsonArray()) {
+                ids.add(element.isJsonObject() ? element.getAsJsonObject().get("id").getAsInt() : element.getAsInt());
+            }
+            return ids;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to read {}: {}", RESOURCE, e.getMessage(), e);
+            return List.of();
+        }
+    }
+}
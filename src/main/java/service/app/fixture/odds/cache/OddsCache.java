@@ -0,0 +1,45 @@
+package service.app.fixture.odds.cache;
+
+import org.jetbrains.annotations.Nullable;
+import service.app.fixture.common.exception.RequestSendingException;
+import service.app.fixture.common.exception.StaleOddsException;
+
+import java.util.Map;
+
+/**
+ * Odds by fixture, bet type and bookmaker, versioned so a bet can record the odds it was accepted at.
+ *
+ * <p>Snapshots are filled by every odds response from upstream, and refreshed in the background before they
+ * exceed the staleness bound. Reads are answered from memory: before kickoff a stale snapshot is still served,
+ * after kickoff, or if the kickoff is not known, it is rejected. Only odds never seen before are fetched on the caller's thread.</p>
+ */
+public interface OddsCache {
+
+    /**
+     * @param fixtureId the ID of the fixture
+     * @param betTypeId the ID of the bet type
+     * @param bookmaker the ID of the bookmaker
+     * @return the odds, or null if the bookmaker has none for the fixture
+     * @throws StaleOddsException      if the odds are stale and the fixture has kicked off or its kickoff is not known
+     * @throws RequestSendingException if the odds were not cached and fetching them failed
+     */
+    @Nullable
+    OddsSnapshot get(int fixtureId, int betTypeId, int bookmaker) throws StaleOddsException, RequestSendingException;
+
+    /**
+     * Stores odds fetched from upstream. The version only changes if the odds did, and odds fetched before those
+     * stored are ignored.
+     *
+     * @param fixtureId       the ID of the fixture
+     * @param betTypeId       the ID of the bet type
+     * @param bookmaker       the ID of the bookmaker
+     * @param odds            the odds by outcome
+     * @param fetchedAtMillis when upstream answered, which is earlier for a cached response. 0 if not known,
+     *                        the odds are then stale from the start
+     * @return true if the odds are stored under a new version, false if they were empty, older than those stored
+     * or unchanged
+     */
+    boolean put(int fixtureId, int betTypeId, int bookmaker, Map<String, Double> odds, long fetchedAtMillis);
+
+    OddsCacheStats stats();
+}
@@ -0,0 +1,251 @@
+package service.app.fixture.odds.cache;
+
+import common.exception.gen.RateLimitException;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import service.app.fixture.common.exception.RequestSendingException;
+import service.app.fixture.common.exception.StaleOddsException;
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.index.FixtureIndex;
+import service.app.fixture.odds.request.GetOddsDao;
+import service.general.external.apiService.quota.PriorityContext;
+import service.general.external.apiService.quota.QuotaGovernor;
+import service.general.external.apiService.quota.QuotaStats;
+import service.general.external.apiService.quota.RequestPriority;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory implementation of the OddsCache, refreshed on a fixed cadence with the quota left over the reserve.
+ *
+ * <p>Only snapshots worth keeping current are refreshed: those of fixtures kicking off within the refresh
+ * window, soonest first, and those read recently. Snapshots are dropped a while after kickoff.</p>
+ */
+@Component
+public class OddsCacheImpl implements OddsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(OddsCacheImpl.class);
+
+    private final GetOddsDao getOddsDao;
+    private final FixtureIndex fixtureIndex;
+    private final QuotaGovernor quotaGovernor;
+
+    @Value("${odds.cache.max-staleness-seconds:120}")
+    private long maxStalenessSeconds;
+
+    @Value("${odds.cache.refresh-interval-seconds:15}")
+    private long refreshIntervalSeconds;
+
+    @Value("${odds.cache.max-refreshes-per-cycle:10}")
+    private long maxRefreshesPerCycle;
+
+    @Value("${odds.cache.quota-reserve:5}")
+    private long quotaReserve;
+
+    @Value("${odds.cache.refresh-window-hours:48}")
+    private long refreshWindowHours;
+
+    @Value("${odds.cache.retain-hours:3}")
+    private long retainHours;
+
+    private final Map<Key, OddsSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<Key, Long> readAtMillis = new ConcurrentHashMap<>();
+
+    // seeded with the clock, so the versions of this run follow those recorded by the previous one
+    private final AtomicLong versions = new AtomicLong(System.currentTimeMillis());
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder staleRejections = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "odds-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // the DAO feeds this cache with every odds response, so it is only looked up when first used
+    @Autowired
+    public OddsCacheImpl(@Lazy GetOddsDao getOddsDao, FixtureIndex fixtureIndex, QuotaGovernor quotaGovernor) {
+        this.getOddsDao = getOddsDao;
+        this.fixtureIndex = fixtureIndex;
+        this.quotaGovernor = quotaGovernor;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refresh, refreshIntervalSeconds, refreshIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Nullable
+    @Override
+    public OddsSnapshot get(int fixtureId, int betTypeId, int bookmaker) throws StaleOddsException, RequestSendingException {
+        Key key = new Key(fixtureId, betTypeId, bookmaker);
+        long now = System.currentTimeMillis();
+        readAtMillis.put(key, now);
+
+        OddsSnapshot snapshot = snapshots.get(key);
+        boolean missed = snapshot == null;
+        if (missed) {
+            misses.increment();
+            // the response holds every bet type of the fixture, all stored through put on their way back. A cached
+            // response may be older than the staleness bound, so it is fetched again
+            getOddsDao.refreshMarkets(fixtureId, String.valueOf(bookmaker));
+            snapshot = snapshots.get(key);
+            if (snapshot == null) return null;
+            now = System.currentTimeMillis();
+        }
+
+        if (snapshot.ageMillis(now) <= TimeUnit.SECONDS.toMillis(maxStalenessSeconds)) {
+            if (!missed) hits.increment();
+            return snapshot;
+        }
+
+        // without a known kickoff, the fixture may already be under way
+        Instant kickoff = kickoff(fixtureId);
+        if (kickoff == null || kickoff.toEpochMilli() <= now) {
+            staleRejections.increment();
+            throw new StaleOddsException("The odds of fixture " + fixtureId + " are " + snapshot.ageMillis(now) / 1000
+                    + "s old and it " + (kickoff == null ? "has no known kickoff" : "has kicked off"));
+        }
+
+        if (!missed) staleHits.increment();
+        return snapshot;
+    }
+
+    @Override
+    public boolean put(int fixtureId, int betTypeId, int bookmaker, Map<String, Double> odds, long fetchedAtMillis) {
+        if (odds.isEmpty()) return false;
+
+        Map<String, Double> copy = Collections.unmodifiableMap(new HashMap<>(odds));
+        boolean[] changed = {false};
+        snapshots.compute(new Key(fixtureId, betTypeId, bookmaker), (key, previous) -> {
+            // a cached response can come back after a newer one
+            if (previous != null && previous.fetchedAtMillis() > fetchedAtMillis) return previous;
+            if (previous != null && previous.odds().equals(copy)) {
+                return new OddsSnapshot(fixtureId, betTypeId, bookmaker, copy, previous.version(), fetchedAtMillis);
+            }
+            changed[0] = true;
+            return new OddsSnapshot(fixtureId, betTypeId, bookmaker, copy, versions.incrementAndGet(), fetchedAtMillis);
+        });
+        return changed[0];
+    }
+
+    @Override
+    public OddsCacheStats stats() {
+        return new OddsCacheStats(snapshots.size(), hits.sum(), staleHits.sum(), staleRejections.sum(), misses.sum(), refreshes.sum());
+    }
+
+    private void refresh() {
+        try {
+            long now = System.currentTimeMillis();
+            evict(now);
+
+            // refreshed at half the bound, so reads find them fresh
+            long dueAge = TimeUnit.SECONDS.toMillis(maxStalenessSeconds) / 2;
+            // one request refreshes every bet type of a fixture at a bookmaker
+            List<Market> due = snapshots.values().stream()
+                    .filter(snapshot -> snapshot.ageMillis(now) >= dueAge && worthRefreshing(snapshot, now))
+                    .map(snapshot -> new Market(snapshot.fixtureId(), snapshot.bookmaker()))
+                    .distinct()
+                    .sorted(Comparator.comparingLong(market -> kickoffMillis(market.fixtureId())))
+                    .toList();
+            if (due.isEmpty()) return;
+
+            QuotaStats quota = quotaGovernor.stats();
+            long budget = Math.min(maxRefreshesPerCycle, Math.min(quota.minuteAvailable(), quota.dailyAvailable()) - quotaReserve);
+            if (budget <= 0) {
+                logger.debug("No quota to spare for refreshing {} odds", due.size());
+                return;
+            }
+
+            int requests = 0;
+            for (Market market : due) {
+                if (requests >= budget) break;
+                requests++;
+
+                // background work, it only gets the quota users leave over
+                try (PriorityContext.Scope ignored = PriorityContext.open(RequestPriority.BROWSE)) {
+                    getOddsDao.refreshMarkets(market.fixtureId(), String.valueOf(market.bookmaker()));
+                    refreshes.increment();
+                } catch (RequestSendingException e) {
+                    if (e.getCause() instanceof RateLimitException) {
+                        logger.debug("Quota reserved for other callers, odds refresh stopped with {} left", due.size() - requests);
+                        break;
+                    }
+                    logger.warn("Failed to refresh the odds of fixture {}: {}", market.fixtureId(), e.getMessage());
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to refresh odds: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Odds stop mattering at kickoff, betting closes and stale reads are rejected
+     */
+    private boolean worthRefreshing(OddsSnapshot snapshot, long now) {
+        long kickoff = kickoffMillis(snapshot.fixtureId());
+        if (kickoff != Long.MAX_VALUE) {
+            return kickoff > now && kickoff - now <= TimeUnit.HOURS.toMillis(refreshWindowHours);
+        }
+        Long readAt = readAtMillis.get(new Key(snapshot.fixtureId(), snapshot.betTypeId(), snapshot.bookmaker()));
+        return readAt != null && now - readAt <= TimeUnit.HOURS.toMillis(1);
+    }
+
+    private void evict(long now) {
+        long retain = TimeUnit.HOURS.toMillis(retainHours);
+        snapshots.entrySet().removeIf(entry -> {
+            long kickoff = kickoffMillis(entry.getKey().fixtureId());
+            if (kickoff != Long.MAX_VALUE) return now - kickoff > retain;
+            Long readAt = readAtMillis.get(entry.getKey());
+            return entry.getValue().ageMillis(now) > retain && (readAt == null || now - readAt > retain);
+        });
+        readAtMillis.keySet().retainAll(snapshots.keySet());
+    }
+
+    @Nullable
+    private Instant kickoff(int fixtureId) {
+        Fixture fixture = fixtureIndex.get(fixtureId);
+        return fixture != null ? fixture.kickoff() : null;
+    }
+
+    /**
+     * @return the kickoff, or Long.MAX_VALUE if it is not known
+     */
+    private long kickoffMillis(int fixtureId) {
+        Instant kickoff = kickoff(fixtureId);
+        return kickoff != null ? kickoff.toEpochMilli() : Long.MAX_VALUE;
+    }
+
+    private record Key(int fixtureId, int betTypeId, int bookmaker) {
+    }
+
+    private record Market(int fixtureId, int bookmaker) {
+    }
+}
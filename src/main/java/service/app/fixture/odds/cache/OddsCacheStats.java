@@ -0,0 +1,21 @@
+package service.app.fixture.odds.cache;
+
+/**
+ * Snapshot of the odds cache counters.
+ *
+ * @param snapshots       odds snapshots held
+ * @param hits            reads answered with odds within the staleness bound
+ * @param staleHits       reads before kickoff answered with stale odds, while they were refreshed in the background
+ * @param staleRejections reads after kickoff, or of a fixture with no known kickoff, rejected because the odds were stale
+ * @param misses          reads that had to fetch the odds
+ * @param refreshes       requests made by the background job, each refreshes every bet type of a fixture at a bookmaker
+ */
+public record OddsCacheStats(
+        int snapshots,
+        long hits,
+        long staleHits,
+        long staleRejections,
+        long misses,
+        long refreshes
+) {
+}
@@ -0,0 +1,27 @@
+package service.app.fixture.odds.cache;
+
+import java.util.Map;
+
+/**
+ * The odds of one bet type of a fixture at one bookmaker, as last fetched.
+ *
+ * @param fixtureId       the ID of the fixture
+ * @param betTypeId       the ID of the bet type, see BetTypes
+ * @param bookmaker       the ID of the bookmaker
+ * @param odds            the odds by outcome
+ * @param version         changes whenever the odds change, and only then. Versions keep increasing across restarts
+ * @param fetchedAtMillis when the odds were last fetched, changed or not
+ */
+public record OddsSnapshot(
+        int fixtureId,
+        int betTypeId,
+        int bookmaker,
+        Map<String, Double> odds,
+        long version,
+        long fetchedAtMillis
+) {
+
+    public long ageMillis(long nowMillis) {
+        return nowMillis - fetchedAtMillis;
+    }
+}
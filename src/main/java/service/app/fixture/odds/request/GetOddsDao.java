@@ -1,8 +1,12 @@
 package service.app.fixture.odds.request;
 
 import service.app.fixture.common.exception.RequestSendingException;
+import service.app.fixture.common.model.FixtureMarkets;
+import service.app.fixture.common.model.FixtureOdds;
 import service.app.fixture.common.model.FootballResponse;
 
+import java.util.Map;
+
 /**
  * Retrieve odds for a fixture
  */
@@ -13,7 +17,7 @@ public interface GetOddsDao {
      * @param oddID The ID of the odd to get
      * @return Map<String, Double>
      */
-    FootballResponse getOdds(int fixtureId, int oddID) throws RequestSendingException;
+    FootballResponse<FixtureOdds> getOdds(int fixtureId, int oddID) throws RequestSendingException;
 
     /**
      * Retrieve odds for a fixture
@@ -22,24 +26,51 @@ public interface GetOddsDao {
      * @param bookmaker The bookmaker to get the odds from
      * @return Map<String, Double>
      */
-    FootballResponse getOdds(int fixtureId, int oddID, String bookmaker) throws RequestSendingException;
+    FootballResponse<FixtureOdds> getOdds(int fixtureId, int oddID, String bookmaker) throws RequestSendingException;
+
+    /**
+     * Retrieve the odds of every bet type of a fixture in one request
+     * @param fixtureId The ID of the fixture to get the odds for
+     * @param bookmaker The bookmaker to get the odds from
+     * @return the odds keyed by bet type ID, only the bet types in BetTypes are kept
+     */
+    FootballResponse<FixtureMarkets> getMarkets(int fixtureId, String bookmaker) throws RequestSendingException;
+
+    /**
+     * Retrieve the odds of every bet type of a fixture in one request, skipping the response cache
+     * @param fixtureId The ID of the fixture to get the odds for
+     * @param bookmaker The bookmaker to get the odds from
+     * @return the odds keyed by bet type ID, only the bet types in BetTypes are kept
+     */
+    FootballResponse<FixtureMarkets> refreshMarkets(int fixtureId, String bookmaker) throws RequestSendingException;
 
 
     /**
      * Retrieve odds for a league and season
      * @param leagueId The ID of the league to get the odds for
      * @param season The season to get the odds for
-     * @return Map<Integer, Map<String, Double>>
+     * @param oddID The ID of the odd to get
+     * @return Map<Integer, Map<String, Double>> of odds keyed by fixture ID
      */
-    FootballResponse getOddsForLeagueAndSeason(int leagueId, int season, int oddID) throws RequestSendingException;
+    Map<Integer, Map<String, Double>> getOddsForLeagueAndSeason(int leagueId, int season, int oddID) throws RequestSendingException;
 
     /**
      * Retrieve odds for a league and season
      * @param leagueId The ID of the league to get the odds for
      * @param season The season to get the odds for
      * @param bookmaker The bookmaker to get the odds from
-     * @return Map<Integer, Map<String, Double>>
+     * @param oddID The ID of the odd to get
+     * @return Map<Integer, Map<String, Double>> of odds keyed by fixture ID
+     */
+    Map<Integer, Map<String, Double>> getOddsForLeagueAndSeason(int leagueId, int season, String bookmaker, int oddID) throws RequestSendingException;
+
+    /**
+     * Retrieve the odds of every bet type of a league and season
+     * @param leagueId The ID of the league to get the odds for
+     * @param season The season to get the odds for
+     * @param bookmaker The bookmaker to get the odds from
+     * @return the odds of every fixture keyed by fixture ID, only the bet types in BetTypes are kept
      */
-    FootballResponse getOddsForLeagueAndSeason(int leagueId, int season, String bookmaker, int oddID) throws RequestSendingException;
+    Map<Integer, FixtureMarkets> getMarketsForLeagueAndSeason(int leagueId, int season, String bookmaker) throws RequestSendingException;
 
 }
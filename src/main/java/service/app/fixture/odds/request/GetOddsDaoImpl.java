@@ -1,25 +1,56 @@
 package service.app.fixture.odds.request;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
+import common.deadline.DeadlineContext;
+import service.app.fixture.common.decoder.FootballResponseDecoder;
+import service.app.fixture.common.decoder.MarketsDecoder;
 import service.app.fixture.common.exception.RequestSendingException;
+import service.app.fixture.common.model.FixtureMarkets;
+import service.app.fixture.common.model.FixtureOdds;
 import service.app.fixture.common.model.FootballResponse;
+import service.app.fixture.common.paging.PageFetcher;
+import service.app.fixture.odds.BetTypes;
+import service.app.fixture.odds.cache.OddsCache;
 import service.app.fixture.odds.request.GetOddsDao;
+import service.app.fixture.push.FixturePush;
+import service.app.fixture.snapshot.ResponseSnapshotCache;
 import service.general.external.apiService.ApiRequest;
+import service.general.external.apiService.metrics.UpstreamMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 @Service
 public class GetOddsDaoImpl implements GetOddsDao {
 
+    // one request holds every bet of a fixture, only those bets can take are parsed
+    private static final MarketsDecoder MARKETS_DECODER = new MarketsDecoder(Arrays.stream(BetTypes.values())
+            .map(BetTypes::getId)
+            .collect(Collectors.toSet()));
+
     ApiRequest apiRequest;
+    PageFetcher pageFetcher;
+    UpstreamMetrics upstreamMetrics;
+    FixturePush fixturePush;
+    ResponseSnapshotCache responseSnapshots;
+    OddsCache oddsCache;
 
     @Autowired
-    public GetOddsDaoImpl(ApiRequest apiRequest) {
+    public GetOddsDaoImpl(ApiRequest apiRequest, PageFetcher pageFetcher, UpstreamMetrics upstreamMetrics,
+                          FixturePush fixturePush, ResponseSnapshotCache responseSnapshots, OddsCache oddsCache) {
         this.apiRequest = apiRequest;
+        this.pageFetcher = pageFetcher;
+        this.upstreamMetrics = upstreamMetrics;
+        this.fixturePush = fixturePush;
+        this.responseSnapshots = responseSnapshots;
+        this.oddsCache = oddsCache;
     }
 
     @Value("${bookmaker}")
@@ -34,14 +65,15 @@ public class GetOddsDaoImpl implements GetOddsDao {
      * @return Map<String, Double>
      */
     @Override
-    public FootballResponse getOdds(int fixtureId, int oddID) throws RequestSendingException {
+    public FootballResponse<FixtureOdds> getOdds(int fixtureId, int oddID) throws RequestSendingException {
 
 
         return getOdds(fixtureId, oddID, String.valueOf(bookmaker));
     }
 
     /**
-     * Retrieve odds for a fixture
+     * Retrieve odds for a fixture. Read from the response holding every bet type of the fixture,
+     * so asking for the other bet types afterwards costs no request
      *
      * @param fixtureId The ID of the fixture to get the odds for
      * @param oddID     The ID of the odd to get
@@ -49,16 +81,37 @@ public class GetOddsDaoImpl implements GetOddsDao {
      * @return Map<String, Double>
      */
     @Override
-    public FootballResponse getOdds(int fixtureId, int oddID, String bookmaker) throws RequestSendingException {
-        Map<String, String> params = Map.of("fixture", String.valueOf(fixtureId), "bet", String.valueOf(oddID), "bookmaker",
-                bookmaker);
+    public FootballResponse<FixtureOdds> getOdds(int fixtureId, int oddID, String bookmaker) throws RequestSendingException {
+        FootballResponse<FixtureMarkets> markets = getMarkets(fixtureId, bookmaker);
 
-        JsonElement response = apiRequest.sendRequest("odds", "GET", params);
+        List<FixtureOdds> odds = markets.response().stream()
+                .map(fixtureMarkets -> new FixtureOdds(fixtureMarkets.fixtureId(), fixtureMarkets.odds(oddID)))
+                .toList();
+        return new FootballResponse<>(odds, markets.errors(), markets.results(), markets.paging(), markets.fetchedAtMillis());
+    }
 
+    /**
+     * Retrieve the odds of every bet type of a fixture in one request
+     *
+     * @param fixtureId The ID of the fixture to get the odds for
+     * @param bookmaker The bookmaker to get the odds from
+     * @return the odds keyed by bet type ID
+     */
+    @Override
+    public FootballResponse<FixtureMarkets> getMarkets(int fixtureId, String bookmaker) throws RequestSendingException {
+        return fetchMarkets(Map.of("fixture", String.valueOf(fixtureId), "bookmaker", bookmaker), false);
+    }
 
-        return new FootballResponse(response.getAsJsonObject().get("response").getAsJsonArray(),
-                response.getAsJsonObject().get("errors").getAsJsonArray(),
-                response.getAsJsonObject().get("results").getAsInt());
+    /**
+     * Retrieve the odds of every bet type of a fixture in one request, skipping the response cache
+     *
+     * @param fixtureId The ID of the fixture to get the odds for
+     * @param bookmaker The bookmaker to get the odds from
+     * @return the odds keyed by bet type ID
+     */
+    @Override
+    public FootballResponse<FixtureMarkets> refreshMarkets(int fixtureId, String bookmaker) throws RequestSendingException {
+        return fetchMarkets(Map.of("fixture", String.valueOf(fixtureId), "bookmaker", bookmaker), true);
     }
 
     /**
@@ -69,12 +122,13 @@ public class GetOddsDaoImpl implements GetOddsDao {
      * @return Map<Integer, Map < String, Double>>
      */
     @Override
-    public FootballResponse getOddsForLeagueAndSeason(int leagueId, int season, int oddID) throws RequestSendingException {
+    public Map<Integer, Map<String, Double>> getOddsForLeagueAndSeason(int leagueId, int season, int oddID) throws RequestSendingException {
         return getOddsForLeagueAndSeason(leagueId, season, String.valueOf(bookmaker), oddID);
     }
 
     /**
-     * Retrieve odds for a league and season
+     * Retrieve odds for a league and season. Read from the pages holding every bet type of the league,
+     * so asking for the other bet types afterwards is served by the response cache
      *
      * @param leagueId  The ID of the league to get the odds for
      * @param season    The season to get the odds for
@@ -82,28 +136,84 @@ public class GetOddsDaoImpl implements GetOddsDao {
      * @return Map<Integer, Map < String, Double>>
      */
     @Override
-    public FootballResponse getOddsForLeagueAndSeason(int leagueId, int season, String bookmaker, int oddID) throws RequestSendingException {
+    public Map<Integer, Map<String, Double>> getOddsForLeagueAndSeason(int leagueId, int season, String bookmaker, int oddID) throws RequestSendingException {
+        Map<Integer, Map<String, Double>> odds = new HashMap<>();
+        getMarketsForLeagueAndSeason(leagueId, season, bookmaker).forEach((fixtureId, markets) -> {
+            if (!markets.odds(oddID).isEmpty()) odds.put(fixtureId, markets.odds(oddID));
+        });
+        return odds;
+    }
+
+    /**
+     * Retrieve the odds of every bet type of a league and season. Pages are fetched concurrently and merged as they arrive.
+     *
+     * @param leagueId  The ID of the league to get the odds for
+     * @param season    The season to get the odds for
+     * @param bookmaker The bookmaker to get the odds from
+     * @return the odds of every fixture keyed by fixture ID
+     */
+    @Override
+    public Map<Integer, FixtureMarkets> getMarketsForLeagueAndSeason(int leagueId, int season, String bookmaker) throws RequestSendingException {
         Map<String, String> params = Map.of("league", String.valueOf(leagueId), "season", String.valueOf(season),
                 "bookmaker", bookmaker);
+        int bookmakerId = Integer.parseInt(bookmaker);
+
+        Map<Integer, FixtureMarkets> markets = new ConcurrentHashMap<>();
+        try {
+            DeadlineContext.bound(pageFetcher.fetchAll("odds", params, MARKETS_DECODER, page -> {
+                for (FixtureMarkets fixtureMarkets : page.response()) {
+                    markets.put(fixtureMarkets.fixtureId(), fixtureMarkets);
+                    observed(fixtureMarkets, bookmakerId, page.fetchedAtMillis());
+                }
+            })).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RequestSendingException("Error while getting odds: " + cause.getMessage(), cause);
+        }
 
-        JsonElement response = apiRequest.sendRequest("odds", "GET", params);
-
-        // pagination
-        int totalPages = response.getAsJsonObject().get("paging").getAsJsonObject().get("total").getAsInt();
-        JsonArray odds = response.getAsJsonObject().get("response").getAsJsonArray();
+        return markets;
+    }
 
-        if (totalPages > 1) {
-            for (int i = 2; i <= totalPages; i++) {
-                params = Map.of("league", String.valueOf(leagueId), "season", String.valueOf(season),
-                        "bookmaker", bookmaker, "page", String.valueOf(i));
-                response = apiRequest.sendRequest("odds", "GET", params);
+    /**
+     * @param refresh whether a cached response is skipped, and replaced by the new one
+     */
+    private FootballResponse<FixtureMarkets> fetchMarkets(Map<String, String> params, boolean refresh) throws RequestSendingException {
+        FootballResponse<FixtureMarkets> response;
+        try {
+            response = (refresh ? apiRequest.refreshRequestAsync("odds", params) : apiRequest.sendRequestAsync("odds", "GET", params))
+                    .thenApply(apiResponse -> upstreamMetrics.timeParse("odds",
+                            () -> FootballResponseDecoder.decode(apiResponse, MARKETS_DECODER)))
+                    .join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RequestSendingException("Error while getting odds: " + cause.getMessage(), cause);
+        }
 
-                odds.addAll(response.getAsJsonObject().get("response").getAsJsonArray());
-            }
+        if (response.hasErrors()) {
+            throw new RequestSendingException("Football API rejected the odds request: " + response.errorMessage());
         }
+        int bookmakerId = Integer.parseInt(params.get("bookmaker"));
+        for (FixtureMarkets markets : response.response()) {
+            observed(markets, bookmakerId, response.fetchedAtMillis());
+        }
+        return response;
+    }
 
-        return new FootballResponse(odds,
-                response.getAsJsonObject().get("errors").getAsJsonArray(),
-                response.getAsJsonObject().get("results").getAsInt());
+    /**
+     * Hands the odds of every bet type to the caches and subscribers that follow them
+     *
+     * @param fetchedAtMillis when upstream answered, the response may have been served from a cache since
+     */
+    private void observed(FixtureMarkets markets, int bookmakerId, long fetchedAtMillis) {
+        for (BetTypes betType : BetTypes.values()) {
+            int oddID = betType.getId();
+            Map<String, Double> odds = markets.odds(oddID);
+            // only odds newer than those stored, and different, are pushed and invalidate the snapshots
+            if (!oddsCache.put(markets.fixtureId(), oddID, bookmakerId, odds, fetchedAtMillis)) continue;
+            // the push and the response snapshots follow the odds bets are placed at
+            if (bookmakerId != this.bookmaker) continue;
+            fixturePush.publishOdds(markets.fixtureId(), oddID, odds);
+            responseSnapshots.oddsFetched(markets.fixtureId(), oddID, odds);
+        }
     }
-}
\ No newline at end of file
+}
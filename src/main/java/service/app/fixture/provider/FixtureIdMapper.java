@@ -0,0 +1,45 @@
+package service.app.fixture.provider;
+
+import org.jetbrains.annotations.Nullable;
+import service.app.fixture.common.model.Fixture;
+
+import java.util.Collection;
+
+/**
+ * Maps fixtures of the secondary provider to api-sports fixture IDs.
+ *
+ * <p>The mapping is learned from api-sports responses: a secondary fixture matches the api-sports fixture
+ * of the same league with the same kickoff whose home and away team names both share a significant word with it.
+ * When no fixture or several fixtures match equally well, the secondary fixture stays unmapped.</p>
+ */
+public interface FixtureIdMapper {
+
+    /**
+     * Remembers fixtures returned by api-sports, so they can be matched later.
+     *
+     * @param fixtures fixtures with api-sports IDs
+     */
+    void learn(Collection<Fixture> fixtures);
+
+    /**
+     * @param fixtureId the api-sports fixture ID
+     * @return the fixture as last returned by api-sports, or null if it was never seen
+     */
+    @Nullable
+    Fixture knownFixture(int fixtureId);
+
+    /**
+     * Finds the api-sports ID of a secondary fixture, and remembers the match.
+     *
+     * @param secondaryId the ID of the fixture at the secondary provider
+     * @param fixture     the fixture translated from the secondary provider, with any fixture ID
+     * @return the api-sports fixture ID, or the negated secondary ID if no api-sports fixture matches
+     */
+    int toFixtureId(int secondaryId, Fixture fixture);
+
+    /**
+     * @param fixtureId the api-sports fixture ID
+     * @return true if a secondary fixture is mapped to it with the same team names, ignoring case and insignificant words
+     */
+    boolean exactMatch(int fixtureId);
+}
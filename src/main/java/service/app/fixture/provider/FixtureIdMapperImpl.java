@@ -0,0 +1,155 @@
+package service.app.fixture.provider;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import service.app.fixture.common.model.Fixture;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory FixtureIdMapper. Holds up to a configured number of api-sports fixtures, the least recently learned are forgotten first.
+ */
+@Component
+public class FixtureIdMapperImpl implements FixtureIdMapper {
+
+    // words that say nothing about which team is meant. Example: "Fluminense FC" and "Fluminense"
+    private static final Set<String> IGNORED_WORDS = Set.of("fc", "cf", "sc", "ac", "afc", "cd", "ec", "se", "cr", "ca", "club", "de", "the");
+
+    @Value("${api.failover.max-mapped-fixtures:50000}")
+    private int maxFixtures;
+
+    private final Map<Integer, Fixture> fixtures = new LinkedHashMap<>();
+    private final Map<KickoffKey, List<Integer>> byKickoff = new HashMap<>();
+    private final Map<Integer, Integer> toSecondary = new HashMap<>();
+    private final Map<Integer, Integer> toPrimary = new HashMap<>();
+    // api-sports IDs mapped from a secondary fixture with the same team names
+    private final Set<Integer> exact = new HashSet<>();
+
+    @Override
+    public synchronized void learn(Collection<Fixture> learned) {
+        for (Fixture fixture : learned) {
+            if (fixture.fixtureId() <= 0) continue;
+
+            Fixture previous = fixtures.remove(fixture.fixtureId());
+            if (previous != null) unindex(previous);
+            fixtures.put(fixture.fixtureId(), fixture);
+
+            KickoffKey key = KickoffKey.of(fixture);
+            if (key != null) byKickoff.computeIfAbsent(key, k -> new ArrayList<>(1)).add(fixture.fixtureId());
+        }
+
+        Iterator<Fixture> eldest = fixtures.values().iterator();
+        while (fixtures.size() > maxFixtures && eldest.hasNext()) {
+            Fixture evicted = eldest.next();
+            eldest.remove();
+            unindex(evicted);
+            Integer secondaryId = toSecondary.remove(evicted.fixtureId());
+            if (secondaryId != null) toPrimary.remove(secondaryId);
+            exact.remove(evicted.fixtureId());
+        }
+    }
+
+    @Nullable
+    @Override
+    public synchronized Fixture knownFixture(int fixtureId) {
+        return fixtures.get(fixtureId);
+    }
+
+    @Override
+    public synchronized int toFixtureId(int secondaryId, Fixture fixture) {
+        Integer known = toPrimary.get(secondaryId);
+        if (known != null) return known;
+
+        KickoffKey key = KickoffKey.of(fixture);
+        List<Integer> candidates = key == null ? null : byKickoff.get(key);
+        if (candidates == null || candidates.isEmpty()) return -secondaryId;
+
+        // both teams have to share a significant word with the candidate, a tie between candidates is no match
+        int best = -1;
+        int bestScore = 0;
+        boolean tied = false;
+        for (int candidateId : candidates) {
+            Fixture candidate = fixtures.get(candidateId);
+            int home = similarity(candidate.homeTeam(), fixture.homeTeam());
+            int away = similarity(candidate.awayTeam(), fixture.awayTeam());
+            if (home == 0 || away == 0) continue;
+
+            if (home + away > bestScore) {
+                best = candidateId;
+                bestScore = home + away;
+                tied = false;
+            } else if (home + away == bestScore) {
+                tied = true;
+            }
+        }
+        if (best == -1 || tied) return -secondaryId;
+
+        toPrimary.put(secondaryId, best);
+        toSecondary.put(best, secondaryId);
+        Fixture matched = fixtures.get(best);
+        if (words(matched.homeTeam()).equals(words(fixture.homeTeam())) && words(matched.awayTeam()).equals(words(fixture.awayTeam()))) {
+            exact.add(best);
+        }
+        return best;
+    }
+
+    @Override
+    public synchronized boolean exactMatch(int fixtureId) {
+        return exact.contains(fixtureId);
+    }
+
+    private void unindex(Fixture fixture) {
+        KickoffKey key = KickoffKey.of(fixture);
+        if (key == null) return;
+
+        List<Integer> ids = byKickoff.get(key);
+        if (ids == null) return;
+        ids.remove(Integer.valueOf(fixture.fixtureId()));
+        if (ids.isEmpty()) byKickoff.remove(key);
+    }
+
+    /**
+     * @return the number of significant words two team names share
+     */
+    private static int similarity(String a, String b) {
+        Set<String> words = words(a);
+        words.retainAll(words(b));
+        return words.size();
+    }
+
+    private static Set<String> words(String name) {
+        Set<String> words = new HashSet<>();
+        if (name == null) return words;
+        for (String word : Arrays.asList(name.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))) {
+            if (!word.isEmpty() && !IGNORED_WORDS.contains(word)) words.add(word);
+        }
+        return words;
+    }
+
+    private record KickoffKey(int leagueId, Instant kickoff) {
+
+        @Nullable
+        static KickoffKey of(Fixture fixture) {
+            if (fixture.fixtureDate() == null) return null;
+            try {
+                return new KickoffKey(fixture.leagueId(), OffsetDateTime.parse(fixture.fixtureDate()).toInstant());
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package service.app.fixture.provider;
+
+import com.google.gson.JsonElement;
+import service.app.fixture.common.exception.FootballApiException;
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.common.model.FootballResponse;
+
+import java.util.Collection;
+
+/**
+ * A source of fixture and league data used when api-sports fails or is slow.
+ *
+ * <p>Results are translated to the api-sports shape and IDs, so callers cannot tell which provider answered.
+ * Fixtures that cannot be matched to an api-sports fixture get the negated ID of the provider.</p>
+ */
+public interface FixtureProvider {
+
+    /**
+     * @return the name reported in the metrics. Example: "football-data.org"
+     */
+    String name();
+
+    /**
+     * @return whether the provider is configured and can be called
+     */
+    boolean isAvailable();
+
+    /**
+     * @param fixtureIds api-sports fixture IDs
+     * @return the fixtures that could be matched and found
+     * @throws FootballApiException if the request fails, or none of the fixtures are known to the provider
+     */
+    FootballResponse<Fixture> getFixturesByIds(Collection<Integer> fixtureIds) throws FootballApiException;
+
+    /**
+     * @param leagueId api-sports league ID
+     * @param season   the season. Example: 2024
+     * @throws FootballApiException if the request fails, or the league is not offered by the provider
+     */
+    FootballResponse<Fixture> getFixturesByLeagueAndSeason(int leagueId, int season) throws FootballApiException;
+
+    /**
+     * @param leagueIds api-sports league IDs
+     * @throws FootballApiException if the request fails, or none of the leagues are offered by the provider
+     */
+    FootballResponse<Fixture> getLiveFixtures(Collection<Integer> leagueIds) throws FootballApiException;
+
+    /**
+     * @param country the country name or code. Example: "England"
+     * @param current whether only leagues with a season in progress are wanted
+     * @return leagues in the shape of the api-sports "leagues" endpoint
+     * @throws FootballApiException if the request fails
+     */
+    FootballResponse<JsonElement> getLeagues(String country, boolean current) throws FootballApiException;
+}
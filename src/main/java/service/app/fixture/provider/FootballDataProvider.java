@@ -0,0 +1,445 @@
+package service.app.fixture.provider;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import service.app.fixture.common.exception.FootballApiException;
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.common.model.FixtureSource;
+import service.app.fixture.common.model.FootballResponse;
+import service.app.fixture.common.model.Paging;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * FixtureProvider backed by the football-data.org v2 API configured with football.api.url and football.api.key.
+ *
+ * <p>api-sports leagues are mapped to football-data.org competitions with api.failover.competitions.
+ * Fixtures are looked up by competition and kickoff day, which costs one request per day and league
+ * however many fixtures are asked for. The free plan allows 10 requests a minute, the provider refuses
+ * calls beyond api.failover.secondary.minute-limit rather than be rejected.</p>
+ */
+@Component
+public class FootballDataProvider implements FixtureProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(FootballDataProvider.class);
+
+    private static final String NAME = "football-data.org";
+    private static final DateTimeFormatter FIXTURE_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssxxx");
+    // the first half with stoppage time, a match in play for longer is assumed to be in its second half
+    private static final long FIRST_HALF_MINUTES = 50;
+
+    private final FixtureIdMapper fixtureIdMapper;
+
+    @Value("${football.api.url:http://api.football-data.org/v2/}")
+    private String apiUrl;
+
+    @Value("${football.api.key:}")
+    private String apiKey;
+
+    // api-sports league ID to football-data.org competition ID. Example: "39:2021,71:2013"
+    @Value("${api.failover.competitions:}")
+    private String competitionMapping;
+
+    @Value("${api.failover.secondary.minute-limit:10}")
+    private int minuteLimit;
+
+    @Value("${api.failover.secondary.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    private final Map<Integer, Integer> competitionByLeague = new HashMap<>();
+    private final Map<Integer, Integer> leagueByCompetition = new HashMap<>();
+
+    private OkHttpClient httpClient;
+
+    private long windowStartMillis;
+    private int windowRequests;
+
+    @Autowired
+    public FootballDataProvider(FixtureIdMapper fixtureIdMapper) {
+        this.fixtureIdMapper = fixtureIdMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!apiUrl.endsWith("/")) apiUrl = apiUrl + "/";
+
+        for (String pair : competitionMapping.split(",")) {
+            String[] ids = pair.trim().split(":");
+            if (ids.length != 2) continue;
+            try {
+                int leagueId = Integer.parseInt(ids[0].trim());
+                int competitionId = Integer.parseInt(ids[1].trim());
+                competitionByLeague.put(leagueId, competitionId);
+                leagueByCompetition.put(competitionId, leagueId);
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring invalid competition mapping {}", pair);
+            }
+        }
+
+        httpClient = new OkHttpClient.Builder()
+                .callTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .build();
+
+        if (!isAvailable()) logger.info("football.api.key is not set, failover to {} is unavailable", NAME);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return apiKey != null && !apiKey.isBlank();
+    }
+
+    @Override
+    public FootballResponse<Fixture> getFixturesByIds(Collection<Integer> fixtureIds) throws FootballApiException {
+        // one request per competition and day covers every fixture asked for on that day
+        Map<DayKey, Set<Integer>> byDay = new LinkedHashMap<>();
+        for (int fixtureId : fixtureIds) {
+            Fixture known = fixtureIdMapper.knownFixture(fixtureId);
+            if (known == null) continue;
+
+            Integer competitionId = competitionByLeague.get(known.leagueId());
+            LocalDate day = kickoffDay(known.fixtureDate());
+            if (competitionId == null || day == null) continue;
+
+            byDay.computeIfAbsent(new DayKey(competitionId, day), k -> new LinkedHashSet<>()).add(fixtureId);
+        }
+
+        if (byDay.isEmpty()) {
+            throw new FootballApiException("None of the fixtures " + fixtureIds + " can be matched at " + NAME);
+        }
+
+        List<Fixture> found = new ArrayList<>();
+        for (Map.Entry<DayKey, Set<Integer>> entry : byDay.entrySet()) {
+            DayKey day = entry.getKey();
+            JsonObject body = get("competitions/" + day.competitionId() + "/matches", Map.of(
+                    "dateFrom", day.day().toString(),
+                    "dateTo", day.day().plusDays(1).toString()));
+
+            for (Fixture fixture : translateMatches(body)) {
+                if (entry.getValue().contains(fixture.fixtureId())) found.add(fixture);
+            }
+        }
+        return wrap(found);
+    }
+
+    @Override
+    public FootballResponse<Fixture> getFixturesByLeagueAndSeason(int leagueId, int season) throws FootballApiException {
+        Integer competitionId = competitionByLeague.get(leagueId);
+        if (competitionId == null) throw new FootballApiException("League " + leagueId + " is not offered by " + NAME);
+
+        JsonObject body = get("competitions/" + competitionId + "/matches", Map.of("season", String.valueOf(season)));
+        return wrap(translateMatches(body));
+    }
+
+    @Override
+    public FootballResponse<Fixture> getLiveFixtures(Collection<Integer> leagueIds) throws FootballApiException {
+        String competitions = leagueIds.stream()
+                .map(competitionByLeague::get)
+                .filter(id -> id != null)
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        if (competitions.isEmpty()) throw new FootballApiException("None of the leagues " + leagueIds + " are offered by " + NAME);
+
+        JsonObject body = get("matches", Map.of("competitions", competitions, "status", "LIVE"));
+        return wrap(translateMatches(body));
+    }
+
+    @Override
+    public FootballResponse<JsonElement> getLeagues(String country, boolean current) throws FootballApiException {
+        JsonObject body = get("competitions", Map.of());
+        List<JsonElement> leagues = new ArrayList<>();
+        String today = LocalDate.now(ZoneOffset.UTC).toString();
+
+        for (JsonElement element : array(body, "competitions")) {
+            JsonObject competition = element.getAsJsonObject();
+            JsonObject area = object(competition, "area");
+            if (area == null) continue;
+            if (!country.equalsIgnoreCase(string(area, "name")) && !country.equalsIgnoreCase(string(area, "countryCode"))) continue;
+
+            JsonObject season = object(competition, "currentSeason");
+            String endDate = season == null ? null : string(season, "endDate");
+            boolean inProgress = endDate != null && endDate.compareTo(today) >= 0;
+            if (current && !inProgress) continue;
+
+            leagues.add(toApiSportsLeague(competition, area, season, inProgress));
+        }
+
+        return new FootballResponse<>(leagues, List.of(), leagues.size(), Paging.SINGLE_PAGE);
+    }
+
+    private JsonObject toApiSportsLeague(JsonObject competition, JsonObject area, @Nullable JsonObject season, boolean inProgress) {
+        int competitionId = competition.get("id").getAsInt();
+        Integer leagueId = leagueByCompetition.get(competitionId);
+
+        JsonObject league = new JsonObject();
+        league.addProperty("id", leagueId != null ? leagueId : -competitionId);
+        league.addProperty("name", string(competition, "name"));
+        league.addProperty("type", "CUP".equals(string(competition, "type")) ? "Cup" : "League");
+        league.addProperty("logo", orEmpty(string(competition, "emblemUrl")));
+
+        JsonObject countryObject = new JsonObject();
+        countryObject.addProperty("name", orEmpty(string(area, "name")));
+        countryObject.addProperty("code", orEmpty(string(area, "countryCode")));
+        countryObject.addProperty("flag", orEmpty(string(area, "ensignUrl")));
+
+        JsonArray seasons = new JsonArray();
+        String startDate = season == null ? null : string(season, "startDate");
+        if (startDate != null && startDate.length() >= 4) {
+            JsonObject seasonObject = new JsonObject();
+            seasonObject.addProperty("year", Integer.parseInt(startDate.substring(0, 4)));
+            seasonObject.addProperty("current", inProgress);
+            seasons.add(seasonObject);
+        }
+
+        JsonObject result = new JsonObject();
+        result.add("league", league);
+        result.add("country", countryObject);
+        result.add("seasons", seasons);
+        return result;
+    }
+
+    private List<Fixture> translateMatches(JsonObject body) {
+        JsonObject competition = object(body, "competition");
+        List<Fixture> fixtures = new ArrayList<>();
+        for (JsonElement match : array(body, "matches")) {
+            Fixture fixture = translateMatch(match.getAsJsonObject(), competition);
+            if (fixture != null) fixtures.add(fixture);
+        }
+        return fixtures;
+    }
+
+    @Nullable
+    private Fixture translateMatch(JsonObject match, @Nullable JsonObject fallbackCompetition) {
+        JsonObject competition = object(match, "competition");
+        if (competition == null) competition = fallbackCompetition;
+        if (competition == null || !competition.has("id")) return null;
+
+        Integer leagueId = leagueByCompetition.get(competition.get("id").getAsInt());
+        if (leagueId == null) return null;
+
+        JsonObject score = object(match, "score");
+        JsonObject penalties = score == null ? null : object(score, "penalties");
+        String utcDate = string(match, "utcDate");
+        JsonObject homeTeam = object(match, "homeTeam");
+        JsonObject awayTeam = object(match, "awayTeam");
+
+        Fixture translated = new Fixture(
+                string(competition, "name"),
+                leagueId,
+                season(object(match, "season")),
+                0,
+                fixtureDate(utcDate),
+                homeTeam == null ? null : string(homeTeam, "name"),
+                null,
+                awayTeam == null ? null : string(awayTeam, "name"),
+                null,
+                status(string(match, "status"), score == null ? null : string(score, "duration"), utcDate),
+                regularTimeGoals(score, "homeTeam"),
+                regularTimeGoals(score, "awayTeam"),
+                integer(penalties, "homeTeam", -1),
+                integer(penalties, "awayTeam", -1),
+                -1);
+
+        int fixtureId = fixtureIdMapper.toFixtureId(match.get("id").getAsInt(), translated);
+        FixtureSource source = fixtureIdMapper.exactMatch(fixtureId) ? FixtureSource.SECONDARY_EXACT : FixtureSource.SECONDARY;
+        return new Fixture(translated.league(), translated.leagueId(), translated.season(), fixtureId, translated.fixtureDate(),
+                translated.homeTeam(), translated.homeTeamIcon(), translated.awayTeam(), translated.awayTeamIcon(),
+                translated.status(), translated.homeGoals(), translated.awayGoals(),
+                translated.homePenalties(), translated.awayPenalties(), translated.minutesElapsed(), source);
+    }
+
+    /**
+     * The api-sports season of a match is the year its season starts in
+     */
+    private static int season(@Nullable JsonObject season) {
+        String startDate = season == null ? null : string(season, "startDate");
+        if (startDate == null || startDate.length() < 4) return -1;
+        return Integer.parseInt(startDate.substring(0, 4));
+    }
+
+    /**
+     * The goals of a team in regular time. football-data.org v2 counts extra time and the shootout in "fullTime",
+     * api-sports settles on the regular time score
+     */
+    private static int regularTimeGoals(@Nullable JsonObject score, String team) {
+        if (score == null) return 0;
+        JsonObject regularTime = object(score, "regularTime");
+        if (regularTime != null) return integer(regularTime, team, 0);
+
+        int goals = integer(object(score, "fullTime"), team, 0)
+                - integer(object(score, "extraTime"), team, 0)
+                - integer(object(score, "penalties"), team, 0);
+        return Math.max(0, goals);
+    }
+
+    /**
+     * Maps a football-data.org match status to the api-sports short status. football-data.org has a single status
+     * for a match in play, the half is estimated from the kickoff time
+     */
+    private static String status(@Nullable String status, @Nullable String duration, @Nullable String utcDate) {
+        if (status == null) return "TBD";
+        return switch (status) {
+            case "SCHEDULED", "TIMED" -> "NS";
+            case "IN_PLAY" -> switch (duration == null ? "REGULAR" : duration) {
+                case "EXTRA_TIME" -> "ET";
+                case "PENALTY_SHOOTOUT" -> "P";
+                default -> minutesSince(utcDate) > FIRST_HALF_MINUTES ? "2H" : "1H";
+            };
+            case "PAUSED" -> "EXTRA_TIME".equals(duration) || "PENALTY_SHOOTOUT".equals(duration) ? "BT" : "HT";
+            case "FINISHED" -> switch (duration == null ? "REGULAR" : duration) {
+                case "EXTRA_TIME" -> "AET";
+                case "PENALTY_SHOOTOUT" -> "PEN";
+                default -> "FT";
+            };
+            case "POSTPONED" -> "PST";
+            case "SUSPENDED" -> "SUSP";
+            case "CANCELED", "CANCELLED" -> "CANC";
+            case "AWARDED" -> "AWD";
+            default -> "TBD";
+        };
+    }
+
+    private JsonObject get(String path, Map<String, String> params) throws FootballApiException {
+        if (!isAvailable()) throw new FootballApiException(NAME + " is not configured");
+        acquire();
+
+        HttpUrl base = HttpUrl.parse(apiUrl + path);
+        if (base == null) throw new FootballApiException("Invalid " + NAME + " URL " + apiUrl + path);
+        HttpUrl.Builder url = base.newBuilder();
+        params.forEach(url::addQueryParameter);
+
+        Request request = new Request.Builder()
+                .url(url.build())
+                .get()
+                .addHeader("X-Auth-Token", apiKey)
+                .build();
+
+        try (Response response = httpClient.newCall(request).execute()) {
+            ResponseBody body = response.body();
+            String content = body == null ? "" : body.string();
+
+            if (response.code() == 429) throw new FootballApiException(NAME + " rate limit exceeded");
+            if (!response.isSuccessful()) {
+                throw new FootballApiException(NAME + " answered " + response.code() + " for " + path + ": " + content);
+            }
+
+            return JsonParser.parseString(content).getAsJsonObject();
+        } catch (IOException e) {
+            throw new FootballApiException("Failed to call " + NAME + ": " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            throw new FootballApiException("Invalid response from " + NAME + ": " + e.getMessage(), e);
+        }
+    }
+
+    private synchronized void acquire() throws FootballApiException {
+        long now = System.currentTimeMillis();
+        if (now - windowStartMillis >= 60_000) {
+            windowStartMillis = now;
+            windowRequests = 0;
+        }
+        if (windowRequests >= minuteLimit) throw new FootballApiException(NAME + " request limit of " + minuteLimit + " a minute reached");
+        windowRequests++;
+    }
+
+    private static FootballResponse<Fixture> wrap(List<Fixture> fixtures) {
+        return new FootballResponse<>(fixtures, List.of(), fixtures.size(), Paging.SINGLE_PAGE);
+    }
+
+    /**
+     * @return the minutes since the given time, 0 if it is missing or malformed
+     */
+    private static long minutesSince(@Nullable String utcDate) {
+        if (utcDate == null) return 0;
+        try {
+            return Duration.between(OffsetDateTime.parse(utcDate).toInstant(), Instant.now()).toMinutes();
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+    @Nullable
+    private static String fixtureDate(@Nullable String utcDate) {
+        if (utcDate == null) return null;
+        try {
+            return OffsetDateTime.parse(utcDate).format(FIXTURE_DATE);
+        } catch (DateTimeParseException e) {
+            return utcDate;
+        }
+    }
+
+    @Nullable
+    private static LocalDate kickoffDay(@Nullable String fixtureDate) {
+        if (fixtureDate == null) return null;
+        try {
+            return OffsetDateTime.parse(fixtureDate).withOffsetSameInstant(ZoneOffset.UTC).toLocalDate();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static JsonObject object(@Nullable JsonObject parent, String name) {
+        if (parent == null) return null;
+        JsonElement element = parent.get(name);
+        return element != null && element.isJsonObject() ? element.getAsJsonObject() : null;
+    }
+
+    private static JsonArray array(JsonObject parent, String name) {
+        JsonElement element = parent.get(name);
+        return element != null && element.isJsonArray() ? element.getAsJsonArray() : new JsonArray();
+    }
+
+    @Nullable
+    private static String string(JsonObject parent, String name) {
+        JsonElement element = parent.get(name);
+        return element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+    }
+
+    private static int integer(@Nullable JsonObject parent, String name, int defaultValue) {
+        if (parent == null) return defaultValue;
+        JsonElement element = parent.get(name);
+        return element != null && element.isJsonPrimitive() ? element.getAsInt() : defaultValue;
+    }
+
+    private static String orEmpty(@Nullable String value) {
+        return value == null ? "" : value;
+    }
+
+    private record DayKey(int competitionId, LocalDate day) {
+    }
+}
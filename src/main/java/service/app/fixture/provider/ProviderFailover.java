@@ -0,0 +1,33 @@
+package service.app.fixture.provider;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Sends a request to api-sports, and to the secondary FixtureProvider when api-sports fails or is slow.
+ *
+ * <p>The secondary provider is called when the primary call fails, or as a hedge when the primary has not
+ * answered within its latency SLO. The first successful answer wins. The call only fails when both providers fail,
+ * with the failure of the primary.</p>
+ */
+public interface ProviderFailover {
+
+    /**
+     * @param operation names the request in the metrics. Example: "fixtures"
+     * @param primary   starts the api-sports call
+     * @param secondary calls the secondary provider, blocking. Run on a separate thread
+     * @return a future completed with the first successful answer
+     */
+    <T> CompletableFuture<T> execute(String operation, Supplier<CompletableFuture<T>> primary, SecondaryCall<T> secondary);
+
+    /**
+     * @return the counters of each operation
+     */
+    Map<String, ProviderStats> stats();
+
+    @FunctionalInterface
+    interface SecondaryCall<T> {
+        T call() throws Exception;
+    }
+}
@@ -0,0 +1,214 @@
+package service.app.fixture.provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import service.general.external.apiService.metrics.LatencyHistogram;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+@Component
+public class ProviderFailoverImpl implements ProviderFailover {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderFailoverImpl.class);
+
+    private static final String PRIMARY = "api-sports";
+
+    private final FixtureProvider secondaryProvider;
+
+    @Value("${api.failover.enabled:true}")
+    private boolean enabled;
+
+    @Value("${api.failover.primary-slo-ms:2500}")
+    private long primarySloMillis;
+
+    private final Map<String, OperationState> operations = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "provider-failover-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // secondary calls block, and are rare. A small pool keeps a slow secondary from piling up threads
+    private final ExecutorService secondaryExecutor = Executors.newFixedThreadPool(4, runnable -> {
+        Thread thread = new Thread(runnable, "provider-failover");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public ProviderFailoverImpl(FixtureProvider secondaryProvider) {
+        this.secondaryProvider = secondaryProvider;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> execute(String operation, Supplier<CompletableFuture<T>> primary, SecondaryCall<T> secondary) {
+        OperationState state = operations.computeIfAbsent(operation, o -> new OperationState());
+        boolean failoverPossible = enabled && secondaryProvider.isAvailable();
+
+        Attempt<T> attempt = new Attempt<>(operation, state, secondary);
+        long start = System.nanoTime();
+
+        CompletableFuture<T> primaryCall;
+        try {
+            primaryCall = primary.get();
+        } catch (RuntimeException e) {
+            primaryCall = CompletableFuture.failedFuture(e);
+        }
+
+        ScheduledFuture<?> hedge = failoverPossible
+                ? scheduler.schedule(() -> attempt.startSecondary(true), primarySloMillis, TimeUnit.MILLISECONDS)
+                : null;
+
+        primaryCall.whenComplete((value, throwable) -> {
+            if (hedge != null) hedge.cancel(false);
+
+            if (throwable == null) {
+                state.primaryLatency.recordNanos(System.nanoTime() - start);
+                if (attempt.result.complete(value)) state.servedByPrimary.increment();
+                return;
+            }
+
+            state.primaryFailures.increment();
+            Throwable cause = unwrap(throwable);
+            if (failoverPossible) {
+                attempt.primaryFailed(cause);
+            } else {
+                attempt.result.completeExceptionally(cause);
+            }
+        });
+
+        // a caller that gives up cancels the primary call as well
+        CompletableFuture<T> started = primaryCall;
+        attempt.result.whenComplete((value, throwable) -> {
+            if (attempt.result.isCancelled()) started.cancel(true);
+        });
+
+        return attempt.result;
+    }
+
+    @Override
+    public Map<String, ProviderStats> stats() {
+        Map<String, ProviderStats> stats = new TreeMap<>();
+        operations.forEach((name, state) -> stats.put(name, new ProviderStats(
+                PRIMARY,
+                secondaryProvider.name(),
+                state.servedByPrimary.sum(),
+                state.servedBySecondary.sum(),
+                state.primaryFailures.sum(),
+                state.secondaryFailures.sum(),
+                state.hedgesFired.sum(),
+                state.primaryLatency.snapshot(),
+                state.secondaryLatency.snapshot())));
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        secondaryExecutor.shutdownNow();
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+
+    /**
+     * One request, sent to the primary and possibly the secondary provider
+     */
+    private final class Attempt<T> {
+        private final String operation;
+        private final OperationState state;
+        private final SecondaryCall<T> secondary;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private boolean secondaryStarted;
+        private Throwable primaryFailure;
+        private boolean secondaryFailed;
+
+        private Attempt(String operation, OperationState state, SecondaryCall<T> secondary) {
+            this.operation = operation;
+            this.state = state;
+            this.secondary = secondary;
+        }
+
+        void startSecondary(boolean hedged) {
+            synchronized (this) {
+                if (secondaryStarted || result.isDone()) return;
+                secondaryStarted = true;
+            }
+
+            if (hedged) {
+                state.hedgesFired.increment();
+                logger.debug("{} slower than {}ms for {}, asking {}", PRIMARY, primarySloMillis, operation, secondaryProvider.name());
+            } else {
+                logger.warn("{} failed for {}, failing over to {}", PRIMARY, operation, secondaryProvider.name());
+            }
+
+            try {
+                secondaryExecutor.execute(this::callSecondary);
+            } catch (RejectedExecutionException e) {
+                secondaryFailed(e);
+            }
+        }
+
+        void primaryFailed(Throwable cause) {
+            synchronized (this) {
+                primaryFailure = cause;
+                if (secondaryFailed) {
+                    result.completeExceptionally(cause);
+                    return;
+                }
+            }
+            startSecondary(false);
+        }
+
+        private void callSecondary() {
+            long start = System.nanoTime();
+            try {
+                T value = secondary.call();
+                state.secondaryLatency.recordNanos(System.nanoTime() - start);
+                if (result.complete(value)) state.servedBySecondary.increment();
+            } catch (Exception e) {
+                secondaryFailed(e);
+            }
+        }
+
+        private void secondaryFailed(Exception e) {
+            state.secondaryFailures.increment();
+            logger.debug("{} failed for {}: {}", secondaryProvider.name(), operation, e.getMessage());
+
+            synchronized (this) {
+                secondaryFailed = true;
+                // while the primary is still running, its answer is awaited
+                if (primaryFailure != null) result.completeExceptionally(primaryFailure);
+            }
+        }
+    }
+
+    private static final class OperationState {
+        private final LongAdder servedByPrimary = new LongAdder();
+        private final LongAdder servedBySecondary = new LongAdder();
+        private final LongAdder primaryFailures = new LongAdder();
+        private final LongAdder secondaryFailures = new LongAdder();
+        private final LongAdder hedgesFired = new LongAdder();
+        private final LatencyHistogram primaryLatency = new LatencyHistogram();
+        private final LatencyHistogram secondaryLatency = new LatencyHistogram();
+    }
+}
@@ -0,0 +1,29 @@
+package service.app.fixture.provider;
+
+import service.general.external.apiService.metrics.HistogramSnapshot;
+
+/**
+ * Which provider served the requests of one operation.
+ *
+ * @param primary           name of the primary provider
+ * @param secondary         name of the secondary provider
+ * @param servedByPrimary   requests answered by the primary provider
+ * @param servedBySecondary requests answered by the secondary provider
+ * @param primaryFailures   failed calls to the primary provider
+ * @param secondaryFailures failed calls to the secondary provider
+ * @param hedgesFired       secondary calls started because the primary was slower than its SLO
+ * @param primaryLatency    latency of successful primary calls
+ * @param secondaryLatency  latency of successful secondary calls
+ */
+public record ProviderStats(
+        String primary,
+        String secondary,
+        long servedByPrimary,
+        long servedBySecondary,
+        long primaryFailures,
+        long secondaryFailures,
+        long hedgesFired,
+        HistogramSnapshot primaryLatency,
+        HistogramSnapshot secondaryLatency
+) {
+}
@@ -0,0 +1,47 @@
+package service.app.fixture.push;
+
+import common.exception.gen.RateLimitException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import service.app.fixture.common.model.Fixture;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Pushes score and odds changes to clients over server-sent events.
+ *
+ * <p>Every fixture and odds update seen upstream is compared once against the last known state, and only
+ * the changed fields are sent to the clients subscribed to the fixture or its league. Each client has a
+ * bounded queue, a client that falls too far behind is disconnected instead of holding back the others.</p>
+ */
+public interface FixturePush {
+
+    /**
+     * @param fixtureIds the fixtures to follow
+     * @param leagueIds  the leagues to follow, all their fixtures included
+     * @return the event stream of the subscription
+     * @throws RateLimitException if the maximum number of subscribers is reached
+     */
+    SseEmitter subscribe(Collection<Integer> fixtureIds, Collection<Integer> leagueIds) throws RateLimitException;
+
+    /**
+     * Sends the changes of the fixtures to their subscribers.
+     *
+     * @param fixtures fixtures as returned upstream
+     */
+    void publishFixtures(Collection<Fixture> fixtures);
+
+    /**
+     * Sends the changed odds of a fixture to its subscribers.
+     *
+     * @param fixtureId the ID of the fixture
+     * @param betTypeId the ID of the bet type
+     * @param odds      the odds by outcome
+     */
+    void publishOdds(int fixtureId, int betTypeId, Map<String, Double> odds);
+
+    /**
+     * @return counters of the subscriptions and the events sent
+     */
+    PushStats stats();
+}
@@ -0,0 +1,462 @@
+package service.app.fixture.push;
+
+import com.google.gson.Gson;
+import common.exception.gen.RateLimitException;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.index.FixtureIndex;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Diffs fixtures and odds against the last state sent, and fans the changes out to the subscribers.
+ *
+ * <p>The last state is only kept for fixtures someone is subscribed to. Each change is serialized once,
+ * and queued for every subscriber. The queues are drained on a shared pool, one subscriber at a time, so
+ * the events of a subscriber stay in order. A subscriber whose queue is full, or whose client has not taken
+ * an event within the send timeout, is disconnected, so slow clients cannot hold the pool.</p>
+ *
+ * <p>A new subscriber is queued the full state of its fixtures, and of the fixtures of its leagues around now,
+ * while fixture changes are held back. Changes published afterwards are diffs against that state.</p>
+ */
+@Component
+public class FixturePushImpl implements FixturePush {
+
+    private static final Logger logger = LoggerFactory.getLogger(FixturePushImpl.class);
+
+    private static final Gson gson = new Gson();
+
+    // a fixture kicked off this long ago may still be in play, with extra time and breaks
+    private static final Duration IN_PLAY_WINDOW = Duration.ofHours(3);
+
+    // events sent before a subscriber gives its pool thread to the next one
+    private static final int MAX_EVENTS_PER_DRAIN = 32;
+
+    private static final int SENDER_THREADS = 8;
+
+    // marks a send the check found stalled
+    private static final long STALLED = Long.MIN_VALUE;
+
+    private final FixtureIndex fixtureIndex;
+
+    @Value("${push.max-subscribers:1000}")
+    private int maxSubscribers;
+
+    @Value("${push.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${push.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    @Value("${push.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    @Value("${push.send-timeout-ms:5000}")
+    private long sendTimeoutMillis;
+
+    @Value("${push.league-snapshot-hours:24}")
+    private long leagueSnapshotHours;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, Set<Subscriber>> byFixture = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Subscriber>> byLeague = new ConcurrentHashMap<>();
+
+    private final Map<Integer, Fixture> lastFixtures = new ConcurrentHashMap<>();
+    private final Map<OddsKey, Map<String, Double>> lastOdds = new ConcurrentHashMap<>();
+
+    private final LongAdder changes = new LongAdder();
+    private final LongAdder eventsSent = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    // orders the initial state of a new subscriber with the fixture changes published around it
+    private final Object fixtureLock = new Object();
+
+    // writes block while the client reads slowly. A write cannot be interrupted, so a thread stuck past the send
+    // timeout is replaced until the write fails on the container's own timeout
+    private final ThreadPoolExecutor senders = new ThreadPoolExecutor(SENDER_THREADS, Integer.MAX_VALUE,
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+        Thread thread = new Thread(runnable, "fixture-push");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fixture-push-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public FixturePushImpl(FixtureIndex fixtureIndex) {
+        this.fixtureIndex = fixtureIndex;
+    }
+
+    @PostConstruct
+    public void start() {
+        heartbeat.scheduleAtFixedRate(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        long checkMillis = Math.max(10, Math.min(sendTimeoutMillis, 1000));
+        heartbeat.scheduleAtFixedRate(this::disconnectStalled, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> {
+            remove(subscriber);
+            subscriber.emitter.complete();
+        });
+    }
+
+    @Override
+    public SseEmitter subscribe(Collection<Integer> fixtureIds, Collection<Integer> leagueIds) throws RateLimitException {
+        synchronized (fixtureLock) {
+            // the subscriber starts from the known state, later events only carry what changed
+            Map<Integer, Fixture> initial = initialState(fixtureIds, leagueIds);
+
+            // room for the initial state on top of the queue capacity
+            Subscriber subscriber = new Subscriber(newEmitter(TimeUnit.MINUTES.toMillis(timeoutMinutes)),
+                    Set.copyOf(fixtureIds), Set.copyOf(leagueIds), queueCapacity + initial.size());
+
+            synchronized (subscribers) {
+                if (subscribers.size() >= maxSubscribers) {
+                    throw new RateLimitException("Too many subscribers, try again later");
+                }
+                subscribers.add(subscriber);
+            }
+            subscriber.fixtureIds.forEach(id -> byFixture.computeIfAbsent(id, i -> ConcurrentHashMap.newKeySet()).add(subscriber));
+            subscriber.leagueIds.forEach(id -> byLeague.computeIfAbsent(id, i -> ConcurrentHashMap.newKeySet()).add(subscriber));
+
+            subscriber.emitter.onCompletion(() -> remove(subscriber));
+            subscriber.emitter.onTimeout(() -> remove(subscriber));
+            subscriber.emitter.onError(throwable -> remove(subscriber));
+
+            initial.forEach((fixtureId, fixture) -> {
+                lastFixtures.putIfAbsent(fixtureId, fixture);
+                subscriber.offer(new PushEvent("fixture", gson.toJson(fixture.toMap())));
+            });
+
+            return subscriber.emitter;
+        }
+    }
+
+    @Override
+    public void publishFixtures(Collection<Fixture> fixtures) {
+        if (subscribers.isEmpty()) return;
+
+        synchronized (fixtureLock) {
+            for (Fixture fixture : fixtures) {
+                publishFixture(fixture);
+            }
+        }
+    }
+
+    @Override
+    public void publishOdds(int fixtureId, int betTypeId, Map<String, Double> odds) {
+        if (subscribers.isEmpty() || odds.isEmpty()) return;
+
+        OddsKey key = new OddsKey(fixtureId, betTypeId);
+        Set<Subscriber> targets = targets(fixtureId, leagueOf(fixtureId));
+        if (targets.isEmpty()) {
+            lastOdds.remove(key);
+            return;
+        }
+
+        Map<String, Double> previous = lastOdds.put(key, new HashMap<>(odds));
+        Map<String, Double> changed = new HashMap<>();
+        odds.forEach((outcome, odd) -> {
+            if (previous == null || !Objects.equals(odd, previous.get(outcome))) changed.put(outcome, odd);
+        });
+        if (changed.isEmpty()) return;
+
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("fixture_id", fixtureId);
+        event.put("bet_type", betTypeId);
+        event.put("odds", changed);
+
+        changes.increment();
+        broadcast(targets, new PushEvent("odds", gson.toJson(event)));
+    }
+
+    @Override
+    public PushStats stats() {
+        return new PushStats(subscribers.size(), lastFixtures.size(), changes.sum(), eventsSent.sum(), evicted.sum());
+    }
+
+    private void publishFixture(Fixture fixture) {
+        Set<Subscriber> targets = targets(fixture.fixtureId(), fixture.leagueId());
+        if (targets.isEmpty()) {
+            lastFixtures.remove(fixture.fixtureId());
+            return;
+        }
+
+        Fixture previous = lastFixtures.put(fixture.fixtureId(), fixture);
+        if (fixture.equals(previous)) return;
+
+        changes.increment();
+        broadcast(targets, new PushEvent("fixture", gson.toJson(diff(previous, fixture))));
+    }
+
+    /**
+     * The fixtures followed by ID, then those of the leagues that are in play or kick off within the snapshot window
+     */
+    private Map<Integer, Fixture> initialState(Collection<Integer> fixtureIds, Collection<Integer> leagueIds) {
+        Map<Integer, Fixture> initial = new LinkedHashMap<>();
+        for (int fixtureId : fixtureIds) {
+            Fixture fixture = lastFixtures.get(fixtureId);
+            if (fixture == null) fixture = fixtureIndex.get(fixtureId);
+            if (fixture != null) initial.put(fixtureId, fixture);
+        }
+
+        if (!leagueIds.isEmpty()) {
+            Instant now = Instant.now();
+            List<Fixture> leagueFixtures = fixtureIndex.between(now.minus(IN_PLAY_WINDOW),
+                    now.plus(Duration.ofHours(leagueSnapshotHours)), leagueIds, null);
+            for (Fixture indexed : leagueFixtures) {
+                Fixture fixture = lastFixtures.getOrDefault(indexed.fixtureId(), indexed);
+                initial.putIfAbsent(fixture.fixtureId(), fixture);
+            }
+        }
+        return initial;
+    }
+
+    /**
+     * Creates the event stream of a subscriber
+     */
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    /**
+     * @return the fields that changed, all of them for a fixture seen for the first time
+     */
+    private static Map<String, Object> diff(@Nullable Fixture previous, Fixture current) {
+        Map<String, Object> fields = current.toMap();
+        if (previous == null) return fields;
+
+        Map<String, Object> before = previous.toMap();
+        Map<String, Object> changed = new HashMap<>();
+        fields.forEach((field, value) -> {
+            if (!Objects.equals(value, before.get(field))) changed.put(field, value);
+        });
+        changed.put("fixture_id", current.fixtureId());
+        return changed;
+    }
+
+    private Set<Subscriber> targets(int fixtureId, int leagueId) {
+        Set<Subscriber> targets = new HashSet<>();
+        Set<Subscriber> fixture = byFixture.get(fixtureId);
+        if (fixture != null) targets.addAll(fixture);
+        Set<Subscriber> league = byLeague.get(leagueId);
+        if (league != null) targets.addAll(league);
+        return targets;
+    }
+
+    private boolean watched(int fixtureId, int leagueId) {
+        return byFixture.containsKey(fixtureId) || byLeague.containsKey(leagueId);
+    }
+
+    private int leagueOf(int fixtureId) {
+        Fixture fixture = lastFixtures.get(fixtureId);
+        if (fixture == null) fixture = fixtureIndex.get(fixtureId);
+        return fixture == null ? -1 : fixture.leagueId();
+    }
+
+    private void broadcast(Set<Subscriber> targets, PushEvent event) {
+        targets.forEach(subscriber -> subscriber.offer(event));
+    }
+
+    private void heartbeat() {
+        try {
+            // keeps idle connections open through proxies, and finds the clients that have gone away
+            PushEvent ping = new PushEvent(null, "heartbeat");
+            subscribers.forEach(subscriber -> subscriber.offer(ping));
+
+            // state of fixtures nobody follows any more
+            lastFixtures.entrySet().removeIf(entry -> !watched(entry.getKey(), entry.getValue().leagueId()));
+            lastOdds.keySet().removeIf(key -> !watched(key.fixtureId(), leagueOf(key.fixtureId())));
+        } catch (RuntimeException e) {
+            logger.warn("Fixture push heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (!remove(subscriber)) return;
+        evicted.increment();
+        logger.debug("Disconnecting a push subscriber that fell {} events behind", queueCapacity);
+        subscriber.emitter.complete();
+    }
+
+    /**
+     * Drops the subscribers whose client has not taken the event being sent within the send timeout. The emitter
+     * is locked by the blocked write, so the stream is completed by the sending thread once the write returns,
+     * and a thread is added to the pool meanwhile.
+     */
+    private void disconnectStalled() {
+        try {
+            long now = System.nanoTime();
+            for (Subscriber subscriber : subscribers) {
+                long sendingSince = subscriber.sendingSince.get();
+                if (sendingSince == 0 || sendingSince == STALLED) continue;
+                if (now - sendingSince < TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis)) continue;
+                if (!subscriber.sendingSince.compareAndSet(sendingSince, STALLED)) continue;
+
+                resizeSenders(1);
+                if (remove(subscriber)) evicted.increment();
+                logger.debug("Dropping a push subscriber that did not take an event within {}ms", sendTimeoutMillis);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Fixture push send check failed: {}", e.getMessage());
+        }
+    }
+
+    private void resizeSenders(int delta) {
+        synchronized (senders) {
+            senders.setCorePoolSize(senders.getCorePoolSize() + delta);
+        }
+    }
+
+    /**
+     * @return true if the subscriber was still registered
+     */
+    private boolean remove(Subscriber subscriber) {
+        synchronized (subscriber) {
+            if (subscriber.closed) return false;
+            subscriber.closed = true;
+        }
+        subscribers.remove(subscriber);
+        subscriber.fixtureIds.forEach(id -> byFixture.computeIfPresent(id, (i, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        }));
+        subscriber.leagueIds.forEach(id -> byLeague.computeIfPresent(id, (i, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        }));
+        subscriber.queue.clear();
+        return true;
+    }
+
+    /**
+     * An event, serialized once for all its subscribers. Events without a name are sent as comments.
+     */
+    private record PushEvent(@Nullable String name, String data) {
+
+        SseEmitter.SseEventBuilder toSse() {
+            return name == null ? SseEmitter.event().comment(data) : SseEmitter.event().name(name).data(data);
+        }
+    }
+
+    private record OddsKey(int fixtureId, int betTypeId) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Integer> fixtureIds;
+        private final Set<Integer> leagueIds;
+        private final BlockingQueue<PushEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        // System.nanoTime() when the event being sent was handed to the emitter, 0 while not sending, STALLED once dropped
+        private final AtomicLong sendingSince = new AtomicLong();
+
+        private Subscriber(SseEmitter emitter, Set<Integer> fixtureIds, Set<Integer> leagueIds, int capacity) {
+            this.emitter = emitter;
+            this.fixtureIds = fixtureIds;
+            this.leagueIds = leagueIds;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void offer(PushEvent event) {
+            if (closed) return;
+            if (!queue.offer(event)) {
+                evict(this);
+                return;
+            }
+            if (draining.compareAndSet(false, true)) submitDrain();
+        }
+
+        private void submitDrain() {
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                PushEvent event;
+                int sent = 0;
+                while (!closed && (event = queue.poll()) != null) {
+                    // odd, so never 0 or STALLED
+                    long started = System.nanoTime() | 1;
+                    sendingSince.set(started);
+                    Exception failure = null;
+                    try {
+                        emitter.send(event.toSse());
+                        eventsSent.increment();
+                    } catch (IOException | IllegalStateException e) {
+                        failure = e;
+                    }
+
+                    if (!sendingSince.compareAndSet(started, 0)) {
+                        // dropped while the write was blocked, the thread added for it is no longer needed
+                        resizeSenders(-1);
+                        if (failure != null) {
+                            emitter.completeWithError(failure);
+                        } else {
+                            emitter.complete();
+                        }
+                        return;
+                    }
+                    if (failure != null) {
+                        // the client has gone away
+                        if (remove(this)) emitter.completeWithError(failure);
+                        return;
+                    }
+
+                    // the rest is sent on a later turn, after the subscribers waiting for a thread
+                    if (++sent == MAX_EVENTS_PER_DRAIN && !queue.isEmpty()) {
+                        submitDrain();
+                        return;
+                    }
+                }
+                draining.set(false);
+
+                // an event queued after the last poll, but before the flag was cleared, would otherwise wait for the next one
+                if (closed || queue.isEmpty() || !draining.compareAndSet(false, true)) return;
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package service.app.fixture.push;
+
+/**
+ * Snapshot of the fixture push.
+ *
+ * @param subscribers open event streams
+ * @param watched     fixtures whose last state is kept for diffing
+ * @param changes     fixture and odds changes found since startup
+ * @param eventsSent  events written to subscribers, heartbeats included
+ * @param evicted     subscribers disconnected because their queue was full or their client stalled
+ */
+public record PushStats(
+        int subscribers,
+        int watched,
+        long changes,
+        long eventsSent,
+        long evicted
+) {
+}
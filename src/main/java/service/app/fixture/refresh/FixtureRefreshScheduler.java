@@ -0,0 +1,247 @@
+package service.app.fixture.refresh;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import common.exception.gen.RateLimitException;
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.common.model.FixtureSource;
+import service.app.fixture.common.model.FootballResponse;
+import service.app.fixture.fixture.request.GetFixture;
+import service.app.fixture.leagues.SupportedLeaguesRegistry;
+import service.app.fixture.live.LiveFixtureTable;
+import service.app.fixture.provider.FixtureIdMapper;
+import service.app.fixture.result.FixtureResultStore;
+import service.app.user.activity.bet.dao.inferfaces.BetRetriever;
+import service.general.external.apiService.quota.PriorityContext;
+import service.general.external.apiService.quota.QuotaGovernor;
+import service.general.external.apiService.quota.QuotaStats;
+import service.general.external.apiService.quota.RequestPriority;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spends the spare football API quota on refreshing the fixtures that have pending bets, most urgent first.
+ *
+ * <p>Every cycle the fixtures with pending bets are read from the database and queued in three tiers:</p>
+ * <ol>
+ *     <li>fixtures near or past full time, which are about to be settled</li>
+ *     <li>fixtures of the supported leagues kicking off soon, which are about to close for betting</li>
+ *     <li>everything else, including fixtures that were never seen</li>
+ * </ol>
+ * <p>The queue is sent in batches of up to 20 fixtures, with the request priority of its tier, until the per-minute
+ * quota left over the configured reserve is spent. The fixtures are stored in the RefreshedFixtureCache.
+ * Fixtures in the live table are skipped, the live poller already keeps them current.</p>
+ */
+@Component
+public class FixtureRefreshScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(FixtureRefreshScheduler.class);
+
+    private final BetRetriever betRetriever;
+    private final GetFixture getFixture;
+    private final RefreshedFixtureCache refreshedFixtureCache;
+    private final LiveFixtureTable liveFixtureTable;
+    private final FixtureIdMapper fixtureIdMapper;
+    private final SupportedLeaguesRegistry supportedLeaguesRegistry;
+    private final QuotaGovernor quotaGovernor;
+    private final FixtureResultStore fixtureResultStore;
+
+    @Value("${api.refresh.enabled:true}")
+    private boolean enabled;
+
+    @Value("${api.refresh.interval-seconds:30}")
+    private long intervalSeconds;
+
+    @Value("${api.refresh.quota-reserve:5}")
+    private long quotaReserve;
+
+    @Value("${api.refresh.max-requests-per-cycle:10}")
+    private long maxRequestsPerCycle;
+
+    @Value("${api.refresh.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    @Value("${api.refresh.background-interval-minutes:30}")
+    private long backgroundIntervalMinutes;
+
+    @Value("${api.refresh.match-duration-minutes:110}")
+    private long matchDurationMinutes;
+
+    @Value("${api.refresh.full-time-lead-minutes:20}")
+    private long fullTimeLeadMinutes;
+
+    @Value("${api.refresh.upcoming-window-hours:24}")
+    private long upcomingWindowHours;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fixture-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public FixtureRefreshScheduler(BetRetriever betRetriever, GetFixture getFixture, RefreshedFixtureCache refreshedFixtureCache,
+                                   LiveFixtureTable liveFixtureTable, FixtureIdMapper fixtureIdMapper,
+                                   SupportedLeaguesRegistry supportedLeaguesRegistry, QuotaGovernor quotaGovernor,
+                                   FixtureResultStore fixtureResultStore) {
+        this.betRetriever = betRetriever;
+        this.getFixture = getFixture;
+        this.refreshedFixtureCache = refreshedFixtureCache;
+        this.liveFixtureTable = liveFixtureTable;
+        this.fixtureIdMapper = fixtureIdMapper;
+        this.supportedLeaguesRegistry = supportedLeaguesRegistry;
+        this.quotaGovernor = quotaGovernor;
+        this.fixtureResultStore = fixtureResultStore;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("Fixture refresh is disabled");
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::refresh, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void refresh() {
+        try {
+            Map<Integer, Integer> pendingBets = betRetriever.retrievePendingFixtures();
+            refreshedFixtureCache.retainAll(pendingBets.keySet());
+
+            // bets on a fixture with a stored result are settled without it. A result of the secondary provider
+            // is still refreshed, so it is corrected by the api-sports result
+            Set<Integer> settled = new HashSet<>();
+            fixtureResultStore.getAll(pendingBets.keySet()).forEach((fixtureId, result) -> {
+                if (result.source() == FixtureSource.PRIMARY) settled.add(fixtureId);
+            });
+            PriorityQueue<Candidate> queue = buildQueue(pendingBets, settled);
+            if (queue.isEmpty()) return;
+
+            QuotaStats quota = quotaGovernor.stats();
+            long budget = Math.min(maxRequestsPerCycle, Math.min(quota.minuteAvailable(), quota.dailyAvailable()) - quotaReserve);
+            if (budget <= 0) {
+                logger.debug("No quota to spare for refreshing {} fixtures", queue.size());
+                return;
+            }
+
+            spend(queue, budget);
+        } catch (Exception e) {
+            logger.warn("Failed to refresh fixtures: {}", e.getMessage());
+        }
+    }
+
+    private PriorityQueue<Candidate> buildQueue(Map<Integer, Integer> pendingBets, Set<Integer> settled) {
+        long now = System.currentTimeMillis();
+        Set<Integer> supportedLeagues = new HashSet<>(supportedLeaguesRegistry.leagueIds());
+
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Comparator
+                .comparing(Candidate::tier)
+                .thenComparingLong(Candidate::dueMillis)
+                .thenComparing(Comparator.comparingInt(Candidate::pendingBets).reversed()));
+
+        pendingBets.forEach((fixtureId, bets) -> {
+            if (settled.contains(fixtureId) || liveFixtureTable.get(fixtureId) != null) return;
+
+            Candidate candidate = classify(fixtureId, bets, supportedLeagues, now);
+            if (candidate == null) return;
+
+            long age = now - refreshedFixtureCache.refreshedAtMillis(fixtureId);
+            // the two urgent tiers are refreshed before hot path lookups would find them expired
+            long minAge = candidate.tier() == Tier.OTHER
+                    ? TimeUnit.MINUTES.toMillis(backgroundIntervalMinutes)
+                    : TimeUnit.SECONDS.toMillis(maxAgeSeconds) / 2;
+            if (age >= minAge) queue.add(candidate);
+        });
+        return queue;
+    }
+
+    @Nullable
+    private Candidate classify(int fixtureId, int bets, Set<Integer> supportedLeagues, long now) {
+        Fixture cached = refreshedFixtureCache.lastKnown(fixtureId);
+        // a finished fixture does not change, one refresh from api-sports is enough
+        if (cached != null && cached.finished() && cached.source() == FixtureSource.PRIMARY) return null;
+
+        Fixture known = cached != null ? cached : fixtureIdMapper.knownFixture(fixtureId);
+        Instant kickoffTime = known != null ? known.kickoff() : null;
+        if (kickoffTime == null) return new Candidate(fixtureId, Tier.OTHER, 0, bets);
+        long kickoff = kickoffTime.toEpochMilli();
+
+        long expectedEnd = kickoff + TimeUnit.MINUTES.toMillis(matchDurationMinutes);
+        if (known.finished() || now >= expectedEnd - TimeUnit.MINUTES.toMillis(fullTimeLeadMinutes)) {
+            return new Candidate(fixtureId, Tier.NEAR_FULL_TIME, expectedEnd, bets);
+        }
+        if (supportedLeagues.contains(known.leagueId()) && kickoff > now
+                && kickoff - now <= TimeUnit.HOURS.toMillis(upcomingWindowHours)) {
+            return new Candidate(fixtureId, Tier.UPCOMING, kickoff, bets);
+        }
+        return new Candidate(fixtureId, Tier.OTHER, kickoff, bets);
+    }
+
+    private void spend(PriorityQueue<Candidate> queue, long budget) {
+        int refreshed = 0;
+        int requests = 0;
+
+        while (!queue.isEmpty() && requests < budget) {
+            // the batch is sent with the priority of its first, most urgent fixture
+            Tier tier = queue.peek().tier();
+            List<Integer> batch = new ArrayList<>();
+            while (!queue.isEmpty() && batch.size() < GetFixture.MAX_IDS_PER_REQUEST) {
+                batch.add(queue.poll().fixtureId());
+            }
+
+            requests++;
+            try (PriorityContext.Scope ignored = PriorityContext.open(tier.priority)) {
+                FootballResponse<Fixture> response = getFixture.refreshFixturesByIds(batch).join();
+                refreshedFixtureCache.putAll(response.response());
+                // corrects results recorded from the secondary provider
+                response.response().forEach(fixtureResultStore::record);
+                refreshed += response.response().size();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RateLimitException) {
+                    logger.debug("Quota reserved for other callers, refresh stopped with {} fixtures left", queue.size());
+                    break;
+                }
+                logger.warn("Failed to refresh {} fixtures: {}", batch.size(), e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            }
+        }
+
+        logger.debug("Refreshed {} fixtures in {} requests, {} left for the next cycle", refreshed, requests, queue.size());
+    }
+
+    private enum Tier {
+        NEAR_FULL_TIME(RequestPriority.SETTLEMENT),
+        UPCOMING(RequestPriority.BET_VALIDATION),
+        OTHER(RequestPriority.BROWSE);
+
+        private final RequestPriority priority;
+
+        Tier(RequestPriority priority) {
+            this.priority = priority;
+        }
+    }
+
+    private record Candidate(int fixtureId, Tier tier, long dueMillis, int pendingBets) {
+    }
+}
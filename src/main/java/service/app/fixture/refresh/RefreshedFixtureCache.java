@@ -0,0 +1,47 @@
+package service.app.fixture.refresh;
+
+import org.jetbrains.annotations.Nullable;
+import service.app.fixture.common.model.Fixture;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Fixtures kept current by the FixtureRefreshScheduler, so lookups of fixtures with open bets do not go upstream.
+ */
+public interface RefreshedFixtureCache {
+
+    /**
+     * @param fixtureId the ID of the fixture
+     * @return the fixture, or null if it was never refreshed or its last refresh is too old
+     */
+    @Nullable
+    Fixture get(int fixtureId);
+
+    /**
+     * @param fixtureId the ID of the fixture
+     * @return the fixture as last refreshed, however old, or null if it was never refreshed
+     */
+    @Nullable
+    Fixture lastKnown(int fixtureId);
+
+    /**
+     * @param fixtureId the ID of the fixture
+     * @return when the fixture was last refreshed, in epoch milliseconds, or 0 if never
+     */
+    long refreshedAtMillis(int fixtureId);
+
+    /**
+     * Stores freshly fetched fixtures.
+     *
+     * @param fixtures the fixtures returned upstream
+     */
+    void putAll(Collection<Fixture> fixtures);
+
+    /**
+     * Drops every fixture not in the given set.
+     *
+     * @param fixtureIds the fixtures to keep
+     */
+    void retainAll(Set<Integer> fixtureIds);
+}
@@ -0,0 +1,60 @@
+package service.app.fixture.refresh;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import service.app.fixture.common.model.Fixture;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent map implementation of the RefreshedFixtureCache. The scheduler bounds its size to the fixtures with pending bets.
+ */
+@Component
+public class RefreshedFixtureCacheImpl implements RefreshedFixtureCache {
+
+    @Value("${api.refresh.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    private final Map<Integer, Entry> fixtures = new ConcurrentHashMap<>();
+
+    @Nullable
+    @Override
+    public Fixture get(int fixtureId) {
+        Entry entry = fixtures.get(fixtureId);
+        if (entry == null) return null;
+        // a finished fixture does not change, so it never goes out of date
+        if (!entry.fixture.finished() && System.currentTimeMillis() - entry.refreshedAtMillis > maxAgeSeconds * 1000) return null;
+        return entry.fixture;
+    }
+
+    @Nullable
+    @Override
+    public Fixture lastKnown(int fixtureId) {
+        Entry entry = fixtures.get(fixtureId);
+        return entry != null ? entry.fixture : null;
+    }
+
+    @Override
+    public long refreshedAtMillis(int fixtureId) {
+        Entry entry = fixtures.get(fixtureId);
+        return entry != null ? entry.refreshedAtMillis : 0;
+    }
+
+    @Override
+    public void putAll(Collection<Fixture> refreshed) {
+        long now = System.currentTimeMillis();
+        refreshed.forEach(fixture -> fixtures.put(fixture.fixtureId(), new Entry(fixture, now)));
+    }
+
+    @Override
+    public void retainAll(Set<Integer> fixtureIds) {
+        fixtures.keySet().retainAll(fixtureIds);
+    }
+
+    private record Entry(Fixture fixture, long refreshedAtMillis) {
+    }
+}
@@ -0,0 +1,38 @@
+package service.app.fixture.result;
+
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.common.model.FixtureSource;
+
+/**
+ * The outcome of a fixture, as used to settle its bets.
+ *
+ * @param fixtureId     the api-sports fixture ID
+ * @param status        the short status, final for a stored result (e.g. "FT", "AET", "PEN")
+ * @param homeGoals     goals of the home team
+ * @param awayGoals     goals of the away team
+ * @param homePenalties penalties scored by the home team in a shootout, -1 without a shootout
+ * @param awayPenalties penalties scored by the away team in a shootout, -1 without a shootout
+ * @param source        the provider the result was read from
+ */
+public record FixtureResult(
+        int fixtureId,
+        String status,
+        int homeGoals,
+        int awayGoals,
+        int homePenalties,
+        int awayPenalties,
+        FixtureSource source
+) {
+
+    public static FixtureResult of(Fixture fixture) {
+        return new FixtureResult(fixture.fixtureId(), fixture.status(), fixture.homeGoals(), fixture.awayGoals(),
+                fixture.homePenalties(), fixture.awayPenalties(), fixture.source());
+    }
+
+    /**
+     * Claiming allowed if the status is FT (Full Time), as for {@link Fixture#claimingAllowed()}
+     */
+    public boolean claimingAllowed() {
+        return "FT".equals(status);
+    }
+}
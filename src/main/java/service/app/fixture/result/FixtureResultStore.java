@@ -0,0 +1,38 @@
+package service.app.fixture.result;
+
+import org.jetbrains.annotations.Nullable;
+import service.app.fixture.common.model.Fixture;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Final results of fixtures, written once when a fixture finishes. A result read from the secondary provider
+ * is replaced by the api-sports result once that is seen, any other result never changes.
+ *
+ * <p>Kept in the {@code fixture_results} table and cached in memory, so bets on a finished fixture
+ * are settled without calling upstream.</p>
+ */
+public interface FixtureResultStore {
+
+    /**
+     * Stores the result of a finished fixture. Does nothing if the fixture is not finished, was read from a secondary
+     * fixture not matched exactly, or its result is already stored from a source at least as trusted.
+     *
+     * @param fixture the fixture as returned upstream
+     */
+    void record(Fixture fixture);
+
+    /**
+     * @param fixtureId the ID of the fixture
+     * @return the final result, or null if the fixture has not finished or its result is not stored
+     */
+    @Nullable
+    FixtureResult get(int fixtureId);
+
+    /**
+     * @param fixtureIds the IDs of the fixtures
+     * @return the stored results, by fixture ID. Fixtures without a stored result are left out
+     */
+    Map<Integer, FixtureResult> getAll(Collection<Integer> fixtureIds);
+}
@@ -0,0 +1,182 @@
+package service.app.fixture.result;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.common.model.FixtureSource;
+import service.app.fixture.lifecycle.FixtureLifecycleEvent;
+import service.app.fixture.lifecycle.FixtureState;
+import service.general.external.dbRequest.DbRequest;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Postgres implementation of the FixtureResultStore, with an unbounded in-memory cache in front.
+ *
+ * <p>Results are recorded when the fixture lifecycle reports a fixture as finished. Cancelled and abandoned fixtures
+ * are not recorded, since they can still be awarded later. Only results of api-sports, or of secondary fixtures
+ * matched to api-sports by their team names, are recorded. A secondary result is corrected by the api-sports result,
+ * in memory and with a guarded update of the row. The write runs in the background, the result is served from
+ * memory straight away.</p>
+ */
+@Component
+public class FixtureResultStoreImpl implements FixtureResultStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(FixtureResultStoreImpl.class);
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS fixture_results (" +
+            "fixture_id integer PRIMARY KEY, " +
+            "status varchar(8) NOT NULL, " +
+            "home_goals integer NOT NULL, " +
+            "away_goals integer NOT NULL, " +
+            "home_penalties integer NOT NULL, " +
+            "away_penalties integer NOT NULL, " +
+            "source varchar(16) NOT NULL DEFAULT 'PRIMARY', " +
+            "recorded_at timestamp NOT NULL DEFAULT now())";
+
+    // tables created before results were read from the secondary provider
+    private static final String ADD_SOURCE = "ALTER TABLE fixture_results ADD COLUMN IF NOT EXISTS source varchar(16) NOT NULL DEFAULT 'PRIMARY'";
+
+    // the first result written wins, except that an api-sports result replaces a secondary one
+    private static final String UPSERT_RESULT = "INSERT INTO fixture_results " +
+            "(fixture_id, status, home_goals, away_goals, home_penalties, away_penalties, source) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (fixture_id) DO UPDATE SET status = excluded.status, home_goals = excluded.home_goals, " +
+            "away_goals = excluded.away_goals, home_penalties = excluded.home_penalties, " +
+            "away_penalties = excluded.away_penalties, source = excluded.source, recorded_at = now() " +
+            "WHERE excluded.source = 'PRIMARY' AND fixture_results.source <> 'PRIMARY'";
+
+    private static final String FIND_RESULTS = "SELECT fixture_id, status, home_goals, away_goals, home_penalties, away_penalties, source " +
+            "FROM fixture_results WHERE fixture_id = ANY(?)";
+
+    private final DbRequest dbRequest;
+
+    private final Map<Integer, FixtureResult> results = new ConcurrentHashMap<>();
+
+    private volatile boolean tableAvailable;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fixture-results");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public FixtureResultStoreImpl(DbRequest dbRequest) {
+        this.dbRequest = dbRequest;
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            dbRequest.execute(CREATE_TABLE);
+            dbRequest.execute(ADD_SOURCE);
+            tableAvailable = true;
+        } catch (SQLException e) {
+            logger.error("Failed to set up the fixture_results table, results are only kept in memory: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+    }
+
+    @EventListener
+    public void onLifecycleEvent(FixtureLifecycleEvent event) {
+        if (event.to() == FixtureState.FINISHED) record(event.fixture());
+    }
+
+    @Override
+    public void record(Fixture fixture) {
+        if (fixture.fixtureId() <= 0 || FixtureState.of(fixture.status()) != FixtureState.FINISHED) return;
+        if (!fixture.source().trustedForResults()) return;
+
+        FixtureResult result = FixtureResult.of(fixture);
+        boolean[] changed = {false};
+        results.compute(fixture.fixtureId(), (id, stored) -> {
+            if (stored != null && !replaces(result, stored)) return stored;
+            changed[0] = true;
+            return result;
+        });
+        if (!changed[0] || !tableAvailable) return;
+
+        try {
+            writer.execute(() -> insert(result));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Result of fixture {} not written, shutting down", fixture.fixtureId());
+        }
+    }
+
+    @Nullable
+    @Override
+    public FixtureResult get(int fixtureId) {
+        return getAll(List.of(fixtureId)).get(fixtureId);
+    }
+
+    @Override
+    public Map<Integer, FixtureResult> getAll(Collection<Integer> fixtureIds) {
+        Map<Integer, FixtureResult> found = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (int fixtureId : fixtureIds) {
+            FixtureResult result = results.get(fixtureId);
+            if (result != null) {
+                found.put(fixtureId, result);
+            } else {
+                missing.add(fixtureId);
+            }
+        }
+        if (missing.isEmpty() || !tableAvailable) return found;
+
+        try {
+            for (Map<String, Object> row : dbRequest.query(FIND_RESULTS, (Object) missing.toArray(new Integer[0]))) {
+                FixtureResult result = new FixtureResult(
+                        (int) row.get("fixture_id"),
+                        (String) row.get("status"),
+                        (int) row.get("home_goals"),
+                        (int) row.get("away_goals"),
+                        (int) row.get("home_penalties"),
+                        (int) row.get("away_penalties"),
+                        FixtureSource.valueOf((String) row.get("source")));
+                // a result recorded while the table was read wins
+                found.put(result.fixtureId(), results.merge(result.fixtureId(), result,
+                        (stored, read) -> replaces(read, stored) ? read : stored));
+            }
+        } catch (SQLException e) {
+            // the caller falls back to fetching the fixtures
+            logger.warn("Failed to read fixture results: {}", e.getMessage());
+        }
+        return found;
+    }
+
+    /**
+     * Only a result of api-sports replaces a result of the secondary provider
+     */
+    private static boolean replaces(FixtureResult result, FixtureResult stored) {
+        return result.source() == FixtureSource.PRIMARY && stored.source() != FixtureSource.PRIMARY;
+    }
+
+    private void insert(FixtureResult result) {
+        try {
+            dbRequest.execute(UPSERT_RESULT, result.fixtureId(), result.status(), result.homeGoals(), result.awayGoals(),
+                    result.homePenalties(), result.awayPenalties(), result.source().name());
+        } catch (SQLException e) {
+            // still served from memory, and recorded again when the fixture is next seen after a restart
+            logger.warn("Failed to write the result of fixture {}: {}", result.fixtureId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package service.app.fixture.snapshot;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A response serialized once, served as is until the data behind it changes.
+ *
+ * @param body            the JSON body, UTF-8 encoded
+ * @param gzipped         the body compressed with gzip, or null if it is too small to be worth it
+ * @param etag            strong entity tag of the uncompressed body, quoted
+ * @param expiresAtMillis when the snapshot is rebuilt even if no change was seen
+ */
+public record ResponseSnapshot(
+        byte[] body,
+        @Nullable byte[] gzipped,
+        String etag,
+        long expiresAtMillis
+) {
+
+    /**
+     * @param gzip whether the gzipped body is served
+     * @return the entity tag of the body served. A strong tag identifies the exact bytes, so the gzipped body has its own
+     */
+    public String etag(boolean gzip) {
+        return gzip ? etag.substring(0, etag.length() - 1) + "-gz\"" : etag;
+    }
+
+    /**
+     * @param ifNoneMatch the If-None-Match header of the request
+     * @param gzip        whether the gzipped body would be served
+     * @return true if the client already has the body it would be served
+     */
+    public boolean matches(@Nullable String ifNoneMatch, boolean gzip) {
+        if (ifNoneMatch == null) return false;
+        String served = etag(gzip);
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            // If-None-Match uses the weak comparison
+            if (candidate.startsWith("W/")) candidate = candidate.substring(2);
+            if (candidate.equals("*") || candidate.equals(served)) return true;
+        }
+        return false;
+    }
+
+    public int weight() {
+        return body.length + (gzipped == null ? 0 : gzipped.length);
+    }
+}
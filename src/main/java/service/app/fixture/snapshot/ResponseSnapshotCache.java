@@ -0,0 +1,72 @@
+package service.app.fixture.snapshot;
+
+import org.jetbrains.annotations.Nullable;
+import service.app.fixture.common.model.Fixture;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Serialized fixture and odds responses, so repeat requests cost a map lookup.
+ *
+ * <p>A snapshot is dropped as soon as a fixture or odds response from upstream changes the data behind it,
+ * and rebuilt after snapshot.max-age-seconds regardless, because a snapshot served from memory never
+ * reaches the code that would notice a change.</p>
+ */
+public interface ResponseSnapshotCache {
+
+    /**
+     * @param key the key of the response, see the key methods
+     * @return the snapshot, or null if it is missing or expired
+     */
+    @Nullable
+    ResponseSnapshot get(String key);
+
+    /**
+     * Serializes and stores a response.
+     *
+     * @param key  the key of the response
+     * @param json the response body
+     * @return the stored snapshot
+     */
+    ResponseSnapshot put(String key, String json);
+
+    /**
+     * Records a 304 Not Modified answered from a snapshot.
+     */
+    void notModified();
+
+    /**
+     * Drops the snapshots holding the fixtures.
+     *
+     * @param fixtures fixtures that were added or changed
+     */
+    void fixturesChanged(Collection<Fixture> fixtures);
+
+    /**
+     * Drops the snapshots holding the odds of the fixture, if they differ from the last odds seen.
+     *
+     * @param fixtureId the ID of the fixture
+     * @param betTypeId the ID of the bet type
+     * @param odds      the odds by outcome, as returned upstream
+     */
+    void oddsFetched(int fixtureId, int betTypeId, Map<String, Double> odds);
+
+    SnapshotStats stats();
+
+    static String fixtureKey(int fixtureId) {
+        return "fixture:" + fixtureId;
+    }
+
+    static String leagueSeasonKey(int leagueId, int season) {
+        return "fixtures:" + leagueId + ":" + season;
+    }
+
+    static String oddsKey(int fixtureId, int betTypeId) {
+        return "odds:" + fixtureId + ":" + betTypeId;
+    }
+
+    static String leagueOddsKey(int leagueId, int season, int betTypeId) {
+        return "league-odds:" + leagueId + ":" + season + ":" + betTypeId;
+    }
+}
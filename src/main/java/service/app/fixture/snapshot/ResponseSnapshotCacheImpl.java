@@ -0,0 +1,179 @@
+package service.app.fixture.snapshot;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.index.FixtureIndex;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * LRU implementation of the ResponseSnapshotCache, bounded by number of snapshots and by their total size.
+ */
+@Component
+public class ResponseSnapshotCacheImpl implements ResponseSnapshotCache {
+
+    private final FixtureIndex fixtureIndex;
+
+    @Value("${snapshot.max-entries:5000}")
+    private int maxEntries;
+
+    @Value("${snapshot.max-weight-bytes:67108864}")
+    private long maxWeightBytes;
+
+    @Value("${snapshot.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    @Value("${snapshot.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    // access-ordered, so iteration starts at the least recently used snapshot
+    private final LinkedHashMap<String, ResponseSnapshot> snapshots = new LinkedHashMap<>(256, 0.75f, true);
+    private long weightBytes; // guarded by snapshots
+
+    // hash of the last odds seen per fixture and bet type, to tell a change from a repeat
+    private final Map<Long, Integer> oddsSeen = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public ResponseSnapshotCacheImpl(FixtureIndex fixtureIndex) {
+        this.fixtureIndex = fixtureIndex;
+    }
+
+    @Nullable
+    @Override
+    public ResponseSnapshot get(String key) {
+        synchronized (snapshots) {
+            ResponseSnapshot snapshot = snapshots.get(key);
+            if (snapshot != null && snapshot.expiresAtMillis() > System.currentTimeMillis()) {
+                hits.increment();
+                return snapshot;
+            }
+            if (snapshot != null) remove(key);
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    public ResponseSnapshot put(String key, String json) {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        byte[] gzipped = gzipMinBytes >= 0 && body.length >= gzipMinBytes ? gzip(body) : null;
+        ResponseSnapshot snapshot = new ResponseSnapshot(body, gzipped, etag(body),
+                System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(maxAgeSeconds));
+
+        synchronized (snapshots) {
+            ResponseSnapshot previous = snapshots.put(key, snapshot);
+            if (previous != null) weightBytes -= previous.weight();
+            weightBytes += snapshot.weight();
+            evictIfNeeded();
+        }
+        return snapshot;
+    }
+
+    @Override
+    public void notModified() {
+        notModified.increment();
+    }
+
+    @Override
+    public void fixturesChanged(Collection<Fixture> fixtures) {
+        if (fixtures.isEmpty()) return;
+
+        Set<String> keys = new HashSet<>();
+        for (Fixture fixture : fixtures) {
+            keys.add(ResponseSnapshotCache.fixtureKey(fixture.fixtureId()));
+            keys.add(ResponseSnapshotCache.leagueSeasonKey(fixture.leagueId(), fixture.season()));
+        }
+        invalidate(keys);
+    }
+
+    @Override
+    public void oddsFetched(int fixtureId, int betTypeId, Map<String, Double> odds) {
+        Integer previous = oddsSeen.put(((long) fixtureId << 32) | (betTypeId & 0xffffffffL), odds.hashCode());
+        // the first odds seen are the ones any snapshot was built from
+        if (previous == null || previous == odds.hashCode()) return;
+
+        Set<String> keys = new HashSet<>();
+        keys.add(ResponseSnapshotCache.oddsKey(fixtureId, betTypeId));
+        Fixture fixture = fixtureIndex.get(fixtureId);
+        if (fixture != null) keys.add(ResponseSnapshotCache.leagueOddsKey(fixture.leagueId(), fixture.season(), betTypeId));
+        invalidate(keys);
+    }
+
+    @Override
+    public SnapshotStats stats() {
+        synchronized (snapshots) {
+            return new SnapshotStats(hits.sum(), misses.sum(), notModified.sum(), invalidations.sum(), evictions.sum(),
+                    snapshots.size(), weightBytes);
+        }
+    }
+
+    private void invalidate(Set<String> keys) {
+        synchronized (snapshots) {
+            for (String key : keys) {
+                if (remove(key)) invalidations.increment();
+            }
+        }
+    }
+
+    private boolean remove(String key) {
+        ResponseSnapshot removed = snapshots.remove(key);
+        if (removed == null) return false;
+        weightBytes -= removed.weight();
+        return true;
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, ResponseSnapshot>> iterator = snapshots.entrySet().iterator();
+        while ((snapshots.size() > maxEntries || weightBytes > maxWeightBytes) && iterator.hasNext()) {
+            Map.Entry<String, ResponseSnapshot> eldest = iterator.next();
+            weightBytes -= eldest.getValue().weight();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            // cannot happen writing to memory
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package service.app.fixture.snapshot;
+
+/**
+ * Snapshot of the response snapshot cache counters.
+ *
+ * @param hits          requests answered from a snapshot, not modified responses included
+ * @param misses        requests that had to build their response
+ * @param notModified   requests answered with 304 Not Modified
+ * @param invalidations snapshots dropped because their data changed
+ * @param evictions     snapshots removed to stay within the size bound
+ * @param entries       number of snapshots currently held
+ * @param weightBytes   total size of the held bodies, compressed copies included
+ */
+public record SnapshotStats(
+        long hits,
+        long misses,
+        long notModified,
+        long invalidations,
+        long evictions,
+        int entries,
+        long weightBytes
+) {
+}
@@ -0,0 +1,67 @@
+package service.app.fixture.store;
+
+import service.app.fixture.common.model.Fixture;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixtures kept in the {@code fixtures} table, so they can be joined with bets and served without calling upstream.
+ *
+ * <p>Writes are incremental: only fixtures that differ from what was last written are queued, and the queue
+ * is upserted in batches in the background.</p>
+ */
+public interface FixtureStore {
+
+    /**
+     * Queues the fixtures that changed since they were last written. Only fixtures read from api-sports are stored,
+     * a stored fixture is served as such.
+     *
+     * @param fixtures fixtures as returned upstream
+     */
+    void save(Collection<Fixture> fixtures);
+
+    /**
+     * Writes the queued fixtures now, on the calling thread.
+     *
+     * @throws SQLException if a batch cannot be written, the fixtures stay queued
+     */
+    void flush() throws SQLException;
+
+    /**
+     * @param fixtureIds the IDs of the fixtures
+     * @return the stored fixtures, by ID. Fixtures that are not stored are left out
+     * @throws SQLException if a database access error occurs
+     */
+    Map<Integer, Fixture> findByIds(Collection<Integer> fixtureIds) throws SQLException;
+
+    /**
+     * @param leagueId the ID of the league
+     * @param season   the season
+     * @return the stored fixtures of the league and season, by kickoff
+     * @throws SQLException if a database access error occurs
+     */
+    List<Fixture> findByLeagueAndSeason(int leagueId, int season) throws SQLException;
+
+    /**
+     * Records that every fixture of a league and season has just been written.
+     *
+     * @param leagueId the ID of the league
+     * @param season   the season
+     */
+    void markSeasonSynced(int leagueId, int season);
+
+    /**
+     * @param leagueId the ID of the league
+     * @param season   the season
+     * @return true if the league and season were completely synced recently enough to be served from the store
+     */
+    boolean isSeasonSynced(int leagueId, int season);
+
+    /**
+     * @return false if the table could not be set up, the store is then bypassed
+     */
+    boolean isAvailable();
+}
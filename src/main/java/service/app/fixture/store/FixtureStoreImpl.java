@@ -0,0 +1,313 @@
+package service.app.fixture.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.common.model.FixtureSource;
+import service.general.external.dbRequest.DbRequest;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Postgres implementation of the FixtureStore.
+ *
+ * <p>The table and its indexes are created on startup if missing. Each batch is a single multi-row upsert,
+ * and rows whose values did not change are not rewritten.</p>
+ */
+@Component
+public class FixtureStoreImpl implements FixtureStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(FixtureStoreImpl.class);
+
+    private static final DateTimeFormatter FIXTURE_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssxxx");
+
+    private static final String COLUMNS = "fixture_id, league_id, season, league, fixture_date, home_team, home_team_icon, " +
+            "away_team, away_team_icon, status, home_goals, away_goals, home_penalties, away_penalties, minutes_elapsed";
+
+    private static final int COLUMN_COUNT = 15;
+
+    private static final List<String> CREATE_SCHEMA = List.of(
+            "CREATE TABLE IF NOT EXISTS fixtures (" +
+                    "fixture_id integer PRIMARY KEY, " +
+                    "league_id integer NOT NULL, " +
+                    "season integer NOT NULL, " +
+                    "league varchar(255), " +
+                    "fixture_date timestamptz, " +
+                    "home_team varchar(255), " +
+                    "home_team_icon varchar(255), " +
+                    "away_team varchar(255), " +
+                    "away_team_icon varchar(255), " +
+                    "status varchar(8) NOT NULL, " +
+                    "home_goals integer NOT NULL, " +
+                    "away_goals integer NOT NULL, " +
+                    "home_penalties integer NOT NULL, " +
+                    "away_penalties integer NOT NULL, " +
+                    "minutes_elapsed integer NOT NULL, " +
+                    "updated_at timestamp NOT NULL DEFAULT now())",
+            "CREATE INDEX IF NOT EXISTS fixtures_league_season_idx ON fixtures (league_id, season)",
+            "CREATE INDEX IF NOT EXISTS fixtures_status_idx ON fixtures (status)",
+            "CREATE INDEX IF NOT EXISTS fixtures_fixture_date_idx ON fixtures (fixture_date)");
+
+    // a season of -1 is unknown, the stored season is kept. A missing icon keeps the stored icon
+    private static final String UPSERT_CONFLICT = " ON CONFLICT (fixture_id) DO UPDATE SET " +
+            "league_id = excluded.league_id, " +
+            "season = CASE WHEN excluded.season > 0 THEN excluded.season ELSE fixtures.season END, " +
+            "league = excluded.league, fixture_date = excluded.fixture_date, " +
+            "home_team = excluded.home_team, home_team_icon = COALESCE(excluded.home_team_icon, fixtures.home_team_icon), " +
+            "away_team = excluded.away_team, away_team_icon = COALESCE(excluded.away_team_icon, fixtures.away_team_icon), " +
+            "status = excluded.status, home_goals = excluded.home_goals, away_goals = excluded.away_goals, " +
+            "home_penalties = excluded.home_penalties, away_penalties = excluded.away_penalties, " +
+            "minutes_elapsed = excluded.minutes_elapsed, updated_at = now() " +
+            "WHERE (fixtures.status, fixtures.home_goals, fixtures.away_goals, fixtures.home_penalties, " +
+            "fixtures.away_penalties, fixtures.minutes_elapsed, fixtures.fixture_date, fixtures.league, " +
+            "fixtures.home_team, fixtures.away_team, fixtures.home_team_icon, fixtures.away_team_icon) " +
+            "IS DISTINCT FROM (excluded.status, excluded.home_goals, excluded.away_goals, excluded.home_penalties, " +
+            "excluded.away_penalties, excluded.minutes_elapsed, excluded.fixture_date, excluded.league, " +
+            "excluded.home_team, excluded.away_team, COALESCE(excluded.home_team_icon, fixtures.home_team_icon), " +
+            "COALESCE(excluded.away_team_icon, fixtures.away_team_icon))";
+
+    private static final String FIND_BY_IDS =
+            "SELECT " + COLUMNS + " FROM fixtures WHERE fixture_id = ANY(?)";
+
+    private static final String FIND_BY_LEAGUE_AND_SEASON =
+            "SELECT " + COLUMNS + " FROM fixtures WHERE league_id = ? AND season = ? ORDER BY fixture_date";
+
+    private final DbRequest dbRequest;
+
+    @Value("${database.fixtures.enabled:true}")
+    private boolean enabled;
+
+    @Value("${database.fixtures.batch-size:500}")
+    private int batchSize;
+
+    @Value("${database.fixtures.flush-interval-ms:2000}")
+    private long flushIntervalMillis;
+
+    @Value("${database.fixtures.season-max-age-minutes:120}")
+    private long seasonMaxAgeMinutes;
+
+    @Value("${database.fixtures.max-written-entries:20000}")
+    private int maxWrittenEntries;
+
+    private volatile boolean available;
+
+    // the latest version of each fixture still to be written
+    private final Map<Integer, Fixture> queued = new ConcurrentHashMap<>();
+    // the version last written, to skip fixtures that did not change. The least recently saved are forgotten first,
+    // a forgotten fixture is written again and the upsert skips the row if it did not change
+    private final Map<Integer, Fixture> written = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Fixture> eldest) {
+            return size() > maxWrittenEntries;
+        }
+    });
+    private final Map<Long, Long> seasonsSyncedAt = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fixture-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public FixtureStoreImpl(DbRequest dbRequest) {
+        this.dbRequest = dbRequest;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("Fixture store is disabled");
+            return;
+        }
+
+        try {
+            for (String statement : CREATE_SCHEMA) dbRequest.execute(statement);
+            available = true;
+        } catch (SQLException e) {
+            logger.error("Failed to set up the fixtures table, fixtures are not stored: {}", e.getMessage());
+            return;
+        }
+
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (SQLException e) {
+                logger.warn("Failed to write {} fixtures: {}", queued.size(), e.getMessage());
+            }
+        }, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public void save(Collection<Fixture> fixtures) {
+        if (!available) return;
+        for (Fixture fixture : fixtures) {
+            // the table has no source, a failover fixture would be read back as an api-sports one
+            if (fixture.source() != FixtureSource.PRIMARY || fixture.status() == null) continue;
+            if (fixture.equals(written.get(fixture.fixtureId()))) continue;
+            queued.put(fixture.fixtureId(), fixture);
+        }
+    }
+
+    @Override
+    public void flush() throws SQLException {
+        if (!available) return;
+
+        flushLock.lock();
+        try {
+            List<Fixture> batch = new ArrayList<>(batchSize);
+            for (Fixture fixture : queued.values()) {
+                batch.add(fixture);
+                if (batch.size() == batchSize) {
+                    write(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) write(batch);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public Map<Integer, Fixture> findByIds(Collection<Integer> fixtureIds) throws SQLException {
+        if (!available || fixtureIds.isEmpty()) return Collections.emptyMap();
+
+        Map<Integer, Fixture> fixtures = new LinkedHashMap<>();
+        for (Map<String, Object> row : dbRequest.query(FIND_BY_IDS, (Object) fixtureIds.toArray(new Integer[0]))) {
+            Fixture fixture = toFixture(row);
+            fixtures.put(fixture.fixtureId(), fixture);
+        }
+        return fixtures;
+    }
+
+    @Override
+    public List<Fixture> findByLeagueAndSeason(int leagueId, int season) throws SQLException {
+        if (!available) return List.of();
+
+        List<Fixture> fixtures = new ArrayList<>();
+        for (Map<String, Object> row : dbRequest.query(FIND_BY_LEAGUE_AND_SEASON, leagueId, season)) {
+            fixtures.add(toFixture(row));
+        }
+        return fixtures;
+    }
+
+    @Override
+    public void markSeasonSynced(int leagueId, int season) {
+        seasonsSyncedAt.put(seasonKey(leagueId, season), System.currentTimeMillis());
+    }
+
+    @Override
+    public boolean isSeasonSynced(int leagueId, int season) {
+        if (!available) return false;
+        Long syncedAt = seasonsSyncedAt.get(seasonKey(leagueId, season));
+        return syncedAt != null && System.currentTimeMillis() - syncedAt <= TimeUnit.MINUTES.toMillis(seasonMaxAgeMinutes);
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return available;
+    }
+
+    private void write(List<Fixture> batch) throws SQLException {
+        StringBuilder sql = new StringBuilder("INSERT INTO fixtures (").append(COLUMNS).append(") VALUES ");
+        String row = "(" + String.join(", ", Collections.nCopies(COLUMN_COUNT, "?")) + ")";
+        List<Object> params = new ArrayList<>(batch.size() * COLUMN_COUNT);
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(row);
+
+            Fixture fixture = batch.get(i);
+            Instant kickoff = fixture.kickoff();
+            params.add(fixture.fixtureId());
+            params.add(fixture.leagueId());
+            params.add(fixture.season());
+            params.add(fixture.league());
+            params.add(kickoff != null ? OffsetDateTime.ofInstant(kickoff, ZoneOffset.UTC) : null);
+            params.add(fixture.homeTeam());
+            params.add(fixture.homeTeamIcon());
+            params.add(fixture.awayTeam());
+            params.add(fixture.awayTeamIcon());
+            params.add(fixture.status());
+            params.add(fixture.homeGoals());
+            params.add(fixture.awayGoals());
+            params.add(fixture.homePenalties());
+            params.add(fixture.awayPenalties());
+            params.add(fixture.minutesElapsed());
+        }
+        sql.append(UPSERT_CONFLICT);
+
+        dbRequest.execute(sql.toString(), params.toArray());
+
+        for (Fixture fixture : batch) {
+            written.put(fixture.fixtureId(), fixture);
+            // a newer version queued in the meantime stays queued
+            queued.remove(fixture.fixtureId(), fixture);
+        }
+    }
+
+    private static Fixture toFixture(Map<String, Object> row) {
+        return new Fixture(
+                (String) row.get("league"),
+                (int) row.get("league_id"),
+                (int) row.get("season"),
+                (int) row.get("fixture_id"),
+                fixtureDate(row.get("fixture_date")),
+                (String) row.get("home_team"),
+                (String) row.get("home_team_icon"),
+                (String) row.get("away_team"),
+                (String) row.get("away_team_icon"),
+                (String) row.get("status"),
+                (int) row.get("home_goals"),
+                (int) row.get("away_goals"),
+                (int) row.get("home_penalties"),
+                (int) row.get("away_penalties"),
+                (int) row.get("minutes_elapsed"));
+    }
+
+    /**
+     * Formats a timestamptz the way api-sports does, in UTC
+     */
+    private static String fixtureDate(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return OffsetDateTime.ofInstant(timestamp.toInstant(), ZoneOffset.UTC).format(FIXTURE_DATE);
+        }
+        if (value instanceof OffsetDateTime dateTime) {
+            return dateTime.withOffsetSameInstant(ZoneOffset.UTC).format(FIXTURE_DATE);
+        }
+        return null;
+    }
+
+    private static long seasonKey(int leagueId, int season) {
+        return ((long) leagueId << 32) | (season & 0xffffffffL);
+    }
+}
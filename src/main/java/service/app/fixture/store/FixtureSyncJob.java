@@ -0,0 +1,85 @@
+package service.app.fixture.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.common.model.FixtureSource;
+import service.app.fixture.common.model.FootballResponse;
+import service.app.fixture.common.model.SupportedLeague;
+import service.app.fixture.fixture.request.GetFixture;
+import service.app.fixture.leagues.SupportedLeaguesRegistry;
+import service.general.external.apiService.quota.PriorityContext;
+import service.general.external.apiService.quota.RequestPriority;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the current season of every supported league into the FixtureStore on a fixed cadence.
+ *
+ * <p>Each league costs one request. Only the fixtures that changed since the last sync are written, so a
+ * sync in the middle of a season touches a handful of rows. Between syncs the store is kept current by the
+ * fixture requests, which write their responses through.</p>
+ */
+@Component
+public class FixtureSyncJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(FixtureSyncJob.class);
+
+    private final GetFixture getFixture;
+    private final FixtureStore fixtureStore;
+    private final SupportedLeaguesRegistry supportedLeaguesRegistry;
+
+    @Value("${database.fixtures.sync-interval-minutes:60}")
+    private long syncIntervalMinutes;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fixture-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public FixtureSyncJob(GetFixture getFixture, FixtureStore fixtureStore, SupportedLeaguesRegistry supportedLeaguesRegistry) {
+        this.getFixture = getFixture;
+        this.fixtureStore = fixtureStore;
+        this.supportedLeaguesRegistry = supportedLeaguesRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!fixtureStore.isAvailable()) return;
+        scheduler.scheduleWithFixedDelay(this::sync, 0, syncIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void sync() {
+        for (SupportedLeague league : supportedLeaguesRegistry.leagues()) {
+            // background work, it only gets the quota users leave over
+            try (PriorityContext.Scope ignored = PriorityContext.open(RequestPriority.BROWSE)) {
+                FootballResponse<Fixture> response = getFixture.getFixturesByLeagueAndSeason(league.id(), league.currentSeason());
+                fixtureStore.save(response.response());
+                fixtureStore.flush();
+                // the failover answered, the season is only partly stored and is served from upstream until the next sync
+                if (response.response().stream().anyMatch(fixture -> fixture.source() != FixtureSource.PRIMARY)) {
+                    logger.debug("Fixtures of {} {} came from the failover, not marked as synced", league.name(), league.currentSeason());
+                    continue;
+                }
+                fixtureStore.markSeasonSynced(league.id(), league.currentSeason());
+                logger.debug("Synced {} fixtures of {} {}", response.response().size(), league.name(), league.currentSeason());
+            } catch (Exception e) {
+                logger.warn("Failed to sync the fixtures of {} {}: {}", league.name(), league.currentSeason(), e.getMessage());
+            }
+        }
+    }
+}
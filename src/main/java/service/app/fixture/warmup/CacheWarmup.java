@@ -0,0 +1,15 @@
+package service.app.fixture.warmup;
+
+/**
+ * Fills the caches with the fixtures and odds of the supported leagues before the node takes traffic,
+ * so the first users after a deploy do not pay for the upstream requests.
+ */
+public interface CacheWarmup {
+
+    /**
+     * @return true once the warm-up has completed or timed out
+     */
+    boolean ready();
+
+    WarmupProgress progress();
+}
@@ -0,0 +1,165 @@
+package service.app.fixture.warmup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import service.app.fixture.common.model.SupportedLeague;
+import service.app.fixture.fixture.request.GetFixture;
+import service.app.fixture.leagues.SupportedLeaguesRegistry;
+import service.app.fixture.odds.BookmakerRegistry;
+import service.app.fixture.odds.request.GetOddsDao;
+import service.general.external.apiService.quota.PriorityContext;
+import service.general.external.apiService.quota.RequestPriority;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Requests the current season of every supported league, and its odds of every bet type for every bookmaker,
+ * a few at a time. The responses land in the response cache, the fixture store and the fixture index on
+ * their way back, so the warm-up needs no cache of its own.
+ *
+ * <p>The node reports ready once every request has been answered or the warm-up timed out. Failed requests
+ * are not retried, users will make them soon enough.</p>
+ */
+@Component
+public class CacheWarmupImpl implements CacheWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmupImpl.class);
+
+    private final GetFixture getFixture;
+    private final GetOddsDao getOddsDao;
+    private final SupportedLeaguesRegistry supportedLeaguesRegistry;
+    private final BookmakerRegistry bookmakerRegistry;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.parallelism:4}")
+    private int parallelism;
+
+    @Value("${warmup.timeout-seconds:120}")
+    private long timeoutSeconds;
+
+    private volatile WarmupState state = WarmupState.RUNNING;
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private int tasks;
+    private long startNanos;
+    private volatile long endNanos;
+
+    private ExecutorService workers;
+
+    @Autowired
+    public CacheWarmupImpl(GetFixture getFixture, GetOddsDao getOddsDao, SupportedLeaguesRegistry supportedLeaguesRegistry,
+                           BookmakerRegistry bookmakerRegistry) {
+        this.getFixture = getFixture;
+        this.getOddsDao = getOddsDao;
+        this.supportedLeaguesRegistry = supportedLeaguesRegistry;
+        this.bookmakerRegistry = bookmakerRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        startNanos = System.nanoTime();
+        if (!enabled) {
+            finish(WarmupState.DISABLED);
+            return;
+        }
+
+        List<Runnable> work = new ArrayList<>();
+        // fixtures first, they are what most pages show
+        for (SupportedLeague league : supportedLeaguesRegistry.leagues()) {
+            work.add(task(league.name() + " fixtures",
+                    () -> getFixture.getFixturesByLeagueAndSeason(league.id(), league.currentSeason())));
+        }
+        for (SupportedLeague league : supportedLeaguesRegistry.leagues()) {
+            for (int bookmaker : bookmakerRegistry.bookmakerIds()) {
+                // every bet type comes with the same pages
+                work.add(task(league.name() + " odds of bookmaker " + bookmaker,
+                        () -> getOddsDao.getMarketsForLeagueAndSeason(league.id(), league.currentSeason(),
+                                String.valueOf(bookmaker))));
+            }
+        }
+        tasks = work.size();
+
+        workers = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        work.forEach(workers::execute);
+        workers.shutdown();
+
+        Thread waiter = new Thread(this::awaitWorkers, "cache-warmup-wait");
+        waiter.setDaemon(true);
+        waiter.start();
+        logger.info("Warming up the caches with {} requests, {} at a time", tasks, parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (workers != null) workers.shutdownNow();
+    }
+
+    @Override
+    public boolean ready() {
+        return state.ready();
+    }
+
+    @Override
+    public WarmupProgress progress() {
+        long end = state.ready() ? endNanos : System.nanoTime();
+        return new WarmupProgress(state, tasks, completed.get(), failed.get(), TimeUnit.NANOSECONDS.toMillis(end - startNanos));
+    }
+
+    private void awaitWorkers() {
+        try {
+            if (workers.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+                finish(WarmupState.COMPLETED);
+                logger.info("Cache warm-up completed in {}ms, {} of {} requests failed",
+                        progress().elapsedMillis(), failed.get(), tasks);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // a slow upstream must not keep the node out of rotation
+        workers.shutdownNow();
+        finish(WarmupState.TIMED_OUT);
+        logger.warn("Cache warm-up timed out after {}s with {} of {} requests done", timeoutSeconds,
+                completed.get() + failed.get(), tasks);
+    }
+
+    private void finish(WarmupState finalState) {
+        endNanos = System.nanoTime();
+        state = finalState;
+    }
+
+    private Runnable task(String name, WarmupCall call) {
+        return () -> {
+            // background work, it only gets the quota users leave over
+            try (PriorityContext.Scope ignored = PriorityContext.open(RequestPriority.BROWSE)) {
+                call.run();
+                completed.incrementAndGet();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                logger.warn("Warm-up of {} failed: {}", name, e.getMessage());
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface WarmupCall {
+        void run() throws Exception;
+    }
+}
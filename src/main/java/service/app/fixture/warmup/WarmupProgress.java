@@ -0,0 +1,19 @@
+package service.app.fixture.warmup;
+
+/**
+ * Snapshot of the startup warm-up.
+ *
+ * @param state         the phase of the warm-up
+ * @param tasks         fixture and odds requests to make, one per league, or per league and bookmaker
+ * @param completed     requests that succeeded
+ * @param failed        requests that failed, they are not retried
+ * @param elapsedMillis time since the warm-up started, until it ended
+ */
+public record WarmupProgress(
+        WarmupState state,
+        int tasks,
+        int completed,
+        int failed,
+        long elapsedMillis
+) {
+}
@@ -0,0 +1,15 @@
+package service.app.fixture.warmup;
+
+/**
+ * Phase of the startup warm-up. The node is ready in every state but RUNNING.
+ */
+public enum WarmupState {
+    RUNNING,
+    COMPLETED,
+    TIMED_OUT,
+    DISABLED;
+
+    public boolean ready() {
+        return this != RUNNING;
+    }
+}
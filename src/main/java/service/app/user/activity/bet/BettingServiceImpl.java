@@ -1,13 +1,21 @@
 package service.app.user.activity.bet;
 
+import common.deadline.Deadline;
+import common.deadline.DeadlineContext;
 import common.exception.InternalServerError;
 import common.exception.UnhandledErrorException;
 import common.exception.gen.UserNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import service.app.fixture.FixtureService;
 import service.app.fixture.common.exception.FixtureNotFoundException;
 import service.app.fixture.common.model.Fixture;
+import service.app.fixture.lifecycle.FixtureLifecycle;
+import service.app.fixture.lifecycle.FixtureState;
+import service.app.fixture.result.FixtureResult;
+import service.app.fixture.result.FixtureResultStore;
 import service.app.user.activity.bet.dao.inferfaces.BetEditor;
 import service.app.user.activity.bet.dao.inferfaces.BetPlacer;
 import service.app.user.activity.bet.dao.inferfaces.BetRetriever;
@@ -15,6 +23,7 @@ import service.app.user.activity.bet.exception.BettingNotOpenException;
 import service.app.user.activity.bet.exception.InvalidInputException;
 import service.app.user.activity.bet.exception.NoOddsForGameException;
 import service.app.user.activity.bet.exception.StatusAlreadyIdentical;
+import service.app.user.activity.bet.helper.AcceptedOdds;
 import service.app.user.activity.bet.helper.BetHelper;
 import service.app.user.activity.bet.helper.FixtureValidator;
 import service.app.user.activity.transact.TransactionService;
@@ -22,15 +31,23 @@ import service.app.user.activity.transact.TransactionType;
 import service.app.user.activity.transact.exception.InvalidTransactionException;
 import service.app.user.activity.transact.exception.InvalidUserException;
 import service.app.user.activity.transact.exception.NotEnoughBalanceException;
+import service.general.external.apiService.quota.PriorityContext;
+import service.general.external.apiService.quota.RequestPriority;
 
 import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class BettingServiceImpl implements BettingService {
 
+    private static final Logger logger = LoggerFactory.getLogger(BettingServiceImpl.class);
+
     private final BetPlacer betPlacer;
     private final BetEditor betEditor;
     private final BetRetriever betRetriever;
@@ -38,6 +55,8 @@ public class BettingServiceImpl implements BettingService {
     private final TransactionService transactionService;
     private final FixtureValidator fixtureValidator;
     private final FixtureService fixtureService;
+    private final FixtureLifecycle fixtureLifecycle;
+    private final FixtureResultStore fixtureResultStore;
 
     @Autowired
     public BettingServiceImpl(BetPlacer betPlacer,
@@ -46,7 +65,9 @@ public class BettingServiceImpl implements BettingService {
                               BetHelper betHelper,
                               TransactionService transactionService,
                               FixtureValidator fixtureValidator,
-                              FixtureService fixtureService) {
+                              FixtureService fixtureService,
+                              FixtureLifecycle fixtureLifecycle,
+                              FixtureResultStore fixtureResultStore) {
         this.betPlacer = betPlacer;
         this.betEditor = betEditor;
         this.betRetriever = betRetriever;
@@ -54,6 +75,8 @@ public class BettingServiceImpl implements BettingService {
         this.transactionService = transactionService;
         this.fixtureValidator = fixtureValidator;
         this.fixtureService = fixtureService;
+        this.fixtureLifecycle = fixtureLifecycle;
+        this.fixtureResultStore = fixtureResultStore;
     }
 
     @Override
@@ -67,12 +90,22 @@ public class BettingServiceImpl implements BettingService {
             InvalidInputException {
         try {
 
-            if (!fixtureValidator.bettingOpenForFixture(fixtureId))
-                throw new BettingNotOpenException("Betting is not open for the fixture");
+            AcceptedOdds acceptedOdds;
+
+            try (PriorityContext.Scope ignored = PriorityContext.open(RequestPriority.BET_VALIDATION)) {
+                if (!fixtureValidator.bettingOpenForFixture(fixtureId))
+                    throw new BettingNotOpenException("Betting is not open for the fixture");
 
-            double oddMultiplier = betHelper.getOddsMultiplier(fixtureId, betType, prediction);
-            transactionService.withdrawMoney(uid, amount, TransactionType.BET_PLACED);
-            return betPlacer.placeBet(uid, amount, fixtureId, betType, prediction, oddMultiplier);
+                acceptedOdds = betHelper.getAcceptedOdds(fixtureId, betType, prediction);
+            }
+
+            // once the money is withdrawn the bet has to be written, so the writes are not cut short by the request deadline
+            DeadlineContext.check();
+            try (DeadlineContext.Scope ignored = DeadlineContext.suspend()) {
+                transactionService.withdrawMoney(uid, amount, TransactionType.BET_PLACED);
+                return betPlacer.placeBet(uid, amount, fixtureId, betType, prediction,
+                        acceptedOdds.multiplier(), acceptedOdds.oddsVersion());
+            }
 
         } catch (SQLException | InvalidTransactionException e) {
             throw new UnhandledErrorException(e);
@@ -86,10 +119,46 @@ public class BettingServiceImpl implements BettingService {
 
         int betsClaimed = 0;
 
+        Set<Integer> fixtureIds = new LinkedHashSet<>();
+        for (Map<String, Object> bet : bets) {
+            if (!bet.get("status").equals("pending")) continue;
+            int fixtureId = (int) bet.get("fixture_id");
+            // a fixture that has not kicked off has no result yet, no need to fetch it
+            if (fixtureLifecycle.state(fixtureId) == FixtureState.SCHEDULED) continue;
+            fixtureIds.add(fixtureId);
+        }
+        if (fixtureIds.isEmpty()) return betsClaimed;
+
+        // finished fixtures are settled from their stored result, the others are fetched up front
+        // so they are loaded in as few requests as possible
+        Map<Integer, FixtureResult> results = new HashMap<>(fixtureResultStore.getAll(fixtureIds));
+        Set<Integer> unsettled = new LinkedHashSet<>(fixtureIds);
+        unsettled.removeAll(results.keySet());
+
+        Set<Integer> unavailable = new HashSet<>();
+        if (!unsettled.isEmpty()) {
+            try (PriorityContext.Scope ignored = PriorityContext.open(RequestPriority.SETTLEMENT)) {
+                loadFixtures(unsettled, unavailable).forEach((fixtureId, fixture) -> {
+                    // a fixture the failover could only match loosely does not settle bets, they stay pending
+                    // until api-sports answers
+                    if (!fixture.source().trustedForResults()) {
+                        unavailable.add(fixtureId);
+                        return;
+                    }
+                    fixtureResultStore.record(fixture);
+                    results.put(fixtureId, FixtureResult.of(fixture));
+                });
+            }
+        }
+
         for (Map<String, Object> bet : bets) {
             // continue if status is not pending
             if (!bet.get("status").equals("pending")) continue;
 
+            // out of time, the remaining bets stay pending and are settled by the next claim
+            Deadline deadline = DeadlineContext.current();
+            if (deadline != null && deadline.isExpired()) break;
+
             try {
                 int betId = (int) bet.get("bet_id");
                 int fixtureId = (int) bet.get("fixture_id");
@@ -98,50 +167,59 @@ public class BettingServiceImpl implements BettingService {
                 String prediction = (String) bet.get("selected_bet");
                 double oddMultiplier = ((BigDecimal) bet.get("win_multiplier")).doubleValue();
 
-                Fixture fixture = fixtureService.getFixtureByID(fixtureId);
+                // skipped above, it has not kicked off yet
+                if (!fixtureIds.contains(fixtureId)) continue;
+                // could not be loaded, the bet stays pending and is settled by the next claim
+                if (unavailable.contains(fixtureId)) continue;
+
+                FixtureResult fixture = results.get(fixtureId);
+                if (fixture == null) throw new FixtureNotFoundException("Fixture " + fixtureId + " not found");
 
                 if (!fixture.claimingAllowed()) continue;
 
-                if (betType.equals("WIN")) {
-                    StringBuilder message = new StringBuilder();
-                    message.append("Bet won on fixture ")
-                            .append(fixtureId).append(" with bet type ")
-                            .append(betType).append(" and selected bet ")
-                            .append(prediction);
-
-                    switch (prediction) {
-                        case "Home":
-                            if (fixture.homeGoals() > fixture.awayGoals()) {
-                                betsClaimed++;
-                                transactionService.addMoney(uid, amount * oddMultiplier, TransactionType.INTERNAL);
-                                betEditor.changeStatus(betId, "won");
-                            } else {
-                                betsClaimed++;
-                                betEditor.changeStatus(betId, "lost");
-                            }
-                            break;
-                        case "Away":
-                            if (fixture.awayGoals() > fixture.homeGoals()) {
-                                betsClaimed++;
-                                transactionService.addMoney(uid, amount * oddMultiplier, TransactionType.INTERNAL);
-                                betEditor.changeStatus(betId, "won");
-                            } else {
-                                betsClaimed++;
-                                betEditor.changeStatus(betId, "lost");
-                            }
-                            break;
-                        case "Draw":
-                            if (fixture.awayGoals() == fixture.homeGoals()) {
-                                betsClaimed++;
-                                transactionService.addMoney(uid, amount * oddMultiplier, TransactionType.INTERNAL);
-                                betEditor.changeStatus(betId, "won");
-                            } else {
-                                betsClaimed++;
-                                betEditor.changeStatus(betId, "lost");
-                            }
-                            break;
-                        default:
-                            throw new InternalServerError("Invalid selected bet");
+                // paying out and marking the bet are not cut short halfway by the request deadline
+                try (DeadlineContext.Scope ignored = DeadlineContext.suspend()) {
+                    if (betType.equals("WIN")) {
+                        StringBuilder message = new StringBuilder();
+                        message.append("Bet won on fixture ")
+                                .append(fixtureId).append(" with bet type ")
+                                .append(betType).append(" and selected bet ")
+                                .append(prediction);
+
+                        switch (prediction) {
+                            case "Home":
+                                if (fixture.homeGoals() > fixture.awayGoals()) {
+                                    betsClaimed++;
+                                    transactionService.addMoney(uid, amount * oddMultiplier, TransactionType.INTERNAL);
+                                    betEditor.changeStatus(betId, "won");
+                                } else {
+                                    betsClaimed++;
+                                    betEditor.changeStatus(betId, "lost");
+                                }
+                                break;
+                            case "Away":
+                                if (fixture.awayGoals() > fixture.homeGoals()) {
+                                    betsClaimed++;
+                                    transactionService.addMoney(uid, amount * oddMultiplier, TransactionType.INTERNAL);
+                                    betEditor.changeStatus(betId, "won");
+                                } else {
+                                    betsClaimed++;
+                                    betEditor.changeStatus(betId, "lost");
+                                }
+                                break;
+                            case "Draw":
+                                if (fixture.awayGoals() == fixture.homeGoals()) {
+                                    betsClaimed++;
+                                    transactionService.addMoney(uid, amount * oddMultiplier, TransactionType.INTERNAL);
+                                    betEditor.changeStatus(betId, "won");
+                                } else {
+                                    betsClaimed++;
+                                    betEditor.changeStatus(betId, "lost");
+                                }
+                                break;
+                            default:
+                                throw new InternalServerError("Invalid selected bet");
+                        }
                     }
                 }
 
@@ -154,6 +232,32 @@ public class BettingServiceImpl implements BettingService {
         return betsClaimed;
     }
 
+    /**
+     * Loads the fixtures in as few requests as possible. If a batch fails, the fixtures are loaded one by one,
+     * so a single failing fixture does not hold back the settlement of the others.
+     *
+     * @param unavailable receives the IDs of the fixtures that could not be loaded
+     */
+    private Map<Integer, Fixture> loadFixtures(Set<Integer> fixtureIds, Set<Integer> unavailable) {
+        try {
+            return fixtureService.getFixturesByIDs(fixtureIds);
+        } catch (InternalServerError | RuntimeException e) {
+            logger.warn("Failed to load {} fixtures for settlement at once, loading them one by one: {}",
+                    fixtureIds.size(), e.getMessage());
+        }
+
+        Map<Integer, Fixture> fixtures = new HashMap<>();
+        for (int fixtureId : fixtureIds) {
+            try {
+                fixtures.put(fixtureId, fixtureService.getFixtureByID(fixtureId));
+            } catch (Exception e) {
+                logger.warn("Failed to load fixture {} for settlement: {}", fixtureId, e.getMessage());
+                unavailable.add(fixtureId);
+            }
+        }
+        return fixtures;
+    }
+
     @Override
     public List<Map<String, Object>> getBets(int uid) throws UnhandledErrorException, UserNotFoundException {
         List<Map<String, Object>> bets;
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Component;
 import service.app.user.activity.bet.dao.inferfaces.BetPlacer;
 import service.general.external.dbRequest.DbRequest;
 
+import javax.annotation.PostConstruct;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
@@ -14,9 +15,12 @@ import java.util.Map;
 @Component
 public class BetPlacerImpl implements BetPlacer {
 
+    // the column is part of the schema in db.puml, bets are not placed without it
+    private static final String CHECK_ODDS_VERSION = "SELECT odds_version FROM bets LIMIT 0";
+
     private static final String INSERT_BET =
-            "INSERT INTO bets (uid, fixture_id, bet_amount, bet_type, selected_bet, win_multiplier, status) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, 'pending')" +
+            "INSERT INTO bets (uid, fixture_id, bet_amount, bet_type, selected_bet, win_multiplier, odds_version, status) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, 'pending')" +
                     "RETURNING bet_id";
 
     Logger logger = LoggerFactory.getLogger(BetPlacerImpl.class);
@@ -28,12 +32,20 @@ public class BetPlacerImpl implements BetPlacer {
         this.dbRequest = dbRequest;
     }
 
+    @PostConstruct
+    public void start() {
+        try {
+            dbRequest.query(CHECK_ODDS_VERSION);
+        } catch (SQLException e) {
+            throw new IllegalStateException("The bets table has no odds_version column, migrate it with " +
+                    "\"ALTER TABLE bets ADD COLUMN odds_version bigint\": " + e.getMessage(), e);
+        }
+    }
+
     @Override
-    public int placeBet(int uid, double amount, int fixtureId, String betType, String prediction, double win_multiplier) throws SQLException {
+    public int placeBet(int uid, double amount, int fixtureId, String betType, String prediction, double win_multiplier, long oddsVersion) throws SQLException {
         try {
-             List<Map<String, Object>> q = dbRequest.query(
-                    INSERT_BET,
-                    uid, fixtureId, amount, betType, prediction, win_multiplier);
+            List<Map<String, Object>> q = dbRequest.query(INSERT_BET, uid, fixtureId, amount, betType, prediction, win_multiplier, oddsVersion);
 
             if (q != null && q.size() > 0) {
                 return (int) q.get(0).get("bet_id");
@@ -6,6 +6,7 @@ import service.app.user.activity.bet.dao.inferfaces.BetRetriever;
 import service.general.external.dbRequest.DbRequest;
 
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -15,6 +16,9 @@ public class BetRetrieverImpl implements BetRetriever {
     private static final String RETRIEVE_BETS =
             "SELECT * FROM bets WHERE uid = ? ORDER BY timestamp DESC";
 
+    private static final String RETRIEVE_PENDING_FIXTURES =
+            "SELECT fixture_id, COUNT(*) AS pending_bets FROM bets WHERE status = 'pending' GROUP BY fixture_id";
+
 
     DbRequest dbRequest;
 
@@ -31,4 +35,13 @@ public class BetRetrieverImpl implements BetRetriever {
                 uid);
 
     }
-}
\ No newline at end of file
+
+    @Override
+    public Map<Integer, Integer> retrievePendingFixtures() throws SQLException {
+        Map<Integer, Integer> pending = new HashMap<>();
+        for (Map<String, Object> row : dbRequest.query(RETRIEVE_PENDING_FIXTURES)) {
+            pending.put(((Number) row.get("fixture_id")).intValue(), ((Number) row.get("pending_bets")).intValue());
+        }
+        return pending;
+    }
+}
@@ -16,9 +16,10 @@ public interface BetPlacer {
      * @param betType the type of the bet
      * @param prediction the prediction for the bet
      * @param win_multiplier the multiplier for the win
+     * @param oddsVersion the version of the odds the bet was accepted at
      * @throws SQLException if a database access error occurs
      * @return the unique identifier of the placed bet
      */
-    int placeBet(int uid, double amount, int fixtureId, String betType, String prediction, double win_multiplier)
+    int placeBet(int uid, double amount, int fixtureId, String betType, String prediction, double win_multiplier, long oddsVersion)
             throws SQLException;
 }
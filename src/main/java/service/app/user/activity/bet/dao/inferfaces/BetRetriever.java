@@ -20,4 +20,12 @@ public interface BetRetriever {
      * @return a list of maps, where each map represents a bet
      */
     List<Map<String, Object>> retrieveBets(int uid) throws SQLException, UserNotFoundException;
+
+    /**
+     * Counts the pending bets of every fixture that still has any.
+     *
+     * @throws SQLException if a database access error occurs
+     * @return the number of pending bets, by fixture ID
+     */
+    Map<Integer, Integer> retrievePendingFixtures() throws SQLException;
 }
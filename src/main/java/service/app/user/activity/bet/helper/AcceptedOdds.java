@@ -0,0 +1,13 @@
+package service.app.user.activity.bet.helper;
+
+/**
+ * The odds a bet is accepted at.
+ *
+ * @param multiplier  the odds of the predicted outcome
+ * @param oddsVersion the version of the odds snapshot the multiplier was read from
+ */
+public record AcceptedOdds(
+        double multiplier,
+        long oddsVersion
+) {
+}
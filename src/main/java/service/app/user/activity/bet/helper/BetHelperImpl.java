@@ -1,11 +1,13 @@
 package service.app.user.activity.bet.helper;
 
-import common.exception.InternalServerError;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import service.app.fixture.FixtureService;
-import service.app.fixture.common.exception.FootballApiException;
+import service.app.fixture.common.exception.RequestSendingException;
+import service.app.fixture.common.exception.StaleOddsException;
 import service.app.fixture.odds.BetTypes;
+import service.app.fixture.odds.BookmakerRegistry;
+import service.app.fixture.odds.cache.OddsCache;
+import service.app.fixture.odds.cache.OddsSnapshot;
 import service.app.user.activity.bet.exception.InvalidInputException;
 import service.app.user.activity.bet.exception.NoOddsForGameException;
 
@@ -14,30 +16,33 @@ import java.util.Map;
 @Component
 public class BetHelperImpl implements BetHelper {
 
-    FixtureService fixtureService;
+    OddsCache oddsCache;
+    BookmakerRegistry bookmakerRegistry;
 
     @Autowired
-    public BetHelperImpl(FixtureService fixtureService) {
-        this.fixtureService = fixtureService;
+    public BetHelperImpl(OddsCache oddsCache, BookmakerRegistry bookmakerRegistry) {
+        this.oddsCache = oddsCache;
+        this.bookmakerRegistry = bookmakerRegistry;
     }
 
     @Override
-    public double getOddsMultiplier(int fixtureId, String betType, String prediction)
+    public AcceptedOdds getAcceptedOdds(int fixtureId, String betType, String prediction)
             throws NoOddsForGameException, InvalidInputException {
 
-        Map<String, Double> odds;
+        OddsSnapshot snapshot;
 
         try {
-            odds = fixtureService.getOddsForFixture(fixtureId, getBetTypeFromShortName(betType).getId());
-        } catch (FootballApiException | InternalServerError e) {
+            snapshot = oddsCache.get(fixtureId, getBetTypeFromShortName(betType).getId(), bookmakerRegistry.defaultBookmaker());
+        } catch (RequestSendingException | StaleOddsException e) {
             throw new NoOddsForGameException("Error while getting odds for fixture " + e);
         }
 
-        if (odds == null) throw new NoOddsForGameException("No odds available for the game");
+        if (snapshot == null) throw new NoOddsForGameException("No odds available for the game");
 
+        Map<String, Double> odds = snapshot.odds();
         if (!odds.containsKey(prediction)) throw new InvalidInputException(InvalidInputException.Type.INVALID_PREDICTION);
 
-        return odds.get(prediction);
+        return new AcceptedOdds(odds.get(prediction), snapshot.version());
     }
 
     private BetTypes getBetTypeFromShortName(String shortName) throws InvalidInputException {
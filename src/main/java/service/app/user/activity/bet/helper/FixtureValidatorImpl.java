@@ -4,20 +4,28 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import service.app.fixture.FixtureService;
 import service.app.fixture.common.model.Fixture;
+import service.app.fixture.lifecycle.FixtureLifecycle;
+import service.app.fixture.lifecycle.FixtureState;
 import service.app.user.activity.bet.exception.InvalidInputException;
 
 @Component
 public class FixtureValidatorImpl implements FixtureValidator{
 
     FixtureService fixtureService;
+    FixtureLifecycle fixtureLifecycle;
 
     @Autowired
-    public FixtureValidatorImpl(FixtureService fixtureService) {
+    public FixtureValidatorImpl(FixtureService fixtureService, FixtureLifecycle fixtureLifecycle) {
         this.fixtureService = fixtureService;
+        this.fixtureLifecycle = fixtureLifecycle;
     }
 
     @Override
     public boolean bettingOpenForFixture(int fixtureId) throws InvalidInputException {
+        // a tracked fixture closes for betting on a timer at kickoff, no need to fetch it
+        FixtureState state = fixtureLifecycle.state(fixtureId);
+        if (state != null) return state.bettingOpen();
+
         try {
             Fixture fixture = fixtureService.getFixtureByID(fixtureId);
 
@@ -3,6 +3,7 @@ package service.general.external.apiService;
 import com.google.gson.JsonElement;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * ApiRequest interface defines the contract for sending API requests.
@@ -20,4 +21,29 @@ public interface ApiRequest {
      * @throws IllegalArgumentException if the endpoint is empty or the method is invalid
      */
     JsonElement sendRequest(String endpoint, String method, Map<String, String> params) throws RuntimeException;
+
+    /**
+     * Sends an API request without blocking the calling thread.
+     *
+     * <p>The returned future completes with a response object owned by this call only,
+     * so several requests can be fanned out and combined safely.</p>
+     *
+     * @param endpoint the endpoint to which the request is sent. Example: "fixtures", "odds"
+     * @param method the HTTP method to use. Example: "GET", "POST"
+     * @param params the parameters for the request as a Map<String, String>. Can be null if no parameters are needed.
+     * @return a future completed with the response, or completed exceptionally if the request fails
+     * @throws IllegalArgumentException if the endpoint is empty or the method is invalid
+     */
+    CompletableFuture<ApiResponse> sendRequestAsync(String endpoint, String method, Map<String, String> params);
+
+    /**
+     * Sends a GET request upstream even if its response is cached, and caches the new response in place of the old one.
+     * For callers that poll to stay current.
+     *
+     * @param endpoint the endpoint to which the request is sent. Example: "fixtures", "odds"
+     * @param params the parameters for the request as a Map<String, String>. Can be null if no parameters are needed.
+     * @return a future completed with the response, or completed exceptionally if the request fails
+     * @throws IllegalArgumentException if the endpoint is empty
+     */
+    CompletableFuture<ApiResponse> refreshRequestAsync(String endpoint, Map<String, String> params);
 }
@@ -3,74 +3,161 @@ package service.general.external.apiService;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import common.deadline.Deadline;
+import common.deadline.DeadlineContext;
+import common.exception.gen.RateLimitException;
+import common.exception.gen.TimeoutException;
 import okhttp3.*;
 import org.apache.http.client.utils.URIBuilder;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-
+import service.general.external.apiService.cache.ApiResponseCache;
+import service.general.external.apiService.coalesce.RequestCoalescer;
+import service.general.external.apiService.exception.HttpStatusException;
+import service.general.external.apiService.metrics.UpstreamMetrics;
+import service.general.external.apiService.quota.PriorityContext;
+import service.general.external.apiService.quota.QuotaGovernor;
+import service.general.external.apiService.quota.RequestPriority;
+import service.general.external.apiService.resilience.ResiliencePolicy;
+import service.general.external.apiService.simulator.ResponseRecorder;
+
+import javax.annotation.PostConstruct;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * ApiRequestImpl is an implementation of the ApiRequest interface.
  * It provides functionality to send requests to an API using OkHttpClient.
+ * The class holds no per-request state, so a single instance can be shared between threads.
  */
 @Component
 public class ApiRequestImpl implements ApiRequest {
 
     private static final Logger logger = LoggerFactory.getLogger(ApiRequestImpl.class);
 
-    private static final OkHttpClient client = new OkHttpClient();
-    private static final String API_URL = "https://v3.football.api-sports.io/";
+    private static final int MAX_CONCURRENT_REQUESTS = 64;
+
+    private static final OkHttpClient client = new OkHttpClient.Builder()
+            .dispatcher(createDispatcher())
+            .build();
     private static final String HOST = "v3.football.java.backend.model.api-sports.io";
 
-    @NotNull
-    private static final String KEY;
+    private final ApiResponseCache responseCache;
+    private final RequestCoalescer requestCoalescer;
+    private final QuotaGovernor quotaGovernor;
+    private final ResiliencePolicy resiliencePolicy;
+    private final ResponseRecorder responseRecorder;
+    private final UpstreamMetrics upstreamMetrics;
 
-    @Nullable
-    private Headers responseHeaders;
-    private int responseCode = 0;
-    @Nullable
-    private String errors;
+    // the simulator profile points this at the local simulator
+    @Value("${api.base-url:https://v3.football.api-sports.io/}")
+    private String apiUrl;
 
-    static {
-        try {
-            KEY = getToken();
-        } catch (IllegalStateException e) {
-            throw new ExceptionInInitializerError("Failed to initialize API key: " + e.getMessage());
-        }
+    @Value("${API_KEY:}")
+    private String apiKey;
+
+    @Value("${api.validate-key:true}")
+    private boolean validateKey;
+
+    @Value("${api.http.connect-timeout-ms:3000}")
+    private long connectTimeoutMillis;
+
+    @Value("${api.http.read-timeout-ms:5000}")
+    private long readTimeoutMillis;
+
+    @Value("${api.http.call-timeout-ms:8000}")
+    private long callTimeoutMillis;
+
+    @Value("${api.http.max-idle-connections:16}")
+    private int maxIdleConnections;
+
+    @Value("${api.http.keep-alive-seconds:300}")
+    private long keepAliveSeconds;
+
+    private OkHttpClient httpClient;
+
+    @Autowired
+    public ApiRequestImpl(ApiResponseCache responseCache, RequestCoalescer requestCoalescer,
+                          QuotaGovernor quotaGovernor, ResiliencePolicy resiliencePolicy,
+                          ResponseRecorder responseRecorder, UpstreamMetrics upstreamMetrics) {
+        this.responseCache = responseCache;
+        this.requestCoalescer = requestCoalescer;
+        this.quotaGovernor = quotaGovernor;
+        this.resiliencePolicy = resiliencePolicy;
+        this.responseRecorder = responseRecorder;
+        this.upstreamMetrics = upstreamMetrics;
     }
 
-    private static String getToken() throws IllegalStateException {
-        String token = System.getenv("API_KEY");
-        if (token != null) {
-            logger.info("Token successfully read from environment variable");
-        } else {
+    @PostConstruct
+    public void init() {
+        if (!apiUrl.endsWith("/")) apiUrl = apiUrl + "/";
+        validateToken();
+
+        // shares the dispatcher of the static client. OkHttp's default pool keeps only 5 idle connections,
+        // fewer than the calls that run at once, so connections would be closed and reopened under load
+        httpClient = client.newBuilder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS))
+                .connectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS)
+                .callTimeout(callTimeoutMillis, TimeUnit.MILLISECONDS)
+                .eventListenerFactory(upstreamMetrics.eventListenerFactory())
+                .build();
+        upstreamMetrics.monitor(httpClient.connectionPool());
+    }
+
+    private static Dispatcher createDispatcher() {
+        // OkHttp allows only 5 concurrent calls per host by default, and every call goes to the same host
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_CONCURRENT_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(MAX_CONCURRENT_REQUESTS);
+        return dispatcher;
+    }
+
+    private void validateToken() throws IllegalStateException {
+        if (apiKey == null || apiKey.isBlank()) {
             logger.error("API_KEY environment variable not found.");
             throw new IllegalStateException("API_KEY environment variable not found");
         }
+        logger.info("Token successfully read from environment variable");
 
-        if (!isTokenValid(token)) {
+        if (!validateKey) {
+            logger.info("Token validation is disabled, using {}", apiUrl);
+            return;
+        }
+
+        if (!isTokenValid(apiKey)) {
             logger.error("Token is invalid. Please check the API key.");
             throw new IllegalStateException("Token is invalid. Please check the API key.");
         } else {
             logger.info("Token is validated successfully");
         }
-
-        return token;
     }
 
-    private static boolean isTokenValid(String token) {
+    private boolean isTokenValid(String token) {
         Request request = new Request.Builder()
-                .url(API_URL + "status")
+                .url(apiUrl + "status")
                 .get()
                 .addHeader("x-apisports-key", token)
                 .addHeader("x-apisports-host", HOST)
@@ -108,15 +195,83 @@ public class ApiRequestImpl implements ApiRequest {
 
     @Override
     public JsonElement sendRequest(@NotNull String endpoint, @NotNull String method, @Nullable Map<String, String> params) throws RuntimeException {
+        try {
+            return sendRequestAsync(endpoint, method, params).join().json();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> sendRequestAsync(@NotNull String endpoint, @NotNull String method, @Nullable Map<String, String> params) {
+        return send(endpoint, method, params, false);
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> refreshRequestAsync(@NotNull String endpoint, @Nullable Map<String, String> params) {
+        return send(endpoint, "GET", params, true);
+    }
+
+    /**
+     * @param refresh whether a cached response is skipped, and replaced by the new one
+     */
+    private CompletableFuture<ApiResponse> send(String endpoint, String method, @Nullable Map<String, String> params, boolean refresh) {
         validateInput(endpoint, method);
-        Request request = buildRequest(endpoint, method, params);
-        JsonElement response = executeRequest(request, params);
+        RequestKey key = RequestKey.of(endpoint, params);
+        Request request = buildRequest(key, method, params);
 
-        if (response.isJsonObject() && response.getAsJsonObject().has("errors")) {
-            this.errors = response.getAsJsonObject().get("errors").toString();
+        // read on the calling thread, the loaders below may run on OkHttp's threads
+        RequestPriority priority = PriorityContext.current();
+        Deadline deadline = DeadlineContext.current();
+
+        if (deadline != null && deadline.isExpired()) {
+            return CompletableFuture.failedFuture(new TimeoutException("Request deadline exceeded before calling " + endpoint));
         }
 
-        return response;
+        CompletableFuture<ApiResponse> response;
+        if (!method.equals("GET")) {
+            response = resiliencePolicy.execute(key, false, () -> admitAndExecute(key, priority, deadline, request, params));
+        } else {
+            Supplier<CompletableFuture<ApiResponse>> loader = () -> coalesced(key, priority, deadline, request, params);
+            response = refresh ? responseCache.refresh(key, loader) : responseCache.getOrLoad(key, loader);
+        }
+
+        return deadline == null ? response : deadline.bound(response);
+    }
+
+    /**
+     * Joins the call in flight for the same request and priority, so a caller is only ever admitted against the quota
+     * of its own priority. The call is bounded by the deadline of the caller that started it, a caller with time left
+     * after that deadline cut the call short starts a call of its own.
+     */
+    private CompletableFuture<ApiResponse> coalesced(RequestKey key, RequestPriority priority, @Nullable Deadline deadline,
+                                                     Request request, Map<String, String> params) {
+        Supplier<CompletableFuture<ApiResponse>> loader =
+                () -> resiliencePolicy.execute(key, true, () -> admitAndExecute(key, priority, deadline, request, params));
+
+        return requestCoalescer.coalesce(key, priority, loader).exceptionallyCompose(throwable -> {
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+            // a timeout of the shared call means the deadline of its leader passed
+            if (cause instanceof TimeoutException && (deadline == null || !deadline.isExpired())) {
+                return requestCoalescer.coalesce(key, priority, loader);
+            }
+            return CompletableFuture.failedFuture(throwable);
+        });
+    }
+
+    private CompletableFuture<ApiResponse> admitAndExecute(RequestKey key, RequestPriority priority, @Nullable Deadline deadline,
+                                                           Request request, Map<String, String> params) {
+        // retries and late hedges of an abandoned request should not spend quota
+        if (deadline != null && deadline.isExpired()) {
+            return CompletableFuture.failedFuture(new TimeoutException("Request deadline exceeded before calling " + key.endpoint()));
+        }
+
+        try {
+            quotaGovernor.acquire(key, priority);
+        } catch (RateLimitException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return executeRequest(key, request, params, deadline);
     }
 
     private void validateInput(String endpoint, String method) {
@@ -131,18 +286,20 @@ public class ApiRequestImpl implements ApiRequest {
         }
     }
 
-    private Request buildRequest(String endpoint, String method, Map<String, String> params) {
+    private Request buildRequest(RequestKey key, String method, Map<String, String> params) {
         return new Request.Builder()
-                .url(urlBuilder(endpoint, params))
+                .url(urlBuilder(key.endpoint(), params))
                 .method(method, null)
-                .addHeader("x-apisports-key", KEY)
+                .addHeader("x-apisports-key", apiKey)
                 .addHeader("x-apisports-host", HOST)
+                // lets the event listener attribute the call to its endpoint
+                .tag(RequestKey.class, key)
                 .build();
     }
 
     private String urlBuilder(String endpoint, @Nullable Map<String, String> params) {
         try {
-            URIBuilder builder = new URIBuilder(API_URL + endpoint);
+            URIBuilder builder = new URIBuilder(apiUrl + endpoint);
 
             if (params != null) {
                 for (Map.Entry<String, String> entry : params.entrySet()) {
@@ -157,25 +314,64 @@ public class ApiRequestImpl implements ApiRequest {
         }
     }
 
-    private JsonElement executeRequest(Request request, Map<String, String> params) {
-        try (Response response = client.newCall(request).execute()) {
+    private CompletableFuture<ApiResponse> executeRequest(RequestKey key, Request request, Map<String, String> params,
+                                                          @Nullable Deadline deadline) {
+        CompletableFuture<ApiResponse> future = new CompletableFuture<>();
+        Call call = httpClient.newCall(request);
+
+        // the call is shared with coalesced callers, it is limited by the deadline of the caller that started it.
+        // A caller whose own deadline passes only gives up its copy of the result, the call runs until this timeout.
+        // Callers with time left when it is cut short start their own, see coalesced
+        if (deadline != null) {
+            call.timeout().timeout(Math.max(1, Math.min(callTimeoutMillis, deadline.remainingMillis())), TimeUnit.MILLISECONDS);
+        }
 
-            validateResponse(response, params);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                if (deadline != null && deadline.isExpired()) {
+                    future.completeExceptionally(new TimeoutException("Request deadline exceeded while calling " + key.endpoint()));
+                    return;
+                }
+                future.completeExceptionally(new RuntimeException("Failed to send request: " + e.getMessage(), e));
+            }
 
-            this.responseHeaders = response.headers();
-            this.responseCode = response.code();
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                try (response) {
+                    Map<String, List<String>> headers = Collections.unmodifiableMap(response.headers().toMultimap());
+                    quotaGovernor.record(headers);
+
+                    if (response.code() == 429) {
+                        quotaGovernor.exhausted(false);
+                        throw new RateLimitException("Football API rate limit exceeded", retryAfterSeconds(response.header("Retry-After")));
+                    }
+
+                    validateResponse(response, params);
+                    ApiResponse apiResponse = toApiResponse(response, headers);
+                    checkQuotaErrors(apiResponse);
+                    responseRecorder.record(key, apiResponse);
+                    future.complete(apiResponse);
+                } catch (IOException e) {
+                    future.completeExceptionally(new RuntimeException("Failed to send request: " + e.getMessage(), e));
+                } catch (RateLimitException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
 
-            return parseResponseBody(response.body());
+        // a caller that gives up on the future should not keep the connection busy
+        future.whenComplete((response, throwable) -> {
+            if (future.isCancelled()) call.cancel();
+        });
 
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to send request: " + e.getMessage(), e);
-        }
+        return future;
     }
 
     private void validateResponse(Response response, Map<String, String> params) throws IOException {
         if (!response.isSuccessful()) {
             logger.error("Unexpected code {}", response);
-            throw new IOException("Unexpected code " + response);
+            throw new HttpStatusException(response.code(), "Unexpected code " + response);
         }
 
         int code = response.code();
@@ -183,29 +379,92 @@ public class ApiRequestImpl implements ApiRequest {
             String errorMessage = "Unexpected response code %s for params %s".formatted(code, params != null ?
                     params.toString() : "no params provided");
             logger.debug(errorMessage);
-            throw new IOException(errorMessage);
+            throw new HttpStatusException(code, errorMessage);
         }
     }
 
-    private JsonElement parseResponseBody(ResponseBody responseBody) throws IOException {
-        try (JsonReader reader = new JsonReader(new InputStreamReader(responseBody.byteStream(), StandardCharsets.UTF_8))) {
-            Gson gson = new Gson();
-            return gson.fromJson(reader, JsonElement.class);
-        } catch (Exception e) {
-            logger.error("Failed to parse JSON stream", e);
-            throw new IOException("Failed to parse JSON stream", e);
+    private ApiResponse toApiResponse(Response response, Map<String, List<String>> headers) throws IOException {
+        ResponseBody responseBody = response.body();
+        if (responseBody == null) {
+            throw new IOException("Response body was null");
+        }
+
+        byte[] body = responseBody.bytes();
+
+        return new ApiResponse(response.code(), headers, body, readErrors(body), System.currentTimeMillis());
+    }
+
+    /**
+     * api-sports answers 200 with a "requests" error once the daily quota is used up,
+     * and with a "rateLimit" error when the per-minute limit is hit.
+     * Such responses must not be cached or handed to callers as data.
+     */
+    private void checkQuotaErrors(ApiResponse response) throws RateLimitException {
+        if (response.errors() == null) return;
+
+        JsonElement errors = JsonParser.parseString(response.errors());
+        if (!errors.isJsonObject()) return;
+
+        JsonObject errorObject = errors.getAsJsonObject();
+        if (errorObject.has("requests")) {
+            quotaGovernor.exhausted(true);
+            throw new RateLimitException("Football API daily quota exhausted: " + errorObject.get("requests"), secondsUntilDailyReset());
+        }
+        if (errorObject.has("rateLimit")) {
+            quotaGovernor.exhausted(false);
+            throw new RateLimitException("Football API rate limit exceeded: " + errorObject.get("rateLimit"), 60);
+        }
+    }
+
+    /**
+     * @return the seconds of a Retry-After header, or a minute, the window of the per-minute quota
+     */
+    private static long retryAfterSeconds(@Nullable String retryAfter) {
+        if (retryAfter != null) {
+            try {
+                return Math.max(1, Long.parseLong(retryAfter.trim()));
+            } catch (NumberFormatException ignored) {
+                // an HTTP date, not worth parsing for a per-minute limit
+            }
         }
+        return 60;
     }
 
-    public int getResponseCode() {
-        return responseCode;
+    /**
+     * api-sports resets the daily quota at midnight UTC
+     */
+    private static long secondsUntilDailyReset() {
+        Instant now = Instant.now();
+        Instant midnight = LocalDate.now(ZoneOffset.UTC).plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        return Math.max(1, Duration.between(now, midnight).toSeconds());
     }
 
-    public @Nullable String getErrors() {
-        return errors;
+    /**
+     * Reads only the top-level "errors" field, skipping the rest of the body without building a tree.
+     */
+    private @Nullable String readErrors(byte[] body) throws IOException {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) return null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("errors")) {
+                    return JsonParser.parseReader(reader).toString();
+                }
+                reader.skipValue();
+            }
+            return null;
+        } catch (Exception e) {
+            logger.error("Failed to parse JSON stream", e);
+            throw new IOException("Failed to parse JSON stream", e);
+        }
     }
 
-    public @Nullable Map<String, List<String>> getResponseHeaders() {
-        return responseHeaders != null ? this.responseHeaders.toMultimap() : null;
+    private RuntimeException unwrap(CompletionException e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new RuntimeException("Failed to send request: " + cause.getMessage(), cause);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package service.general.external.apiService;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable result of a single API call.
+ * Every call gets its own instance, so concurrent callers never see each other's headers or errors.
+ *
+ * @param code    the HTTP status code
+ * @param headers the response headers, keyed case-insensitively
+ * @param body    the raw UTF-8 response body. Must not be modified by callers.
+ * @param errors  the raw "errors" field of the response, or null if the response has none
+ * @param fetchedAtMillis when the response was received from upstream, kept by cached copies. 0 if unknown
+ */
+public record ApiResponse(
+        int code,
+        Map<String, List<String>> headers,
+        byte[] body,
+        @Nullable String errors,
+        long fetchedAtMillis
+) {
+
+    /**
+     * Parses the body into a JsonElement. Every call parses the body again,
+     * so callers that only need a few fields should prefer {@link #reader()}.
+     *
+     * @return the body as a JsonElement
+     */
+    public JsonElement json() {
+        return JsonParser.parseReader(reader());
+    }
+
+    /**
+     * Opens a streaming reader over the body.
+     *
+     * @return a new JsonReader positioned at the start of the body
+     */
+    public JsonReader reader() {
+        return new JsonReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the first value of a header.
+     *
+     * @param name the header name, case-insensitive
+     * @return the first value, or null if the header is not present
+     */
+    public @Nullable String header(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+}
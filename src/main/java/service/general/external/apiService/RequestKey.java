@@ -0,0 +1,36 @@
+package service.general.external.apiService;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Identifies an API request by its endpoint and parameters.
+ * Parameters are sorted, so two requests with the same parameters in a different order share a key.
+ *
+ * @param endpoint the endpoint. Example: "fixtures"
+ * @param params   the sorted request parameters
+ */
+public record RequestKey(String endpoint, SortedMap<String, String> params) {
+
+    public static RequestKey of(String endpoint, @Nullable Map<String, String> params) {
+        SortedMap<String, String> sorted = params == null ? new TreeMap<>() : new TreeMap<>(params);
+        return new RequestKey(endpoint, Collections.unmodifiableSortedMap(sorted));
+    }
+
+    /**
+     * @return the key in query-string form. Example: "fixtures?id=1035034"
+     */
+    @Override
+    public String toString() {
+        if (params.isEmpty()) return endpoint;
+
+        StringBuilder builder = new StringBuilder(endpoint).append('?');
+        params.forEach((k, v) -> builder.append(k).append('=').append(v).append('&'));
+        builder.setLength(builder.length() - 1);
+        return builder.toString();
+    }
+}
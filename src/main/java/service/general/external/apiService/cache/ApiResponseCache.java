@@ -0,0 +1,44 @@
+package service.general.external.apiService.cache;
+
+import service.general.external.apiService.ApiResponse;
+import service.general.external.apiService.RequestKey;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache for API responses, keyed on endpoint and parameters.
+ */
+public interface ApiResponseCache {
+
+    /**
+     * Returns the cached response for a key, loading it on a miss.
+     *
+     * <p>A fresh entry is returned immediately. A stale entry is also returned immediately,
+     * and a single background refresh is started with the loader. On a miss the loader's result
+     * is cached once it completes successfully. If the loader is rejected with a RateLimitException
+     * or a CircuitOpenException, an expired entry is returned instead when one is still held.</p>
+     *
+     * @param key    the request key
+     * @param loader sends the request upstream
+     * @return a future completed with the response
+     */
+    CompletableFuture<ApiResponse> getOrLoad(RequestKey key, Supplier<CompletableFuture<ApiResponse>> loader);
+
+    /**
+     * Loads a response, whether or not one is cached, and caches it in place of the cached one.
+     *
+     * <p>The cached entry is not removed first, so concurrent lookups are still answered from it until the load
+     * completes. If the load fails, the entry is kept as it was.</p>
+     *
+     * @param key    the request key
+     * @param loader sends the request upstream
+     * @return a future completed with the loaded response
+     */
+    CompletableFuture<ApiResponse> refresh(RequestKey key, Supplier<CompletableFuture<ApiResponse>> loader);
+
+    /**
+     * @return the current counters
+     */
+    CacheStats stats();
+}
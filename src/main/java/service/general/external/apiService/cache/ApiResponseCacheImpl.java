@@ -0,0 +1,217 @@
+package service.general.external.apiService.cache;
+
+import common.exception.gen.RateLimitException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import service.general.external.apiService.ApiResponse;
+import service.general.external.apiService.RequestKey;
+import service.general.external.apiService.exception.CircuitOpenException;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * LRU implementation of the ApiResponseCache.
+ * The cache is bounded both by number of entries and by the total size of the cached bodies.
+ */
+@Component
+public class ApiResponseCacheImpl implements ApiResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiResponseCacheImpl.class);
+
+    private final CacheTtlPolicy ttlPolicy;
+    private final PersistentResponseStore persistentStore;
+
+    @Value("${api.cache.max-entries:2000}")
+    private int maxEntries;
+
+    @Value("${api.cache.max-weight-bytes:67108864}")
+    private long maxWeightBytes;
+
+    // access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<RequestKey, CachedResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long weightBytes; // guarded by entries
+
+    private final Set<RequestKey> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder staleOnRejection = new LongAdder();
+
+    @Autowired
+    public ApiResponseCacheImpl(CacheTtlPolicy ttlPolicy, PersistentResponseStore persistentStore) {
+        this.ttlPolicy = ttlPolicy;
+        this.persistentStore = persistentStore;
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> getOrLoad(RequestKey key, Supplier<CompletableFuture<ApiResponse>> loader) {
+        long now = System.currentTimeMillis();
+        CachedResponse cached = lookup(key);
+
+        if (cached != null && cached.isFresh(now)) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached.response());
+        }
+
+        if (cached != null && cached.isUsable(now)) {
+            staleHits.increment();
+            refreshInBackground(key, loader);
+            return CompletableFuture.completedFuture(cached.response());
+        }
+
+        misses.increment();
+
+        CompletableFuture<ApiResponse> load;
+        try {
+            load = loader.get();
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+
+        return load.handle((response, throwable) -> {
+            if (throwable == null) {
+                store(key, response);
+                return CompletableFuture.completedFuture(response);
+            }
+
+            // an expired response is better than none when the call was not allowed upstream
+            if (cached != null && isRejected(throwable)) {
+                staleOnRejection.increment();
+                return CompletableFuture.completedFuture(cached.response());
+            }
+
+            return CompletableFuture.<ApiResponse>failedFuture(throwable);
+        }).thenCompose(Function.identity());
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> refresh(RequestKey key, Supplier<CompletableFuture<ApiResponse>> loader) {
+        refreshes.increment();
+
+        CompletableFuture<ApiResponse> load;
+        try {
+            load = loader.get();
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+        return load.thenApply(response -> {
+            store(key, response);
+            return response;
+        });
+    }
+
+    @Override
+    public CacheStats stats() {
+        int size;
+        long weight;
+        synchronized (entries) {
+            size = entries.size();
+            weight = weightBytes;
+        }
+        return new CacheStats(hits.sum(), staleHits.sum(), staleOnRejection.sum(), misses.sum(), evictions.sum(), refreshes.sum(),
+                size, weight);
+    }
+
+    /**
+     * Expired entries are kept until they are evicted or replaced,
+     * so they can still be served when a call is rejected for quota reasons.
+     * Keys not held in memory are looked up in the persistent store, and promoted to memory when found,
+     * unless a response was stored in memory while the disk was read.
+     */
+    private CachedResponse lookup(RequestKey key) {
+        synchronized (entries) {
+            CachedResponse cached = entries.get(key);
+            if (cached != null) return cached;
+        }
+
+        CachedResponse persisted = persistentStore.get(key);
+        if (persisted == null) return null;
+
+        synchronized (entries) {
+            CachedResponse stored = entries.get(key);
+            if (stored != null) return stored;
+            put(key, persisted);
+        }
+        return persisted;
+    }
+
+    private static boolean isRejected(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        return cause instanceof RateLimitException || cause instanceof CircuitOpenException;
+    }
+
+    private void refreshInBackground(RequestKey key, Supplier<CompletableFuture<ApiResponse>> loader) {
+        if (!refreshing.add(key)) return;
+        refreshes.increment();
+
+        CompletableFuture<ApiResponse> refresh;
+        try {
+            refresh = loader.get();
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+            logger.warn("Failed to start refresh of {}: {}", key, e.getMessage());
+            return;
+        }
+
+        refresh.whenComplete((response, throwable) -> {
+            refreshing.remove(key);
+            if (throwable == null) {
+                store(key, response);
+            } else {
+                logger.warn("Background refresh of {} failed: {}", key, throwable.getMessage());
+            }
+        });
+    }
+
+    private void store(RequestKey key, ApiResponse response) {
+        long ttl = ttlPolicy.ttlMillis(key, response);
+        if (ttl <= 0) return;
+
+        long now = System.currentTimeMillis();
+        long freshUntil = saturatedAdd(now, ttl);
+        long staleUntil = saturatedAdd(freshUntil, ttlPolicy.staleWhileRevalidateMillis());
+        CachedResponse entry = new CachedResponse(response, freshUntil, staleUntil);
+
+        put(key, entry);
+        persistentStore.put(key, entry);
+    }
+
+    private void put(RequestKey key, CachedResponse entry) {
+        synchronized (entries) {
+            CachedResponse previous = entries.put(key, entry);
+            if (previous != null) weightBytes -= previous.weight();
+            weightBytes += entry.weight();
+            evictIfNeeded();
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<RequestKey, CachedResponse>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || weightBytes > maxWeightBytes) && iterator.hasNext()) {
+            Map.Entry<RequestKey, CachedResponse> eldest = iterator.next();
+            weightBytes -= eldest.getValue().weight();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return ((a ^ sum) & (b ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+    }
+}
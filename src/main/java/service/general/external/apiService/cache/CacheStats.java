@@ -0,0 +1,26 @@
+package service.general.external.apiService.cache;
+
+/**
+ * Snapshot of the cache counters.
+ *
+ * @param hits             lookups answered with a fresh response
+ * @param staleHits        lookups answered with a stale response while it was refreshed in the background
+ * @param staleOnRejection lookups answered with an expired response because the upstream call was rejected
+ *                         by the quota governor or an open circuit breaker
+ * @param misses           lookups that had to go upstream
+ * @param evictions        entries removed to stay within the size bound
+ * @param refreshes        refreshes started, in the background for stale entries or asked for by callers
+ * @param entries          number of entries currently cached
+ * @param weightBytes      total body size of the cached entries
+ */
+public record CacheStats(
+        long hits,
+        long staleHits,
+        long staleOnRejection,
+        long misses,
+        long evictions,
+        long refreshes,
+        int entries,
+        long weightBytes
+) {
+}
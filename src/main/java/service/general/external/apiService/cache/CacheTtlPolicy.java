@@ -0,0 +1,201 @@
+package service.general.external.apiService.cache;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import service.general.external.apiService.ApiResponse;
+import service.general.external.apiService.RequestKey;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Decides how long a response may be served from the cache.
+ *
+ * <p>Leagues change rarely and odds change every few minutes. Fixtures depend on their status:
+ * live fixtures expire within seconds, while finished fixtures never change again.</p>
+ *
+ * <p>Responses carrying errors are not cached, and empty responses only briefly, as they are
+ * usually the result of a request made too early or with the wrong parameters.</p>
+ */
+@Component
+public class CacheTtlPolicy {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheTtlPolicy.class);
+
+    /** TTL value for responses that never expire. */
+    public static final long FOREVER = Long.MAX_VALUE;
+
+    private static final Set<String> LIVE_STATUSES = Set.of("1H", "HT", "2H", "ET", "BT", "P", "SUSP", "INT", "LIVE");
+
+    private final FixtureStatusClassifier statusClassifier;
+
+    @Value("${api.cache.ttl.leagues-seconds:21600}")
+    private long leaguesTtlSeconds;
+
+    @Value("${api.cache.ttl.odds-seconds:300}")
+    private long oddsTtlSeconds;
+
+    @Value("${api.cache.ttl.fixtures-live-seconds:15}")
+    private long fixturesLiveTtlSeconds;
+
+    @Value("${api.cache.ttl.fixtures-scheduled-seconds:600}")
+    private long fixturesScheduledTtlSeconds;
+
+    @Value("${api.cache.ttl.empty-seconds:60}")
+    private long emptyTtlSeconds;
+
+    @Value("${api.cache.stale-while-revalidate-seconds:30}")
+    private long staleWhileRevalidateSeconds;
+
+    @Autowired
+    public CacheTtlPolicy(FixtureStatusClassifier statusClassifier) {
+        this.statusClassifier = statusClassifier;
+    }
+
+    /**
+     * Returns how long a response stays fresh.
+     *
+     * @param key      the request the response belongs to
+     * @param response the response
+     * @return the TTL in milliseconds, {@link #FOREVER} if it never expires, or 0 if it must not be cached
+     */
+    public long ttlMillis(RequestKey key, ApiResponse response) {
+        if (hasErrors(response)) return 0;
+
+        long ttl = switch (key.endpoint()) {
+            case "leagues" -> leaguesTtlSeconds * 1000;
+            case "odds" -> oddsTtlSeconds * 1000;
+            case "fixtures" -> fixturesTtlMillis(response);
+            default -> 0;
+        };
+        if (ttl <= 0 || key.endpoint().equals("fixtures")) return ttl;
+
+        int count = countResults(response);
+        if (count < 0) return 0;
+        return count == 0 ? Math.min(ttl, emptyTtlSeconds * 1000) : ttl;
+    }
+
+    /**
+     * @return how long an expired response may still be served while it is refreshed, in milliseconds
+     */
+    public long staleWhileRevalidateMillis() {
+        return staleWhileRevalidateSeconds * 1000;
+    }
+
+    /**
+     * api-sports sends an empty array or object when there are no errors
+     */
+    private static boolean hasErrors(ApiResponse response) {
+        String errors = response.errors();
+        return errors != null && !errors.equals("[]") && !errors.equals("{}") && !errors.equals("null");
+    }
+
+    /**
+     * @return the number of elements of the response array, or -1 if the body cannot be read
+     */
+    private int countResults(ApiResponse response) {
+        int count = 0;
+        try (JsonReader reader = response.reader()) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals("response") || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                    reader.skipValue();
+                    continue;
+                }
+
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    reader.skipValue();
+                    count++;
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Could not read response, not caching it: {}", e.getMessage());
+            return -1;
+        }
+        return count;
+    }
+
+    /**
+     * The shortest TTL of the fixtures in the response wins, so a season list
+     * containing one live fixture expires as quickly as that fixture.
+     */
+    private long fixturesTtlMillis(ApiResponse response) {
+        boolean anyLive = false;
+        boolean allFinished = true;
+        int count = 0;
+
+        try (JsonReader reader = response.reader()) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals("response") || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                    reader.skipValue();
+                    continue;
+                }
+
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    String status = readStatus(reader);
+                    count++;
+                    // cancelled and abandoned fixtures can still be awarded or played later
+                    if (!statusClassifier.finished(status)) allFinished = false;
+                    if (status != null && LIVE_STATUSES.contains(status)) anyLive = true;
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Could not read fixture statuses, not caching response: {}", e.getMessage());
+            return 0;
+        }
+
+        if (anyLive) return fixturesLiveTtlSeconds * 1000;
+        if (count == 0) return Math.min(fixturesScheduledTtlSeconds, emptyTtlSeconds) * 1000;
+        if (allFinished) return FOREVER;
+        return fixturesScheduledTtlSeconds * 1000;
+    }
+
+    /**
+     * Reads fixture.status.short of one element of the response array, skipping everything else.
+     */
+    private String readStatus(JsonReader reader) throws IOException {
+        String status = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("fixture") || reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals("status") || reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    continue;
+                }
+
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (reader.nextName().equals("short") && reader.peek() == JsonToken.STRING) {
+                        status = reader.nextString();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+
+        return status;
+    }
+}
@@ -0,0 +1,28 @@
+package service.general.external.apiService.cache;
+
+import service.general.external.apiService.ApiResponse;
+
+/**
+ * A cached response together with its expiry times.
+ *
+ * @param response   the cached response
+ * @param freshUntil epoch millis until which the response is served without revalidation
+ * @param staleUntil epoch millis until which the response may be served while it is being refreshed
+ */
+public record CachedResponse(ApiResponse response, long freshUntil, long staleUntil) {
+
+    public boolean isFresh(long now) {
+        return now < freshUntil;
+    }
+
+    public boolean isUsable(long now) {
+        return now < staleUntil;
+    }
+
+    /**
+     * @return the size of the entry used for eviction, in bytes
+     */
+    public long weight() {
+        return response.body().length;
+    }
+}
@@ -0,0 +1,15 @@
+package service.general.external.apiService.cache;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Tells the cache which fixture statuses are final, so it does not depend on how the application models fixtures.
+ */
+public interface FixtureStatusClassifier {
+
+    /**
+     * @param status the short status of a fixture, e.g. "NS" or "FT", null if missing
+     * @return true if the result of the fixture does not change anymore
+     */
+    boolean finished(@Nullable String status);
+}
@@ -0,0 +1,36 @@
+package service.general.external.apiService.cache;
+
+import service.general.external.apiService.RequestKey;
+
+/**
+ * Disk tier below the in-process response cache. Survives restarts, so a new node can serve
+ * responses fetched before it started instead of spending quota on them again.
+ */
+public interface PersistentResponseStore {
+
+    /**
+     * @param key the request key
+     * @return the stored response, or null if none is stored or it can no longer be served
+     */
+    CachedResponse get(RequestKey key);
+
+    /**
+     * Stores a response in the background. A later put for the same key replaces it.
+     *
+     * @param key      the request key
+     * @param response the response and its expiry times
+     */
+    void put(RequestKey key, CachedResponse response);
+
+    /**
+     * Removes a stored response.
+     *
+     * @param key the request key
+     */
+    void remove(RequestKey key);
+
+    /**
+     * @return the current counters
+     */
+    PersistentStoreStats stats();
+}
@@ -0,0 +1,501 @@
+package service.general.external.apiService.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import service.general.external.apiService.ApiResponse;
+import service.general.external.apiService.RequestKey;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Persistent response store backed by a single memory-mapped segment file.
+ *
+ * <p>Responses are appended deflate-compressed and located through an in-memory index that is rebuilt
+ * by scanning the file on startup. Writes and compaction run on one background thread, so the segment
+ * only has a single writer. Compaction copies the records that are still indexed and not expired into
+ * a new file, which then replaces the old one.</p>
+ *
+ * <p>A removal appends a tombstone, so the scan on the next startup does not bring the removed response back.
+ * Compaction drops tombstones along with the records they removed.</p>
+ *
+ * <p>Of the response headers only the rate limit headers are kept, which the quota governor reconciles with.</p>
+ */
+@Component
+public class PersistentResponseStoreImpl implements PersistentResponseStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistentResponseStoreImpl.class);
+
+    // first byte of every record. Response records kept the value of the original format version
+    private static final int RESPONSE_RECORD = 1;
+    private static final int TOMBSTONE_RECORD = 2;
+    private static final String SEGMENT_FILE = "responses.seg";
+    private static final String COMPACTION_FILE = "responses.seg.compact";
+    private static final String PERSISTED_HEADER_PREFIX = "x-ratelimit";
+
+    @Value("${api.cache.persistent.enabled:false}")
+    private boolean enabled;
+
+    @Value("${api.cache.persistent.directory:cache}")
+    private String directory;
+
+    @Value("${api.cache.persistent.segment-bytes:268435456}")
+    private int segmentBytes;
+
+    @Value("${api.cache.persistent.compact-interval-seconds:300}")
+    private long compactIntervalSeconds;
+
+    // compact once less than this share of the written bytes is still live
+    @Value("${api.cache.persistent.compact-live-ratio:0.5}")
+    private double compactLiveRatio;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "api-cache-disk");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // readers hold the read lock, swapping in a compacted segment takes the write lock
+    private final ReadWriteLock segmentLock = new ReentrantReadWriteLock();
+    private SegmentFile segment; // guarded by segmentLock
+    private Map<RequestKey, IndexEntry> index = new ConcurrentHashMap<>(); // guarded by segmentLock
+    private final AtomicLong liveBytes = new AtomicLong();
+
+    // orders puts and removals of a key, which reach the writer thread after the caller moved on
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<RequestKey, Long> removals = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder compactions = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) return;
+
+        try {
+            Path dir = Paths.get(directory);
+            Files.createDirectories(dir);
+            Files.deleteIfExists(dir.resolve(COMPACTION_FILE));
+            segment = SegmentFile.open(dir.resolve(SEGMENT_FILE), segmentBytes);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to open the persistent response cache in {}, continuing without it", directory, e);
+            enabled = false;
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        segment.scan((position, payload) -> {
+            try {
+                Header header = readHeader(payload);
+                IndexEntry previous = index.remove(header.key());
+                if (previous != null) liveBytes.addAndGet(-previous.length());
+                if (header.tombstone()) return;
+                if (header.staleUntil() > now) {
+                    index.put(header.key(), new IndexEntry(position, payload.length, header.staleUntil()));
+                    liveBytes.addAndGet(payload.length);
+                }
+            } catch (IOException e) {
+                logger.warn("Skipping unreadable record at {} in {}", position, segment.path());
+            }
+        });
+        logger.info("Loaded {} cached responses from {}", index.size(), segment.path());
+
+        executor.scheduleWithFixedDelay(this::compactIfNeeded, compactIntervalSeconds, compactIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        if (segment == null) return;
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+            segment.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close {}: {}", segment.path(), e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public CachedResponse get(RequestKey key) {
+        if (!enabled) return null;
+
+        // removed, the tombstone may not be written yet
+        if (removals.containsKey(key)) return null;
+
+        byte[] payload;
+        segmentLock.readLock().lock();
+        try {
+            IndexEntry entry = index.get(key);
+            if (entry == null) return null;
+            if (entry.staleUntil() <= System.currentTimeMillis()) {
+                if (index.remove(key, entry)) liveBytes.addAndGet(-entry.length());
+                return null;
+            }
+            payload = segment.read(entry.position());
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+
+        try {
+            CachedResponse cached = decode(key, payload);
+            if (cached == null) return null;
+            hits.increment();
+            return cached;
+        } catch (IOException | DataFormatException e) {
+            logger.warn("Failed to read cached response for {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void put(RequestKey key, CachedResponse response) {
+        if (!enabled || response.staleUntil() <= System.currentTimeMillis()) return;
+        long order = sequence.incrementAndGet();
+        executor.execute(() -> write(key, response, order));
+    }
+
+    @Override
+    public void remove(RequestKey key) {
+        if (!enabled) return;
+        long order = sequence.incrementAndGet();
+        // hidden from readers right away, puts queued before this one are dropped by the writer
+        removals.put(key, order);
+        executor.execute(() -> {
+            IndexEntry removed = index.remove(key);
+            if (removed != null) {
+                liveBytes.addAndGet(-removed.length());
+                writeTombstone(key);
+            }
+            removals.remove(key, order);
+        });
+    }
+
+    @Override
+    public PersistentStoreStats stats() {
+        if (!enabled) return new PersistentStoreStats(false, 0, 0, 0, 0, 0, 0);
+
+        segmentLock.readLock().lock();
+        try {
+            return new PersistentStoreStats(true, index.size(), segment.writePosition(), segment.capacity(),
+                    hits.sum(), writes.sum(), compactions.sum());
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    private void write(RequestKey key, CachedResponse response, long order) {
+        Long removedAt = removals.get(key);
+        if (removedAt != null && removedAt > order) return;
+
+        byte[] payload;
+        try {
+            payload = encode(key, response);
+        } catch (IOException e) {
+            logger.warn("Failed to encode response for {}: {}", key, e.getMessage());
+            return;
+        }
+
+        int position = segment.append(payload);
+        if (position < 0) {
+            compact();
+            position = segment.append(payload);
+            if (position < 0) {
+                logger.warn("Persistent response cache is full, not storing {} ({} bytes)", key, payload.length);
+                return;
+            }
+        }
+
+        IndexEntry previous = index.put(key, new IndexEntry(position, payload.length, response.staleUntil()));
+        liveBytes.addAndGet(payload.length - (previous == null ? 0 : previous.length()));
+        writes.increment();
+    }
+
+    /**
+     * Only needed while the key has a record in the segment, which the scan would otherwise load again.
+     * A full segment is compacted instead, which drops the record.
+     */
+    private void writeTombstone(RequestKey key) {
+        byte[] payload;
+        try {
+            payload = encodeTombstone(key);
+        } catch (IOException e) {
+            logger.warn("Failed to encode tombstone for {}: {}", key, e.getMessage());
+            return;
+        }
+
+        if (segment.append(payload) < 0) compact();
+    }
+
+    private void compactIfNeeded() {
+        // expired responses that were not read since are no longer live either
+        long now = System.currentTimeMillis();
+        index.forEach((key, entry) -> {
+            if (entry.staleUntil() <= now && index.remove(key, entry)) liveBytes.addAndGet(-entry.length());
+        });
+
+        int written = segment.writePosition();
+        if (written > 0 && liveBytes.get() < written * compactLiveRatio) {
+            compact();
+        }
+    }
+
+    /**
+     * Runs on the writer thread only, so no record is appended while the live records are copied.
+     */
+    private void compact() {
+        Path target = segment.path();
+        Path temporary = target.resolveSibling(COMPACTION_FILE);
+        long now = System.currentTimeMillis();
+
+        SegmentFile compacted = null;
+        Map<RequestKey, IndexEntry> compactedIndex = new ConcurrentHashMap<>();
+        long compactedLive = 0;
+        try {
+            Files.deleteIfExists(temporary);
+            compacted = SegmentFile.open(temporary, segmentBytes);
+            for (Map.Entry<RequestKey, IndexEntry> entry : new HashMap<>(index).entrySet()) {
+                IndexEntry live = entry.getValue();
+                if (live.staleUntil() <= now) continue;
+
+                byte[] payload = segment.read(live.position());
+                int position = compacted.append(payload);
+                compactedIndex.put(entry.getKey(), new IndexEntry(position, payload.length, live.staleUntil()));
+                compactedLive += payload.length;
+            }
+            compacted.force();
+            compacted.moveTo(target);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to compact {}", target, e);
+            closeQuietly(compacted);
+            return;
+        }
+
+        SegmentFile previous;
+        int previousBytes;
+        segmentLock.writeLock().lock();
+        try {
+            previous = segment;
+            previousBytes = previous.writePosition();
+            segment = compacted;
+            index = compactedIndex;
+            liveBytes.set(compactedLive);
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+
+        closeQuietly(previous);
+        compactions.increment();
+        logger.info("Compacted {} from {} to {} bytes, {} responses kept", target, previousBytes, compacted.writePosition(),
+                compactedIndex.size());
+    }
+
+    private static void closeQuietly(SegmentFile file) {
+        if (file == null) return;
+        try {
+            file.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close {}: {}", file.path(), e.getMessage());
+        }
+    }
+
+    private static byte[] encode(RequestKey key, CachedResponse cached) throws IOException {
+        ApiResponse response = cached.response();
+        byte[] compressed = deflate(response.body());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(compressed.length + 256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(RESPONSE_RECORD);
+            writeKey(out, key);
+            out.writeLong(cached.freshUntil());
+            out.writeLong(cached.staleUntil());
+            out.writeInt(response.code());
+            writeBytes(out, response.errors() == null ? null : response.errors().getBytes(StandardCharsets.UTF_8));
+            out.writeInt(response.body().length);
+            writeBytes(out, compressed);
+            out.writeLong(response.fetchedAtMillis());
+            writeHeaders(out, response.headers());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeTombstone(RequestKey key) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(TOMBSTONE_RECORD);
+            writeKey(out, key);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeKey(DataOutputStream out, RequestKey key) throws IOException {
+        out.writeUTF(key.endpoint());
+        out.writeInt(key.params().size());
+        for (Map.Entry<String, String> param : key.params().entrySet()) {
+            out.writeUTF(param.getKey());
+            out.writeUTF(param.getValue());
+        }
+    }
+
+    private static Header readHeader(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        return readHeader(in);
+    }
+
+    private static Header readHeader(DataInputStream in) throws IOException {
+        int type = in.readUnsignedByte();
+        if (type != RESPONSE_RECORD && type != TOMBSTONE_RECORD) throw new IOException("Unknown record type " + type);
+
+        String endpoint = in.readUTF();
+        int paramCount = in.readInt();
+        Map<String, String> params = new HashMap<>();
+        for (int i = 0; i < paramCount; i++) {
+            params.put(in.readUTF(), in.readUTF());
+        }
+        RequestKey key = RequestKey.of(endpoint, params);
+        if (type == TOMBSTONE_RECORD) return new Header(key, true, 0, 0);
+
+        long freshUntil = in.readLong();
+        long staleUntil = in.readLong();
+        return new Header(key, false, freshUntil, staleUntil);
+    }
+
+    /**
+     * @return the response, or null if the record belongs to another key
+     */
+    private static CachedResponse decode(RequestKey key, byte[] payload) throws IOException, DataFormatException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        Header header = readHeader(in);
+        if (header.tombstone() || !header.key().equals(key)) return null;
+
+        int code = in.readInt();
+        byte[] errors = readBytes(in);
+        int bodyLength = in.readInt();
+        byte[] body = inflate(readBytes(in), bodyLength);
+        long fetchedAt = in.readLong();
+        // records written before the headers were kept end here
+        Map<String, List<String>> headers = in.available() > 0 ? readHeaders(in) : Map.of();
+
+        ApiResponse response = new ApiResponse(code, headers, body,
+                errors == null ? null : new String(errors, StandardCharsets.UTF_8), fetchedAt);
+        return new CachedResponse(response, header.freshUntil(), header.staleUntil());
+    }
+
+    private static void writeHeaders(DataOutputStream out, Map<String, List<String>> headers) throws IOException {
+        Map<String, List<String>> persisted = new HashMap<>();
+        headers.forEach((name, values) -> {
+            if (name != null && name.toLowerCase(Locale.ROOT).startsWith(PERSISTED_HEADER_PREFIX)) persisted.put(name, values);
+        });
+
+        out.writeInt(persisted.size());
+        for (Map.Entry<String, List<String>> header : persisted.entrySet()) {
+            out.writeUTF(header.getKey());
+            out.writeInt(header.getValue().size());
+            for (String value : header.getValue()) {
+                out.writeUTF(value);
+            }
+        }
+    }
+
+    /**
+     * @return the headers keyed case-insensitively, like those of a response received from upstream
+     */
+    private static Map<String, List<String>> readHeaders(DataInputStream in) throws IOException {
+        int headerCount = in.readInt();
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < headerCount; i++) {
+            String name = in.readUTF();
+            int valueCount = in.readInt();
+            List<String> values = new ArrayList<>(valueCount);
+            for (int j = 0; j < valueCount; j++) {
+                values.add(in.readUTF());
+            }
+            headers.put(name, Collections.unmodifiableList(values));
+        }
+        return Collections.unmodifiableMap(headers);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes == null ? -1 : bytes.length);
+        if (bytes != null) out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static byte[] deflate(byte[] body) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int length) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] body = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(body, read, length - read);
+                if (n == 0 && inflater.needsInput()) break;
+                read += n;
+            }
+            if (read != length) throw new DataFormatException("Expected " + length + " bytes, inflated " + read);
+            return body;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private record IndexEntry(int position, int length, long staleUntil) {
+    }
+
+    private record Header(RequestKey key, boolean tombstone, long freshUntil, long staleUntil) {
+    }
+}
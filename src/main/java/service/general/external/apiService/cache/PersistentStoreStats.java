@@ -0,0 +1,23 @@
+package service.general.external.apiService.cache;
+
+/**
+ * Snapshot of the persistent response store.
+ *
+ * @param enabled      whether the store is in use
+ * @param entries      responses currently indexed
+ * @param segmentBytes bytes written to the segment file, including replaced and expired records
+ * @param capacity     size of the segment file, in bytes
+ * @param hits         lookups answered from disk
+ * @param writes       responses written
+ * @param compactions  compactions completed
+ */
+public record PersistentStoreStats(
+        boolean enabled,
+        int entries,
+        long segmentBytes,
+        long capacity,
+        long hits,
+        long writes,
+        long compactions
+) {
+}
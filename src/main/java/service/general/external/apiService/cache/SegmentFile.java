@@ -0,0 +1,137 @@
+package service.general.external.apiService.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of records, memory-mapped at a fixed capacity.
+ *
+ * <p>Each record is stored as its length, the CRC32 of its payload and the payload itself.
+ * The unused tail of the file is zero, so a zero length marks the end of the records.</p>
+ */
+final class SegmentFile implements Closeable {
+
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+
+    private Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+
+    private SegmentFile(Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Opens or creates a segment file. Existing records are not read until {@link #scan(BiConsumer)} is called.
+     *
+     * @param path     the file
+     * @param capacity the size to map, in bytes
+     */
+    static SegmentFile open(Path path, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            return new SegmentFile(path, channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads every intact record from the start of the file and moves the write position past the last one.
+     * Reading stops at the first torn or corrupt record, which is then overwritten by the next append.
+     *
+     * @param consumer receives the position and payload of each record
+     */
+    void scan(BiConsumer<Integer, byte[]> consumer) {
+        int position = 0;
+        while (position + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > buffer.capacity()) break;
+
+            byte[] payload = new byte[length];
+            buffer.get(position + HEADER_BYTES, payload);
+            if (crc(payload) != buffer.getInt(position + Integer.BYTES)) break;
+
+            consumer.accept(position, payload);
+            position += HEADER_BYTES + length;
+        }
+        writePosition = position;
+    }
+
+    /**
+     * @param payload the record to append
+     * @return the position of the record, or -1 if the segment is full
+     */
+    int append(byte[] payload) {
+        int position = writePosition;
+        if (position + HEADER_BYTES + payload.length > buffer.capacity()) return -1;
+
+        buffer.put(position + HEADER_BYTES, payload);
+        buffer.putInt(position + Integer.BYTES, crc(payload));
+        // written last, so a crash before this point leaves the previous end marker in place
+        buffer.putInt(position, payload.length);
+        writePosition = position + HEADER_BYTES + payload.length;
+        return position;
+    }
+
+    /**
+     * @param position the position returned by {@link #append(byte[])} or passed to the scan consumer
+     * @return a copy of the record's payload
+     */
+    byte[] read(int position) {
+        int length = buffer.getInt(position);
+        byte[] payload = new byte[length];
+        buffer.get(position + HEADER_BYTES, payload);
+        return payload;
+    }
+
+    /**
+     * Atomically replaces the target file with this segment. The mapping stays valid.
+     */
+    void moveTo(Path target) throws IOException {
+        Files.move(path, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        path = target;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    int writePosition() {
+        return writePosition;
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    Path path() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,15 @@
+package service.general.external.apiService.coalesce;
+
+/**
+ * Snapshot of the coalescer counters.
+ *
+ * @param upstreamCalls calls that were actually sent upstream
+ * @param savedCalls    calls that attached to an in-flight call instead of being sent
+ * @param inFlight      number of distinct calls currently in flight
+ */
+public record CoalescerStats(
+        long upstreamCalls,
+        long savedCalls,
+        int inFlight
+) {
+}
@@ -0,0 +1,31 @@
+package service.general.external.apiService.coalesce;
+
+import service.general.external.apiService.ApiResponse;
+import service.general.external.apiService.RequestKey;
+import service.general.external.apiService.quota.RequestPriority;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical requests into a single upstream call.
+ */
+public interface RequestCoalescer {
+
+    /**
+     * Attaches the caller to the in-flight call for the key and priority, or starts one with the loader if there is none.
+     * Every caller attached to a call receives its response, or its error if it fails. Calls are admitted against the
+     * quota of their priority, so callers of different priorities do not share a call.
+     *
+     * @param key      the request key
+     * @param priority the priority the call is admitted at
+     * @param loader   sends the request upstream
+     * @return a future completed with the shared response
+     */
+    CompletableFuture<ApiResponse> coalesce(RequestKey key, RequestPriority priority, Supplier<CompletableFuture<ApiResponse>> loader);
+
+    /**
+     * @return the current counters
+     */
+    CoalescerStats stats();
+}
@@ -0,0 +1,67 @@
+package service.general.external.apiService.coalesce;
+
+import org.springframework.stereotype.Component;
+import service.general.external.apiService.ApiResponse;
+import service.general.external.apiService.RequestKey;
+import service.general.external.apiService.quota.RequestPriority;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight implementation of the RequestCoalescer.
+ *
+ * <p>The first caller for a key and priority becomes the leader and starts the upstream call.
+ * Callers arriving while it is in flight get a copy of the leader's future,
+ * so cancelling one of them does not affect the others.</p>
+ */
+@Component
+public class RequestCoalescerImpl implements RequestCoalescer {
+
+    private final ConcurrentHashMap<CallKey, CompletableFuture<ApiResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder upstreamCalls = new LongAdder();
+    private final LongAdder savedCalls = new LongAdder();
+
+    @Override
+    public CompletableFuture<ApiResponse> coalesce(RequestKey requestKey, RequestPriority priority,
+                                                   Supplier<CompletableFuture<ApiResponse>> loader) {
+        CallKey key = new CallKey(requestKey, priority);
+        CompletableFuture<ApiResponse> shared = new CompletableFuture<>();
+        CompletableFuture<ApiResponse> existing = inFlight.putIfAbsent(key, shared);
+
+        if (existing != null) {
+            savedCalls.increment();
+            return existing.copy();
+        }
+
+        upstreamCalls.increment();
+
+        try {
+            loader.get().whenComplete((response, throwable) -> {
+                // remove before completing, so callers reacting to the result start a new call
+                inFlight.remove(key, shared);
+                if (throwable != null) {
+                    shared.completeExceptionally(throwable);
+                } else {
+                    shared.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, shared);
+            shared.completeExceptionally(e);
+        }
+
+        return shared.copy();
+    }
+
+    @Override
+    public CoalescerStats stats() {
+        return new CoalescerStats(upstreamCalls.sum(), savedCalls.sum(), inFlight.size());
+    }
+
+    private record CallKey(RequestKey requestKey, RequestPriority priority) {
+    }
+}
@@ -0,0 +1,10 @@
+package service.general.external.apiService.exception;
+
+/**
+ * Thrown when a call is not sent because the circuit breaker of its endpoint is open.
+ */
+public class CircuitOpenException extends Exception {
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,27 @@
+package service.general.external.apiService.exception;
+
+import java.io.IOException;
+
+/**
+ * Thrown when the API answers with an unexpected HTTP status code.
+ */
+public class HttpStatusException extends IOException {
+
+    private final int code;
+
+    public HttpStatusException(int code, String message) {
+        super(message);
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * @return true if the status points to a transient problem on the API side
+     */
+    public boolean isTransient() {
+        return code >= 500 || code == 408;
+    }
+}
@@ -0,0 +1,13 @@
+package service.general.external.apiService.metrics;
+
+/**
+ * Snapshot of the OkHttp connection pool.
+ *
+ * @param connections open connections
+ * @param idle        open connections not in use
+ */
+public record ConnectionPoolStats(
+        int connections,
+        int idle
+) {
+}
@@ -0,0 +1,23 @@
+package service.general.external.apiService.metrics;
+
+import java.util.Map;
+
+/**
+ * Upstream timings and connection use of one endpoint.
+ *
+ * @param calls               completed calls
+ * @param failures            calls that failed with an I/O error
+ * @param connectionsAcquired connections the calls used
+ * @param connectionsReused   connections taken from the pool rather than newly opened
+ * @param reuseRate           share of connections taken from the pool, between 0 and 1
+ * @param phases              latency of each phase
+ */
+public record EndpointUpstreamStats(
+        long calls,
+        long failures,
+        long connectionsAcquired,
+        long connectionsReused,
+        double reuseRate,
+        Map<UpstreamPhase, HistogramSnapshot> phases
+) {
+}
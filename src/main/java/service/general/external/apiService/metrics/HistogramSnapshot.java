@@ -0,0 +1,19 @@
+package service.general.external.apiService.metrics;
+
+/**
+ * Summary of a LatencyHistogram, in milliseconds.
+ *
+ * @param count      number of recorded values
+ * @param meanMillis mean of the recorded values
+ * @param p50Millis  median
+ * @param p95Millis  95th percentile
+ * @param p99Millis  99th percentile
+ */
+public record HistogramSnapshot(
+        long count,
+        double meanMillis,
+        long p50Millis,
+        long p95Millis,
+        long p99Millis
+) {
+}
@@ -0,0 +1,83 @@
+package service.general.external.apiService.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with exponentially growing buckets.
+ *
+ * <p>Bucket bounds grow by 20% from 1 ms up to two minutes, so percentiles are accurate to about 20%.
+ * Values above the last bound are counted in the last bucket.</p>
+ */
+public class LatencyHistogram {
+
+    private static final long[] BOUNDS_MILLIS = createBounds();
+
+    private final AtomicLongArray counts = new AtomicLongArray(BOUNDS_MILLIS.length);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMillis = new LongAdder();
+
+    private static long[] createBounds() {
+        long[] bounds = new long[64];
+        double bound = 1;
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = (long) Math.ceil(bound);
+            bound = Math.max(bound * 1.2, bounds[i] + 1);
+        }
+        return bounds;
+    }
+
+    /**
+     * @param millis the latency to record, in milliseconds
+     */
+    public void record(long millis) {
+        counts.incrementAndGet(bucketOf(millis));
+        count.increment();
+        sumMillis.add(millis);
+    }
+
+    public void recordNanos(long nanos) {
+        record(nanos / 1_000_000);
+    }
+
+    /**
+     * @param percentile the percentile to compute, between 0 and 1. Example: 0.95
+     * @return the upper bound of the bucket holding the percentile in milliseconds, or -1 if nothing was recorded
+     */
+    public long percentile(double percentile) {
+        long total = count.sum();
+        if (total == 0) return -1;
+
+        long threshold = (long) Math.ceil(total * percentile);
+        long cumulative = 0;
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= threshold) return BOUNDS_MILLIS[i];
+        }
+        return BOUNDS_MILLIS[BOUNDS_MILLIS.length - 1];
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public HistogramSnapshot snapshot() {
+        long total = count.sum();
+        return new HistogramSnapshot(total, total == 0 ? 0 : (double) sumMillis.sum() / total,
+                percentile(0.5), percentile(0.95), percentile(0.99));
+    }
+
+    private static int bucketOf(long millis) {
+        int low = 0;
+        int high = BOUNDS_MILLIS.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (BOUNDS_MILLIS[mid] < millis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
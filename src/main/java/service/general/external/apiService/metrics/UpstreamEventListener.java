@@ -0,0 +1,124 @@
+package service.general.external.apiService.metrics;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+/**
+ * Times the phases of a single call. OkHttp creates one listener per call and delivers its events one at a time.
+ */
+final class UpstreamEventListener extends EventListener {
+
+    private final UpstreamMetricsImpl.EndpointRecorder recorder;
+
+    private long callStart;
+    private long dnsStart;
+    private long connectStart;
+    private long secureConnectStart;
+    private long requestStart;
+    private long bodyStart;
+    private boolean queued;
+    private boolean newConnection;
+
+    UpstreamEventListener(UpstreamMetricsImpl.EndpointRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+        queued = true;
+    }
+
+    @Override
+    public void proxySelectStart(Call call, HttpUrl url) {
+        endQueue();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        endQueue();
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        recorder.record(UpstreamPhase.DNS, System.nanoTime() - dnsStart);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        endQueue();
+        newConnection = true;
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        recorder.record(UpstreamPhase.TLS, System.nanoTime() - secureConnectStart);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        recorder.record(UpstreamPhase.CONNECT, System.nanoTime() - connectStart);
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        endQueue();
+        recorder.connectionAcquired(!newConnection);
+        newConnection = false;
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        requestStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        recorder.record(UpstreamPhase.TTFB, System.nanoTime() - requestStart);
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        bodyStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        recorder.record(UpstreamPhase.BODY_READ, System.nanoTime() - bodyStart);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        recorder.record(UpstreamPhase.TOTAL, System.nanoTime() - callStart);
+        recorder.callEnded(false);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        recorder.record(UpstreamPhase.TOTAL, System.nanoTime() - callStart);
+        recorder.callEnded(true);
+    }
+
+    private void endQueue() {
+        if (!queued) return;
+        queued = false;
+        recorder.record(UpstreamPhase.QUEUE, System.nanoTime() - callStart);
+    }
+}
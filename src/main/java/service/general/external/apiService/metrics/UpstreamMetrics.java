@@ -0,0 +1,44 @@
+package service.general.external.apiService.metrics;
+
+import okhttp3.ConnectionPool;
+import okhttp3.EventListener;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Records per-endpoint, per-phase latency of upstream calls.
+ */
+public interface UpstreamMetrics {
+
+    /**
+     * @return the listener factory to install on the OkHttp client. Calls are attributed to the endpoint of their RequestKey tag.
+     */
+    EventListener.Factory eventListenerFactory();
+
+    /**
+     * Reports the state of the connection pool in {@link #connectionPool()}.
+     *
+     * @param connectionPool the pool of the OkHttp client
+     */
+    void monitor(ConnectionPool connectionPool);
+
+    /**
+     * Runs and times the decoding of a response.
+     *
+     * @param endpoint the endpoint the response came from. Example: "fixtures"
+     * @param parse    decodes the response
+     * @return the result of the decoding
+     */
+    <T> T timeParse(String endpoint, Supplier<T> parse);
+
+    /**
+     * @return the stats of every endpoint called so far, keyed by endpoint
+     */
+    Map<String, EndpointUpstreamStats> stats();
+
+    /**
+     * @return the current state of the connection pool, or null if no pool is monitored
+     */
+    ConnectionPoolStats connectionPool();
+}
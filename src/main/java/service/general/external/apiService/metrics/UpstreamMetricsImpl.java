@@ -0,0 +1,108 @@
+package service.general.external.apiService.metrics;
+
+import okhttp3.ConnectionPool;
+import okhttp3.EventListener;
+import org.springframework.stereotype.Component;
+import service.general.external.apiService.RequestKey;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+@Component
+public class UpstreamMetricsImpl implements UpstreamMetrics {
+
+    // calls without a RequestKey tag, such as the token check
+    private static final String UNTAGGED = "other";
+
+    private final Map<String, EndpointRecorder> endpoints = new ConcurrentHashMap<>();
+    private volatile ConnectionPool connectionPool;
+
+    @Override
+    public EventListener.Factory eventListenerFactory() {
+        return call -> {
+            RequestKey key = call.request().tag(RequestKey.class);
+            return new UpstreamEventListener(recorder(key == null ? UNTAGGED : key.endpoint()));
+        };
+    }
+
+    @Override
+    public void monitor(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    @Override
+    public <T> T timeParse(String endpoint, Supplier<T> parse) {
+        long start = System.nanoTime();
+        try {
+            return parse.get();
+        } finally {
+            recorder(endpoint).record(UpstreamPhase.PARSE, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Map<String, EndpointUpstreamStats> stats() {
+        Map<String, EndpointUpstreamStats> stats = new TreeMap<>();
+        endpoints.forEach((endpoint, recorder) -> stats.put(endpoint, recorder.stats()));
+        return stats;
+    }
+
+    @Override
+    public ConnectionPoolStats connectionPool() {
+        ConnectionPool pool = connectionPool;
+        return pool == null ? null : new ConnectionPoolStats(pool.connectionCount(), pool.idleConnectionCount());
+    }
+
+    private EndpointRecorder recorder(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, ignored -> new EndpointRecorder());
+    }
+
+    /**
+     * Histograms and counters of one endpoint.
+     */
+    static final class EndpointRecorder {
+
+        private final Map<UpstreamPhase, LatencyHistogram> phases = new EnumMap<>(UpstreamPhase.class);
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder acquired = new LongAdder();
+        private final LongAdder reused = new LongAdder();
+
+        EndpointRecorder() {
+            // filled up front, so the map is only read afterwards
+            for (UpstreamPhase phase : UpstreamPhase.values()) {
+                phases.put(phase, new LatencyHistogram());
+            }
+        }
+
+        void record(UpstreamPhase phase, long nanos) {
+            phases.get(phase).recordNanos(nanos);
+        }
+
+        void connectionAcquired(boolean fromPool) {
+            acquired.increment();
+            if (fromPool) reused.increment();
+        }
+
+        void callEnded(boolean failed) {
+            calls.increment();
+            if (failed) failures.increment();
+        }
+
+        EndpointUpstreamStats stats() {
+            Map<UpstreamPhase, HistogramSnapshot> snapshots = new EnumMap<>(UpstreamPhase.class);
+            phases.forEach((phase, histogram) -> {
+                if (histogram.count() > 0) snapshots.put(phase, histogram.snapshot());
+            });
+
+            long acquiredCount = acquired.sum();
+            long reusedCount = reused.sum();
+            return new EndpointUpstreamStats(calls.sum(), failures.sum(), acquiredCount, reusedCount,
+                    acquiredCount == 0 ? 0 : (double) reusedCount / acquiredCount, snapshots);
+        }
+    }
+}
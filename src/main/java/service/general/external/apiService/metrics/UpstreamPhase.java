@@ -0,0 +1,20 @@
+package service.general.external.apiService.metrics;
+
+/**
+ * The phases an upstream call is timed in.
+ */
+public enum UpstreamPhase {
+    /** from enqueueing the call until it starts looking for a connection */
+    QUEUE,
+    DNS,
+    /** TCP and TLS connect, only for calls that open a new connection */
+    CONNECT,
+    TLS,
+    /** from sending the request headers until the response headers start to arrive */
+    TTFB,
+    BODY_READ,
+    /** decoding the body into domain objects */
+    PARSE,
+    /** the whole call, from enqueueing until the body was read */
+    TOTAL
+}
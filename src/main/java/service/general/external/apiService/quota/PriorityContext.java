@@ -0,0 +1,45 @@
+package service.general.external.apiService.quota;
+
+/**
+ * Holds the priority of the upstream calls made by the current thread.
+ *
+ * <p>Calls made outside of a scope are treated as {@link RequestPriority#BROWSE}.
+ * Scopes are opened with try-with-resources and restore the previous priority when closed:</p>
+ * <pre>
+ * try (PriorityContext.Scope ignored = PriorityContext.open(RequestPriority.SETTLEMENT)) {
+ *     fixtureService.getFixtureByID(fixtureId);
+ * }
+ * </pre>
+ */
+public final class PriorityContext {
+
+    private static final ThreadLocal<RequestPriority> current = ThreadLocal.withInitial(() -> RequestPriority.BROWSE);
+
+    private PriorityContext() {
+    }
+
+    /**
+     * @return the priority of the current thread
+     */
+    public static RequestPriority current() {
+        return current.get();
+    }
+
+    /**
+     * Sets the priority of the current thread until the returned scope is closed.
+     *
+     * @param priority the priority to use
+     * @return the scope to close
+     */
+    public static Scope open(RequestPriority priority) {
+        RequestPriority previous = current.get();
+        current.set(priority);
+        return () -> current.set(previous);
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
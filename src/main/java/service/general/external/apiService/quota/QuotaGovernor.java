@@ -0,0 +1,41 @@
+package service.general.external.apiService.quota;
+
+import common.exception.gen.RateLimitException;
+import service.general.external.apiService.RequestKey;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spends the api-sports request quota by priority.
+ */
+public interface QuotaGovernor {
+
+    /**
+     * Admits an upstream call, taking one request from the quota.
+     *
+     * @param key      the request about to be sent
+     * @param priority the priority of the caller
+     * @throws RateLimitException if the remaining quota is reserved for higher priorities
+     */
+    void acquire(RequestKey key, RequestPriority priority) throws RateLimitException;
+
+    /**
+     * Updates the quota from the rate-limit headers of a response.
+     *
+     * @param headers the headers of the response, successful or not
+     */
+    void record(Map<String, List<String>> headers);
+
+    /**
+     * Marks the quota as exhausted after the API rejected a call for exceeding it.
+     *
+     * @param daily true if the daily quota is exhausted, false if the per-minute quota is
+     */
+    void exhausted(boolean daily);
+
+    /**
+     * @return the current quota and counters
+     */
+    QuotaStats stats();
+}
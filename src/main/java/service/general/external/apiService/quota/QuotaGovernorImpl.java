@@ -0,0 +1,152 @@
+package service.general.external.apiService.quota;
+
+import common.exception.gen.RateLimitException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import service.general.external.apiService.RequestKey;
+
+import javax.annotation.PostConstruct;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token-bucket implementation of the QuotaGovernor.
+ *
+ * <p>api-sports limits requests per day and per minute, and reports what is left in every response:
+ * x-ratelimit-requests-limit and x-ratelimit-requests-remaining for the day,
+ * X-RateLimit-Limit and X-RateLimit-Remaining for the minute.
+ * Each limit is tracked by a token bucket that is corrected by those headers after every call.</p>
+ *
+ * <p>A call is admitted only if the buckets keep the reserve of its priority after taking a token.
+ * Settlement has no reserve and can use the quota down to the last request.</p>
+ */
+@Component
+public class QuotaGovernorImpl implements QuotaGovernor {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuotaGovernorImpl.class);
+
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+    private static final long MINUTE_MILLIS = 60 * 1000L;
+
+    @Value("${api.quota.daily-limit:7500}")
+    private long initialDailyLimit;
+
+    @Value("${api.quota.minute-limit:300}")
+    private long initialMinuteLimit;
+
+    @Value("${api.quota.reserve.bet-validation:0.05}")
+    private double betValidationReserve;
+
+    @Value("${api.quota.reserve.browse:0.25}")
+    private double browseReserve;
+
+    private TokenBucket dailyBucket;
+    private TokenBucket minuteBucket;
+
+    private final Map<RequestPriority, LongAdder> admitted = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, LongAdder> rejected = new EnumMap<>(RequestPriority.class);
+
+    public QuotaGovernorImpl() {
+        for (RequestPriority priority : RequestPriority.values()) {
+            admitted.put(priority, new LongAdder());
+            rejected.put(priority, new LongAdder());
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        dailyBucket = new TokenBucket(initialDailyLimit, DAY_MILLIS);
+        minuteBucket = new TokenBucket(initialMinuteLimit, MINUTE_MILLIS);
+    }
+
+    @Override
+    public void acquire(RequestKey key, RequestPriority priority) throws RateLimitException {
+        double reserveFraction = reserveFraction(priority);
+        boolean admittedCall;
+        long retryAfterMillis = 0;
+
+        synchronized (this) {
+            double dailyReserve = dailyBucket.capacity() * reserveFraction;
+            double minuteReserve = minuteBucket.capacity() * reserveFraction;
+
+            // check both buckets before taking from either, so a rejection does not spend a token
+            admittedCall = dailyBucket.available() - 1 >= dailyReserve && minuteBucket.available() - 1 >= minuteReserve
+                    && dailyBucket.tryAcquire(dailyReserve) && minuteBucket.tryAcquire(minuteReserve);
+            if (!admittedCall) {
+                retryAfterMillis = Math.max(dailyBucket.millisUntil(dailyReserve + 1), minuteBucket.millisUntil(minuteReserve + 1));
+            }
+        }
+
+        if (!admittedCall) {
+            rejected.get(priority).increment();
+            logger.warn("Rejected {} call to {}: remaining quota is reserved for higher priorities", priority, key);
+            throw new RateLimitException("Football API quota reserved for higher priority requests",
+                    Math.max(1, (retryAfterMillis + 999) / 1000));
+        }
+
+        admitted.get(priority).increment();
+    }
+
+    @Override
+    public void record(Map<String, List<String>> headers) {
+        long dailyRemaining = parse(headers, "x-ratelimit-requests-remaining");
+        long minuteRemaining = parse(headers, "X-RateLimit-Remaining");
+
+        synchronized (this) {
+            if (dailyRemaining >= 0) {
+                dailyBucket.reconcile(parse(headers, "x-ratelimit-requests-limit"), dailyRemaining);
+            }
+            if (minuteRemaining >= 0) {
+                minuteBucket.reconcile(parse(headers, "X-RateLimit-Limit"), minuteRemaining);
+            }
+        }
+    }
+
+    @Override
+    public void exhausted(boolean daily) {
+        logger.warn("Football API reported the {} quota as exhausted", daily ? "daily" : "per-minute");
+        synchronized (this) {
+            if (daily) {
+                dailyBucket.drain();
+            } else {
+                minuteBucket.drain();
+            }
+        }
+    }
+
+    @Override
+    public QuotaStats stats() {
+        Map<RequestPriority, Long> admittedCounts = new EnumMap<>(RequestPriority.class);
+        Map<RequestPriority, Long> rejectedCounts = new EnumMap<>(RequestPriority.class);
+        admitted.forEach((priority, count) -> admittedCounts.put(priority, count.sum()));
+        rejected.forEach((priority, count) -> rejectedCounts.put(priority, count.sum()));
+
+        synchronized (this) {
+            return new QuotaStats(dailyBucket.capacity(), dailyBucket.available(),
+                    minuteBucket.capacity(), minuteBucket.available(),
+                    admittedCounts, rejectedCounts);
+        }
+    }
+
+    private double reserveFraction(RequestPriority priority) {
+        return switch (priority) {
+            case SETTLEMENT -> 0;
+            case BET_VALIDATION -> betValidationReserve;
+            case BROWSE -> browseReserve;
+        };
+    }
+
+    private static long parse(Map<String, List<String>> headers, String name) {
+        List<String> values = headers.get(name);
+        if (values == null || values.isEmpty()) return -1;
+        try {
+            return Long.parseLong(values.get(0).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
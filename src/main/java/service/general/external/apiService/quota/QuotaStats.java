@@ -0,0 +1,23 @@
+package service.general.external.apiService.quota;
+
+import java.util.Map;
+
+/**
+ * Snapshot of the quota governor.
+ *
+ * @param dailyLimit      requests allowed per day
+ * @param dailyAvailable  requests the governor still admits today
+ * @param minuteLimit     requests allowed per minute
+ * @param minuteAvailable requests the governor still admits this minute
+ * @param admitted        admitted calls per priority
+ * @param rejected        rejected calls per priority
+ */
+public record QuotaStats(
+        long dailyLimit,
+        long dailyAvailable,
+        long minuteLimit,
+        long minuteAvailable,
+        Map<RequestPriority, Long> admitted,
+        Map<RequestPriority, Long> rejected
+) {
+}
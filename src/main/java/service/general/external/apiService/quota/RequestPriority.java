@@ -0,0 +1,12 @@
+package service.general.external.apiService.quota;
+
+/**
+ * Priority classes for upstream calls, from most to least important.
+ * Lower priorities leave a larger share of the remaining quota untouched,
+ * so that money-moving paths can still reach the API when quota runs low.
+ */
+public enum RequestPriority {
+    SETTLEMENT, // settling and claiming bets
+    BET_VALIDATION, // validating fixtures and odds while placing a bet
+    BROWSE // everything users look at without moving money
+}
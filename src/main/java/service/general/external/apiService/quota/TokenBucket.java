@@ -0,0 +1,76 @@
+package service.general.external.apiService.quota;
+
+/**
+ * Token bucket that refills continuously over a fixed period.
+ * Not thread-safe, callers synchronize access.
+ */
+final class TokenBucket {
+
+    private final long periodMillis;
+    private long capacity;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(long capacity, long periodMillis) {
+        this.capacity = capacity;
+        this.periodMillis = periodMillis;
+        this.tokens = capacity;
+        this.lastRefill = System.currentTimeMillis();
+    }
+
+    /**
+     * Takes a token if at least {@code reserve} tokens would remain afterwards.
+     *
+     * @param reserve the number of tokens that must stay in the bucket
+     * @return true if a token was taken
+     */
+    boolean tryAcquire(double reserve) {
+        refill();
+        if (tokens - 1 < reserve) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * Aligns the bucket with the limits reported by the API.
+     * The API is the source of truth, so the bucket never holds more tokens than the API says remain.
+     *
+     * @param limit     the limit reported by the API, or -1 if unknown
+     * @param remaining the remaining requests reported by the API
+     */
+    void reconcile(long limit, long remaining) {
+        refill();
+        if (limit > 0) capacity = limit;
+        tokens = Math.min(tokens, Math.max(0, remaining));
+    }
+
+    void drain() {
+        refill();
+        tokens = 0;
+    }
+
+    /**
+     * @param needed the number of tokens wanted in the bucket
+     * @return how long until the bucket holds that many tokens, 0 if it already does
+     */
+    long millisUntil(double needed) {
+        refill();
+        if (tokens >= needed || capacity <= 0) return 0;
+        return (long) Math.ceil((needed - tokens) * periodMillis / capacity);
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    long available() {
+        refill();
+        return (long) tokens;
+    }
+
+    private void refill() {
+        long now = System.currentTimeMillis();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * ((double) capacity / periodMillis));
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,115 @@
+package service.general.external.apiService.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Count-based circuit breaker over a sliding window of the most recent calls.
+ *
+ * <p>The breaker opens when at least {@code minimumCalls} calls are in the window
+ * and the share of failures reaches the threshold. After the open duration,
+ * a single trial call is let through: success closes the breaker, failure opens it again.</p>
+ */
+final class CircuitBreaker {
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationMillis;
+
+    private int index;
+    private int calls;
+    private int failures;
+
+    private CircuitState state = CircuitState.CLOSED;
+    private long openedAt;
+    private boolean trialInFlight;
+    private long opens;
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long openDurationMillis) {
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationMillis = openDurationMillis;
+    }
+
+    /**
+     * @return true if a call may be sent now
+     */
+    synchronized boolean tryAcquirePermission() {
+        if (state == CircuitState.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openDurationMillis) return false;
+            state = CircuitState.HALF_OPEN;
+            trialInFlight = false;
+        }
+
+        if (state == CircuitState.HALF_OPEN) {
+            if (trialInFlight) return false;
+            trialInFlight = true;
+        }
+
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if (state == CircuitState.HALF_OPEN) {
+            state = CircuitState.CLOSED;
+            resetWindow();
+            return;
+        }
+        record(false);
+    }
+
+    synchronized void onFailure() {
+        if (state == CircuitState.HALF_OPEN) {
+            open();
+            return;
+        }
+
+        record(true);
+        if (calls >= minimumCalls && (double) failures / calls >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * Releases the permission of a call whose outcome says nothing about the API's health,
+     * such as a call rejected by the quota governor.
+     */
+    synchronized void onIgnored() {
+        if (state == CircuitState.HALF_OPEN) trialInFlight = false;
+    }
+
+    synchronized CircuitState state() {
+        return state;
+    }
+
+    synchronized long opens() {
+        return opens;
+    }
+
+    private void record(boolean failed) {
+        if (calls == window.length) {
+            if (window[index]) failures--;
+        } else {
+            calls++;
+        }
+
+        window[index] = failed;
+        if (failed) failures++;
+        index = (index + 1) % window.length;
+    }
+
+    private void open() {
+        state = CircuitState.OPEN;
+        openedAt = System.currentTimeMillis();
+        opens++;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        index = 0;
+        calls = 0;
+        failures = 0;
+        Arrays.fill(window, false);
+    }
+}
@@ -0,0 +1,7 @@
+package service.general.external.apiService.resilience;
+
+public enum CircuitState {
+    CLOSED, // calls flow normally
+    OPEN, // calls are rejected until the open duration has passed
+    HALF_OPEN // a single trial call decides whether to close or open again
+}
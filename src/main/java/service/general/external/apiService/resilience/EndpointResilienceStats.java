@@ -0,0 +1,25 @@
+package service.general.external.apiService.resilience;
+
+import service.general.external.apiService.metrics.HistogramSnapshot;
+
+/**
+ * Resilience counters of a single endpoint.
+ *
+ * @param state       current circuit breaker state
+ * @param opens       number of times the breaker opened
+ * @param rejected    calls rejected while the breaker was open
+ * @param retries     retries sent after a failed attempt
+ * @param hedgesFired hedged attempts sent because the first attempt was slow
+ * @param hedgesWon   hedged attempts that answered before the first attempt
+ * @param latency     latency of successful attempts
+ */
+public record EndpointResilienceStats(
+        CircuitState state,
+        long opens,
+        long rejected,
+        long retries,
+        long hedgesFired,
+        long hedgesWon,
+        HistogramSnapshot latency
+) {
+}
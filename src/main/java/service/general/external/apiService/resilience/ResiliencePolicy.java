@@ -0,0 +1,31 @@
+package service.general.external.apiService.resilience;
+
+import service.general.external.apiService.ApiResponse;
+import service.general.external.apiService.RequestKey;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Protects the application from a slow or failing API.
+ */
+public interface ResiliencePolicy {
+
+    /**
+     * Runs a call through the circuit breaker of its endpoint.
+     * Idempotent calls are also retried with backoff, and hedged when hedging is enabled.
+     *
+     * @param key        the request
+     * @param idempotent true if the call may be sent more than once, which holds for GET requests
+     * @param attempt    sends one attempt of the call
+     * @return a future completed with the first successful response, or with the last failure.
+     * Fails with CircuitOpenException when the breaker rejects the call.
+     */
+    CompletableFuture<ApiResponse> execute(RequestKey key, boolean idempotent, Supplier<CompletableFuture<ApiResponse>> attempt);
+
+    /**
+     * @return the counters of every endpoint called so far, keyed by endpoint
+     */
+    Map<String, EndpointResilienceStats> stats();
+}
@@ -0,0 +1,253 @@
+package service.general.external.apiService.resilience;
+
+import common.exception.gen.RateLimitException;
+import common.exception.gen.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import service.general.external.apiService.ApiResponse;
+import service.general.external.apiService.RequestKey;
+import service.general.external.apiService.exception.CircuitOpenException;
+import service.general.external.apiService.exception.HttpStatusException;
+import service.general.external.apiService.metrics.LatencyHistogram;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker, retry and hedging implementation of the ResiliencePolicy.
+ *
+ * <p>Retries use exponential backoff with full jitter: the n-th retry waits a random time
+ * between zero and min(maxBackoff, baseBackoff * 2^n). Only network errors and 5xx responses are retried.</p>
+ *
+ * <p>When hedging is enabled, a second attempt is sent if the first has not answered within
+ * the endpoint's p95 latency. The first successful answer wins and the other attempt is cancelled.</p>
+ */
+@Component
+public class ResiliencePolicyImpl implements ResiliencePolicy {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResiliencePolicyImpl.class);
+
+    /** Hedging starts only once an endpoint has enough samples for a meaningful p95. */
+    private static final long MIN_HEDGE_SAMPLES = 20;
+
+    @Value("${api.resilience.breaker.window-size:20}")
+    private int breakerWindowSize;
+
+    @Value("${api.resilience.breaker.minimum-calls:10}")
+    private int breakerMinimumCalls;
+
+    @Value("${api.resilience.breaker.failure-rate-threshold:0.5}")
+    private double breakerFailureRateThreshold;
+
+    @Value("${api.resilience.breaker.open-duration-ms:30000}")
+    private long breakerOpenDurationMillis;
+
+    @Value("${api.resilience.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${api.resilience.retry.base-backoff-ms:200}")
+    private long baseBackoffMillis;
+
+    @Value("${api.resilience.retry.max-backoff-ms:2000}")
+    private long maxBackoffMillis;
+
+    @Value("${api.resilience.hedge.enabled:false}")
+    private boolean hedgingEnabled;
+
+    @Value("${api.resilience.hedge.min-delay-ms:50}")
+    private long minHedgeDelayMillis;
+
+    private final Map<String, EndpointState> endpoints = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "api-resilience");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public CompletableFuture<ApiResponse> execute(RequestKey key, boolean idempotent, Supplier<CompletableFuture<ApiResponse>> attempt) {
+        EndpointState endpoint = endpoints.computeIfAbsent(key.endpoint(), e -> new EndpointState(
+                new CircuitBreaker(breakerWindowSize, breakerMinimumCalls, breakerFailureRateThreshold, breakerOpenDurationMillis)));
+
+        if (!endpoint.breaker.tryAcquirePermission()) {
+            endpoint.rejected.increment();
+            return CompletableFuture.failedFuture(new CircuitOpenException("Circuit breaker open for endpoint " + key.endpoint()));
+        }
+
+        CompletableFuture<ApiResponse> result = new CompletableFuture<>();
+        runAttempt(key, endpoint, idempotent, attempt, 1, result);
+        return result;
+    }
+
+    @Override
+    public Map<String, EndpointResilienceStats> stats() {
+        Map<String, EndpointResilienceStats> stats = new TreeMap<>();
+        endpoints.forEach((name, endpoint) -> stats.put(name, new EndpointResilienceStats(
+                endpoint.breaker.state(),
+                endpoint.breaker.opens(),
+                endpoint.rejected.sum(),
+                endpoint.retries.sum(),
+                endpoint.hedgesFired.sum(),
+                endpoint.hedgesWon.sum(),
+                endpoint.latency.snapshot())));
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void runAttempt(RequestKey key, EndpointState endpoint, boolean idempotent,
+                            Supplier<CompletableFuture<ApiResponse>> attempt, int attemptNumber,
+                            CompletableFuture<ApiResponse> result) {
+        long start = System.nanoTime();
+        CompletableFuture<ApiResponse> call = idempotent && hedgingEnabled ? hedged(endpoint, attempt) : start(attempt);
+
+        // a caller that gives up cancels the attempt, which cancels the HTTP call
+        result.whenComplete((response, throwable) -> {
+            if (result.isCancelled()) call.cancel(true);
+        });
+
+        call.whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                endpoint.latency.recordNanos(System.nanoTime() - start);
+                endpoint.breaker.onSuccess();
+                result.complete(response);
+                return;
+            }
+
+            Throwable cause = unwrap(throwable);
+
+            if (!countsAsFailure(cause)) {
+                endpoint.breaker.onIgnored();
+                result.completeExceptionally(cause);
+                return;
+            }
+
+            endpoint.breaker.onFailure();
+
+            if (!idempotent || attemptNumber >= maxAttempts || result.isDone() || !isRetryable(cause)
+                    || !endpoint.breaker.tryAcquirePermission()) {
+                result.completeExceptionally(cause);
+                return;
+            }
+
+            endpoint.retries.increment();
+            long backoff = backoffMillis(attemptNumber);
+            logger.debug("Retrying {} in {} ms after attempt {} failed: {}", key, backoff, attemptNumber, cause.getMessage());
+            scheduler.schedule(() -> runAttempt(key, endpoint, true, attempt, attemptNumber + 1, result),
+                    backoff, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private CompletableFuture<ApiResponse> hedged(EndpointState endpoint, Supplier<CompletableFuture<ApiResponse>> attempt) {
+        CompletableFuture<ApiResponse> primary = start(attempt);
+
+        if (endpoint.latency.count() < MIN_HEDGE_SAMPLES) return primary;
+        long delay = Math.max(minHedgeDelayMillis, endpoint.latency.percentile(0.95));
+
+        CompletableFuture<ApiResponse> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        AtomicReference<CompletableFuture<ApiResponse>> hedge = new AtomicReference<>();
+
+        primary.whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                result.complete(response);
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(throwable);
+            }
+        });
+
+        ScheduledFuture<?> timer = scheduler.schedule(() -> {
+            if (result.isDone()) return;
+
+            pending.incrementAndGet();
+            endpoint.hedgesFired.increment();
+
+            CompletableFuture<ApiResponse> second = start(attempt);
+            hedge.set(second);
+            second.whenComplete((response, throwable) -> {
+                if (throwable == null) {
+                    if (result.complete(response)) endpoint.hedgesWon.increment();
+                } else if (pending.decrementAndGet() == 0) {
+                    result.completeExceptionally(throwable);
+                }
+            });
+        }, delay, TimeUnit.MILLISECONDS);
+
+        // the loser is cancelled, which also cancels its HTTP call
+        result.whenComplete((response, throwable) -> {
+            timer.cancel(false);
+            primary.cancel(true);
+            CompletableFuture<ApiResponse> second = hedge.get();
+            if (second != null) second.cancel(true);
+        });
+
+        return result;
+    }
+
+    private static CompletableFuture<ApiResponse> start(Supplier<CompletableFuture<ApiResponse>> attempt) {
+        try {
+            return attempt.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private long backoffMillis(int attemptNumber) {
+        long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attemptNumber - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Quota rejections, cancelled calls, exceeded request deadlines and client errors say nothing about the API's health.
+     */
+    private static boolean countsAsFailure(Throwable cause) {
+        if (cause instanceof RateLimitException || cause instanceof CancellationException || cause instanceof TimeoutException) return false;
+        Throwable root = cause.getCause() != null ? cause.getCause() : cause;
+        if (root instanceof HttpStatusException httpStatusException) return httpStatusException.isTransient();
+        return true;
+    }
+
+    private static boolean isRetryable(Throwable cause) {
+        Throwable root = cause.getCause() != null ? cause.getCause() : cause;
+        if (root instanceof HttpStatusException httpStatusException) return httpStatusException.isTransient();
+        return root instanceof IOException;
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+
+    private static final class EndpointState {
+        private final CircuitBreaker breaker;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder hedgesFired = new LongAdder();
+        private final LongAdder hedgesWon = new LongAdder();
+
+        private EndpointState(CircuitBreaker breaker) {
+            this.breaker = breaker;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package service.general.external.apiService.simulator;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Stands in for api-sports, so the application can be run and load-tested without spending quota.
+ */
+public interface FootballApiSimulator {
+
+    /**
+     * Answers a request the way api-sports would, from a recorded response if one exists, or from generated data.
+     * The future completes after the configured latency, or never within the client's timeout when a timeout is injected.
+     *
+     * @param endpoint the endpoint. Supported: "fixtures", "odds", "leagues", "status"
+     * @param params   the query parameters
+     * @return a future completed with the response
+     */
+    CompletableFuture<SimulatedResponse> handle(String endpoint, Map<String, String> params);
+}
@@ -0,0 +1,337 @@
+package service.general.external.apiService.simulator;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import service.general.external.apiService.RequestKey;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulator active in the "simulator" profile.
+ *
+ * <p>Each request takes a latency drawn from the configured distribution, and counts against a per-minute and
+ * a daily limit reported in the same headers api-sports uses. Errors can be injected at configurable rates:
+ * server errors, quota errors in a 200 response, and timeouts.</p>
+ */
+@Service
+@Profile("simulator")
+public class FootballApiSimulatorImpl implements FootballApiSimulator {
+
+    private static final Logger logger = LoggerFactory.getLogger(FootballApiSimulatorImpl.class);
+
+    // z-score of the 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.326;
+    private static final int ODDS_PAGE_SIZE = 10;
+
+    // api-sports sends unknown values as null rather than leaving them out
+    private static final Gson gson = new GsonBuilder().serializeNulls().create();
+
+    @Value("${api.simulator.replay:true}")
+    private boolean replay;
+
+    @Value("${api.simulator.recordings-dir:recordings}")
+    private String recordingsDir;
+
+    @Value("${api.simulator.fixtures-per-league:40}")
+    private int fixturesPerLeague;
+
+    @Value("${api.simulator.fixture-spacing-minutes:120}")
+    private long fixtureSpacingMinutes;
+
+    @Value("${bookmaker:27}")
+    private int defaultBookmaker;
+
+    // fixed, uniform or lognormal
+    @Value("${api.simulator.latency.distribution:lognormal}")
+    private String latencyDistribution;
+
+    @Value("${api.simulator.latency.median-ms:120}")
+    private long latencyMedianMillis;
+
+    @Value("${api.simulator.latency.p99-ms:800}")
+    private long latencyP99Millis;
+
+    @Value("${api.simulator.error-rate:0.0}")
+    private double errorRate;
+
+    @Value("${api.simulator.quota-error-rate:0.0}")
+    private double quotaErrorRate;
+
+    @Value("${api.simulator.timeout-rate:0.0}")
+    private double timeoutRate;
+
+    @Value("${api.simulator.timeout-delay-ms:30000}")
+    private long timeoutDelayMillis;
+
+    @Value("${api.simulator.minute-limit:300}")
+    private int minuteLimit;
+
+    @Value("${api.simulator.daily-limit:7500}")
+    private int dailyLimit;
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "api-simulator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SimulatedData data;
+
+    private long currentMinute; // guarded by this
+    private long currentDay; // guarded by this
+    private int minuteUsed; // guarded by this
+    private int dailyUsed; // guarded by this
+
+    @PostConstruct
+    public void init() {
+        data = new SimulatedData(System.currentTimeMillis(), TimeUnit.MINUTES.toMillis(fixtureSpacingMinutes), fixturesPerLeague);
+        logger.info("Football API simulator started, latency {} (median {} ms, p99 {} ms), replaying recordings: {}",
+                latencyDistribution, latencyMedianMillis, latencyP99Millis, replay);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public CompletableFuture<SimulatedResponse> handle(String endpoint, Map<String, String> params) {
+        SimulatedResponse response = respond(endpoint, params);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = random.nextDouble() < timeoutRate ? timeoutDelayMillis : sampleLatency(random);
+
+        CompletableFuture<SimulatedResponse> future = new CompletableFuture<>();
+        scheduler.schedule(() -> future.complete(response), delay, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    private SimulatedResponse respond(String endpoint, Map<String, String> params) {
+        // the status endpoint does not count against the quota
+        if (endpoint.equals("status")) return new SimulatedResponse(200, Map.of(), status());
+
+        int minuteRemaining;
+        int dailyRemaining;
+        boolean minuteExceeded;
+        boolean dailyExceeded;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (now / 60_000 != currentMinute) {
+                currentMinute = now / 60_000;
+                minuteUsed = 0;
+            }
+            if (now / 86_400_000 != currentDay) {
+                currentDay = now / 86_400_000;
+                dailyUsed = 0;
+            }
+            minuteRemaining = Math.max(0, minuteLimit - ++minuteUsed);
+            dailyRemaining = Math.max(0, dailyLimit - ++dailyUsed);
+            minuteExceeded = minuteUsed > minuteLimit;
+            dailyExceeded = dailyUsed > dailyLimit;
+        }
+
+        Map<String, String> headers = Map.of(
+                "x-ratelimit-requests-limit", String.valueOf(dailyLimit),
+                "x-ratelimit-requests-remaining", String.valueOf(dailyRemaining),
+                "X-RateLimit-Limit", String.valueOf(minuteLimit),
+                "X-RateLimit-Remaining", String.valueOf(minuteRemaining));
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (minuteExceeded) {
+            return new SimulatedResponse(429, headers, "{\"message\":\"Too many requests\"}");
+        }
+        if (dailyExceeded) {
+            return new SimulatedResponse(200, headers, errorEnvelope(endpoint, params, "requests",
+                    "You have reached the request limit for the day"));
+        }
+        if (random.nextDouble() < errorRate) {
+            return new SimulatedResponse(500, headers, "{\"message\":\"Internal server error\"}");
+        }
+        if (random.nextDouble() < quotaErrorRate) {
+            return new SimulatedResponse(200, headers, errorEnvelope(endpoint, params, "rateLimit",
+                    "Too many requests. Your rate limit is " + minuteLimit + " requests per minute."));
+        }
+
+        String recorded = recorded(endpoint, params);
+        return new SimulatedResponse(200, headers, recorded != null ? recorded : generate(endpoint, params));
+    }
+
+    private String recorded(String endpoint, Map<String, String> params) {
+        if (!replay) return null;
+
+        Path file = RecordingFiles.resolve(Paths.get(recordingsDir), RequestKey.of(endpoint, params));
+        if (!Files.isRegularFile(file)) return null;
+        try {
+            return Files.readString(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Failed to read recording {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private String generate(String endpoint, Map<String, String> params) {
+        return switch (endpoint) {
+            case "fixtures" -> envelope(endpoint, params, fixtures(params), 1, 1);
+            case "odds" -> odds(params);
+            case "leagues" -> envelope(endpoint, params,
+                    data.leagues(intParam(params, "id", -1), params.get("country")), 1, 1);
+            default -> errorEnvelope(endpoint, params, "endpoint", "This endpoint do not exist.");
+        };
+    }
+
+    private List<JsonObject> fixtures(Map<String, String> params) {
+        if (params.containsKey("id")) return List.of(data.fixture(intParam(params, "id", -1)));
+
+        if (params.containsKey("ids")) {
+            return splitIds(params.get("ids")).stream().map(data::fixture).toList();
+        }
+
+        if (params.containsKey("live")) {
+            String live = params.get("live");
+            List<Integer> leagues = live.equals("all") ? data.supportedLeagueIds() : splitIds(live);
+            return leagues.stream()
+                    .flatMap(league -> data.fixturesOfLeague(league, data.currentSeason(league)).stream())
+                    .filter(fixture -> isLive(fixture.getAsJsonObject("fixture").getAsJsonObject("status").get("short").getAsString()))
+                    .toList();
+        }
+
+        int league = intParam(params, "league", -1);
+        if (league == -1) return List.of();
+        return data.fixturesOfLeague(league, intParam(params, "season", data.currentSeason(league)));
+    }
+
+    private String odds(Map<String, String> params) {
+        int bet = intParam(params, "bet", -1);
+        int bookmaker = intParam(params, "bookmaker", defaultBookmaker);
+
+        if (params.containsKey("fixture")) {
+            JsonObject odds = data.odds(intParam(params, "fixture", -1), bet, bookmaker);
+            return envelope("odds", params, odds == null ? List.of() : List.of(odds), 1, 1);
+        }
+
+        int league = intParam(params, "league", -1);
+        if (league == -1) return envelope("odds", params, List.of(), 1, 1);
+
+        List<JsonObject> all = data.fixturesOfLeague(league, intParam(params, "season", data.currentSeason(league))).stream()
+                .map(fixture -> data.odds(fixture.getAsJsonObject("fixture").get("id").getAsInt(), bet, bookmaker))
+                .filter(odds -> odds != null)
+                .toList();
+
+        int totalPages = Math.max(1, (all.size() + ODDS_PAGE_SIZE - 1) / ODDS_PAGE_SIZE);
+        int page = Math.min(Math.max(1, intParam(params, "page", 1)), totalPages);
+        int from = (page - 1) * ODDS_PAGE_SIZE;
+        return envelope("odds", params, all.subList(from, Math.min(all.size(), from + ODDS_PAGE_SIZE)), page, totalPages);
+    }
+
+    private String status() {
+        JsonObject requests = new JsonObject();
+        synchronized (this) {
+            requests.addProperty("current", dailyUsed);
+        }
+        requests.addProperty("limit_day", dailyLimit);
+
+        JsonObject response = new JsonObject();
+        response.add("requests", requests);
+
+        JsonObject envelope = new JsonObject();
+        envelope.addProperty("get", "status");
+        envelope.add("parameters", new JsonArray());
+        envelope.add("errors", new JsonArray());
+        envelope.addProperty("results", 1);
+        envelope.add("response", response);
+        return gson.toJson(envelope);
+    }
+
+    private String envelope(String endpoint, Map<String, String> params, List<JsonObject> response, int page, int totalPages) {
+        JsonArray elements = new JsonArray();
+        response.forEach(elements::add);
+
+        JsonObject paging = new JsonObject();
+        paging.addProperty("current", page);
+        paging.addProperty("total", totalPages);
+
+        JsonObject envelope = new JsonObject();
+        envelope.addProperty("get", endpoint);
+        envelope.add("parameters", gson.toJsonTree(params));
+        envelope.add("errors", new JsonArray());
+        envelope.addProperty("results", elements.size());
+        envelope.add("paging", paging);
+        envelope.add("response", elements);
+        return gson.toJson(envelope);
+    }
+
+    private String errorEnvelope(String endpoint, Map<String, String> params, String field, String message) {
+        JsonObject errors = new JsonObject();
+        errors.addProperty(field, message);
+
+        JsonObject envelope = new JsonObject();
+        envelope.addProperty("get", endpoint);
+        envelope.add("parameters", gson.toJsonTree(params));
+        envelope.add("errors", errors);
+        envelope.addProperty("results", 0);
+        envelope.add("response", new JsonArray());
+        return gson.toJson(envelope);
+    }
+
+    private long sampleLatency(ThreadLocalRandom random) {
+        return switch (latencyDistribution) {
+            case "fixed" -> latencyMedianMillis;
+            case "uniform" -> random.nextLong(latencyMedianMillis / 2, Math.max(latencyMedianMillis / 2, latencyP99Millis) + 1);
+            default -> {
+                double sigma = Math.log((double) Math.max(latencyP99Millis, latencyMedianMillis + 1) / Math.max(1, latencyMedianMillis)) / Z_99;
+                yield Math.round(Math.max(1, latencyMedianMillis) * Math.exp(sigma * random.nextGaussian()));
+            }
+        };
+    }
+
+    private static boolean isLive(String status) {
+        return switch (status) {
+            case "1H", "HT", "2H", "ET", "BT", "P", "SUSP", "INT", "LIVE" -> true;
+            default -> false;
+        };
+    }
+
+    private static List<Integer> splitIds(String ids) {
+        Set<Integer> unique = new LinkedHashSet<>();
+        for (String id : ids.split("-")) {
+            try {
+                unique.add(Integer.parseInt(id.trim()));
+            } catch (NumberFormatException ignored) {
+                // api-sports ignores ids it cannot parse
+            }
+        }
+        return List.copyOf(unique);
+    }
+
+    private static int intParam(Map<String, String> params, String name, int defaultValue) {
+        String value = params.get(name);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
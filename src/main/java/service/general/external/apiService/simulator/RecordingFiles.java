@@ -0,0 +1,31 @@
+package service.general.external.apiService.simulator;
+
+import service.general.external.apiService.RequestKey;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Maps requests to the files their recorded responses are kept in, shared by the recorder and the simulator.
+ * Example: "fixtures?id=1035034" is recorded as "fixtures/id=1035034.json".
+ */
+public final class RecordingFiles {
+
+    private RecordingFiles() {
+    }
+
+    public static Path resolve(Path directory, RequestKey key) {
+        if (key.params().isEmpty()) return directory.resolve(sanitize(key.endpoint())).resolve("_.json");
+
+        StringBuilder name = new StringBuilder();
+        for (Map.Entry<String, String> param : key.params().entrySet()) {
+            if (!name.isEmpty()) name.append('&');
+            name.append(param.getKey()).append('=').append(param.getValue());
+        }
+        return directory.resolve(sanitize(key.endpoint())).resolve(sanitize(name.toString()) + ".json");
+    }
+
+    private static String sanitize(String part) {
+        return part.replaceAll("[^A-Za-z0-9=&._-]", "_");
+    }
+}
@@ -0,0 +1,18 @@
+package service.general.external.apiService.simulator;
+
+import service.general.external.apiService.ApiResponse;
+import service.general.external.apiService.RequestKey;
+
+/**
+ * Captures upstream responses so the simulator can replay them later.
+ */
+public interface ResponseRecorder {
+
+    /**
+     * Records a successful response. Does nothing unless recording is enabled.
+     *
+     * @param key      the request the response answers
+     * @param response the response received from upstream
+     */
+    void record(RequestKey key, ApiResponse response);
+}
@@ -0,0 +1,46 @@
+package service.general.external.apiService.simulator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import service.general.external.apiService.ApiResponse;
+import service.general.external.apiService.RequestKey;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes each recorded response to its own file under the recordings directory, replacing earlier recordings of the same request.
+ */
+@Component
+public class ResponseRecorderImpl implements ResponseRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseRecorderImpl.class);
+
+    @Value("${api.simulator.record:false}")
+    private boolean enabled;
+
+    @Value("${api.simulator.recordings-dir:recordings}")
+    private String recordingsDir;
+
+    @Override
+    public void record(RequestKey key, ApiResponse response) {
+        if (!enabled) return;
+
+        Path file = RecordingFiles.resolve(Paths.get(recordingsDir), key);
+        try {
+            Files.createDirectories(file.getParent());
+            // written aside first, so the simulator never replays a half-written file
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(temporary, response.body());
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            logger.debug("Recorded {} to {}", key, file);
+        } catch (IOException e) {
+            logger.warn("Failed to record {}: {}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package service.general.external.apiService.simulator;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates api-sports shaped fixtures, odds and leagues.
+ *
+ * <p>Everything is derived from the fixture id, so the same fixture looks the same whether it is requested
+ * by id or as part of its league. A fixture id is built as {@code league * 100000 + (season % 100) * 1000 + index}.
+ * Kickoffs are spread around the time the simulator started, so some fixtures are finished, some live and some upcoming,
+ * and they move through their statuses as time passes.</p>
+ */
+final class SimulatedData {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssxxx").withZone(ZoneOffset.UTC);
+    private static final int TEAMS_PER_LEAGUE = 20;
+    private static final int BOOKMAKER_NAME_ID = 27;
+
+    private final long anchorMillis;
+    private final long spacingMillis;
+    private final int fixturesPerLeague;
+    private final JsonArray supportedLeagues;
+
+    SimulatedData(long anchorMillis, long spacingMillis, int fixturesPerLeague) {
+        this.anchorMillis = anchorMillis;
+        this.spacingMillis = spacingMillis;
+        this.fixturesPerLeague = fixturesPerLeague;
+        this.supportedLeagues = readSupportedLeagues();
+    }
+
+    static int fixtureId(int leagueId, int season, int index) {
+        return leagueId * 100000 + (season % 100) * 1000 + index;
+    }
+
+    List<Integer> supportedLeagueIds() {
+        List<Integer> ids = new ArrayList<>();
+        for (JsonElement league : supportedLeagues) {
+            ids.add(league.getAsJsonObject().get("id").getAsInt());
+        }
+        return ids;
+    }
+
+    int currentSeason(int leagueId) {
+        JsonObject league = supportedLeague(leagueId);
+        if (league != null && league.has("current_season")) return league.get("current_season").getAsInt();
+        return Instant.ofEpochMilli(anchorMillis).atZone(ZoneOffset.UTC).getYear();
+    }
+
+    List<JsonObject> fixturesOfLeague(int leagueId, int season) {
+        List<JsonObject> fixtures = new ArrayList<>(fixturesPerLeague);
+        for (int index = 1; index <= fixturesPerLeague; index++) {
+            fixtures.add(fixture(fixtureId(leagueId, season, index)));
+        }
+        return fixtures;
+    }
+
+    JsonObject fixture(int fixtureId) {
+        int leagueId = fixtureId / 100000;
+        int season = 2000 + (fixtureId / 1000) % 100;
+        int index = fixtureId % 1000;
+        Random random = new Random(fixtureId);
+
+        long kickoff = kickoff(index);
+        long minutes = (System.currentTimeMillis() - kickoff) / 60_000;
+        String status;
+        int elapsed;
+        if (minutes < 0) {
+            status = "NS";
+            elapsed = -1;
+        } else if (minutes < 45) {
+            status = "1H";
+            elapsed = (int) minutes + 1;
+        } else if (minutes < 60) {
+            status = "HT";
+            elapsed = 45;
+        } else if (minutes < 105) {
+            status = "2H";
+            elapsed = (int) minutes - 14;
+        } else {
+            status = "FT";
+            elapsed = 90;
+        }
+
+        int finalHome = random.nextInt(4);
+        int finalAway = random.nextInt(4);
+        double played = elapsed < 0 ? 0 : elapsed / 90.0;
+
+        JsonObject statusObject = new JsonObject();
+        statusObject.addProperty("long", longStatus(status));
+        statusObject.addProperty("short", status);
+        if (elapsed >= 0) statusObject.addProperty("elapsed", elapsed);
+        else statusObject.add("elapsed", null);
+
+        JsonObject fixture = new JsonObject();
+        fixture.addProperty("id", fixtureId);
+        fixture.addProperty("timezone", "UTC");
+        fixture.addProperty("date", DATE_FORMAT.format(Instant.ofEpochMilli(kickoff)));
+        fixture.addProperty("timestamp", kickoff / 1000);
+        fixture.add("status", statusObject);
+
+        JsonObject league = new JsonObject();
+        league.addProperty("id", leagueId);
+        league.addProperty("name", leagueName(leagueId));
+        league.addProperty("season", season);
+
+        int homeTeam = leagueId * 100 + (index * 2) % TEAMS_PER_LEAGUE;
+        int awayTeam = leagueId * 100 + (index * 2 + 1) % TEAMS_PER_LEAGUE;
+        JsonObject teams = new JsonObject();
+        teams.add("home", team(homeTeam));
+        teams.add("away", team(awayTeam));
+
+        JsonObject goals = new JsonObject();
+        goals.add("home", elapsed < 0 ? null : new JsonPrimitive((int) (finalHome * played)));
+        goals.add("away", elapsed < 0 ? null : new JsonPrimitive((int) (finalAway * played)));
+
+        JsonObject penalty = new JsonObject();
+        penalty.add("home", null);
+        penalty.add("away", null);
+        JsonObject score = new JsonObject();
+        score.add("penalty", penalty);
+
+        JsonObject element = new JsonObject();
+        element.add("fixture", fixture);
+        element.add("league", league);
+        element.add("teams", teams);
+        element.add("goals", goals);
+        element.add("score", score);
+        return element;
+    }
+
+    /**
+     * @param betId the bet to include, or -1 for every supported bet
+     * @return the pre-match odds, or null if the fixture has already started
+     */
+    JsonObject odds(int fixtureId, int betId, int bookmakerId) {
+        JsonObject fixture = fixture(fixtureId);
+        if (!fixture.getAsJsonObject("fixture").getAsJsonObject("status").get("short").getAsString().equals("NS")) return null;
+
+        Random random = new Random(fixtureId * 31L + 7);
+        JsonArray bets = new JsonArray();
+        if (betId == -1 || betId == 1) bets.add(bet(1, "Match Winner", random, "Home", "Draw", "Away"));
+        if (betId == -1 || betId == 2) bets.add(bet(2, "Home/Away", random, "Home", "Away"));
+        if (betId == -1 || betId == 8) bets.add(bet(8, "Both Teams Score", random, "Yes", "No"));
+        if (bets.isEmpty()) return null;
+
+        JsonObject bookmaker = new JsonObject();
+        bookmaker.addProperty("id", bookmakerId);
+        bookmaker.addProperty("name", bookmakerId == BOOKMAKER_NAME_ID ? "NordicBet" : "Bookmaker " + bookmakerId);
+        bookmaker.add("bets", bets);
+        JsonArray bookmakers = new JsonArray();
+        bookmakers.add(bookmaker);
+
+        JsonObject fixtureRef = new JsonObject();
+        fixtureRef.addProperty("id", fixtureId);
+        fixtureRef.addProperty("timezone", "UTC");
+        fixtureRef.add("date", fixture.getAsJsonObject("fixture").get("date"));
+
+        JsonObject element = new JsonObject();
+        element.add("league", fixture.get("league"));
+        element.add("fixture", fixtureRef);
+        element.addProperty("update", DATE_FORMAT.format(Instant.now()));
+        element.add("bookmakers", bookmakers);
+        return element;
+    }
+
+    /**
+     * @param leagueId the league to return, or -1 for every supported league
+     */
+    List<JsonObject> leagues(int leagueId, String country) {
+        List<JsonObject> leagues = new ArrayList<>();
+        for (JsonElement element : supportedLeagues) {
+            JsonObject supported = element.getAsJsonObject();
+            if (leagueId != -1 && supported.get("id").getAsInt() != leagueId) continue;
+            if (country != null && !country.equalsIgnoreCase(countryCode(supported))
+                    && !country.equalsIgnoreCase(supported.get("country").getAsString())) continue;
+
+            JsonObject league = new JsonObject();
+            league.add("id", supported.get("id"));
+            league.add("name", supported.get("name"));
+            league.addProperty("type", "League");
+            league.add("logo", supported.get("logo"));
+
+            JsonObject countryObject = new JsonObject();
+            countryObject.add("name", supported.get("country"));
+            countryObject.addProperty("code", countryCode(supported));
+            countryObject.add("flag", supported.get("country_flag"));
+
+            JsonObject season = new JsonObject();
+            season.addProperty("year", supported.get("current_season").getAsInt());
+            season.addProperty("current", true);
+            JsonArray seasons = new JsonArray();
+            seasons.add(season);
+
+            JsonObject result = new JsonObject();
+            result.add("league", league);
+            result.add("country", countryObject);
+            result.add("seasons", seasons);
+            leagues.add(result);
+        }
+        return leagues;
+    }
+
+    private long kickoff(int index) {
+        return anchorMillis + (index - fixturesPerLeague / 2L) * spacingMillis;
+    }
+
+    private JsonObject team(int teamId) {
+        JsonObject team = new JsonObject();
+        team.addProperty("id", teamId);
+        team.addProperty("name", "Team " + teamId);
+        team.addProperty("logo", "https://media.api-sports.io/football/teams/" + teamId + ".png");
+        return team;
+    }
+
+    private JsonObject bet(int id, String name, Random random, String... outcomes) {
+        JsonArray values = new JsonArray();
+        for (String outcome : outcomes) {
+            JsonObject value = new JsonObject();
+            value.addProperty("value", outcome);
+            // at least 1.05, like the odds bookmakers publish
+            value.addProperty("odd", String.format(Locale.ROOT, "%.2f", 1.05 + random.nextDouble() * outcomes.length * 1.5));
+            values.add(value);
+        }
+        JsonObject bet = new JsonObject();
+        bet.addProperty("id", id);
+        bet.addProperty("name", name);
+        bet.add("values", values);
+        return bet;
+    }
+
+    private String leagueName(int leagueId) {
+        JsonObject league = supportedLeague(leagueId);
+        return league == null ? "League " + leagueId : league.get("name").getAsString();
+    }
+
+    private JsonObject supportedLeague(int leagueId) {
+        for (JsonElement league : supportedLeagues) {
+            if (league.getAsJsonObject().get("id").getAsInt() == leagueId) return league.getAsJsonObject();
+        }
+        return null;
+    }
+
+    private static String countryCode(JsonObject supported) {
+        String flag = supported.get("country_flag").getAsString();
+        return flag.substring(flag.lastIndexOf('/') + 1, flag.lastIndexOf('.')).toUpperCase();
+    }
+
+    private static String longStatus(String status) {
+        return switch (status) {
+            case "NS" -> "Not Started";
+            case "1H" -> "First Half";
+            case "HT" -> "Halftime";
+            case "2H" -> "Second Half";
+            default -> "Match Finished";
+        };
+    }
+
+    private static JsonArray readSupportedLeagues() {
+        try (InputStream in = SimulatedData.class.getResourceAsStream("/supportedLeagues.json")) {
+            if (in == null) return new JsonArray();
+            return JsonParser.parseReader(new InputStreamReader(in, StandardCharsets.UTF_8)).getAsJsonArray();
+        } catch (IOException e) {
+            return new JsonArray();
+        }
+    }
+}
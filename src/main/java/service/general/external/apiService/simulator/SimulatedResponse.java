@@ -0,0 +1,17 @@
+package service.general.external.apiService.simulator;
+
+import java.util.Map;
+
+/**
+ * A response produced by the simulator.
+ *
+ * @param status  the HTTP status code
+ * @param headers the response headers, including the rate-limit headers api-sports sends
+ * @param body    the JSON body
+ */
+public record SimulatedResponse(
+        int status,
+        Map<String, String> headers,
+        String body
+) {
+}
@@ -1,5 +1,7 @@
 package service.general.external.dbRequest;
 
+import common.deadline.Deadline;
+import common.deadline.DeadlineContext;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import service.general.external.dbRequest.exception.DbException;
@@ -37,6 +39,10 @@ public class DbRequestImpl implements DbRequest {
     @Value("${database.name}")
     private String DATABASE;
 
+    // applies to queries made outside of a request, and caps the ones made within
+    @Value("${database.query-timeout-seconds:30}")
+    private int queryTimeoutSeconds;
+
     private HikariDataSource dataSource;
     private Connection currentConnection;
 
@@ -68,8 +74,10 @@ public class DbRequestImpl implements DbRequest {
     @Override
     @SuppressWarnings("all") // Supresses warnings for prepareStatement
     public int execute(String query, Object... params) throws SQLException {
+        checkDeadline();
         try (Connection connection = dataSource.getConnection();
              PreparedStatement stmt = connection.prepareStatement(query)) {
+            applyTimeout(stmt);
             setParameters(stmt, params);
             return stmt.executeUpdate();
         } catch (SQLException e) {
@@ -90,8 +98,10 @@ public class DbRequestImpl implements DbRequest {
     @SuppressWarnings("all")
     public List<Map<String, Object>> query(String query, Object... params) throws SQLException {
         List<Map<String, Object>> resultList = new ArrayList<>();
+        checkDeadline();
         try (Connection connection = dataSource.getConnection();
              PreparedStatement stmt = connection.prepareStatement(query)) {
+            applyTimeout(stmt);
             setParameters(stmt, params);
             try (ResultSet rs = stmt.executeQuery()) {
                 ResultSetMetaData metaData = rs.getMetaData();
@@ -165,11 +175,37 @@ public class DbRequestImpl implements DbRequest {
         if (currentConnection == null || currentConnection.isClosed()) {
             throw new SQLException("Connection is closed or not initialized.");
         }
+        checkDeadline();
         PreparedStatement stmt = currentConnection.prepareStatement(query);
+        applyTimeout(stmt);
         setParameters(stmt, params);
         return stmt;
     }
 
+    /**
+     * Fails before a connection is taken from the pool when the request deadline has already passed.
+     */
+    private void checkDeadline() throws SQLTimeoutException {
+        Deadline deadline = DeadlineContext.current();
+        if (deadline != null && deadline.isExpired()) {
+            throw new SQLTimeoutException("Request deadline exceeded before the query was sent");
+        }
+    }
+
+    /**
+     * Limits the statement to the time left before the request deadline. JDBC timeouts are whole seconds,
+     * rounded up so a query is never cut off before the deadline.
+     */
+    private void applyTimeout(Statement stmt) throws SQLException {
+        Deadline deadline = DeadlineContext.current();
+        long timeoutMillis = queryTimeoutSeconds > 0 ? queryTimeoutSeconds * 1000L : Long.MAX_VALUE;
+        if (deadline != null) timeoutMillis = Math.min(timeoutMillis, deadline.remainingMillis());
+
+        // 0 means no timeout to JDBC
+        if (timeoutMillis == Long.MAX_VALUE) return;
+        stmt.setQueryTimeout((int) Math.max(1, (timeoutMillis + 999) / 1000));
+    }
+
     private Connection getConnection() throws SQLException {
         Connection connection = dataSource.getConnection();
         if (connection.getAutoCommit()) {
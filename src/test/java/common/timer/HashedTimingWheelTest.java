@@ -0,0 +1,97 @@
+package common.timer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimingWheelTest {
+
+    private static final long TICK_MILLIS = 10;
+
+    private HashedTimingWheel wheel;
+
+    @AfterEach
+    void tearDown() {
+        if (wheel != null) wheel.stop();
+    }
+
+    @Test
+    void tasksExpireInDeadlineOrder() throws InterruptedException {
+        wheel = new HashedTimingWheel("test-wheel", TICK_MILLIS, 8, Runnable::run);
+        List<Integer> expired = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(3);
+
+        wheel.schedule(record(expired, 3, done), 90);
+        wheel.schedule(record(expired, 1, done), 10);
+        wheel.schedule(record(expired, 2, done), 50);
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2, 3), expired);
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void taskDueAfterSeveralRotationsWaitsForItsRound() throws InterruptedException {
+        // 4 buckets of 10ms, a rotation takes 40ms
+        wheel = new HashedTimingWheel("test-wheel", TICK_MILLIS, 4, Runnable::run);
+        List<Integer> expired = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+
+        long start = System.nanoTime();
+        long[] ranAfterMillis = new long[1];
+        wheel.schedule(() -> {
+            ranAfterMillis[0] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            expired.add(1);
+            done.countDown();
+        }, 150);
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertTrue(ranAfterMillis[0] >= 150 - TICK_MILLIS, "ran after " + ranAfterMillis[0] + "ms");
+        assertEquals(List.of(1), expired);
+    }
+
+    @Test
+    void cancelledTaskNeverRuns() throws InterruptedException {
+        wheel = new HashedTimingWheel("test-wheel", TICK_MILLIS, 8, Runnable::run);
+        List<Integer> expired = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+
+        HashedTimingWheel.Timeout cancelled = wheel.schedule(record(expired, 1, new CountDownLatch(1)), 20);
+        wheel.schedule(record(expired, 2, done), 60);
+
+        assertTrue(cancelled.cancel());
+        assertTrue(cancelled.isCancelled());
+        assertFalse(cancelled.cancel());
+        assertEquals(1, wheel.pending());
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of(2), expired);
+    }
+
+    @Test
+    void taskDueInThePastRunsOnTheNextTick() throws InterruptedException {
+        wheel = new HashedTimingWheel("test-wheel", TICK_MILLIS, 8, Runnable::run);
+        CountDownLatch done = new CountDownLatch(1);
+
+        HashedTimingWheel.Timeout timeout = wheel.schedule(done::countDown, -1000);
+
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertFalse(timeout.cancel());
+    }
+
+    private static Runnable record(List<Integer> expired, int id, CountDownLatch done) {
+        return () -> {
+            expired.add(id);
+            done.countDown();
+        };
+    }
+}
@@ -0,0 +1,157 @@
+package service.app.fixture.fixture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import service.app.fixture.common.exception.FixtureNotFoundException;
+import service.app.fixture.common.exception.FootballApiException;
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.common.model.FootballResponse;
+import service.app.fixture.common.model.Paging;
+import service.app.fixture.fixture.request.GetFixture;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FixtureBatchLoaderImplTest {
+
+    private static final int MAX_BATCH_SIZE = 3;
+
+    private final FakeGetFixture getFixture = new FakeGetFixture();
+    private FixtureBatchLoaderImpl loader;
+
+    @BeforeEach
+    void setUp() {
+        loader = new FixtureBatchLoaderImpl(getFixture);
+        ReflectionTestUtils.setField(loader, "windowMillis", 20L);
+        ReflectionTestUtils.setField(loader, "maxBatchSize", MAX_BATCH_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loader.shutdown();
+    }
+
+    @Test
+    void lookupsWithinTheWindowShareOneRequest() {
+        CompletableFuture<Fixture> first = loader.load(1);
+        CompletableFuture<Fixture> second = loader.load(2);
+        CompletableFuture<Fixture> repeated = loader.load(1);
+
+        assertEquals(1, first.join().fixtureId());
+        assertEquals(2, second.join().fixtureId());
+        assertEquals(1, repeated.join().fixtureId());
+        assertEquals(List.of(Set.of(1, 2)), getFixture.requests);
+    }
+
+    @Test
+    void fullBatchIsSentWithoutWaitingForTheWindow() {
+        List<CompletableFuture<Fixture>> futures = new ArrayList<>();
+        for (int id = 1; id <= MAX_BATCH_SIZE; id++) {
+            futures.add(loader.load(id));
+        }
+
+        assertEquals(1, getFixture.requests.size());
+        futures.forEach(future -> assertTrue(future.isDone()));
+    }
+
+    @Test
+    void failedBatchOnlyFailsItsOwnLookups() {
+        getFixture.failing.add(2);
+
+        List<CompletableFuture<Fixture>> failedBatch = new ArrayList<>();
+        for (int id = 1; id <= MAX_BATCH_SIZE; id++) {
+            failedBatch.add(loader.load(id));
+        }
+        CompletableFuture<Fixture> nextBatch = loader.load(10);
+
+        for (CompletableFuture<Fixture> future : failedBatch) {
+            CompletionException e = assertThrows(CompletionException.class, future::join);
+            assertTrue(e.getCause() instanceof FootballApiException);
+        }
+        assertEquals(10, nextBatch.join().fixtureId());
+    }
+
+    @Test
+    void fixtureMissingFromTheResponseIsNotFound() {
+        getFixture.missing.add(2);
+
+        CompletableFuture<Fixture> found = loader.load(1);
+        CompletableFuture<Fixture> missing = loader.load(2);
+
+        assertEquals(1, found.join().fixtureId());
+        CompletionException e = assertThrows(CompletionException.class, missing::join);
+        assertTrue(e.getCause() instanceof FixtureNotFoundException);
+    }
+
+    @Test
+    void cancellingOneCallerLeavesTheOthers() {
+        CompletableFuture<Fixture> first = loader.load(1);
+        CompletableFuture<Fixture> second = loader.load(1);
+
+        first.cancel(true);
+        assertEquals(1, second.join().fixtureId());
+        assertFalse(second.isCancelled());
+    }
+
+    /**
+     * Answers "ids" requests with a fixture per ID, failing every request that contains an ID of {@code failing}.
+     */
+    private static final class FakeGetFixture implements GetFixture {
+
+        private final List<Set<Integer>> requests = new CopyOnWriteArrayList<>();
+        private final Set<Integer> failing = new HashSet<>();
+        private final Set<Integer> missing = new HashSet<>();
+
+        @Override
+        public CompletableFuture<FootballResponse<Fixture>> getFixturesByIds(Collection<Integer> fixtureIds) {
+            requests.add(Set.copyOf(fixtureIds));
+            if (fixtureIds.stream().anyMatch(failing::contains)) {
+                return CompletableFuture.failedFuture(new FootballApiException("Request failed"));
+            }
+
+            List<Fixture> fixtures = fixtureIds.stream()
+                    .filter(id -> !missing.contains(id))
+                    .map(FakeGetFixture::fixture)
+                    .toList();
+            return CompletableFuture.completedFuture(new FootballResponse<>(fixtures, List.of(), fixtures.size(), Paging.SINGLE_PAGE));
+        }
+
+        @Override
+        public CompletableFuture<FootballResponse<Fixture>> refreshFixturesByIds(Collection<Integer> fixtureIds) {
+            return getFixturesByIds(fixtureIds);
+        }
+
+        @Override
+        public FootballResponse<Fixture> getFixtureById(int fixtureId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FootballResponse<Fixture> getFixturesByLeagueAndSeason(int leagueId, int season) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FootballResponse<Fixture> getLiveFixtures(Collection<Integer> leagueIds) {
+            throw new UnsupportedOperationException();
+        }
+
+        private static Fixture fixture(int id) {
+            return new Fixture("Premier League", 39, 2024, id, "2024-04-13T14:00:00+00:00", "Home", null, "Away", null,
+                    "NS", 0, 0, 0, 0, 0);
+        }
+    }
+}
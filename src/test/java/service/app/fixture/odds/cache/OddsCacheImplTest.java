@@ -0,0 +1,166 @@
+package service.app.fixture.odds.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import service.app.fixture.common.exception.StaleOddsException;
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.index.FixtureIndex;
+import service.app.fixture.odds.request.GetOddsDao;
+import service.general.external.apiService.quota.QuotaGovernor;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OddsCacheImplTest {
+
+    private static final int FIXTURE_ID = 7;
+    private static final int BET_TYPE = 1;
+    private static final int BOOKMAKER = 8;
+    private static final Map<String, Double> ODDS = Map.of("Home", 2.0, "Draw", 3.4, "Away", 3.9);
+
+    private final Map<Integer, Fixture> fixtures = new HashMap<>();
+    // the odds the DAO stores when refreshing, with the time they were fetched at
+    private Map<String, Double> upstreamOdds;
+    private long upstreamFetchedAt;
+    private int upstreamCalls;
+    private OddsCacheImpl cache;
+
+    @BeforeEach
+    void setUp() {
+        GetOddsDao getOddsDao = fake(GetOddsDao.class, (method, args) -> {
+            if (!method.equals("refreshMarkets")) throw new UnsupportedOperationException(method);
+            upstreamCalls++;
+            if (upstreamOdds != null) cache.put(FIXTURE_ID, BET_TYPE, BOOKMAKER, upstreamOdds, upstreamFetchedAt);
+            return null;
+        });
+        FixtureIndex fixtureIndex = fake(FixtureIndex.class, (method, args) -> {
+            if (!method.equals("get")) throw new UnsupportedOperationException(method);
+            return fixtures.get((Integer) args[0]);
+        });
+        cache = new OddsCacheImpl(getOddsDao, fixtureIndex, fake(QuotaGovernor.class, (method, args) -> null));
+        ReflectionTestUtils.setField(cache, "maxStalenessSeconds", 60L);
+    }
+
+    @Test
+    void freshOddsAreServed() throws Exception {
+        kickoffIn(Duration.ofHours(-1));
+        cache.put(FIXTURE_ID, BET_TYPE, BOOKMAKER, ODDS, System.currentTimeMillis());
+
+        assertEquals(ODDS, cache.get(FIXTURE_ID, BET_TYPE, BOOKMAKER).odds());
+        assertEquals(0, upstreamCalls);
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void staleOddsAreServedBeforeKickoff() throws Exception {
+        kickoffIn(Duration.ofHours(1));
+        cache.put(FIXTURE_ID, BET_TYPE, BOOKMAKER, ODDS, minutesAgo(5));
+
+        assertEquals(ODDS, cache.get(FIXTURE_ID, BET_TYPE, BOOKMAKER).odds());
+        assertEquals(1, cache.stats().staleHits());
+    }
+
+    @Test
+    void staleOddsAreRejectedAfterKickoff() {
+        kickoffIn(Duration.ofMinutes(-1));
+        cache.put(FIXTURE_ID, BET_TYPE, BOOKMAKER, ODDS, minutesAgo(5));
+
+        assertThrows(StaleOddsException.class, () -> cache.get(FIXTURE_ID, BET_TYPE, BOOKMAKER));
+        assertEquals(1, cache.stats().staleRejections());
+    }
+
+    @Test
+    void staleOddsAreRejectedWithoutKnownKickoff() {
+        cache.put(FIXTURE_ID, BET_TYPE, BOOKMAKER, ODDS, minutesAgo(5));
+
+        assertThrows(StaleOddsException.class, () -> cache.get(FIXTURE_ID, BET_TYPE, BOOKMAKER));
+    }
+
+    @Test
+    void missIsFetchedAndChecked() throws Exception {
+        kickoffIn(Duration.ofMinutes(-1));
+        upstreamOdds = ODDS;
+        upstreamFetchedAt = System.currentTimeMillis();
+
+        assertEquals(ODDS, cache.get(FIXTURE_ID, BET_TYPE, BOOKMAKER).odds());
+        assertEquals(1, upstreamCalls);
+        assertEquals(1, cache.stats().misses());
+        assertEquals(0, cache.stats().hits());
+    }
+
+    @Test
+    void oldOddsFetchedOnAMissAreRejectedAfterKickoff() {
+        // e.g. served by a cache on the way
+        kickoffIn(Duration.ofMinutes(-1));
+        upstreamOdds = ODDS;
+        upstreamFetchedAt = minutesAgo(5);
+
+        assertThrows(StaleOddsException.class, () -> cache.get(FIXTURE_ID, BET_TYPE, BOOKMAKER));
+    }
+
+    @Test
+    void missWithoutOddsUpstreamReturnsNull() throws Exception {
+        assertNull(cache.get(FIXTURE_ID, BET_TYPE, BOOKMAKER));
+        assertEquals(1, upstreamCalls);
+    }
+
+    @Test
+    void olderOddsDoNotReplaceNewerOnes() throws Exception {
+        kickoffIn(Duration.ofHours(1));
+        long now = System.currentTimeMillis();
+        assertTrue(cache.put(FIXTURE_ID, BET_TYPE, BOOKMAKER, ODDS, now));
+
+        assertFalse(cache.put(FIXTURE_ID, BET_TYPE, BOOKMAKER, Map.of("Home", 1.5), now - 1000));
+
+        OddsSnapshot snapshot = cache.get(FIXTURE_ID, BET_TYPE, BOOKMAKER);
+        assertNotNull(snapshot);
+        assertEquals(ODDS, snapshot.odds());
+    }
+
+    @Test
+    void versionChangesOnlyWithTheOdds() throws Exception {
+        kickoffIn(Duration.ofHours(1));
+        long now = System.currentTimeMillis();
+        cache.put(FIXTURE_ID, BET_TYPE, BOOKMAKER, ODDS, now - 2000);
+        long version = cache.get(FIXTURE_ID, BET_TYPE, BOOKMAKER).version();
+
+        assertFalse(cache.put(FIXTURE_ID, BET_TYPE, BOOKMAKER, ODDS, now - 1000));
+        assertEquals(version, cache.get(FIXTURE_ID, BET_TYPE, BOOKMAKER).version());
+
+        assertTrue(cache.put(FIXTURE_ID, BET_TYPE, BOOKMAKER, Map.of("Home", 1.5), now));
+        assertNotEquals(version, cache.get(FIXTURE_ID, BET_TYPE, BOOKMAKER).version());
+    }
+
+    private void kickoffIn(Duration duration) {
+        String kickoff = Instant.now().plus(duration).atOffset(ZoneOffset.UTC).toString();
+        fixtures.put(FIXTURE_ID, new Fixture("Premier League", 39, 2024, FIXTURE_ID, kickoff, "Home", null, "Away", null,
+                "NS", 0, 0, 0, 0, 0));
+    }
+
+    private static long minutesAgo(int minutes) {
+        return System.currentTimeMillis() - Duration.ofMinutes(minutes).toMillis();
+    }
+
+    private interface Answer {
+        Object answer(String method, Object[] args) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T fake(Class<T> type, Answer answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> answer.answer(method.getName(), args));
+    }
+}
@@ -0,0 +1,93 @@
+package service.app.fixture.provider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import service.app.fixture.common.model.Fixture;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FixtureIdMapperImplTest {
+
+    private static final String KICKOFF = "2024-04-13T14:00:00+00:00";
+
+    private final FixtureIdMapperImpl mapper = new FixtureIdMapperImpl();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(mapper, "maxFixtures", 100);
+    }
+
+    @Test
+    void sameTeamNamesMatchExactly() {
+        mapper.learn(List.of(fixture(1001, 39, KICKOFF, "Arsenal", "Chelsea")));
+
+        assertEquals(1001, mapper.toFixtureId(55, fixture(0, 39, KICKOFF, "Arsenal FC", "Chelsea FC")));
+        assertTrue(mapper.exactMatch(1001));
+    }
+
+    @Test
+    void sharedWordMatchesLoosely() {
+        mapper.learn(List.of(fixture(1001, 39, KICKOFF, "Manchester United", "Newcastle")));
+
+        assertEquals(1001, mapper.toFixtureId(55, fixture(0, 39, KICKOFF, "Man United", "Newcastle United")));
+        assertFalse(mapper.exactMatch(1001));
+    }
+
+    @Test
+    void otherKickoffOrLeagueDoesNotMatch() {
+        mapper.learn(List.of(fixture(1001, 39, KICKOFF, "Arsenal", "Chelsea")));
+
+        assertEquals(-55, mapper.toFixtureId(55, fixture(0, 39, "2024-04-13T16:30:00+00:00", "Arsenal", "Chelsea")));
+        assertEquals(-56, mapper.toFixtureId(56, fixture(0, 140, KICKOFF, "Arsenal", "Chelsea")));
+    }
+
+    @Test
+    void onlyOneMatchingTeamDoesNotMatch() {
+        mapper.learn(List.of(fixture(1001, 39, KICKOFF, "Arsenal", "Chelsea")));
+
+        assertEquals(-55, mapper.toFixtureId(55, fixture(0, 39, KICKOFF, "Arsenal", "Everton")));
+    }
+
+    @Test
+    void tiedCandidatesDoNotMatch() {
+        mapper.learn(List.of(
+                fixture(1001, 39, KICKOFF, "Manchester United", "Wolves"),
+                fixture(1002, 39, KICKOFF, "Manchester City", "Wolves")));
+
+        assertEquals(-55, mapper.toFixtureId(55, fixture(0, 39, KICKOFF, "Manchester", "Wolves")));
+        assertEquals(1002, mapper.toFixtureId(56, fixture(0, 39, KICKOFF, "Manchester City", "Wolves")));
+    }
+
+    @Test
+    void matchIsRemembered() {
+        mapper.learn(List.of(fixture(1001, 39, KICKOFF, "Arsenal", "Chelsea")));
+        assertEquals(1001, mapper.toFixtureId(55, fixture(0, 39, KICKOFF, "Arsenal", "Chelsea")));
+
+        // later responses of the secondary provider keep their mapping, even if the kickoff moved
+        assertEquals(1001, mapper.toFixtureId(55, fixture(0, 39, "2024-04-14T14:00:00+00:00", "Arsenal", "Chelsea")));
+    }
+
+    @Test
+    void leastRecentlyLearnedFixturesAreForgotten() {
+        ReflectionTestUtils.setField(mapper, "maxFixtures", 1);
+        mapper.learn(List.of(fixture(1001, 39, KICKOFF, "Arsenal", "Chelsea")));
+        assertEquals(1001, mapper.toFixtureId(55, fixture(0, 39, KICKOFF, "Arsenal", "Chelsea")));
+
+        mapper.learn(List.of(fixture(1002, 39, KICKOFF, "Everton", "Fulham")));
+
+        assertNull(mapper.knownFixture(1001));
+        assertFalse(mapper.exactMatch(1001));
+        assertEquals(-55, mapper.toFixtureId(55, fixture(0, 39, KICKOFF, "Arsenal", "Chelsea")));
+    }
+
+    private static Fixture fixture(int id, int leagueId, String kickoff, String homeTeam, String awayTeam) {
+        return new Fixture("League " + leagueId, leagueId, 2024, id, kickoff, homeTeam, null, awayTeam, null,
+                "NS", 0, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,279 @@
+package service.app.fixture.push;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.index.FixtureIndex;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FixturePushImplTest {
+
+    private static final int PREMIER_LEAGUE = 39;
+    private static final int LA_LIGA = 140;
+
+    private final FakeFixtureIndex fixtureIndex = new FakeFixtureIndex();
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    // emitters created while set block on their first send until released
+    private volatile boolean nextEmittersBlock;
+    private FixturePushImpl push;
+
+    @BeforeEach
+    void setUp() {
+        push = new FixturePushImpl(fixtureIndex) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter(nextEmittersBlock ? release : null);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(push, "maxSubscribers", 100);
+        ReflectionTestUtils.setField(push, "queueCapacity", 3);
+        ReflectionTestUtils.setField(push, "heartbeatSeconds", 3600L);
+        ReflectionTestUtils.setField(push, "timeoutMinutes", 30L);
+        ReflectionTestUtils.setField(push, "sendTimeoutMillis", 50L);
+        ReflectionTestUtils.setField(push, "leagueSnapshotHours", 24L);
+        push.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        push.shutdown();
+    }
+
+    @Test
+    void fixtureSubscriberGetsTheFullStateThenOnlyChanges() throws Exception {
+        fixtureIndex.add(fixture(1, PREMIER_LEAGUE, Instant.now().plus(Duration.ofHours(1)), "NS", 0));
+
+        push.subscribe(List.of(1), List.of());
+        RecordingEmitter emitter = emitters.get(0);
+
+        String initial = emitter.next();
+        assertTrue(initial.contains("event:fixture"));
+        assertTrue(initial.contains("\"home_team\""));
+
+        push.publishFixtures(List.of(fixture(1, PREMIER_LEAGUE, Instant.now().plus(Duration.ofHours(1)), "1H", 1)));
+
+        String change = emitter.next();
+        assertTrue(change.contains("\"home_goals\":1"));
+        assertTrue(change.contains("\"fixture_id\":1"));
+        assertFalse(change.contains("\"home_team\""));
+    }
+
+    @Test
+    void leagueSubscriberGetsTheFixturesOfItsLeaguesAroundNow() throws Exception {
+        Instant now = Instant.now();
+        fixtureIndex.add(fixture(1, PREMIER_LEAGUE, now.minus(Duration.ofHours(1)), "2H", 1));
+        fixtureIndex.add(fixture(2, PREMIER_LEAGUE, now.plus(Duration.ofHours(2)), "NS", 0));
+        fixtureIndex.add(fixture(3, PREMIER_LEAGUE, now.plus(Duration.ofDays(3)), "NS", 0));
+        fixtureIndex.add(fixture(4, LA_LIGA, now.plus(Duration.ofHours(2)), "NS", 0));
+
+        push.subscribe(List.of(), List.of(PREMIER_LEAGUE));
+        RecordingEmitter emitter = emitters.get(0);
+
+        assertTrue(emitter.next().contains("\"fixture_id\":1"));
+        assertTrue(emitter.next().contains("\"fixture_id\":2"));
+        assertNull(emitter.poll(100));
+    }
+
+    @Test
+    void changesPublishedDuringTheInitialStateFollowIt() throws Exception {
+        ReflectionTestUtils.setField(push, "queueCapacity", 100);
+        Instant kickoff = Instant.now().plus(Duration.ofHours(1));
+        fixtureIndex.add(fixture(1, PREMIER_LEAGUE, kickoff, "NS", 0));
+
+        Thread publisher = new Thread(() -> {
+            for (int goals = 1; goals <= 50; goals++) {
+                push.publishFixtures(List.of(fixture(1, PREMIER_LEAGUE, kickoff, "1H", goals)));
+            }
+        });
+        publisher.start();
+        push.subscribe(List.of(1), List.of());
+        publisher.join();
+
+        RecordingEmitter emitter = emitters.get(0);
+        assertTrue(emitter.next().contains("\"home_team\""));
+        String event;
+        while ((event = emitter.poll(100)) != null) {
+            assertFalse(event.contains("\"home_team\""));
+        }
+    }
+
+    @Test
+    void stalledClientsAreDroppedWithoutHoldingBackTheOthers() throws Exception {
+        Instant kickoff = Instant.now().plus(Duration.ofHours(1));
+        fixtureIndex.add(fixture(1, PREMIER_LEAGUE, kickoff, "NS", 0));
+
+        // more stalled clients than sender threads
+        nextEmittersBlock = true;
+        for (int i = 0; i < 10; i++) push.subscribe(List.of(1), List.of());
+        nextEmittersBlock = false;
+        List<RecordingEmitter> stalled = new ArrayList<>(emitters);
+
+        await(() -> push.stats().subscribers() == 0);
+        assertEquals(10, push.stats().evicted());
+
+        push.subscribe(List.of(1), List.of());
+        RecordingEmitter healthy = emitters.get(emitters.size() - 1);
+        assertTrue(healthy.next().contains("\"home_team\""));
+        push.publishFixtures(List.of(fixture(1, PREMIER_LEAGUE, kickoff, "1H", 1)));
+        assertTrue(healthy.next().contains("\"home_goals\":1"));
+
+        // the streams are completed once the blocked writes return
+        release.countDown();
+        for (RecordingEmitter emitter : stalled) {
+            await(() -> emitter.completed);
+        }
+        assertFalse(healthy.completed);
+    }
+
+    @Test
+    void subscriberFallingBehindIsDisconnected() throws Exception {
+        ReflectionTestUtils.setField(push, "sendTimeoutMillis", 60_000L);
+        Instant kickoff = Instant.now().plus(Duration.ofHours(1));
+        fixtureIndex.add(fixture(1, PREMIER_LEAGUE, kickoff, "NS", 0));
+
+        nextEmittersBlock = true;
+        push.subscribe(List.of(1), List.of());
+        RecordingEmitter emitter = emitters.get(0);
+        await(() -> emitter.sending);
+
+        // the initial state is being sent, the queue holds 3 changes and room for the initial state, the 5th does not fit
+        for (int goals = 1; goals <= 5; goals++) {
+            push.publishFixtures(List.of(fixture(1, PREMIER_LEAGUE, kickoff, "1H", goals)));
+        }
+
+        assertEquals(1, push.stats().evicted());
+        assertEquals(0, push.stats().subscribers());
+        assertTrue(emitter.completed);
+    }
+
+    private static Fixture fixture(int id, int leagueId, Instant kickoff, String status, int homeGoals) {
+        return new Fixture("League " + leagueId, leagueId, 2024, id, kickoff.atOffset(ZoneOffset.UTC).toString(),
+                "Home", null, "Away", null, status, homeGoals, 0, 0, 0, 0);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Records the events as they would be written to the client, optionally blocking the first write like a client
+     * that stopped reading
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final LinkedBlockingQueue<String> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+        private volatile boolean sending;
+        private volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sending = true;
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            events.add(builder.build().stream()
+                    .map(data -> String.valueOf(data.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void completeWithError(Throwable throwable) {
+            completed = true;
+        }
+
+        String next() throws InterruptedException {
+            String event = poll(5000);
+            assertNotNull(event, "no event received");
+            return event;
+        }
+
+        String poll(long timeoutMillis) throws InterruptedException {
+            return events.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static final class FakeFixtureIndex implements FixtureIndex {
+        private final Map<Integer, Fixture> fixtures = new ConcurrentHashMap<>();
+
+        void add(Fixture fixture) {
+            fixtures.put(fixture.fixtureId(), fixture);
+        }
+
+        @Override
+        public List<Fixture> update(Collection<Fixture> updated) {
+            updated.forEach(this::add);
+            return List.copyOf(updated);
+        }
+
+        @Override
+        public List<Fixture> between(Instant from, Instant to, Collection<Integer> leagueIds, String status) {
+            return fixtures.values().stream()
+                    .filter(fixture -> !fixture.kickoff().isBefore(from) && fixture.kickoff().isBefore(to))
+                    .filter(fixture -> leagueIds == null || leagueIds.contains(fixture.leagueId()))
+                    .filter(fixture -> status == null || status.equals(fixture.status()))
+                    .sorted((a, b) -> a.kickoff().compareTo(b.kickoff()))
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public List<Fixture> leagueSeason(int leagueId, int season) {
+            return fixtures.values().stream()
+                    .filter(fixture -> fixture.leagueId() == leagueId && fixture.season() == season)
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public Fixture get(int fixtureId) {
+            return fixtures.get(fixtureId);
+        }
+
+        @Override
+        public int size() {
+            return fixtures.size();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package service.app.fixture.result;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.common.model.FixtureSource;
+import service.general.external.dbRequest.DbRequest;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FixtureResultStoreImplTest {
+
+    private static final int FIXTURE_ID = 7;
+
+    private final FakeDbRequest dbRequest = new FakeDbRequest();
+    private final FixtureResultStoreImpl store = new FixtureResultStoreImpl(dbRequest);
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    void primaryResultReplacesSecondaryResult() throws Exception {
+        store.start();
+        store.record(fixture(FixtureSource.SECONDARY_EXACT, 1, 0));
+        store.record(fixture(FixtureSource.PRIMARY, 2, 0));
+
+        FixtureResult result = store.get(FIXTURE_ID);
+        assertEquals(FixtureSource.PRIMARY, result.source());
+        assertEquals(2, result.homeGoals());
+        await(() -> dbRequest.upserts().size() == 2);
+    }
+
+    @Test
+    void firstPrimaryResultWins() throws Exception {
+        store.start();
+        store.record(fixture(FixtureSource.PRIMARY, 2, 0));
+        store.record(fixture(FixtureSource.PRIMARY, 3, 0));
+        store.record(fixture(FixtureSource.SECONDARY_EXACT, 1, 0));
+
+        assertEquals(2, store.get(FIXTURE_ID).homeGoals());
+        await(() -> dbRequest.upserts().size() == 1);
+        Thread.sleep(50);
+        assertEquals(1, dbRequest.upserts().size());
+    }
+
+    @Test
+    void untrustedAndUnfinishedResultsAreNotRecorded() {
+        store.start();
+        store.record(fixture(FixtureSource.SECONDARY, 1, 0));
+        store.record(new Fixture("Premier League", 39, 2024, FIXTURE_ID, "2024-04-13T14:00:00+00:00", "Home", null,
+                "Away", null, "2H", 1, 0, 0, 0, 80, FixtureSource.PRIMARY));
+
+        assertNull(store.get(FIXTURE_ID));
+        assertTrue(dbRequest.upserts().isEmpty());
+    }
+
+    @Test
+    void storedResultIsReadOnceAndKept() {
+        store.start();
+        dbRequest.rows.add(Map.of("fixture_id", FIXTURE_ID, "status", "FT", "home_goals", 2, "away_goals", 1,
+                "home_penalties", -1, "away_penalties", -1, "source", "PRIMARY"));
+
+        assertEquals(2, store.get(FIXTURE_ID).homeGoals());
+        assertEquals(2, store.get(FIXTURE_ID).homeGoals());
+        assertEquals(1, dbRequest.queries);
+    }
+
+    @Test
+    void resultsAreKeptInMemoryWithoutTheTable() {
+        dbRequest.failing = true;
+        store.start();
+        store.record(fixture(FixtureSource.PRIMARY, 2, 0));
+
+        assertEquals(2, store.get(FIXTURE_ID).homeGoals());
+        assertEquals(0, dbRequest.queries);
+    }
+
+    private static Fixture fixture(FixtureSource source, int homeGoals, int awayGoals) {
+        return new Fixture("Premier League", 39, 2024, FIXTURE_ID, "2024-04-13T14:00:00+00:00", "Home", null, "Away", null,
+                "FT", homeGoals, awayGoals, -1, -1, 90, source);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    private static final class FakeDbRequest implements DbRequest {
+        private final List<String> executed = new CopyOnWriteArrayList<>();
+        private final List<Map<String, Object>> rows = new ArrayList<>();
+        private volatile boolean failing;
+        private int queries;
+
+        List<String> upserts() {
+            return executed.stream().filter(query -> query.startsWith("INSERT")).toList();
+        }
+
+        @Override
+        public int execute(String query, Object... params) throws SQLException {
+            if (failing) throw new SQLException("unavailable");
+            executed.add(query);
+            return 1;
+        }
+
+        @Override
+        public List<Map<String, Object>> query(String query, Object... params) {
+            queries++;
+            return rows;
+        }
+
+        @Override
+        public void beginTransaction() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addOperationToTransaction(String query, Object... params) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void commitTransaction() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void rollbackTransaction() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package service.app.user.activity.bet;
+
+import org.junit.jupiter.api.Test;
+import service.app.fixture.FixtureService;
+import service.app.fixture.common.model.Fixture;
+import service.app.fixture.common.model.FixtureSource;
+import service.app.fixture.lifecycle.FixtureLifecycle;
+import service.app.fixture.result.FixtureResult;
+import service.app.fixture.result.FixtureResultStore;
+import service.app.user.activity.bet.dao.inferfaces.BetEditor;
+import service.app.user.activity.bet.dao.inferfaces.BetPlacer;
+import service.app.user.activity.bet.dao.inferfaces.BetRetriever;
+import service.app.user.activity.bet.helper.BetHelper;
+import service.app.user.activity.bet.helper.FixtureValidator;
+import service.app.user.activity.transact.TransactionService;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BettingServiceImplTest {
+
+    private static final int UID = 5;
+    private static final int BET_ID = 11;
+    private static final int FIXTURE_ID = 7;
+
+    private final List<String> statusChanges = new ArrayList<>();
+    private final List<Double> payouts = new ArrayList<>();
+    private final List<Fixture> recorded = new ArrayList<>();
+    private final Map<Integer, FixtureResult> storedResults = new HashMap<>();
+    private final Map<Integer, Fixture> fetched = new HashMap<>();
+
+    @Test
+    void primaryFinalResultSettlesTheBet() throws Exception {
+        fetched.put(FIXTURE_ID, fixture(FixtureSource.PRIMARY));
+
+        assertEquals(1, service().claimBets(UID));
+        assertEquals(List.of("won"), statusChanges);
+        assertEquals(List.of(20.0), payouts);
+        assertEquals(1, recorded.size());
+    }
+
+    @Test
+    void secondaryFinalResultLeavesTheBetPending() throws Exception {
+        fetched.put(FIXTURE_ID, fixture(FixtureSource.SECONDARY));
+
+        assertEquals(0, service().claimBets(UID));
+        assertTrue(statusChanges.isEmpty());
+        assertTrue(payouts.isEmpty());
+        assertTrue(recorded.isEmpty());
+    }
+
+    @Test
+    void exactlyMatchedSecondaryResultSettlesTheBet() throws Exception {
+        fetched.put(FIXTURE_ID, fixture(FixtureSource.SECONDARY_EXACT));
+
+        assertEquals(1, service().claimBets(UID));
+        assertEquals(List.of("won"), statusChanges);
+    }
+
+    @Test
+    void storedResultSettlesWithoutFetching() throws Exception {
+        storedResults.put(FIXTURE_ID, FixtureResult.of(fixture(FixtureSource.PRIMARY)));
+
+        assertEquals(1, service().claimBets(UID));
+        assertEquals(List.of("won"), statusChanges);
+        assertTrue(recorded.isEmpty());
+    }
+
+    private BettingServiceImpl service() {
+        BetRetriever betRetriever = fake(BetRetriever.class, (method, args) -> method.equals("retrieveBets") ? List.of(bet()) : null);
+        BetEditor betEditor = fake(BetEditor.class, (method, args) -> {
+            statusChanges.add((String) args[1]);
+            return new BetEditor.BetEditorOutput(UID, 10);
+        });
+        TransactionService transactionService = fake(TransactionService.class, (method, args) -> {
+            if (method.equals("addMoney")) payouts.add((double) args[1]);
+            return 0;
+        });
+        FixtureService fixtureService = fake(FixtureService.class, (method, args) -> {
+            if (!method.equals("getFixturesByIDs")) throw new UnsupportedOperationException(method);
+            Map<Integer, Fixture> found = new HashMap<>();
+            for (Object id : (Collection<?>) args[0]) {
+                if (fetched.containsKey(id)) found.put((Integer) id, fetched.get(id));
+            }
+            return found;
+        });
+        FixtureResultStore fixtureResultStore = new FixtureResultStore() {
+            @Override
+            public void record(Fixture fixture) {
+                recorded.add(fixture);
+            }
+
+            @Override
+            public FixtureResult get(int fixtureId) {
+                return storedResults.get(fixtureId);
+            }
+
+            @Override
+            public Map<Integer, FixtureResult> getAll(Collection<Integer> fixtureIds) {
+                Map<Integer, FixtureResult> found = new HashMap<>();
+                fixtureIds.forEach(id -> {
+                    if (storedResults.containsKey(id)) found.put(id, storedResults.get(id));
+                });
+                return found;
+            }
+        };
+
+        return new BettingServiceImpl(fake(BetPlacer.class, (method, args) -> 0), betEditor, betRetriever,
+                fake(BetHelper.class, (method, args) -> null), transactionService,
+                fake(FixtureValidator.class, (method, args) -> true), fixtureService,
+                fake(FixtureLifecycle.class, (method, args) -> null), fixtureResultStore);
+    }
+
+    private static Map<String, Object> bet() {
+        Map<String, Object> bet = new HashMap<>();
+        bet.put("status", "pending");
+        bet.put("bet_id", BET_ID);
+        bet.put("fixture_id", FIXTURE_ID);
+        bet.put("bet_amount", new BigDecimal("10"));
+        bet.put("bet_type", "WIN");
+        bet.put("selected_bet", "Home");
+        bet.put("win_multiplier", new BigDecimal("2"));
+        return bet;
+    }
+
+    private static Fixture fixture(FixtureSource source) {
+        return new Fixture("Premier League", 39, 2024, FIXTURE_ID, "2024-04-13T14:00:00+00:00", "Home", null, "Away", null,
+                "FT", 2, 0, 0, 0, 90, source);
+    }
+
+    private interface Answer {
+        Object answer(String method, Object[] args) throws Exception;
+    }
+
+    /**
+     * Implements the collaborators whose other methods the settlement does not call
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T fake(Class<T> type, Answer answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> answer.answer(method.getName(), args));
+    }
+}
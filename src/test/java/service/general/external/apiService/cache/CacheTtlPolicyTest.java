@@ -0,0 +1,92 @@
+package service.general.external.apiService.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import service.general.external.apiService.ApiResponse;
+import service.general.external.apiService.RequestKey;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CacheTtlPolicyTest {
+
+    private static final RequestKey FIXTURES = RequestKey.of("fixtures", Map.of("league", "39", "season", "2024"));
+    private static final RequestKey ODDS = RequestKey.of("odds", Map.of("fixture", "7"));
+    private static final RequestKey LEAGUES = RequestKey.of("leagues", Map.of());
+
+    private final CacheTtlPolicy policy = new CacheTtlPolicy(status -> status != null && Set.of("FT", "AET", "PEN").contains(status));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(policy, "leaguesTtlSeconds", 21600L);
+        ReflectionTestUtils.setField(policy, "oddsTtlSeconds", 300L);
+        ReflectionTestUtils.setField(policy, "fixturesLiveTtlSeconds", 15L);
+        ReflectionTestUtils.setField(policy, "fixturesScheduledTtlSeconds", 600L);
+        ReflectionTestUtils.setField(policy, "emptyTtlSeconds", 60L);
+    }
+
+    @Test
+    void finishedFixturesNeverExpire() {
+        assertEquals(CacheTtlPolicy.FOREVER, policy.ttlMillis(FIXTURES, fixtures("FT", "PEN")));
+    }
+
+    @Test
+    void oneLiveFixtureExpiresTheWholeList() {
+        assertEquals(15_000, policy.ttlMillis(FIXTURES, fixtures("FT", "2H", "NS")));
+    }
+
+    @Test
+    void scheduledOrCancelledFixturesUseTheScheduledTtl() {
+        assertEquals(600_000, policy.ttlMillis(FIXTURES, fixtures("FT", "NS")));
+        assertEquals(600_000, policy.ttlMillis(FIXTURES, fixtures("CANC")));
+    }
+
+    @Test
+    void fixtureWithoutStatusIsNotTakenAsFinished() {
+        assertEquals(600_000, policy.ttlMillis(FIXTURES, response("{\"errors\":[],\"response\":[{\"fixture\":{\"id\":1}}]}")));
+    }
+
+    @Test
+    void emptyResponsesExpireQuickly() {
+        assertEquals(60_000, policy.ttlMillis(FIXTURES, fixtures()));
+        assertEquals(60_000, policy.ttlMillis(ODDS, response("{\"errors\":[],\"response\":[]}")));
+    }
+
+    @Test
+    void otherEndpointsUseTheirTtl() {
+        assertEquals(300_000, policy.ttlMillis(ODDS, response("{\"errors\":[],\"response\":[{}]}")));
+        assertEquals(21_600_000, policy.ttlMillis(LEAGUES, response("{\"errors\":[],\"response\":[{}]}")));
+        assertEquals(0, policy.ttlMillis(RequestKey.of("teams", Map.of()), response("{\"errors\":[],\"response\":[{}]}")));
+    }
+
+    @Test
+    void responsesWithErrorsAreNotCached() {
+        ApiResponse response = new ApiResponse(200, Map.of(), "{\"response\":[]}".getBytes(StandardCharsets.UTF_8),
+                "{\"requests\":\"limit reached\"}", 0);
+        assertEquals(0, policy.ttlMillis(LEAGUES, response));
+    }
+
+    @Test
+    void unreadableResponsesAreNotCached() {
+        assertEquals(0, policy.ttlMillis(FIXTURES, response("not json")));
+        assertEquals(0, policy.ttlMillis(ODDS, response("not json")));
+    }
+
+    private static ApiResponse fixtures(String... statuses) {
+        StringBuilder body = new StringBuilder("{\"errors\":[],\"response\":[");
+        for (int i = 0; i < statuses.length; i++) {
+            if (i > 0) body.append(',');
+            body.append("{\"fixture\":{\"id\":").append(i + 1).append(",\"status\":{\"long\":\"\",\"short\":\"")
+                    .append(statuses[i]).append("\"}},\"goals\":{\"home\":0}}");
+        }
+        return response(body.append("]}").toString());
+    }
+
+    private static ApiResponse response(String body) {
+        return new ApiResponse(200, Map.of(), body.getBytes(StandardCharsets.UTF_8), "[]", 0);
+    }
+}
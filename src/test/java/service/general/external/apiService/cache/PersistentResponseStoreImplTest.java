@@ -0,0 +1,106 @@
+package service.general.external.apiService.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import service.general.external.apiService.ApiResponse;
+import service.general.external.apiService.RequestKey;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PersistentResponseStoreImplTest {
+
+    private static final RequestKey KEY = RequestKey.of("fixtures", Map.of("id", "1035034"));
+    private static final RequestKey OTHER_KEY = RequestKey.of("fixtures", Map.of("id", "1035035"));
+
+    @TempDir
+    Path directory;
+
+    private final List<PersistentResponseStoreImpl> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeStores() {
+        opened.forEach(PersistentResponseStoreImpl::shutdown);
+    }
+
+    @Test
+    void responsesSurviveRestart() {
+        PersistentResponseStoreImpl store = open();
+        store.put(KEY, response("{\"response\":[1]}"));
+        store.shutdown();
+
+        CachedResponse restored = open().get(KEY);
+        assertNotNull(restored);
+        assertEquals("{\"response\":[1]}", new String(restored.response().body(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void removedResponsesStayRemovedAfterRestart() {
+        PersistentResponseStoreImpl store = open();
+        store.put(KEY, response("{\"response\":[1]}"));
+        store.put(OTHER_KEY, response("{\"response\":[2]}"));
+        store.remove(KEY);
+        assertNull(store.get(KEY));
+        store.shutdown();
+
+        PersistentResponseStoreImpl restarted = open();
+        assertNull(restarted.get(KEY));
+        assertNotNull(restarted.get(OTHER_KEY));
+    }
+
+    @Test
+    void putAfterRemoveIsKept() {
+        PersistentResponseStoreImpl store = open();
+        store.put(KEY, response("{\"response\":[1]}"));
+        store.remove(KEY);
+        store.put(KEY, response("{\"response\":[3]}"));
+        store.shutdown();
+
+        CachedResponse restored = open().get(KEY);
+        assertNotNull(restored);
+        assertEquals("{\"response\":[3]}", new String(restored.response().body(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void rateLimitHeadersSurviveRestart() {
+        PersistentResponseStoreImpl store = open();
+        long now = System.currentTimeMillis();
+        ApiResponse response = new ApiResponse(200,
+                Map.of("x-ratelimit-requests-remaining", List.of("42"), "content-type", List.of("application/json")),
+                "{\"response\":[1]}".getBytes(StandardCharsets.UTF_8), "[]", now);
+        store.put(KEY, new CachedResponse(response, now + 60_000, now + 120_000));
+        store.shutdown();
+
+        CachedResponse restored = open().get(KEY);
+        assertNotNull(restored);
+        assertEquals("42", restored.response().header("X-RateLimit-Requests-Remaining"));
+        assertNull(restored.response().header("content-type"));
+    }
+
+    private PersistentResponseStoreImpl open() {
+        PersistentResponseStoreImpl store = new PersistentResponseStoreImpl();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "directory", directory.toString());
+        ReflectionTestUtils.setField(store, "segmentBytes", 1 << 16);
+        ReflectionTestUtils.setField(store, "compactIntervalSeconds", 3600L);
+        ReflectionTestUtils.setField(store, "compactLiveRatio", 0.5);
+        store.init();
+        opened.add(store);
+        return store;
+    }
+
+    private static CachedResponse response(String body) {
+        long now = System.currentTimeMillis();
+        ApiResponse response = new ApiResponse(200, Map.of(), body.getBytes(StandardCharsets.UTF_8), "[]", System.currentTimeMillis());
+        return new CachedResponse(response, now + 60_000, now + 120_000);
+    }
+}
@@ -0,0 +1,78 @@
+package service.general.external.apiService.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SegmentFileTest {
+
+    private static final int CAPACITY = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void scanRecoversAppendedRecords() throws IOException {
+        Path path = directory.resolve("test.seg");
+        try (SegmentFile segment = SegmentFile.open(path, CAPACITY)) {
+            segment.append(bytes("first"));
+            segment.append(bytes("second"));
+        }
+
+        List<String> records = new ArrayList<>();
+        try (SegmentFile segment = SegmentFile.open(path, CAPACITY)) {
+            segment.scan((position, payload) -> records.add(new String(payload, StandardCharsets.UTF_8)));
+            assertEquals(List.of("first", "second"), records);
+            assertEquals("second", new String(segment.read(4 + 4 + 5), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void scanStopsAtCorruptRecordAndAppendOverwritesIt() throws IOException {
+        Path path = directory.resolve("test.seg");
+        int corrupted;
+        try (SegmentFile segment = SegmentFile.open(path, CAPACITY)) {
+            segment.append(bytes("intact"));
+            corrupted = segment.append(bytes("torn"));
+        }
+        // flip a payload byte of the second record, as a write cut short by a crash would leave it
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(corrupted + 8);
+            file.write('x');
+        }
+
+        List<String> records = new ArrayList<>();
+        try (SegmentFile segment = SegmentFile.open(path, CAPACITY)) {
+            segment.scan((position, payload) -> records.add(new String(payload, StandardCharsets.UTF_8)));
+            assertEquals(List.of("intact"), records);
+            assertEquals(corrupted, segment.writePosition());
+            assertEquals(corrupted, segment.append(bytes("replacement")));
+        }
+
+        records.clear();
+        try (SegmentFile segment = SegmentFile.open(path, CAPACITY)) {
+            segment.scan((position, payload) -> records.add(new String(payload, StandardCharsets.UTF_8)));
+        }
+        assertEquals(List.of("intact", "replacement"), records);
+    }
+
+    @Test
+    void appendReturnsMinusOneWhenFull() throws IOException {
+        try (SegmentFile segment = SegmentFile.open(directory.resolve("test.seg"), 32)) {
+            assertEquals(0, segment.append(new byte[20]));
+            assertEquals(-1, segment.append(new byte[20]));
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
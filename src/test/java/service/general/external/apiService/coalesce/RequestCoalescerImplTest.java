@@ -0,0 +1,127 @@
+package service.general.external.apiService.coalesce;
+
+import org.junit.jupiter.api.Test;
+import service.general.external.apiService.ApiResponse;
+import service.general.external.apiService.RequestKey;
+import service.general.external.apiService.quota.RequestPriority;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCoalescerImplTest {
+
+    private static final RequestKey KEY = RequestKey.of("fixtures", Map.of("id", "1035034"));
+
+    private final RequestCoalescerImpl coalescer = new RequestCoalescerImpl();
+
+    @Test
+    void concurrentCallersShareOneUpstreamCall() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<ApiResponse> upstream = new CompletableFuture<>();
+
+        CompletableFuture<ApiResponse> first = coalescer.coalesce(KEY, RequestPriority.BROWSE, () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<ApiResponse> second = coalescer.coalesce(KEY, RequestPriority.BROWSE, () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+
+        ApiResponse response = response();
+        upstream.complete(response);
+
+        assertEquals(1, calls.get());
+        assertSame(response, first.join());
+        assertSame(response, second.join());
+        assertEquals(1, coalescer.stats().savedCalls());
+    }
+
+    @Test
+    void cancellingOneCallerLeavesTheOthersAndTheUpstreamCall() {
+        CompletableFuture<ApiResponse> upstream = new CompletableFuture<>();
+        CompletableFuture<ApiResponse> first = coalescer.coalesce(KEY, RequestPriority.BROWSE, () -> upstream);
+        CompletableFuture<ApiResponse> second = coalescer.coalesce(KEY, RequestPriority.BROWSE, () -> upstream);
+
+        first.cancel(true);
+        assertFalse(upstream.isCancelled());
+        assertFalse(second.isDone());
+
+        ApiResponse response = response();
+        upstream.complete(response);
+        assertTrue(first.isCancelled());
+        assertSame(response, second.join());
+    }
+
+    @Test
+    void callersOfAnotherPriorityStartTheirOwnCall() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<ApiResponse> browse = new CompletableFuture<>();
+        CompletableFuture<ApiResponse> settlement = new CompletableFuture<>();
+
+        CompletableFuture<ApiResponse> first = coalescer.coalesce(KEY, RequestPriority.BROWSE, () -> {
+            calls.incrementAndGet();
+            return browse;
+        });
+        CompletableFuture<ApiResponse> second = coalescer.coalesce(KEY, RequestPriority.SETTLEMENT, () -> {
+            calls.incrementAndGet();
+            return settlement;
+        });
+
+        // the browse call is rejected by its reserve, the settlement call is not affected
+        browse.completeExceptionally(new IllegalStateException("quota reserved"));
+        ApiResponse response = response();
+        settlement.complete(response);
+
+        assertEquals(2, calls.get());
+        assertThrows(RuntimeException.class, first::join);
+        assertSame(response, second.join());
+    }
+
+    @Test
+    void completedCallIsNotReused() {
+        AtomicInteger calls = new AtomicInteger();
+        coalescer.coalesce(KEY, RequestPriority.BROWSE, () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(response());
+        }).join();
+        coalescer.coalesce(KEY, RequestPriority.BROWSE, () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(response());
+        }).join();
+
+        assertEquals(2, calls.get());
+        assertEquals(0, coalescer.stats().inFlight());
+    }
+
+    @Test
+    void loaderFailureReachesEveryCallerAndFreesTheKey() {
+        CompletableFuture<ApiResponse> upstream = new CompletableFuture<>();
+        CompletableFuture<ApiResponse> first = coalescer.coalesce(KEY, RequestPriority.BROWSE, () -> upstream);
+        CompletableFuture<ApiResponse> second = coalescer.coalesce(KEY, RequestPriority.BROWSE, () -> upstream);
+
+        upstream.completeExceptionally(new IllegalStateException("upstream failed"));
+
+        assertThrows(RuntimeException.class, first::join);
+        assertThrows(RuntimeException.class, second::join);
+        assertEquals(0, coalescer.stats().inFlight());
+
+        CompletableFuture<ApiResponse> thrown = coalescer.coalesce(KEY, RequestPriority.BROWSE, () -> {
+            throw new IllegalStateException("loader failed");
+        });
+        assertTrue(thrown.isCompletedExceptionally());
+        assertEquals(0, coalescer.stats().inFlight());
+    }
+
+    private static ApiResponse response() {
+        return new ApiResponse(200, Map.of(), "{}".getBytes(StandardCharsets.UTF_8), null, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,61 @@
+package service.general.external.apiService.quota;
+
+import common.exception.gen.RateLimitException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import service.general.external.apiService.RequestKey;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuotaGovernorImplTest {
+
+    private static final RequestKey KEY = RequestKey.of("fixtures", Map.of("id", "1035034"));
+
+    private QuotaGovernorImpl governor;
+
+    @BeforeEach
+    void setUp() {
+        governor = new QuotaGovernorImpl();
+        ReflectionTestUtils.setField(governor, "initialDailyLimit", 100L);
+        ReflectionTestUtils.setField(governor, "initialMinuteLimit", 100L);
+        ReflectionTestUtils.setField(governor, "betValidationReserve", 0.05);
+        ReflectionTestUtils.setField(governor, "browseReserve", 0.25);
+        governor.init();
+    }
+
+    @Test
+    void lowerPrioritiesLeaveTheirReserve() {
+        governor.record(Map.of("x-ratelimit-requests-remaining", List.of("20")));
+
+        RateLimitException rejected = assertThrows(RateLimitException.class, () -> governor.acquire(KEY, RequestPriority.BROWSE));
+        assertTrue(rejected.getRetryAfterSeconds() > 0);
+        assertDoesNotThrow(() -> governor.acquire(KEY, RequestPriority.BET_VALIDATION));
+        assertDoesNotThrow(() -> governor.acquire(KEY, RequestPriority.SETTLEMENT));
+
+        QuotaStats stats = governor.stats();
+        assertEquals(1, (long) stats.rejected().get(RequestPriority.BROWSE));
+        assertEquals(1, (long) stats.admitted().get(RequestPriority.SETTLEMENT));
+    }
+
+    @Test
+    void settlementUsesTheQuotaDownToTheLastRequest() {
+        governor.record(Map.of("x-ratelimit-requests-remaining", List.of("1")));
+
+        assertDoesNotThrow(() -> governor.acquire(KEY, RequestPriority.SETTLEMENT));
+        assertThrows(RateLimitException.class, () -> governor.acquire(KEY, RequestPriority.SETTLEMENT));
+    }
+
+    @Test
+    void exhaustedQuotaRejectsEveryPriority() {
+        governor.exhausted(false);
+
+        assertThrows(RateLimitException.class, () -> governor.acquire(KEY, RequestPriority.SETTLEMENT));
+    }
+}
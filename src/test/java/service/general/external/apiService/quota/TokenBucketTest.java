@@ -0,0 +1,47 @@
+package service.general.external.apiService.quota;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    @Test
+    void keepsTheReserve() {
+        TokenBucket bucket = new TokenBucket(10, DAY_MILLIS);
+
+        for (int i = 0; i < 7; i++) {
+            assertTrue(bucket.tryAcquire(3));
+        }
+        assertFalse(bucket.tryAcquire(3));
+        assertTrue(bucket.tryAcquire(0));
+        assertEquals(2, bucket.available());
+    }
+
+    @Test
+    void reconcileNeverRaisesTokensAboveWhatTheApiReports() {
+        TokenBucket bucket = new TokenBucket(100, DAY_MILLIS);
+
+        bucket.reconcile(200, 50);
+        assertEquals(200, bucket.capacity());
+        assertEquals(50, bucket.available());
+
+        bucket.reconcile(-1, 80);
+        assertEquals(200, bucket.capacity());
+        assertEquals(50, bucket.available());
+    }
+
+    @Test
+    void millisUntilFollowsTheRefillRate() {
+        TokenBucket bucket = new TokenBucket(60, 60_000);
+        assertEquals(0, bucket.millisUntil(1));
+
+        bucket.drain();
+        long wait = bucket.millisUntil(1);
+        assertTrue(wait > 0 && wait <= 1000, "one token refills within a second, waited " + wait);
+    }
+}
@@ -0,0 +1,97 @@
+package service.general.external.apiService.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_MILLIS = 50;
+
+    private final CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, OPEN_MILLIS);
+
+    @Test
+    void staysClosedBelowTheMinimumCalls() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquirePermission());
+            breaker.onFailure();
+        }
+        assertEquals(CircuitState.CLOSED, breaker.state());
+    }
+
+    @Test
+    void opensAtTheFailureRateAndRejectsCalls() {
+        succeed(2);
+        fail(1);
+        assertEquals(CircuitState.CLOSED, breaker.state());
+        fail(1);
+        assertEquals(CircuitState.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(1, breaker.opens());
+    }
+
+    @Test
+    void halfOpenLetsOneTrialThroughAndClosesOnSuccess() throws InterruptedException {
+        fail(4);
+        Thread.sleep(OPEN_MILLIS + 10);
+
+        assertTrue(breaker.tryAcquirePermission());
+        assertEquals(CircuitState.HALF_OPEN, breaker.state());
+        assertFalse(breaker.tryAcquirePermission());
+
+        breaker.onSuccess();
+        assertEquals(CircuitState.CLOSED, breaker.state());
+        // the window starts over, earlier failures no longer count
+        fail(3);
+        assertEquals(CircuitState.CLOSED, breaker.state());
+    }
+
+    @Test
+    void failedTrialOpensAgain() throws InterruptedException {
+        fail(4);
+        Thread.sleep(OPEN_MILLIS + 10);
+
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onFailure();
+        assertEquals(CircuitState.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(2, breaker.opens());
+    }
+
+    @Test
+    void ignoredTrialReleasesThePermission() throws InterruptedException {
+        fail(4);
+        Thread.sleep(OPEN_MILLIS + 10);
+
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onIgnored();
+        assertEquals(CircuitState.HALF_OPEN, breaker.state());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void oldOutcomesLeaveTheWindow() {
+        fail(2);
+        succeed(10);
+        fail(4);
+        assertEquals(CircuitState.CLOSED, breaker.state());
+        fail(1);
+        assertEquals(CircuitState.OPEN, breaker.state());
+    }
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            breaker.tryAcquirePermission();
+            breaker.onFailure();
+        }
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            breaker.tryAcquirePermission();
+            breaker.onSuccess();
+        }
+    }
+}